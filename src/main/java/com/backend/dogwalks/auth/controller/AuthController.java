@@ -2,9 +2,13 @@ package com.backend.dogwalks.auth.controller;
 
 import com.backend.dogwalks.auth.dto.login.LoginRequest;
 import com.backend.dogwalks.auth.dto.login.LoginResponse;
+import com.backend.dogwalks.auth.dto.refresh.RefreshRequest;
+import com.backend.dogwalks.auth.dto.refresh.RefreshResponse;
 import com.backend.dogwalks.auth.dto.register.RegisterRequest;
 import com.backend.dogwalks.auth.dto.register.RegisterResponse;
 import com.backend.dogwalks.auth.service.AuthService;
+import com.backend.dogwalks.security.login.LoginRateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,9 +22,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginRateLimiter loginRateLimiter) {
         this.authService = authService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
     @PostMapping("/register")
@@ -29,7 +35,25 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> loginUser(@Valid @RequestBody LoginRequest request) {
-        return new ResponseEntity<>(authService.loginUser(request), HttpStatus.OK);
+    public ResponseEntity<LoginResponse> loginUser(@Valid @RequestBody LoginRequest request, HttpServletRequest servletRequest) {
+
+        //con server.forward-headers-strategy=native es la IP del cliente aunque haya un proxy delante
+        loginRateLimiter.checkAttempt(request.email(), servletRequest.getRemoteAddr());
+
+        LoginResponse response = authService.loginUser(request);
+        loginRateLimiter.reset(request.email());
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<RefreshResponse> refreshToken(@Valid @RequestBody RefreshRequest request) {
+        return new ResponseEntity<>(authService.refreshToken(request), HttpStatus.OK);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshRequest request) {
+        authService.logout(request);
+        return ResponseEntity.noContent().build();
     }
 }
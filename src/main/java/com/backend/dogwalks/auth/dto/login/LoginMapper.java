@@ -1,10 +1,10 @@
 package com.backend.dogwalks.auth.dto.login;
 
-import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.security.user.CustomUserDetails;
 
 public class LoginMapper {
 
-    public static LoginResponse toDto(String token, String tokenType, CustomUser user) {
-        return new LoginResponse(token, tokenType, user.getId(), user.getUsername(), user.getEmail(), user.getRole(), user.getIsActive());
+    public static LoginResponse toDto(String token, String tokenType, String refreshToken, CustomUserDetails user) {
+        return new LoginResponse(token, tokenType, user.getId(), user.getName(), user.getUsername(), user.getRole(), user.isEnabled(), refreshToken);
     }
 }
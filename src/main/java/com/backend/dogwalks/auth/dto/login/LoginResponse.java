@@ -9,6 +9,7 @@ public record LoginResponse(
         String username,
         String email,
         Role role,
-        Boolean isActive
+        Boolean isActive,
+        String refreshToken
 ) {
 }
@@ -0,0 +1,10 @@
+package com.backend.dogwalks.auth.dto.refresh;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(
+
+        @NotBlank(message = "Refresh token is required")
+        String refreshToken
+) {
+}
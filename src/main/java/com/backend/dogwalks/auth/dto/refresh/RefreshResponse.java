@@ -0,0 +1,8 @@
+package com.backend.dogwalks.auth.dto.refresh;
+
+public record RefreshResponse(
+        String token,
+        String tokenType,
+        String refreshToken
+) {
+}
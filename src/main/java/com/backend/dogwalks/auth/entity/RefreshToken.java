@@ -0,0 +1,60 @@
+package com.backend.dogwalks.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+//solo se guarda el hash SHA-256 del refresh token; todos los tokens que salen de un mismo login comparten familia
+@Entity
+@Table(name = "refresh_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64, name = "token_hash")
+    private String tokenHash;
+
+    @Column(nullable = false, length = 36, name = "family_id")
+    private String familyId;
+
+    //sin FK: al borrar un usuario sus refresh tokens dejan de servir porque el usuario ya no existe
+    @Column(nullable = false, name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false, length = 36, name = "access_token_jti")
+    private String accessTokenJti;
+
+    @Column(nullable = false, name = "access_token_expires_at")
+    private LocalDateTime accessTokenExpiresAt;
+
+    @Column(nullable = false)
+    private Boolean used = false;
+
+    @Column(nullable = false)
+    private Boolean revoked = false;
+
+    @CreationTimestamp
+    @Column(nullable = false, name = "created_at")
+    private LocalDateTime createdAt;
+
+    public RefreshToken(String tokenHash, String familyId, Long userId, LocalDateTime expiresAt, String accessTokenJti, LocalDateTime accessTokenExpiresAt) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.accessTokenJti = accessTokenJti;
+        this.accessTokenExpiresAt = accessTokenExpiresAt;
+    }
+}
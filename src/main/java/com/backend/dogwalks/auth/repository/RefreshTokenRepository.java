@@ -0,0 +1,30 @@
+package com.backend.dogwalks.auth.repository;
+
+import com.backend.dogwalks.auth.entity.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    //bloqueo de fila para que dos refresh simultáneos con el mismo token no roten los dos
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    List<RefreshToken> findByFamilyIdAndRevokedFalse(String familyId);
+    List<RefreshToken> findByUserIdAndRevokedFalse(Long userId);
+    List<RefreshToken> findByRevokedTrueAndAccessTokenExpiresAtAfter(LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now AND r.accessTokenExpiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -3,6 +3,8 @@ package com.backend.dogwalks.auth.service;
 import com.backend.dogwalks.auth.dto.login.LoginMapper;
 import com.backend.dogwalks.auth.dto.login.LoginRequest;
 import com.backend.dogwalks.auth.dto.login.LoginResponse;
+import com.backend.dogwalks.auth.dto.refresh.RefreshRequest;
+import com.backend.dogwalks.auth.dto.refresh.RefreshResponse;
 import com.backend.dogwalks.auth.dto.register.RegisterMapper;
 import com.backend.dogwalks.auth.dto.register.RegisterRequest;
 import com.backend.dogwalks.auth.dto.register.RegisterResponse;
@@ -10,15 +12,14 @@ import com.backend.dogwalks.exception.custom_exception.EntityAlreadyExistsExcept
 import com.backend.dogwalks.exception.custom_exception.InvalidCredentialsException;
 import com.backend.dogwalks.exception.custom_exception.UserNotActiveException;
 import com.backend.dogwalks.security.user.CustomUserDetails;
+import com.backend.dogwalks.security.user.CustomUserDetailsService;
+import com.backend.dogwalks.security.user.jwt.IssuedToken;
 import com.backend.dogwalks.security.user.jwt.JwtUtil;
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.event.UserChangedEvent;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
-import com.backend.dogwalks.user.service.CustomUserService;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,17 +27,19 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class AuthService {
     private final CustomUserRepository customUserRepository;
-    private final CustomUserService customUserService;
+    private final CustomUserDetailsService customUserDetailsService;
     private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public AuthService(CustomUserRepository customUserRepository, CustomUserService customUserService, PasswordEncoder passwordEncoder, AuthenticationManager authenticationManager, JwtUtil jwtUtil) {
+    public AuthService(CustomUserRepository customUserRepository, CustomUserDetailsService customUserDetailsService, PasswordEncoder passwordEncoder, JwtUtil jwtUtil, RefreshTokenService refreshTokenService, ApplicationEventPublisher eventPublisher) {
         this.customUserRepository = customUserRepository;
-        this.customUserService = customUserService;
+        this.customUserDetailsService = customUserDetailsService;
         this.passwordEncoder = passwordEncoder;
-        this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -50,27 +53,42 @@ public class AuthService {
         newUser.setRole(Role.USER);
         CustomUser saveUser = customUserRepository.save(newUser);
 
+        //por si la caché aún guarda un usuario anterior con el mismo e-mail
+        eventPublisher.publishEvent(new UserChangedEvent(saveUser.getId(), saveUser.getEmail(), false));
+
         return RegisterMapper.toDto(saveUser);
     }
 
+    //una sola búsqueda del usuario: el mismo snapshot sirve para comprobar estado, contraseña, token y respuesta
     public LoginResponse loginUser(LoginRequest request) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.email(), request.password()));
-
-            CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
-
-            CustomUser user = customUserService.findUserByEmail(userDetails.getUsername());
 
-            if (!user.getIsActive()) {
-                throw new UserNotActiveException("User account is deactivated");
-            }
+        CustomUserDetails user = customUserDetailsService.loadUserByUsername(request.email());
 
-            String token = jwtUtil.generateToken(userDetails);
-            String tokenType = "Bearer";
+        //antes de bcrypt, así una cuenta desactivada no consume CPU
+        if (!user.isEnabled()) {
+            throw new UserNotActiveException("User account is deactivated");
+        }
 
-            return LoginMapper.toDto(token, tokenType, user);
-        } catch (BadCredentialsException exception) {
+        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
             throw new InvalidCredentialsException("Incorrect e-mail or password");
         }
+
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user = (CustomUserDetails) customUserDetailsService.updatePassword(user, passwordEncoder.encode(request.password()));
+        }
+
+        IssuedToken token = jwtUtil.issueToken(user);
+        String refreshToken = refreshTokenService.createToken(user.getId(), token);
+        String tokenType = "Bearer";
+
+        return LoginMapper.toDto(token.token(), tokenType, refreshToken, user);
+    }
+
+    public RefreshResponse refreshToken(RefreshRequest request) {
+        return refreshTokenService.rotate(request.refreshToken());
+    }
+
+    public void logout(RefreshRequest request) {
+        refreshTokenService.revoke(request.refreshToken());
     }
 }
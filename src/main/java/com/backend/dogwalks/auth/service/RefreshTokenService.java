@@ -0,0 +1,181 @@
+package com.backend.dogwalks.auth.service;
+
+import com.backend.dogwalks.auth.dto.refresh.RefreshResponse;
+import com.backend.dogwalks.auth.entity.RefreshToken;
+import com.backend.dogwalks.auth.repository.RefreshTokenRepository;
+import com.backend.dogwalks.exception.custom_exception.InvalidCredentialsException;
+import com.backend.dogwalks.security.user.CustomUserDetails;
+import com.backend.dogwalks.security.user.jwt.IssuedToken;
+import com.backend.dogwalks.security.user.jwt.JwtUtil;
+import com.backend.dogwalks.security.user.jwt.RevokedTokenRegistry;
+import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+//refresh tokens de un solo uso: cada refresh rota el token y reutilizar uno ya usado revoca toda la familia
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final String INVALID_REFRESH_TOKEN = "Invalid refresh token";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final CustomUserRepository customUserRepository;
+    private final JwtUtil jwtUtil;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final long refreshExpiration;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               CustomUserRepository customUserRepository,
+                               JwtUtil jwtUtil,
+                               RevokedTokenRegistry revokedTokenRegistry,
+                               @Value("${app.jwt.refresh-expiration:1209600000}") long refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.customUserRepository = customUserRepository;
+        this.jwtUtil = jwtUtil;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    //nueva familia en cada login
+    @Transactional
+    public String createToken(Long userId, IssuedToken accessToken) {
+        return saveToken(UUID.randomUUID().toString(), userId, accessToken);
+    }
+
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    public RefreshResponse rotate(String rawToken) {
+
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new InvalidCredentialsException(INVALID_REFRESH_TOKEN));
+
+        if (current.getRevoked()) {
+            throw new InvalidCredentialsException(INVALID_REFRESH_TOKEN);
+        }
+
+        //un token ya rotado que vuelve a llegar indica robo: se corta toda la familia
+        if (current.getUsed()) {
+            log.warn("Refresh token reuse detected for user {}, revoking family {}", current.getUserId(), current.getFamilyId());
+            revokeFamily(current.getFamilyId());
+            throw new InvalidCredentialsException(INVALID_REFRESH_TOKEN);
+        }
+
+        if (!current.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new InvalidCredentialsException(INVALID_REFRESH_TOKEN);
+        }
+
+        CustomUser user = customUserRepository.findById(current.getUserId())
+                .filter(CustomUser::getIsActive)
+                .orElse(null);
+
+        if (user == null) {
+            revokeFamily(current.getFamilyId());
+            throw new InvalidCredentialsException(INVALID_REFRESH_TOKEN);
+        }
+
+        current.setUsed(true);
+
+        IssuedToken accessToken = jwtUtil.issueToken(new CustomUserDetails(user));
+        String refreshToken = saveToken(current.getFamilyId(), user.getId(), accessToken);
+
+        return new RefreshResponse(accessToken.token(), "Bearer", refreshToken);
+    }
+
+    //logout: se revoca la familia entera, incluido el access token emitido con ella
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> revokeFamily(token.getFamilyId()));
+    }
+
+    @EventListener
+    @Transactional
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.revokesTokens()) {
+            revokeAll(refreshTokenRepository.findByUserIdAndRevokedFalse(event.userId()));
+        }
+    }
+
+    //la lista en memoria se pierde al reiniciar; se recarga con los access tokens revocados que aún no han caducado
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void restoreRevokedTokens() {
+        refreshTokenRepository.findByRevokedTrueAndAccessTokenExpiresAtAfter(LocalDateTime.now())
+                .forEach(token -> revokedTokenRegistry.revoke(token.getAccessTokenJti(), toEpochMillis(token.getAccessTokenExpiresAt())));
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-cleanup-interval:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private void revokeFamily(String familyId) {
+        revokeAll(refreshTokenRepository.findByFamilyIdAndRevokedFalse(familyId));
+    }
+
+    private void revokeAll(List<RefreshToken> tokens) {
+        for (RefreshToken token : tokens) {
+            token.setRevoked(true);
+            revokedTokenRegistry.revoke(token.getAccessTokenJti(), toEpochMillis(token.getAccessTokenExpiresAt()));
+        }
+    }
+
+    private String saveToken(String familyId, Long userId, IssuedToken accessToken) {
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken(
+                hash(rawToken),
+                familyId,
+                userId,
+                LocalDateTime.now().plusNanos(refreshExpiration * 1_000_000),
+                accessToken.jti(),
+                toLocalDateTime(accessToken.expiresAt())
+        );
+
+        refreshTokenRepository.save(refreshToken);
+
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 not available", exception);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
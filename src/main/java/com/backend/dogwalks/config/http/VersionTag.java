@@ -0,0 +1,47 @@
+package com.backend.dogwalks.config.http;
+
+import com.backend.dogwalks.exception.custom_exception.PreconditionFailedException;
+
+//ETag fuerte a partir de la columna @Version de una entidad; If-Match se compara con ella en vez de bloquear la fila
+public final class VersionTag {
+
+    private VersionTag() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    //null sin cabecera o con "*": la escritura no depende de la versión; se admite una sola etiqueta
+    public static Long parseIfMatch(String ifMatch) {
+
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+
+        //If-Match usa comparación fuerte: una etiqueta débil nunca coincide
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("Weak entity tags cannot be used with If-Match", null);
+        }
+
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a quoted entity tag");
+        }
+
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException exception) {
+            throw new PreconditionFailedException("Entity tag " + tag + " does not match the current version", null);
+        }
+    }
+
+    //antes de escribir; el WHERE version = ? de hibernate cubre lo que cambie entre la lectura y el UPDATE
+    public static void check(Long expectedVersion, Long currentVersion) {
+
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new PreconditionFailedException("Resource has been modified, current version is " + currentVersion, of(currentVersion));
+        }
+    }
+}
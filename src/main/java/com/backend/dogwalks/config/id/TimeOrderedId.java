@@ -0,0 +1,15 @@
+package com.backend.dogwalks.config.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//sustituye a @GeneratedValue(strategy = IDENTITY): el id se asigna antes del INSERT y hibernate puede agrupar las inserciones en lotes
+@IdGeneratorType(TimeOrderedIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
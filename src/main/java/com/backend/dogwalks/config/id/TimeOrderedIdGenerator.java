@@ -0,0 +1,59 @@
+package com.backend.dogwalks.config.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+//el nodo se lee de spring.jpa.properties: cada instancia de la aplicación necesita su propio app.id.node-id
+@Slf4j
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+
+    static final String NODE_BITS = "app.id.node-bits";
+    static final String NODE_ID = "app.id.node-id";
+    static final int DEFAULT_NODE_BITS = 4;
+
+    private final TimeOrderedIdSource source;
+
+    public TimeOrderedIdGenerator(TimeOrderedId config, Member member, CustomIdGeneratorCreationContext context) {
+
+        ConfigurationService configuration = context.getServiceRegistry().requireService(ConfigurationService.class);
+        int nodeBits = configuration.getSetting(NODE_BITS, StandardConverters.INTEGER, DEFAULT_NODE_BITS);
+        String nodeId = configuration.getSetting(NODE_ID, StandardConverters.STRING, "");
+
+        //sin node-id todas las instancias generan en el mismo espacio: vale para una sola instancia, no para varias
+        if (nodeId.isBlank()) {
+            log.warn("No {} configured for {}.{}: using node 0, so running more than one instance can produce duplicate ids",
+                    NODE_ID, member.getDeclaringClass().getSimpleName(), member.getName());
+            nodeId = "0";
+        }
+
+        this.source = new TimeOrderedIdSource(nodeBits, parseNodeId(nodeId));
+    }
+
+    private static long parseNodeId(String nodeId) {
+
+        try {
+            return Long.parseLong(nodeId.trim());
+        } catch (NumberFormatException exception) {
+            throw new IllegalArgumentException("Node id must be a number: " + nodeId);
+        }
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return source.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
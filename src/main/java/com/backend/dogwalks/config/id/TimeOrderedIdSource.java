@@ -0,0 +1,61 @@
+package com.backend.dogwalks.config.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+//ids de 53 bits: 41 de milisegundos desde EPOCH, nodeBits de nodo y el resto de secuencia dentro del milisegundo
+//caben en un double, así los clientes JavaScript los leen sin perder precisión
+//sin bloqueos: el estado (milisegundo, secuencia) avanza con CAS; si la secuencia se agota o el reloj retrocede
+//se toma el milisegundo siguiente, así los ids siempre crecen y los INSERT van al final del índice
+public class TimeOrderedIdSource {
+
+    public static final long EPOCH = Instant.parse("2025-01-01T00:00:00Z").toEpochMilli();
+    static final int TIMESTAMP_BITS = 41;
+    static final int LOW_BITS = 12;
+    static final int MAX_NODE_BITS = 8;
+
+    private final int sequenceBits;
+    private final long nodePart;
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    public TimeOrderedIdSource(int nodeBits, long nodeId) {
+        this(nodeBits, nodeId, System::currentTimeMillis);
+    }
+
+    TimeOrderedIdSource(int nodeBits, long nodeId, LongSupplier clock) {
+
+        if (nodeBits < 0 || nodeBits > MAX_NODE_BITS) {
+            throw new IllegalArgumentException("Node bits must be between 0 and " + MAX_NODE_BITS);
+        }
+        if (nodeId < 0 || nodeId >= 1L << nodeBits) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + ((1L << nodeBits) - 1));
+        }
+
+        this.sequenceBits = LOW_BITS - nodeBits;
+        this.nodePart = nodeId << sequenceBits;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+
+        while (true) {
+            long last = state.get();
+            long now = clock.getAsLong() - EPOCH;
+            //last + 1 pasa al milisegundo siguiente cuando la secuencia está llena
+            long next = now > last >>> sequenceBits ? now << sequenceBits : last + 1;
+
+            if (state.compareAndSet(last, next)) {
+                long millis = next >>> sequenceBits;
+                long sequence = next & ((1L << sequenceBits) - 1);
+
+                return millis << LOW_BITS | nodePart | sequence;
+            }
+        }
+    }
+
+    public static long millisOf(long id) {
+        return EPOCH + (id >>> LOW_BITS);
+    }
+}
@@ -0,0 +1,43 @@
+package com.backend.dogwalks.config.jdbc;
+
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.conf.RuntimeProperty;
+import com.mysql.cj.jdbc.JdbcConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+//único punto que conoce las clases de Connector/J: activar useCursorFetch en todo el pool convertiría cada consulta
+//en una sentencia preparada en el servidor (un viaje más por sentencia, sin caché), así que se activa por conexión
+public final class MySqlCursorFetch {
+
+    private static final Runnable NOTHING_TO_RESTORE = () -> {
+    };
+
+    private MySqlCursorFetch() {
+    }
+
+    //devuelve cómo dejar la conexión como estaba; con otro driver no cambia nada
+    public static Runnable enable(Connection connection) throws SQLException {
+
+        if (!connection.isWrapperFor(JdbcConnection.class)) {
+            return NOTHING_TO_RESTORE;
+        }
+
+        PropertySet properties = connection.unwrap(JdbcConnection.class).getPropertySet();
+        RuntimeProperty<Boolean> serverPrepared = properties.getBooleanProperty(PropertyKey.useServerPrepStmts);
+        RuntimeProperty<Boolean> cursorFetch = properties.getBooleanProperty(PropertyKey.useCursorFetch);
+        boolean wasServerPrepared = serverPrepared.getValue();
+        boolean hadCursorFetch = cursorFetch.getValue();
+
+        //Connector/J solo abre cursores con sentencias preparadas en el servidor
+        serverPrepared.setValue(true);
+        cursorFetch.setValue(true);
+
+        return () -> {
+            cursorFetch.setValue(hadCursorFetch);
+            serverPrepared.setValue(wasServerPrepared);
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.backend.dogwalks.config.time;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+//reloj único para cachés, límites de login y versiones HTTP: los tests pasan su propio Clock en vez de sobrescribir métodos
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+}
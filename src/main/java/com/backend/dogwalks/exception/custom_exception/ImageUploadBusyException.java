@@ -0,0 +1,7 @@
+package com.backend.dogwalks.exception.custom_exception;
+
+public class ImageUploadBusyException extends RuntimeException {
+    public ImageUploadBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.backend.dogwalks.exception.custom_exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
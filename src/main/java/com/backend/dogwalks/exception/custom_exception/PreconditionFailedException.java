@@ -0,0 +1,14 @@
+package com.backend.dogwalks.exception.custom_exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    private final String currentEtag;
+
+    public PreconditionFailedException(String message, String currentEtag) {
+        super(message);
+        this.currentEtag = currentEtag;
+    }
+
+    public String getCurrentEtag() {
+        return currentEtag;
+    }
+}
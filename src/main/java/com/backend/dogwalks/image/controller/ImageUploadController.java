@@ -0,0 +1,34 @@
+package com.backend.dogwalks.image.controller;
+
+import com.backend.dogwalks.image.dto.ImageUploadResponse;
+import com.backend.dogwalks.image.service.ImageUploadService;
+import com.backend.dogwalks.security.user.CustomUserDetails;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+//estado de las subidas aceptadas con 202 en POST /api/walks/{id}/image y POST /api/users/profile/image
+@RestController
+@RequestMapping("/api/uploads")
+public class ImageUploadController {
+
+    private final ImageUploadService imageUploadService;
+
+    public ImageUploadController(ImageUploadService imageUploadService) {
+        this.imageUploadService = imageUploadService;
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<ImageUploadResponse> getUpload(@PathVariable String id, @AuthenticationPrincipal CustomUserDetails userDetails) {
+
+        ImageUploadResponse response = imageUploadService.getUpload(id, userDetails.getId());
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
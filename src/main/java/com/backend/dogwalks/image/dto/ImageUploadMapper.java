@@ -0,0 +1,17 @@
+package com.backend.dogwalks.image.dto;
+
+import com.backend.dogwalks.image.service.ImageUpload;
+
+public class ImageUploadMapper {
+
+    public static ImageUploadResponse toDto(ImageUpload upload) {
+        return new ImageUploadResponse(
+                upload.id(),
+                upload.target(),
+                upload.targetId(),
+                upload.status(),
+                upload.url(),
+                upload.message()
+        );
+    }
+}
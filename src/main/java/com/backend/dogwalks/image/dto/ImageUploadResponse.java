@@ -0,0 +1,15 @@
+package com.backend.dogwalks.image.dto;
+
+import com.backend.dogwalks.image.enums.ImageTarget;
+import com.backend.dogwalks.image.enums.ImageUploadStatus;
+
+//url solo cuando la subida ha terminado; message solo cuando ha fallado
+public record ImageUploadResponse(
+        String id,
+        ImageTarget target,
+        Long targetId,
+        ImageUploadStatus status,
+        String url,
+        String message
+) {
+}
@@ -0,0 +1,17 @@
+package com.backend.dogwalks.image.enums;
+
+//entidad cuya URL de imagen se actualiza al terminar la subida; folder es el prefijo de la clave en el almacenamiento
+public enum ImageTarget {
+    WALK("walks"),
+    USER("users");
+
+    private final String folder;
+
+    ImageTarget(String folder) {
+        this.folder = folder;
+    }
+
+    public String getFolder() {
+        return folder;
+    }
+}
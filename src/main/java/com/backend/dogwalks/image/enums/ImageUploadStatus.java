@@ -0,0 +1,8 @@
+package com.backend.dogwalks.image.enums;
+
+public enum ImageUploadStatus {
+    PENDING,
+    UPLOADING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,26 @@
+package com.backend.dogwalks.image.service;
+
+import com.backend.dogwalks.image.enums.ImageTarget;
+import com.backend.dogwalks.image.enums.ImageUploadStatus;
+
+//estado de una subida en memoria; cada transición sustituye el registro entero
+//ownerId es quien subió la imagen: solo él consulta el estado
+public record ImageUpload(
+        String id,
+        Long ownerId,
+        ImageTarget target,
+        Long targetId,
+        ImageUploadStatus status,
+        String url,
+        String message,
+        long updatedAt
+) {
+
+    ImageUpload withStatus(ImageUploadStatus status, String url, String message, long updatedAt) {
+        return new ImageUpload(id, ownerId, target, targetId, status, url, message, updatedAt);
+    }
+
+    boolean isFinished() {
+        return status == ImageUploadStatus.COMPLETED || status == ImageUploadStatus.FAILED;
+    }
+}
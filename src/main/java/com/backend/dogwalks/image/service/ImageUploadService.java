@@ -0,0 +1,282 @@
+package com.backend.dogwalks.image.service;
+
+import com.backend.dogwalks.exception.custom_exception.EntityNotFoundException;
+import com.backend.dogwalks.exception.custom_exception.ImageUploadBusyException;
+import com.backend.dogwalks.image.dto.ImageUploadMapper;
+import com.backend.dogwalks.image.dto.ImageUploadResponse;
+import com.backend.dogwalks.image.enums.ImageFormat;
+import com.backend.dogwalks.image.enums.ImageTarget;
+import com.backend.dogwalks.image.enums.ImageUploadStatus;
+import com.backend.dogwalks.image.storage.ImageStorage;
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.walk.dto.WalkMapper;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+//subidas de imágenes fuera del hilo de la petición: el cuerpo queda en un fichero temporal, la petición responde 202
+//y un pool acotado lo sube al ImageStorage y actualiza la URL de la entidad; con el pool lleno se rechaza con 503
+@Slf4j
+@Service
+public class ImageUploadService {
+
+    private static final int MAX_URL_ATTEMPTS = 3;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final ImageStorage imageStorage;
+    private final WalkRepository walkRepository;
+    private final CustomUserRepository customUserRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+    private final Path tempDirectory;
+    private final long statusTtlMillis;
+    private final Map<String, ImageUpload> uploads = new ConcurrentHashMap<>();
+
+    private final Timer uploadTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private final Clock clock;
+
+    @Autowired
+    public ImageUploadService(ImageStorage imageStorage, WalkRepository walkRepository, CustomUserRepository customUserRepository,
+                              ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager,
+                              @Value("${app.image.upload.workers:4}") int workers,
+                              @Value("${app.image.upload.queue-capacity:100}") int queueCapacity,
+                              @Value("${app.image.upload.temp-directory:${java.io.tmpdir}}") Path tempDirectory,
+                              @Value("${app.image.upload.status-ttl:3600000}") long statusTtlMillis,
+                              Clock clock,
+                              MeterRegistry meterRegistry) throws IOException {
+
+        this(imageStorage, walkRepository, customUserRepository, eventPublisher, transactionManager,
+                workerPool(workers, queueCapacity, meterRegistry), tempDirectory, statusTtlMillis, clock, meterRegistry);
+    }
+
+    ImageUploadService(ImageStorage imageStorage, WalkRepository walkRepository, CustomUserRepository customUserRepository,
+                       ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager, Executor executor,
+                       Path tempDirectory, long statusTtlMillis, Clock clock, MeterRegistry meterRegistry) throws IOException {
+
+        if (statusTtlMillis <= 0) throw new IllegalArgumentException("Upload status TTL must be greater than 0");
+
+        this.imageStorage = imageStorage;
+        this.walkRepository = walkRepository;
+        this.customUserRepository = customUserRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.tempDirectory = Files.createDirectories(tempDirectory);
+        this.statusTtlMillis = statusTtlMillis;
+        this.clock = clock;
+
+        this.uploadTimer = Timer.builder("image.upload").publishPercentileHistogram().register(meterRegistry);
+        this.rejectedCounter = Counter.builder("image.upload.rejected").register(meterRegistry);
+        this.failedCounter = Counter.builder("image.upload.failed").register(meterRegistry);
+    }
+
+    //hilos fijos y cola acotada: sin AbortPolicy una ráfaga de subidas llenaría el disco de temporales
+    private static ThreadPoolExecutor workerPool(int workers, int queueCapacity, MeterRegistry meterRegistry) {
+
+        if (workers <= 0) throw new IllegalArgumentException("Upload workers must be greater than 0");
+        if (queueCapacity <= 0) throw new IllegalArgumentException("Upload queue capacity must be greater than 0");
+
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("image-upload-", 0).daemon(false).factory(), new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("image.upload.queued", pool, p -> p.getQueue().size()).register(meterRegistry);
+
+        return pool;
+    }
+
+    //el multipart ya está en disco (file-size-threshold=0): se pasa a un temporal propio sin cargarlo en memoria
+    public ImageUploadResponse accept(ImageTarget target, Long targetId, Long ownerId, MultipartFile file) {
+
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Image file is needed");
+        }
+
+        Path temp = null;
+        String id = UUID.randomUUID().toString();
+
+        try {
+            temp = Files.createTempFile(tempDirectory, "image-upload-", ".tmp");
+            file.transferTo(temp);
+
+            ImageFormat format = detectFormat(temp);
+            ImageUpload upload = new ImageUpload(id, ownerId, target, targetId, ImageUploadStatus.PENDING, null, null, clock.millis());
+            Path queued = temp;
+
+            uploads.put(id, upload);
+            executor.execute(() -> process(id, queued, format));
+
+            return ImageUploadMapper.toDto(upload);
+        } catch (RejectedExecutionException exception) {
+            uploads.remove(id);
+            deleteQuietly(temp);
+            rejectedCounter.increment();
+            throw new ImageUploadBusyException("Too many image uploads in progress, please retry later");
+        } catch (IOException exception) {
+            deleteQuietly(temp);
+            throw new UncheckedIOException("Image could not be received", exception);
+        } catch (RuntimeException exception) {
+            deleteQuietly(temp);
+            throw exception;
+        }
+    }
+
+    public ImageUploadResponse getUpload(String id, Long userId) {
+
+        ImageUpload upload = uploads.get(id);
+
+        //las subidas de otro usuario no se distinguen de las que no existen
+        if (upload == null || !upload.ownerId().equals(userId)) {
+            throw new EntityNotFoundException("Image upload with id: " + id + " not found");
+        }
+
+        return ImageUploadMapper.toDto(upload);
+    }
+
+    //las subidas terminadas se consultan durante status-ttl; las que siguen en curso no caducan
+    @Scheduled(initialDelayString = "${app.image.upload.status-ttl:3600000}", fixedDelayString = "${app.image.upload.status-ttl:3600000}")
+    public void evictFinished() {
+
+        long limit = clock.millis() - statusTtlMillis;
+
+        uploads.values().removeIf(upload -> upload.isFinished() && upload.updatedAt() < limit);
+    }
+
+    //las subidas en cola se pierden al parar; las que están en curso terminan
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdown();
+
+            if (!pool.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Image uploads still running after {} s, stopping them", SHUTDOWN_TIMEOUT_SECONDS);
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    void process(String id, Path file, ImageFormat format) {
+
+        ImageUpload upload = transition(id, ImageUploadStatus.UPLOADING, null, null);
+        String key = upload.target().getFolder() + "/" + upload.targetId() + "/" + id;
+        String url = null;
+        long start = System.nanoTime();
+
+        try {
+            url = imageStorage.store(file, key, format);
+
+            if (!applyUrl(upload.target(), upload.targetId(), url)) {
+                removeStored(key);
+                fail(id, upload.target() + " " + upload.targetId() + " no longer exists");
+                return;
+            }
+
+            transition(id, ImageUploadStatus.COMPLETED, url, null);
+        } catch (IOException | RuntimeException exception) {
+            log.warn("Image upload {} for {} {} failed", id, upload.target(), upload.targetId(), exception);
+
+            if (url != null) {
+                removeStored(key);
+            }
+            fail(id, "Image could not be stored");
+        } finally {
+            uploadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            deleteQuietly(file);
+        }
+    }
+
+    //se carga la entidad: con @DynamicUpdate el UPDATE solo lleva la URL y la versión, y el evento lleva el estado completo
+    //un conflicto de versión con una edición simultánea se reintenta sobre la fila nueva
+    private boolean applyUrl(ImageTarget target, Long targetId, String url) {
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return Boolean.TRUE.equals(transactionTemplate.execute(status -> switch (target) {
+                    case WALK -> walkRepository.findWithUserById(targetId).map(walk -> {
+                        boolean wasActive = Boolean.TRUE.equals(walk.getIsActive());
+                        walk.setWalkImgUrl(url);
+                        eventPublisher.publishEvent(WalkMapper.toChangedEvent(walk, wasActive));
+                        return true;
+                    }).orElse(false);
+                    case USER -> customUserRepository.findById(targetId).map(user -> {
+                        user.setUserImgUrl(url);
+                        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), false));
+                        return true;
+                    }).orElse(false);
+                }));
+            } catch (OptimisticLockingFailureException exception) {
+                if (attempt == MAX_URL_ATTEMPTS) {
+                    throw exception;
+                }
+            }
+        }
+    }
+
+    private ImageUpload transition(String id, ImageUploadStatus status, String url, String message) {
+        return uploads.computeIfPresent(id, (key, upload) -> upload.withStatus(status, url, message, clock.millis()));
+    }
+
+    private void fail(String id, String message) {
+        failedCounter.increment();
+        transition(id, ImageUploadStatus.FAILED, null, message);
+    }
+
+    private void removeStored(String key) {
+        try {
+            imageStorage.delete(key);
+        } catch (IOException | RuntimeException exception) {
+            log.warn("Stored image {} could not be removed", key, exception);
+        }
+    }
+
+    private static ImageFormat detectFormat(Path file) throws IOException {
+
+        byte[] header;
+
+        try (InputStream input = Files.newInputStream(file)) {
+            header = input.readNBytes(ImageFormat.HEADER_LENGTH);
+        }
+
+        return ImageFormat.detect(header).orElseThrow(() -> new IllegalArgumentException("Image must be a JPEG, PNG or WebP file"));
+    }
+
+    private static void deleteQuietly(Path file) {
+
+        if (file == null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException exception) {
+            log.warn("Temporary upload file {} could not be deleted", file, exception);
+        }
+    }
+}
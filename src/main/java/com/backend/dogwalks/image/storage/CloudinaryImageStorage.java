@@ -0,0 +1,47 @@
+package com.backend.dogwalks.image.storage;
+
+import com.backend.dogwalks.image.enums.ImageFormat;
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "app.image.storage", havingValue = "cloudinary")
+public class CloudinaryImageStorage implements ImageStorage {
+
+    private final Cloudinary cloudinary;
+
+    public CloudinaryImageStorage(@Value("${app.image.cloudinary.url:}") String cloudinaryUrl) {
+
+        if (cloudinaryUrl == null || cloudinaryUrl.isBlank()) {
+            throw new IllegalStateException("app.image.cloudinary.url is required when app.image.storage is cloudinary");
+        }
+
+        this.cloudinary = new Cloudinary(cloudinaryUrl);
+        this.cloudinary.config.secure = true;
+    }
+
+    //el cliente http5 envía el fichero desde disco por partes, sin cargarlo entero en memoria
+    @Override
+    public String store(Path file, String key, ImageFormat format) throws IOException {
+
+        Map<?, ?> result = cloudinary.uploader().upload(file.toFile(), ObjectUtils.asMap(
+                "public_id", key,
+                "resource_type", "image",
+                "overwrite", true
+        ));
+
+        return (String) result.get("secure_url");
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        cloudinary.uploader().destroy(key, ObjectUtils.asMap("resource_type", "image"));
+    }
+}
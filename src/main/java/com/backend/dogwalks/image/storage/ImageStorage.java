@@ -0,0 +1,16 @@
+package com.backend.dogwalks.image.storage;
+
+import com.backend.dogwalks.image.enums.ImageFormat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+//destino de las imágenes subidas; la implementación se elige con app.image.storage (cloudinary o local)
+//se llama desde los hilos de ImageUploadService, nunca desde el de la petición
+public interface ImageStorage {
+
+    //key sin extensión (walks/42/<id de subida>); devuelve la URL pública de la imagen
+    String store(Path file, String key, ImageFormat format) throws IOException;
+
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,59 @@
+package com.backend.dogwalks.image.storage;
+
+import com.backend.dogwalks.image.enums.ImageFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+//almacenamiento en disco para tests y uso sin conexión; la URL es la del fichero salvo que se configure base-url
+@Component
+@ConditionalOnProperty(name = "app.image.storage", havingValue = "local", matchIfMissing = true)
+public class LocalImageStorage implements ImageStorage {
+
+    private final Path directory;
+    private final String baseUrl;
+
+    public LocalImageStorage(@Value("${app.image.local.directory}") Path directory,
+                             @Value("${app.image.local.base-url:}") String baseUrl) throws IOException {
+        this.directory = Files.createDirectories(directory.toAbsolutePath().normalize());
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    @Override
+    public String store(Path file, String key, ImageFormat format) throws IOException {
+
+        String name = key + "." + format.getExtension();
+        Path target = resolve(name);
+
+        Files.createDirectories(target.getParent());
+        //se escribe con otro nombre y se renombra: nunca se sirve un fichero a medias
+        Path partial = Files.copy(file, target.resolveSibling(target.getFileName() + ".part"), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return baseUrl.isEmpty() ? target.toUri().toString() : baseUrl + "/" + name;
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+
+        for (ImageFormat format : ImageFormat.values()) {
+            Files.deleteIfExists(resolve(key + "." + format.getExtension()));
+        }
+    }
+
+    private Path resolve(String name) {
+
+        Path target = directory.resolve(name).normalize();
+
+        if (!target.startsWith(directory)) {
+            throw new IllegalArgumentException("Image key must stay inside the storage directory");
+        }
+
+        return target;
+    }
+}
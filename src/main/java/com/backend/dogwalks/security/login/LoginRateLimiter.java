@@ -0,0 +1,217 @@
+package com.backend.dogwalks.security.login;
+
+import com.backend.dogwalks.exception.custom_exception.TooManyLoginAttemptsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+//limita los intentos de login por e-mail y por IP antes de llegar a bcrypt, todo en memoria
+@Component
+public class LoginRateLimiter {
+
+    private final int maxAttemptsPerEmail;
+    private final int maxAttemptsPerIp;
+    private final long windowMillis;
+    private final Stripe[] stripes;
+
+    private final Counter rejectedByEmail;
+    private final Counter rejectedByIp;
+    private final Clock clock;
+
+    //ventana deslizante aproximada: el contador de la ventana anterior pesa según lo que queda de ella
+    private static final class Window {
+        private long index;
+        private int current;
+        private int previous;
+    }
+
+    //cada franja tiene su lock y su propio límite de claves, así los logins no compiten por un único lock
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int index;
+        private final LinkedHashMap<String, Window> windows;
+
+        private Stripe(int index, int maxKeys) {
+            this.index = index;
+            this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+
+    public LoginRateLimiter(@Value("${app.login.max-attempts-per-email:5}") int maxAttemptsPerEmail,
+                            @Value("${app.login.max-attempts-per-ip:20}") int maxAttemptsPerIp,
+                            @Value("${app.login.window:60000}") long windowMillis,
+                            @Value("${app.login.max-tracked-keys:100000}") int maxTrackedKeys,
+                            @Value("${app.login.stripes:64}") int stripeCount,
+                            Clock clock,
+                            MeterRegistry meterRegistry) {
+
+        if (maxAttemptsPerEmail < 1 || maxAttemptsPerIp < 1 || windowMillis < 1 || stripeCount < 1 || maxTrackedKeys < stripeCount) {
+            throw new IllegalArgumentException("Login rate limits, window and tracked keys must be positive");
+        }
+
+        this.clock = clock;
+        this.maxAttemptsPerEmail = maxAttemptsPerEmail;
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.windowMillis = windowMillis;
+        this.stripes = new Stripe[stripeCount];
+
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(i, maxTrackedKeys / stripeCount);
+        }
+
+        this.rejectedByEmail = Counter.builder("login.attempts.rejected").tag("key", "email").register(meterRegistry);
+        this.rejectedByIp = Counter.builder("login.attempts.rejected").tag("key", "ip").register(meterRegistry);
+        Gauge.builder("login.attempts.tracked", this, LoginRateLimiter::trackedKeys).register(meterRegistry);
+    }
+
+    //se comprueban los dos límites antes de contar el intento: un rechazo por e-mail no gasta el cupo de la IP
+    public void checkAttempt(String email, String clientIp) {
+
+        long now = clock.millis();
+        String ipKey = clientIp == null ? null : "ip:" + clientIp;
+        String emailKey = email == null ? null : "email:" + email.toLowerCase(Locale.ROOT);
+        Stripe ipStripe = ipKey == null ? null : stripeFor(ipKey);
+        Stripe emailStripe = emailKey == null ? null : stripeFor(emailKey);
+
+        lockInOrder(ipStripe, emailStripe);
+        try {
+            Window ipWindow = ipKey == null ? null : roll(ipStripe, ipKey, now);
+            Window emailWindow = emailKey == null ? null : roll(emailStripe, emailKey, now);
+
+            if (ipWindow != null && isFull(ipWindow, maxAttemptsPerIp, now)) {
+                rejectedByIp.increment();
+                throw tooManyAttempts(now);
+            }
+
+            if (emailWindow != null && isFull(emailWindow, maxAttemptsPerEmail, now)) {
+                rejectedByEmail.increment();
+                throw tooManyAttempts(now);
+            }
+
+            if (ipWindow != null) {
+                ipWindow.current++;
+            }
+            if (emailWindow != null) {
+                emailWindow.current++;
+            }
+        } finally {
+            unlock(ipStripe, emailStripe);
+        }
+    }
+
+    //tras un login correcto el e-mail vuelve a empezar; la IP no, puede estar probando otras cuentas
+    public void reset(String email) {
+
+        if (email == null) {
+            return;
+        }
+
+        String key = "email:" + email.toLowerCase(Locale.ROOT);
+        Stripe stripe = stripeFor(key);
+
+        stripe.lock.lock();
+        try {
+            stripe.windows.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.windows.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    public int trackedKeys() {
+
+        int total = 0;
+
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                total += stripe.windows.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+
+        return total;
+    }
+
+    //con el lock de su franja tomado
+    private Window roll(Stripe stripe, String key, long now) {
+
+        long index = now / windowMillis;
+        Window window = stripe.windows.computeIfAbsent(key, k -> new Window());
+
+        if (window.index != index) {
+            window.previous = window.index == index - 1 ? window.current : 0;
+            window.current = 0;
+            window.index = index;
+        }
+
+        return window;
+    }
+
+    private boolean isFull(Window window, int limit, long now) {
+
+        double previousWeight = (double) (windowMillis - now % windowMillis) / windowMillis;
+
+        return window.previous * previousWeight + window.current >= limit;
+    }
+
+    //siempre en el orden de las franjas para que dos logins no se bloqueen entre sí
+    private void lockInOrder(Stripe first, Stripe second) {
+
+        if (first != null && second != null && first != second && first.index > second.index) {
+            second.lock.lock();
+            first.lock.lock();
+            return;
+        }
+
+        if (first != null) {
+            first.lock.lock();
+        }
+        if (second != null && second != first) {
+            second.lock.lock();
+        }
+    }
+
+    private void unlock(Stripe first, Stripe second) {
+
+        if (second != null && second != first) {
+            second.lock.unlock();
+        }
+        if (first != null) {
+            first.lock.unlock();
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        return stripes[Math.floorMod(key.hashCode(), stripes.length)];
+    }
+
+    private TooManyLoginAttemptsException tooManyAttempts(long now) {
+        long retryAfterSeconds = Math.max(1, (windowMillis - now % windowMillis + 999) / 1000);
+        return new TooManyLoginAttemptsException("Too many login attempts, please retry later", retryAfterSeconds);
+    }
+}
@@ -0,0 +1,137 @@
+package com.backend.dogwalks.security.password;
+
+import com.backend.dogwalks.exception.custom_exception.PasswordHashingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+//único punto de hash de contraseñas: coste calibrado al arrancar y número de hashes simultáneos limitado
+@Slf4j
+@Component
+public class PasswordHashingService implements PasswordEncoder {
+
+    static final int MIN_STRENGTH = 4;
+    static final int MAX_STRENGTH = 31;
+    private static final String CALIBRATION_PASSWORD = "Calibration-Password-123.";
+    private static final int CALIBRATION_ROUNDS = 3;
+
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final Semaphore bulkhead;
+    private final long acquireTimeoutMillis;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(@Value("${app.password.bcrypt.strength:0}") int fixedStrength,
+                                  @Value("${app.password.bcrypt.min-strength:10}") int minStrength,
+                                  @Value("${app.password.bcrypt.max-strength:14}") int maxStrength,
+                                  @Value("${app.password.bcrypt.target-millis:250}") long targetMillis,
+                                  @Value("${app.password.max-concurrent:0}") int maxConcurrent,
+                                  @Value("${app.password.acquire-timeout:2000}") long acquireTimeoutMillis,
+                                  MeterRegistry meterRegistry) {
+
+        if (minStrength < MIN_STRENGTH || maxStrength > MAX_STRENGTH || minStrength > maxStrength) {
+            throw new IllegalArgumentException("BCrypt strength range must be within " + MIN_STRENGTH + " and " + MAX_STRENGTH);
+        }
+
+        //0 es calibrar al arrancar; cualquier otro valor tiene que ser un coste válido de bcrypt
+        if (fixedStrength != 0 && (fixedStrength < MIN_STRENGTH || fixedStrength > MAX_STRENGTH)) {
+            throw new IllegalArgumentException("BCrypt strength must be within " + MIN_STRENGTH + " and " + MAX_STRENGTH);
+        }
+
+        this.strength = fixedStrength > 0 ? fixedStrength : calibrate(minStrength, maxStrength, targetMillis);
+        this.encoder = new BCryptPasswordEncoder(strength);
+
+        int permits = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+        this.bulkhead = new Semaphore(permits, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+
+        this.encodeTimer = Timer.builder("password.hash").tag("operation", "encode").publishPercentileHistogram().register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash").tag("operation", "matches").publishPercentileHistogram().register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hash.rejected").register(meterRegistry);
+
+        log.info("Password hashing: bcrypt strength {}, {} concurrent operations", strength, permits);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return guarded(encodeTimer, () -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return guarded(matchesTimer, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    //DaoAuthenticationProvider lo usa para volver a hashear con el coste actual tras un login correcto
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    private <T> T guarded(Timer timer, Supplier<T> operation) {
+
+        boolean acquired;
+
+        try {
+            acquired = bulkhead.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw new PasswordHashingBusyException("Too many password operations in progress, please retry later");
+        }
+
+        try {
+            return timer.record(operation);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private static int calibrate(int minStrength, int maxStrength, long targetMillis) {
+
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(CALIBRATION_PASSWORD);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            probe.encode(CALIBRATION_PASSWORD);
+        }
+        long nanosAtMinStrength = (System.nanoTime() - start) / CALIBRATION_ROUNDS;
+
+        return selectStrength(nanosAtMinStrength, minStrength, maxStrength, TimeUnit.MILLISECONDS.toNanos(targetMillis));
+    }
+
+    //cada punto de strength duplica el coste de bcrypt
+    static int selectStrength(long nanosAtMinStrength, int minStrength, int maxStrength, long targetNanos) {
+
+        int selected = minStrength;
+        long estimated = Math.max(1, nanosAtMinStrength);
+
+        while (selected < maxStrength && estimated * 2 <= targetNanos) {
+            estimated *= 2;
+            selected++;
+        }
+
+        return selected;
+    }
+}
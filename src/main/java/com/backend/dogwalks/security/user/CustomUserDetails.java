@@ -1,6 +1,8 @@
 package com.backend.dogwalks.security.user;
 
+import com.backend.dogwalks.security.user.jwt.VerifiedToken;
 import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.enums.Role;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,34 +11,68 @@ import java.util.Collection;
 import java.util.List;
 
 
+//copia ligera del usuario: no guarda la entidad gestionada ni su lista de walks
 public class CustomUserDetails implements UserDetails {
-    private final CustomUser user;
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String password;
+    private final Role role;
+    private final boolean active;
 
     public CustomUserDetails(CustomUser user) {
-        this.user = user;
+        this(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), user.getRole(), Boolean.TRUE.equals(user.getIsActive()));
+    }
+
+    public CustomUserDetails(Long id, String name, String email, String password, Role role, boolean active) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.active = active;
+    }
+
+    public CustomUserDetails withPassword(String newPassword) {
+        return new CustomUserDetails(id, name, email, newPassword, role, active);
+    }
+
+    //se construye solo con los claims del token, sin consultar la base de datos
+    public static CustomUserDetails fromToken(VerifiedToken token) {
+        return new CustomUserDetails(token.id(), null, token.email(), null, token.role(), true);
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return password;
     }
 
     //se loguea con email
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
     }
 
     public Long getId() {
-        return user.getId();
+        return id;
+    }
+
+    //nombre visible del usuario, el username de CustomUser
+    public String getName() {
+        return name;
     }
 
-    public CustomUser getUser() {
-        return user;
+    public Role getRole() {
+        return role;
     }
 }
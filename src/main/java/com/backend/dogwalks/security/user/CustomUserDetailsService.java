@@ -3,21 +3,56 @@ package com.backend.dogwalks.security.user;
 import com.backend.dogwalks.exception.custom_exception.UsernameNotFoundException;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final CustomUserRepository customUserRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public CustomUserDetailsService(CustomUserRepository customUserRepository) {
+    public CustomUserDetailsService(CustomUserRepository customUserRepository, UserDetailsCache userDetailsCache) {
         this.customUserRepository = customUserRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return customUserRepository.findUserByEmail(email)
-                .map(user -> new CustomUserDetails(user))
-                .orElseThrow(() -> new UsernameNotFoundException("User with e-mail: " + email + ", not found"));
+    public CustomUserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+
+        CustomUserDetails cached = userDetailsCache.getByEmail(email);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        Object load = userDetailsCache.startLoad(email);
+
+        try {
+            CustomUserDetails userDetails = customUserRepository.findUserByEmail(email)
+                    .map(user -> new CustomUserDetails(user))
+                    .orElseThrow(() -> new UsernameNotFoundException("User with e-mail: " + email + ", not found"));
+
+            userDetailsCache.put(userDetails, email, load);
+
+            return userDetails;
+        } finally {
+            userDetailsCache.endLoad(email, load);
+        }
+    }
+
+    //rehash con el coste actual tras un login correcto
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+
+        CustomUserDetails current = (CustomUserDetails) user;
+        CustomUserDetails upgraded = current.withPassword(newPassword);
+
+        customUserRepository.updatePasswordById(current.getId(), newPassword);
+        userDetailsCache.put(upgraded);
+
+        return upgraded;
     }
 }
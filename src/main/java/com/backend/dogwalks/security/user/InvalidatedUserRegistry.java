@@ -0,0 +1,60 @@
+package com.backend.dogwalks.security.user;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+//usuarios desactivados, borrados o con cambio de rol: sus tokens emitidos antes de ese momento dejan de valer
+@Component
+public class InvalidatedUserRegistry {
+
+    private final ConcurrentHashMap<Long, Long> invalidatedAtSeconds = new ConcurrentHashMap<>();
+    private final long retentionSeconds;
+
+    public InvalidatedUserRegistry(@Value("${app.jwt.expiration}") long jwtExpiration) {
+        this.retentionSeconds = Math.max(1, jwtExpiration / 1000);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.revokesTokens()) {
+            invalidate(event.userId());
+        }
+    }
+
+    public void invalidate(Long userId) {
+
+        if (userId == null) {
+            return;
+        }
+
+        long now = currentSeconds();
+
+        invalidatedAtSeconds.put(userId, now);
+        purgeOlderThan(now - retentionSeconds);
+    }
+
+    //el claim iat tiene precisión de segundos, así que un token emitido en el mismo segundo también se rechaza
+    public boolean isInvalidated(Long userId, long issuedAtMillis) {
+
+        Long invalidatedAt = invalidatedAtSeconds.get(userId);
+
+        return invalidatedAt != null && issuedAtMillis / 1000 <= invalidatedAt;
+    }
+
+    public int size() {
+        return invalidatedAtSeconds.size();
+    }
+
+    //pasado el tiempo de expiración ya no queda ningún token anterior válido
+    private void purgeOlderThan(long thresholdSeconds) {
+        invalidatedAtSeconds.values().removeIf(invalidatedAt -> invalidatedAt < thresholdSeconds);
+    }
+
+    long currentSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
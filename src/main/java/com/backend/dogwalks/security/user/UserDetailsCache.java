@@ -0,0 +1,182 @@
+package com.backend.dogwalks.security.user;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+//guarda copias ligeras (CustomUserDetails) por e-mail, con índice por id para poder invalidar desde los eventos
+@Component
+public class UserDetailsCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entriesByEmail;
+    private final Map<Long, String> emailsById = new HashMap<>();
+    //carga en curso por e-mail: una invalidación la suelta y lo que haya leído ya no se guarda
+    //(si no, un login que cruza un cambio de contraseña volvería a dejar el hash anterior durante todo el TTL)
+    private final Map<String, Object> loading = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Clock clock;
+
+    private record Entry(CustomUserDetails details, long expiresAt) {
+    }
+
+    public UserDetailsCache(@Value("${app.cache.user-details.max-size:10000}") int maxSize,
+                            @Value("${app.cache.user-details.ttl:300000}") long ttlMillis,
+                            Clock clock,
+                            MeterRegistry meterRegistry) {
+
+        if (maxSize < 0) throw new IllegalArgumentException("Cache size must be 0 or greater");
+
+        this.clock = clock;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entriesByEmail = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > UserDetailsCache.this.maxSize) {
+                    emailsById.remove(eldest.getValue().details().getId());
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get).tag("cache", "userDetails").tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get).tag("cache", "userDetails").tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get).tag("cache", "userDetails").register(meterRegistry);
+        Gauge.builder("cache.size", this, UserDetailsCache::size).tag("cache", "userDetails").register(meterRegistry);
+    }
+
+    public synchronized CustomUserDetails getByEmail(String email) {
+
+        Entry entry = entriesByEmail.get(email);
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        if (entry.expiresAt() <= clock.millis()) {
+            remove(email);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return entry.details();
+    }
+
+    //se llama antes de leer de la base de datos; endLoad al terminar, haya ido bien o no
+    public synchronized Object startLoad(String email) {
+
+        Object load = new Object();
+        loading.put(loadKey(email), load);
+
+        return load;
+    }
+
+    //solo se guarda si ningún evento ha invalidado ese e-mail desde startLoad
+    public synchronized void put(CustomUserDetails details, String email, Object load) {
+
+        if (loading.get(loadKey(email)) == load) {
+            put(details);
+        }
+    }
+
+    public synchronized void endLoad(String email, Object load) {
+        loading.remove(loadKey(email), load);
+    }
+
+    public synchronized void put(CustomUserDetails details) {
+
+        if (maxSize == 0) {
+            return;
+        }
+
+        String previousEmail = emailsById.get(details.getId());
+
+        if (previousEmail != null && !previousEmail.equals(details.getUsername())) {
+            entriesByEmail.remove(previousEmail);
+        }
+
+        emailsById.put(details.getId(), details.getUsername());
+        entriesByEmail.put(details.getUsername(), new Entry(details, clock.millis() + ttlMillis));
+    }
+
+    public synchronized void evictById(Long id) {
+
+        String email = emailsById.get(id);
+
+        if (email != null) {
+            remove(email);
+            loading.remove(loadKey(email));
+        }
+    }
+
+    public synchronized void evictByEmail(String email) {
+
+        if (email != null) {
+            remove(email);
+            loading.remove(loadKey(email));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evictById(event.userId());
+        evictByEmail(event.previousEmail());
+    }
+
+    public synchronized void clear() {
+        entriesByEmail.clear();
+        emailsById.clear();
+        loading.clear();
+    }
+
+    public synchronized int size() {
+        return entriesByEmail.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private void remove(String email) {
+
+        Entry removed = entriesByEmail.remove(email);
+
+        if (removed != null) {
+            emailsById.remove(removed.details().getId());
+        }
+    }
+
+    //la búsqueda por e-mail no distingue mayúsculas (collation de MySQL)
+    private static String loadKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
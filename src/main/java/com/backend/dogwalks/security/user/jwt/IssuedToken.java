@@ -0,0 +1,8 @@
+package com.backend.dogwalks.security.user.jwt;
+
+public record IssuedToken(
+        String token,
+        String jti,
+        long expiresAt
+) {
+}
@@ -1,27 +1,30 @@
 package com.backend.dogwalks.security.user.jwt;
 
-import com.backend.dogwalks.security.user.CustomUserDetailsService;
+import com.backend.dogwalks.security.user.CustomUserDetails;
+import com.backend.dogwalks.security.user.InvalidatedUserRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService customUserDetailsService;
+    private final InvalidatedUserRegistry invalidatedUserRegistry;
+    private final RevokedTokenRegistry revokedTokenRegistry;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, CustomUserDetailsService customUserDetailsService) {
+    public JwtAuthFilter(JwtUtil jwtUtil, InvalidatedUserRegistry invalidatedUserRegistry, RevokedTokenRegistry revokedTokenRegistry) {
         this.jwtUtil = jwtUtil;
-        this.customUserDetailsService = customUserDetailsService;
+        this.invalidatedUserRegistry = invalidatedUserRegistry;
+        this.revokedTokenRegistry = revokedTokenRegistry;
     }
 
     @Override
@@ -36,9 +39,13 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String token = authorizationHeader.replace("Bearer ", "");
 
-        if(jwtUtil.isValidToken(token)) {
-            String email = jwtUtil.extractEmail(token);
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
+        Optional<VerifiedToken> verifiedToken = jwtUtil.verify(token)
+                .filter(verified -> verified.id() != null && verified.role() != null)
+                .filter(verified -> !invalidatedUserRegistry.isInvalidated(verified.id(), verified.issuedAt()))
+                .filter(verified -> !revokedTokenRegistry.isRevoked(verified.jti()));
+
+        if(verifiedToken.isPresent()) {
+            CustomUserDetails userDetails = CustomUserDetails.fromToken(verifiedToken.get());
             UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
         }
@@ -2,6 +2,8 @@ package com.backend.dogwalks.security.user.jwt;
 
 import com.backend.dogwalks.security.user.CustomUserDetails;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -11,65 +13,135 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 
 @Component
 public class JwtUtil {
 
-    //para poder usarlos en test
-    @Setter
+    private static final int DEFAULT_CACHE_SIZE = 10000;
+
     //inyecta valores desde application.properties
     @Value("${app.jwt.secret}")
     private String jwtSecretKey;
 
+    //para poder usarlos en test
     @Setter
     @Value("${app.jwt.expiration}")
     private Long jwtExpiration;
 
+    //la clave y el parser se construyen una sola vez y se reutilizan en cada petición
+    private volatile SecretKey signKey;
+    private volatile JwtParser jwtParser;
+
+    private volatile VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(DEFAULT_CACHE_SIZE);
+
+    public void setJwtSecretKey(String jwtSecretKey) {
+        this.jwtSecretKey = jwtSecretKey;
+        this.signKey = null;
+        this.jwtParser = null;
+        verifiedTokenCache.clear();
+    }
+
+    @Value("${app.jwt.cache-size:" + DEFAULT_CACHE_SIZE + "}")
+    public void setVerifiedTokenCacheSize(int maxSize) {
+        this.verifiedTokenCache = new VerifiedTokenCache(maxSize);
+    }
+
     private SecretKey getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signKey;
+
+        if (key == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(jwtSecretKey);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signKey = key;
+        }
+
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+
+        if (parser == null) {
+            parser = Jwts.parser().verifyWith(getSignKey()).build();
+            jwtParser = parser;
+        }
+
+        return parser;
     }
 
-    private String buildToken(CustomUserDetails userDetail, long jwtExpiration) {
-        return Jwts
+    //cada token lleva un jti propio para poder revocarlo de forma individual
+    private IssuedToken buildToken(CustomUserDetails userDetail, long jwtExpiration) {
+        long now = System.currentTimeMillis();
+        String jti = UUID.randomUUID().toString();
+        long expiresAt = now + jwtExpiration;
+
+        String token = Jwts
                 .builder()
+                .id(jti)
                 .subject(userDetail.getUsername())
                 .claim("id", userDetail.getId())
                 .claim("role", userDetail.getAuthorities().toString())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
+                .issuedAt(new Date(now))
+                .expiration(new Date(expiresAt))
                 .signWith(getSignKey())
                 .compact();
+
+        return new IssuedToken(token, jti, expiresAt);
     }
 
-    public String generateToken(CustomUserDetails userDetail) {
+    public IssuedToken issueToken(CustomUserDetails userDetail) {
         return buildToken(userDetail, jwtExpiration);
     }
 
+    public String generateToken(CustomUserDetails userDetail) {
+        return issueToken(userDetail).token();
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
+    private VerifiedToken parseToken(String token) {
+
+        VerifiedTokenCache cache = verifiedTokenCache;
+        VerifiedToken cached = cache.get(token, System.currentTimeMillis());
+
+        if (cached != null) {
+            return cached;
+        }
+
+        VerifiedToken verified = VerifiedToken.from(extractAllClaims(token));
+        cache.put(token, verified);
+
+        return verified;
+    }
+
+    public Optional<VerifiedToken> verify(String token) {
+        try {
+            return Optional.of(parseToken(token));
+        } catch (JwtException | IllegalArgumentException exception) {
+            return Optional.empty();
+        }
+    }
+
     public String extractEmail(String token) {
-        return extractAllClaims(token).getSubject();
+        return parseToken(token).email();
     }
 
     public Long extractId(String token) {
-        return extractAllClaims(token).get("id", Long.class);
+        return parseToken(token).id();
     }
 
     public boolean isValidToken(String token) {
-        try {
-            extractAllClaims(token);
-            return true;
-        } catch(Exception exception) {
-            return false;
-        }
+        return verify(token).isPresent();
+    }
+
+    public int getCachedTokenCount() {
+        return verifiedTokenCache.size();
     }
 }
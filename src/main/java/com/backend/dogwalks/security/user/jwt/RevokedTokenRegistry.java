@@ -0,0 +1,180 @@
+package com.backend.dogwalks.security.user.jwt;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//jti revocados: el filtro Bloom descarta en O(1) casi todos los tokens válidos y el set exacto confirma los positivos
+@Component
+public class RevokedTokenRegistry {
+
+    private final int expectedEntries;
+    private final double bitsPerEntry;
+    private final int hashCount;
+
+    private final ConcurrentHashMap<String, Long> expiresAtByJti = new ConcurrentHashMap<>();
+    private final Clock clock;
+    //bits y tamaño se publican juntos: un lector nunca mezcla el array nuevo con el tamaño anterior
+    private volatile Filter filter;
+    private int addedSinceRebuild;
+    private int rebuilds;
+
+    private record Filter(AtomicLongArray bits, int bitCount, int capacity) {
+    }
+
+    public RevokedTokenRegistry(@Value("${app.jwt.revocation.expected-entries:100000}") int expectedEntries,
+                                @Value("${app.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                Clock clock,
+                                MeterRegistry meterRegistry) {
+
+        if (expectedEntries < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Revocation filter needs positive expected entries and a false positive rate between 0 and 1");
+        }
+
+        this.clock = clock;
+        this.expectedEntries = expectedEntries;
+        this.bitsPerEntry = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.filter = newFilter(expectedEntries);
+        this.hashCount = Math.max(1, (int) Math.round((double) filter.bitCount() / expectedEntries * Math.log(2)));
+
+        Gauge.builder("jwt.revoked.tokens", this, RevokedTokenRegistry::size).register(meterRegistry);
+    }
+
+    public boolean isRevoked(String jti) {
+
+        if (jti == null) {
+            return false;
+        }
+
+        return mightContain(filter, jti) && expiresAtByJti.containsKey(jti);
+    }
+
+    //los tokens ya caducados no hace falta guardarlos
+    public synchronized void revoke(String jti, long expiresAtMillis) {
+
+        long now = clock.millis();
+
+        if (jti == null || expiresAtMillis <= now) {
+            return;
+        }
+
+        expiresAtByJti.put(jti, expiresAtMillis);
+        add(filter, jti);
+
+        //el filtro no admite borrados: se reconstruye con los jti vigentes antes de que se sature
+        if (++addedSinceRebuild >= filter.capacity()) {
+            rebuild(now);
+        }
+    }
+
+    public int size() {
+        return expiresAtByJti.size();
+    }
+
+    public synchronized void clear() {
+        expiresAtByJti.clear();
+        filter = newFilter(expectedEntries);
+        addedSinceRebuild = 0;
+    }
+
+    //si los vigentes pasan de la mitad de la capacidad se duplica: así quedan al menos capacity / 2 altas
+    //hasta la siguiente reconstrucción y el coste O(n) se reparte entre ellas
+    private void rebuild(long now) {
+
+        expiresAtByJti.values().removeIf(expiresAt -> expiresAt <= now);
+
+        int live = expiresAtByJti.size();
+        int capacity = filter.capacity();
+
+        while (live > capacity / 2 && capacity <= Integer.MAX_VALUE / 2) {
+            capacity *= 2;
+        }
+
+        Filter rebuilt = newFilter(capacity);
+        expiresAtByJti.keySet().forEach(jti -> add(rebuilt, jti));
+
+        filter = rebuilt;
+        addedSinceRebuild = live;
+        rebuilds++;
+    }
+
+    private Filter newFilter(int capacity) {
+
+        int bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, Math.ceil(capacity * bitsPerEntry)));
+
+        return new Filter(new AtomicLongArray((bitCount + 63) / 64), bitCount, capacity);
+    }
+
+    private void add(Filter target, String jti) {
+
+        long hash = hash64(jti);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, target.bitCount());
+            long mask = 1L << (bit & 63);
+            int word = bit >>> 6;
+
+            long current;
+            do {
+                current = target.bits().get(word);
+            } while ((current & mask) == 0 && !target.bits().compareAndSet(word, current, current | mask));
+        }
+    }
+
+    private boolean mightContain(Filter source, String jti) {
+
+        long hash = hash64(jti);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, source.bitCount());
+
+            if ((source.bits().get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    //FNV-1a de 64 bits con mezcla final; de sus dos mitades salen las k posiciones (Kirsch-Mitzenmacher)
+    private static long hash64(String value) {
+
+        long hash = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+
+    int getBitCount() {
+        return filter.bitCount();
+    }
+
+    int getCapacity() {
+        return filter.capacity();
+    }
+
+    synchronized int getRebuildCount() {
+        return rebuilds;
+    }
+
+    int getHashCount() {
+        return hashCount;
+    }
+}
@@ -0,0 +1,40 @@
+package com.backend.dogwalks.security.user.jwt;
+
+import com.backend.dogwalks.user.enums.Role;
+import io.jsonwebtoken.Claims;
+
+public record VerifiedToken(
+        String email,
+        Long id,
+        Role role,
+        long issuedAt,
+        long expiresAt,
+        String jti
+) {
+
+    public static VerifiedToken from(Claims claims) {
+        return new VerifiedToken(
+                claims.getSubject(),
+                claims.get("id", Long.class),
+                parseRole(claims.get("role", String.class)),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                claims.getExpiration().getTime(),
+                claims.getId()
+        );
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+
+    //el claim "role" se genera como "[ROLE_USER]"
+    private static Role parseRole(String roleClaim) {
+        if (roleClaim == null) {
+            return null;
+        }
+
+        String roleName = roleClaim.replace("[", "").replace("]", "").replace("ROLE_", "").trim();
+
+        return roleName.isEmpty() ? null : Role.valueOf(roleName);
+    }
+}
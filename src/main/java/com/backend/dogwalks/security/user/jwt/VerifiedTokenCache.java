@@ -0,0 +1,55 @@
+package com.backend.dogwalks.security.user.jwt;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final LinkedHashMap<String, VerifiedToken> entries;
+
+    public VerifiedTokenCache(int maxSize) {
+        if (maxSize < 0) throw new IllegalArgumentException("Cache size must be 0 or greater");
+
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > VerifiedTokenCache.this.maxSize;
+            }
+        };
+    }
+
+    public synchronized VerifiedToken get(String token, long now) {
+
+        VerifiedToken verified = entries.get(token);
+
+        if (verified != null && verified.isExpired(now)) {
+            entries.remove(token);
+            return null;
+        }
+
+        return verified;
+    }
+
+    public synchronized void put(String token, VerifiedToken verified) {
+
+        if (maxSize == 0) {
+            return;
+        }
+
+        entries.put(token, verified);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -2,25 +2,43 @@ package com.backend.dogwalks.security.walk;
 
 import com.backend.dogwalks.exception.custom_exception.EntityNotFoundException;
 import com.backend.dogwalks.security.user.CustomUserDetails;
-import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.owner.WalkOwnerIndex;
 import com.backend.dogwalks.walk.repository.WalkRepository;
+import com.backend.dogwalks.walk.service.WalkRequestContext;
 import org.springframework.stereotype.Component;
 
 @Component("walkSecurity")
 public class WalkSecurity {
 
     private final WalkRepository walkRepository;
+    private final WalkRequestContext walkRequestContext;
+    private final WalkOwnerIndex walkOwnerIndex;
 
-    public WalkSecurity(WalkRepository walkRepository) {
+    public WalkSecurity(WalkRepository walkRepository, WalkRequestContext walkRequestContext, WalkOwnerIndex walkOwnerIndex) {
         this.walkRepository = walkRepository;
+        this.walkRequestContext = walkRequestContext;
+        this.walkOwnerIndex = walkOwnerIndex;
     }
 
+    //el dueño sale del índice en memoria; si no está, una sola consulta con el dueño incluido y el paseo pasa al servicio
     public boolean canAccessWalk(Long walkId, CustomUserDetails userDetails) {
-        Walk walk = walkRepository.findById(walkId).orElseThrow(() -> new EntityNotFoundException("Walk with id " + walkId + " not found"));
+        boolean admin = userDetails.getAuthorities().stream().anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+        long ownerId = walkOwnerIndex.ownerOf(walkId);
 
-        CustomUser user = userDetails.getUser();
+        if (ownerId != WalkOwnerIndex.NO_OWNER) {
+            return ownerId == userDetails.getId() || admin;
+        }
 
-        return walk.getUser().getId().equals(user.getId()) || userDetails.getAuthorities().stream().anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+        Walk walk = walkRepository.findWithUserById(walkId).orElseThrow(() -> new EntityNotFoundException("Walk with id " + walkId + " not found"));
+        walkOwnerIndex.put(walk.getId(), walk.getUser().getId());
+
+        boolean allowed = walk.getUser().getId().equals(userDetails.getId()) || admin;
+
+        if (allowed) {
+            walkRequestContext.handOff(walk);
+        }
+
+        return allowed;
     }
 }
@@ -1,5 +1,9 @@
 package com.backend.dogwalks.user.controller;
 
+import com.backend.dogwalks.config.http.VersionTag;
+import com.backend.dogwalks.image.dto.ImageUploadResponse;
+import com.backend.dogwalks.image.enums.ImageTarget;
+import com.backend.dogwalks.image.service.ImageUploadService;
 import com.backend.dogwalks.security.user.CustomUserDetails;
 import com.backend.dogwalks.user.dto.user.CustomUserResponse;
 import com.backend.dogwalks.user.dto.user.CustomUserUpdateEmailRequest;
@@ -7,20 +11,27 @@ import com.backend.dogwalks.user.dto.user.CustomUserUpdatePasswordRequest;
 import com.backend.dogwalks.user.dto.user.CustomUserUpdateRequest;
 import com.backend.dogwalks.user.service.CustomUserService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/users")
 public class CustomUserController {
 
     private final CustomUserService customUserService;
+    private final ImageUploadService imageUploadService;
 
-    public CustomUserController(CustomUserService customUserService) {
+    public CustomUserController(CustomUserService customUserService, ImageUploadService imageUploadService) {
         this.customUserService = customUserService;
+        this.imageUploadService = imageUploadService;
     }
 
     @GetMapping("/profile")
@@ -29,7 +40,7 @@ public class CustomUserController {
         Long id = userDetails.getId();
         CustomUserResponse userResponse = customUserService.getMyProfile(id);
 
-        return new ResponseEntity<>(userResponse, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(VersionTag.of(userResponse.version())).body(userResponse);
     }
 
     @PutMapping("/profile")
@@ -37,9 +48,32 @@ public class CustomUserController {
     public ResponseEntity<CustomUserResponse> updateMyProfile(@AuthenticationPrincipal CustomUserDetails userDetails, @Valid @RequestBody CustomUserUpdateRequest request) {
 
         Long id = userDetails.getId();
-        CustomUserResponse updatedUser = customUserService.updateMyProfile(id, request);
+        CustomUserResponse updatedUser = customUserService.updateMyProfile(id, request, null);
+
+        return ResponseEntity.ok().eTag(VersionTag.of(updatedUser.version())).body(updatedUser);
+    }
+
+    //solo los campos enviados; con If-Match (ETag de GET /profile) no pisa cambios hechos desde otra sesión
+    @PatchMapping("/profile")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<CustomUserResponse> patchMyProfile(@AuthenticationPrincipal CustomUserDetails userDetails, @Valid @RequestBody CustomUserUpdateRequest request,
+                                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        Long id = userDetails.getId();
+        CustomUserResponse updatedUser = customUserService.updateMyProfile(id, request, VersionTag.parseIfMatch(ifMatch));
+
+        return ResponseEntity.ok().eTag(VersionTag.of(updatedUser.version())).body(updatedUser);
+    }
+
+    //202 en cuanto el fichero está en disco; la imagen del perfil cambia al terminar la subida (estado en Location)
+    @PostMapping(value = "/profile/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<ImageUploadResponse> uploadMyProfileImage(@AuthenticationPrincipal CustomUserDetails userDetails, @RequestParam("file") MultipartFile file) {
+
+        Long id = userDetails.getId();
+        ImageUploadResponse response = imageUploadService.accept(ImageTarget.USER, id, id, file);
 
-        return new ResponseEntity<>(updatedUser, HttpStatus.OK);
+        return ResponseEntity.accepted().location(URI.create("/api/uploads/" + response.id())).body(response);
     }
 
     @PutMapping("/profile/email")
@@ -49,7 +83,7 @@ public class CustomUserController {
         Long id = userDetails.getId();
         CustomUserResponse updatedUser = customUserService.updateMyEmail(id, request);
 
-        return new ResponseEntity<>(updatedUser, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(VersionTag.of(updatedUser.version())).body(updatedUser);
     }
 
     @PutMapping("/profile/password")
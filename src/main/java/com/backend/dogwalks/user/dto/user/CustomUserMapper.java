@@ -6,7 +6,7 @@ import com.backend.dogwalks.user.entity.CustomUser;
 public class CustomUserMapper {
 
     public static CustomUserResponse toDto(CustomUser user) {
-    return new CustomUserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getUserImgUrl());
+    return new CustomUserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getUserImgUrl(), user.getVersion());
     }
 
     public static void updateFromCustomUserUpdateRequest(CustomUser user, CustomUserUpdateRequest request) {
@@ -4,6 +4,7 @@ public record CustomUserResponse(
         Long id,
         String username,
         String email,
-        String userImgUrl
+        String userImgUrl,
+        Long version
 ) {
 }
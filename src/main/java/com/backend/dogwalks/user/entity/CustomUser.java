@@ -1,24 +1,29 @@
 package com.backend.dogwalks.user.entity;
 
+import com.backend.dogwalks.config.id.TimeOrderedId;
 import com.backend.dogwalks.user.enums.Role;
 import com.backend.dogwalks.walk.entity.Walk;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "users")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CustomUser {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false, length = 50)
@@ -40,9 +45,16 @@ public class CustomUser {
     @Column(nullable = false, name = "is_active")
     private Boolean isActive = true;
 
+    //el listado de admin inicializa los walks de una página entera de usuarios con un solo IN
+    //añadir o quitar paseos no cambia la versión del perfil
+    @BatchSize(size = 100)
+    @OptimisticLock(excluded = true)
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Walk> walks = new ArrayList<>();
 
+    @Version
+    private Long version;
+
     public CustomUser(String username, String email, String password) {
         this.username = username;
         this.email = email;
@@ -0,0 +1,21 @@
+package com.backend.dogwalks.user.event;
+
+public record UserChangedEvent(
+        Long userId,
+        String previousEmail,
+        boolean revokesTokens,
+        WalkImpact walkImpact
+) {
+
+    //qué cambia en las respuestas de los paseos del usuario: el detalle lleva su username y las listas solo paseos activos
+    public enum WalkImpact {
+        NONE,
+        RENAMED,
+        HIDDEN,
+        DELETED
+    }
+
+    public UserChangedEvent(Long userId, String previousEmail, boolean revokesTokens) {
+        this(userId, previousEmail, revokesTokens, WalkImpact.NONE);
+    }
+}
@@ -3,6 +3,9 @@ package com.backend.dogwalks.user.repository;
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -16,4 +19,13 @@ public interface CustomUserRepository extends JpaRepository <CustomUser, Long> {
     long countByRoleAndIsActive(Role role, Boolean isActive);
     Optional<CustomUser> findByIdAndIsActive(Long id, Boolean isActive);
     boolean existsByEmailAndIdNot(String email, Long id);
+
+    @Modifying
+    @Query("UPDATE CustomUser u SET u.password = :password WHERE u.id = :id")
+    int updatePasswordById(@Param("id") Long id, @Param("password") String password);
+
+    //los paseos se borran antes con WalkRepository.deleteAllByUserId; sin cascada desde el contexto de persistencia
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM CustomUser u WHERE u.id = :id")
+    int deleteUserById(@Param("id") Long id);
 }
@@ -7,13 +7,21 @@ import com.backend.dogwalks.user.dto.admin.AdminUserRequest;
 import com.backend.dogwalks.user.dto.admin.AdminUserResponse;
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.lang.IllegalStateException;
 import java.util.Set;
 
@@ -22,9 +30,19 @@ import java.util.Set;
 public class AdminService {
 
     private final CustomUserRepository customUserRepository;
+    private final WalkRepository walkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate chunkTransaction;
+    private final int deleteChunkSize;
     private static final Set<String> ALLOWED_SORT_FIELDS = Set.of("id", "username", "email", "isActive");
-    public AdminService(CustomUserRepository customUserRepository) {
+    public AdminService(CustomUserRepository customUserRepository, WalkRepository walkRepository, ApplicationEventPublisher eventPublisher,
+                        PlatformTransactionManager transactionManager, @Value("${app.admin.delete-chunk-size:0}") int deleteChunkSize) {
         this.customUserRepository = customUserRepository;
+        this.walkRepository = walkRepository;
+        this.eventPublisher = eventPublisher;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.deleteChunkSize = deleteChunkSize;
     }
 
     @Transactional(readOnly = true)
@@ -67,20 +85,53 @@ public class AdminService {
         validateRoleChange(user, request.role());
         validateIsActiveChange(user, request.isActive());
 
+        boolean revokesTokens = changesTokenClaims(user, request);
+        //desactivar desde aquí no toca los paseos: siguen publicados y solo cambia el username que muestra el detalle
+        boolean renamed = request.username() != null && !request.username().equals(user.getUsername());
+        String previousEmail = user.getEmail();
+
         AdminUserMapper.updateFromAdminRequest(user, request);
 
         CustomUser savedUser = customUserRepository.save(user);
 
+        eventPublisher.publishEvent(new UserChangedEvent(id, previousEmail, revokesTokens, renamed ? WalkImpact.RENAMED : WalkImpact.NONE));
+
         return AdminUserMapper.toDto(savedUser);
     }
 
+    //paseos y usuario con dos DELETE en bloque, sin cargar los paseos en el contexto de persistencia
     public void deleteUser(Long id) {
 
         CustomUser user = findById(id);
 
         validateNotLastAdmin(user);
 
-        customUserRepository.delete(user);
+        if (deleteChunkSize > 0) {
+            deleteWalksInChunks(id);
+        }
+
+        walkRepository.deleteAllByUserId(id);
+        customUserRepository.deleteUserById(id);
+
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.getEmail(), true, WalkImpact.DELETED));
+    }
+
+    //cada lote se confirma en su propia transacción, así los bloqueos duran un lote y no el borrado entero
+    //si se corta a medias el usuario sigue existiendo y repetir el borrado lo termina
+    private void deleteWalksInChunks(Long userId) {
+
+        int deleted;
+        do {
+            deleted = chunkTransaction.execute(status -> walkRepository.deleteChunkByUserId(userId, deleteChunkSize));
+        } while (deleted == deleteChunkSize);
+    }
+
+    //los tokens llevan e-mail y rol, y el filtro ya no consulta si el usuario sigue activo
+    private boolean changesTokenClaims(CustomUser user, AdminUserRequest request) {
+
+        return (request.role() != null && request.role() != user.getRole())
+                || (request.isActive() != null && !request.isActive().equals(user.getIsActive()))
+                || (request.email() != null && !request.email().equals(user.getEmail()));
     }
 
     private void validateUniqueFields(AdminUserRequest request, Long id) {
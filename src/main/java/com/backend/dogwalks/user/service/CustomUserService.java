@@ -1,11 +1,16 @@
 package com.backend.dogwalks.user.service;
 
+import com.backend.dogwalks.config.http.VersionTag;
 import com.backend.dogwalks.exception.custom_exception.EntityAlreadyExistsException;
 import com.backend.dogwalks.exception.custom_exception.EntityNotFoundException;
 import com.backend.dogwalks.exception.custom_exception.InvalidCredentialsException;
 import com.backend.dogwalks.user.dto.user.*;
 import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,11 +20,16 @@ import org.springframework.transaction.annotation.Transactional;
 public class CustomUserService {
 
     private final CustomUserRepository customUserRepository;
+    private final WalkRepository walkRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CustomUserService(CustomUserRepository customUserRepository, PasswordEncoder passwordEncoder) {
+    public CustomUserService(CustomUserRepository customUserRepository, WalkRepository walkRepository, PasswordEncoder passwordEncoder,
+                             ApplicationEventPublisher eventPublisher) {
         this.customUserRepository = customUserRepository;
+        this.walkRepository = walkRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -30,13 +40,21 @@ public class CustomUserService {
         return CustomUserMapper.toDto(user);
     }
 
-    public CustomUserResponse updateMyProfile(Long id, CustomUserUpdateRequest request) {
+    //PUT y PATCH: los campos a null no se tocan; expectedVersion viene de If-Match y es null si no hay precondición
+    public CustomUserResponse updateMyProfile(Long id, CustomUserUpdateRequest request, Long expectedVersion) {
 
         CustomUser user = findActiveUserById(id);
 
+        VersionTag.check(expectedVersion, user.getVersion());
+
+        boolean renamed = request.username() != null && !request.username().equals(user.getUsername());
+
         CustomUserMapper.updateFromCustomUserUpdateRequest(user, request);
 
-        CustomUser updatedUser = customUserRepository.save(user);
+        //flush para que la respuesta lleve la versión nueva
+        CustomUser updatedUser = customUserRepository.saveAndFlush(user);
+
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.getEmail(), false, renamed ? WalkImpact.RENAMED : WalkImpact.NONE));
 
         return CustomUserMapper.toDto(updatedUser);
     }
@@ -47,9 +65,13 @@ public class CustomUserService {
 
         validateEmailChange(request, user);
 
+        String previousEmail = user.getEmail();
         user.setEmail(request.newEmail());
 
-        CustomUser updatedUser = customUserRepository.save(user);
+        CustomUser updatedUser = customUserRepository.saveAndFlush(user);
+
+        //los tokens emitidos llevan el e-mail anterior como principal: se revocan y hay que volver a iniciar sesión
+        eventPublisher.publishEvent(new UserChangedEvent(id, previousEmail, true));
 
         return CustomUserMapper.toDto(updatedUser);
     }
@@ -63,6 +85,8 @@ public class CustomUserService {
         user.setPassword(passwordEncoder.encode(request.newPassword()));
 
         customUserRepository.save(user);
+
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.getEmail(), false));
     }
 
     public void deactivateMyProfile(Long id) {
@@ -72,6 +96,12 @@ public class CustomUserService {
         user.setIsActive(false);
 
         customUserRepository.save(user);
+
+        //una cuenta desactivada deja de publicar paseos: un solo UPDATE por user_id
+        //los índices en memoria se resincronizan con el UserChangedEvent
+        walkRepository.deactivateAllByUserId(id);
+
+        eventPublisher.publishEvent(new UserChangedEvent(id, user.getEmail(), true, WalkImpact.HIDDEN));
     }
 
     public CustomUser findUserByEmail(String email) {
@@ -104,7 +134,8 @@ public class CustomUserService {
             throw new InvalidCredentialsException("New password and confirmation do not match");
         }
 
-        if(passwordEncoder.matches(request.newPassword(), user.getPassword())) {
+        //la contraseña actual ya se ha verificado, así que basta con compararlas sin otro bcrypt
+        if(request.newPassword().equals(request.oldPassword())) {
             throw new InvalidCredentialsException("New password must be different from current password");
         }
     }
@@ -0,0 +1,241 @@
+package com.backend.dogwalks.walk.cache;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
+import com.backend.dogwalks.walk.dto.OwnedWalkDetail;
+import com.backend.dogwalks.walk.dto.WalkDetailResponse;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+//caché read-through del detalle público: LRU acotada, entradas negativas para ids inexistentes o inactivos
+//y una sola carga a la vez por id aunque lleguen muchas peticiones a la vez
+@Component
+public class WalkDetailCache {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final LinkedHashMap<Long, Entry> entriesById;
+    private final Map<Long, Set<Long>> walkIdsByOwner = new HashMap<>();
+    private final ConcurrentHashMap<Long, CompletableFuture<Optional<OwnedWalkDetail>>> loading = new ConcurrentHashMap<>();
+    //cambia con cada evento de usuario: una carga que lo cruza no se guarda porque no se sabe de quién es hasta leerla
+    private final AtomicLong ownerInvalidations = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Clock clock;
+
+    //detail null = el paseo no existe o está inactivo
+    private record Entry(WalkDetailResponse detail, Long ownerId, long expiresAt) {
+    }
+
+    public WalkDetailCache(@Value("${app.cache.walk-detail.max-size:10000}") int maxSize,
+                           @Value("${app.cache.walk-detail.ttl:600000}") long ttlMillis,
+                           @Value("${app.cache.walk-detail.negative-ttl:30000}") long negativeTtlMillis,
+                           Clock clock,
+                           MeterRegistry meterRegistry) {
+
+        if (maxSize < 0) throw new IllegalArgumentException("Cache size must be 0 or greater");
+
+        this.clock = clock;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.entriesById = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > WalkDetailCache.this.maxSize) {
+                    unlinkOwner(eldest.getKey(), eldest.getValue());
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get).tag("cache", "walkDetail").tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get).tag("cache", "walkDetail").tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("cache.loads", loads, AtomicLong::get).tag("cache", "walkDetail").register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get).tag("cache", "walkDetail").register(meterRegistry);
+        Gauge.builder("cache.size", this, WalkDetailCache::size).tag("cache", "walkDetail").register(meterRegistry);
+    }
+
+    public Optional<WalkDetailResponse> get(Long id, Function<Long, Optional<OwnedWalkDetail>> loader) {
+
+        Entry cached = lookup(id);
+
+        if (cached != null) {
+            return Optional.ofNullable(cached.detail());
+        }
+
+        CompletableFuture<Optional<OwnedWalkDetail>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<OwnedWalkDetail>> running = loading.putIfAbsent(id, mine);
+
+        if (running != null) {
+            return await(running).map(OwnedWalkDetail::detail);
+        }
+
+        try {
+            long invalidationsBefore = ownerInvalidations.get();
+            Optional<OwnedWalkDetail> loaded = loader.apply(id);
+            loads.incrementAndGet();
+
+            store(id, loaded, mine, invalidationsBefore);
+            mine.complete(loaded);
+
+            return loaded.map(OwnedWalkDetail::detail);
+        } catch (RuntimeException exception) {
+            mine.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            loading.remove(id, mine);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWalkChanged(WalkChangedEvent event) {
+        evict(event.walkId());
+    }
+
+    //cambio de username, desactivación o borrado del dueño; registro, contraseña o imagen no tocan el detalle
+    //y no deben soltar las cargas en curso
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+
+        if (event.walkImpact() == WalkImpact.NONE) {
+            return;
+        }
+
+        evictByOwner(event.userId());
+    }
+
+    //también se suelta la carga en curso: lo que lea puede ser anterior al cambio
+    public synchronized void evict(Long id) {
+        loading.remove(id);
+        remove(id);
+    }
+
+    public synchronized void evictByOwner(Long ownerId) {
+
+        ownerInvalidations.incrementAndGet();
+
+        Set<Long> walkIds = walkIdsByOwner.remove(ownerId);
+
+        if (walkIds != null) {
+            walkIds.forEach(entriesById::remove);
+        }
+    }
+
+    public synchronized void clear() {
+        entriesById.clear();
+        walkIdsByOwner.clear();
+    }
+
+    public synchronized int size() {
+        return entriesById.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    private synchronized Entry lookup(Long id) {
+
+        Entry entry = entriesById.get(id);
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        if (entry.expiresAt() <= clock.millis()) {
+            remove(id);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        return entry;
+    }
+
+    //solo se guarda si nadie invalidó el id ni un usuario mientras se leía
+    private synchronized void store(Long id, Optional<OwnedWalkDetail> loaded, CompletableFuture<Optional<OwnedWalkDetail>> mine, long invalidationsBefore) {
+
+        if (maxSize == 0 || loading.get(id) != mine || ownerInvalidations.get() != invalidationsBefore) {
+            return;
+        }
+
+        long now = clock.millis();
+        Entry entry = loaded
+                .map(owned -> new Entry(owned.detail(), owned.ownerId(), now + ttlMillis))
+                .orElseGet(() -> new Entry(null, null, now + negativeTtlMillis));
+
+        remove(id);
+        entriesById.put(id, entry);
+
+        if (entry.ownerId() != null && entriesById.containsKey(id)) {
+            walkIdsByOwner.computeIfAbsent(entry.ownerId(), key -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void remove(Long id) {
+
+        Entry removed = entriesById.remove(id);
+
+        if (removed != null) {
+            unlinkOwner(id, removed);
+        }
+    }
+
+    private void unlinkOwner(Long id, Entry entry) {
+
+        if (entry.ownerId() == null) {
+            return;
+        }
+
+        Set<Long> walkIds = walkIdsByOwner.get(entry.ownerId());
+
+        if (walkIds != null) {
+            walkIds.remove(id);
+
+            if (walkIds.isEmpty()) {
+                walkIdsByOwner.remove(entry.ownerId());
+            }
+        }
+    }
+
+    private static Optional<OwnedWalkDetail> await(CompletableFuture<Optional<OwnedWalkDetail>> running) {
+        try {
+            return running.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+}
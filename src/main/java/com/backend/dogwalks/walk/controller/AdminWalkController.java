@@ -0,0 +1,39 @@
+package com.backend.dogwalks.walk.controller;
+
+import com.backend.dogwalks.walk.enums.ExportFormat;
+import com.backend.dogwalks.walk.service.WalkExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/admin/walks")
+public class AdminWalkController {
+
+    private final WalkExportService walkExportService;
+
+    public AdminWalkController(WalkExportService walkExportService) {
+        this.walkExportService = walkExportService;
+    }
+
+    //el cuerpo se escribe en un hilo asíncrono (spring.mvc.async.request-timeout limita la duración)
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportWalks(@RequestParam(defaultValue = "ndjson") String format) {
+
+        ExportFormat exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = outputStream -> walkExportService.export(exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("walks." + exportFormat.getExtension()).build().toString())
+                .body(body);
+    }
+}
@@ -1,29 +1,57 @@
 package com.backend.dogwalks.walk.controller;
 
+import com.backend.dogwalks.config.http.VersionTag;
+import com.backend.dogwalks.image.dto.ImageUploadResponse;
+import com.backend.dogwalks.image.enums.ImageTarget;
+import com.backend.dogwalks.image.service.ImageUploadService;
 import com.backend.dogwalks.security.user.CustomUserDetails;
-import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.walk.dto.BulkWalkResponse;
+import com.backend.dogwalks.walk.dto.CursorPage;
+import com.backend.dogwalks.walk.dto.WalkBulkUpdate;
 import com.backend.dogwalks.walk.dto.WalkDetailResponse;
+import com.backend.dogwalks.walk.dto.WalkFilter;
+import com.backend.dogwalks.walk.dto.WalkNearbyResponse;
+import com.backend.dogwalks.walk.dto.WalkPatchRequest;
 import com.backend.dogwalks.walk.dto.WalkRequest;
 import com.backend.dogwalks.walk.dto.WalkResponse;
 import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+import com.backend.dogwalks.walk.service.WalkBulkService;
 import com.backend.dogwalks.walk.service.WalkService;
+import com.backend.dogwalks.walk.version.ResourceVersion;
+import com.backend.dogwalks.walk.version.WalkVersionTracker;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/walks")
 public class WalkController {
 
     private final WalkService walkService;
+    private final WalkBulkService walkBulkService;
+    private final WalkVersionTracker walkVersionTracker;
+    private final ImageUploadService imageUploadService;
 
-    public WalkController(WalkService walkService) {
+    public WalkController(WalkService walkService, WalkBulkService walkBulkService, WalkVersionTracker walkVersionTracker,
+                          ImageUploadService imageUploadService) {
         this.walkService = walkService;
+        this.walkBulkService = walkBulkService;
+        this.walkVersionTracker = walkVersionTracker;
+        this.imageUploadService = imageUploadService;
     }
 
     @GetMapping("/public")
@@ -31,9 +59,62 @@ public class WalkController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortDir
+            @RequestParam(defaultValue = "ASC") String sortDir,
+            @ModelAttribute WalkFilter filter,
+            WebRequest webRequest
     ) {
-        Page<WalkSummaryResponse> walks = walkService.getAllWalksSummary(page, size, sortBy, sortDir);
+        //la versión se lee antes que los datos: si cambian entre medias el ETag queda viejo y el cliente vuelve a pedir
+        ResourceVersion version = walkVersionTracker.feedVersion();
+
+        if (webRequest.checkNotModified(version.etag(), version.lastModified())) {
+            return notModified();
+        }
+
+        Page<WalkSummaryResponse> walks = walkService.getAllWalksSummary(page, size, sortBy, sortDir, filter);
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(walks);
+    }
+
+    //con el parámetro cursor (vacío para la primera página) se pagina por keyset
+    @GetMapping(value = "/public", params = "cursor")
+    public ResponseEntity<CursorPage<WalkSummaryResponse>> getWalksSummaryFeed(
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDir,
+            @ModelAttribute WalkFilter filter,
+            WebRequest webRequest
+    ) {
+        ResourceVersion version = walkVersionTracker.feedVersion();
+
+        if (webRequest.checkNotModified(version.etag(), version.lastModified())) {
+            return notModified();
+        }
+
+        CursorPage<WalkSummaryResponse> walks = walkService.getWalksSummaryFeed(cursor, size, sortBy, sortDir, filter);
+
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(walks);
+    }
+
+    @GetMapping("/public/search")
+    public ResponseEntity<CursorPage<WalkSummaryResponse>> searchWalks(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        CursorPage<WalkSummaryResponse> walks = walkService.searchWalks(q, cursor, size);
+
+        return new ResponseEntity<>(walks, HttpStatus.OK);
+    }
+
+    @GetMapping("/public/nearby")
+    public ResponseEntity<List<WalkNearbyResponse>> getNearbyWalks(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        List<WalkNearbyResponse> walks = walkService.getNearbyWalks(lat, lon, radiusKm, size);
 
         return new ResponseEntity<>(walks, HttpStatus.OK);
     }
@@ -44,18 +125,25 @@ public class WalkController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "ASC") String sortDir,
+            @ModelAttribute WalkFilter filter,
             @AuthenticationPrincipal CustomUserDetails userDetails) {
-        Page<WalkResponse> walks = walkService.getAllWalksPaginated(userDetails.getUser(), page, size, sortBy, sortDir);
+        Page<WalkResponse> walks = walkService.getAllWalksPaginated(userDetails.getId(), userDetails.getRole(), page, size, sortBy, sortDir, filter);
 
         return new ResponseEntity<>(walks, HttpStatus.OK);
     }
 
     @GetMapping("/public/{id}")
-    public ResponseEntity<WalkDetailResponse> getWalkDetailById(@PathVariable Long id) {
+    public ResponseEntity<WalkDetailResponse> getWalkDetailById(@PathVariable Long id, WebRequest webRequest) {
+
+        Optional<ResourceVersion> version = walkVersionTracker.walkVersion(id);
+
+        if (version.isPresent() && webRequest.checkNotModified(version.get().etag(), version.get().lastModified())) {
+            return notModified();
+        }
 
         WalkDetailResponse response = walkService.getWalkDetailById(id);
 
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(response);
     }
 
     @GetMapping("/{id}")
@@ -64,7 +152,7 @@ public class WalkController {
 
         WalkResponse response = walkService.getWalkById(id);
 
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(VersionTag.of(response.version())).body(response);
     }
 
     @PostMapping
@@ -72,19 +160,68 @@ public class WalkController {
     public ResponseEntity<WalkResponse> addWalk(@Valid @RequestBody WalkRequest request, Authentication authentication) {
 
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
-        CustomUser user = userDetails.getUser();
-        WalkResponse response = walkService.addWalk(request, user);
+        WalkResponse response = walkService.addWalk(request, userDetails.getId());
 
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    //cada elemento se valida por separado: la respuesta dice qué se escribió y por qué no el resto
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<BulkWalkResponse> addWalks(@RequestBody List<WalkRequest> requests, @AuthenticationPrincipal CustomUserDetails userDetails) {
+
+        BulkWalkResponse response = walkBulkService.addWalks(requests, userDetails.getId());
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PatchMapping("/bulk")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<BulkWalkResponse> updateWalks(@RequestBody List<WalkBulkUpdate> updates, @AuthenticationPrincipal CustomUserDetails userDetails) {
+
+        BulkWalkResponse response = walkBulkService.updateWalks(updates, userDetails.getId(), userDetails.getRole());
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/bulk")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<BulkWalkResponse> deleteWalks(@RequestBody List<Long> ids, @AuthenticationPrincipal CustomUserDetails userDetails) {
+
+        BulkWalkResponse response = walkBulkService.deleteWalks(ids, userDetails.getId(), userDetails.getRole());
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("@walkSecurity.canAccessWalk(#id, authentication.principal)")
     public ResponseEntity<WalkResponse> updateWalk(@PathVariable Long id, @Valid @RequestBody WalkRequest request) {
 
         WalkResponse response = walkService.updateWalk(id, request);
 
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return ResponseEntity.ok().eTag(VersionTag.of(response.version())).body(response);
+    }
+
+    //solo los campos enviados; con If-Match (ETag de GET /api/walks/{id}) no pisa cambios de otra petición
+    @PatchMapping("/{id}")
+    @PreAuthorize("@walkSecurity.canAccessWalk(#id, authentication.principal)")
+    public ResponseEntity<WalkResponse> patchWalk(@PathVariable Long id, @Valid @RequestBody WalkPatchRequest request,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        WalkResponse response = walkService.patchWalk(id, request, VersionTag.parseIfMatch(ifMatch));
+
+        return ResponseEntity.ok().eTag(VersionTag.of(response.version())).body(response);
+    }
+
+    //202 en cuanto el fichero está en disco; la URL del paseo cambia al terminar la subida (estado en Location)
+    @PostMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("@walkSecurity.canAccessWalk(#id, authentication.principal)")
+    public ResponseEntity<ImageUploadResponse> uploadWalkImage(@PathVariable Long id, @RequestParam("file") MultipartFile file,
+                                                               @AuthenticationPrincipal CustomUserDetails userDetails) {
+
+        ImageUploadResponse response = imageUploadService.accept(ImageTarget.WALK, id, userDetails.getId(), file);
+
+        return ResponseEntity.accepted().location(URI.create("/api/uploads/" + response.id())).body(response);
     }
 
     @DeleteMapping("/{id}")
@@ -95,4 +232,9 @@ public class WalkController {
 
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    //no-cache: el cliente puede guardar la respuesta pero revalida siempre con If-None-Match
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CacheControl.noCache()).build();
+    }
 }
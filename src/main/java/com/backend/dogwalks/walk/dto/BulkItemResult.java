@@ -0,0 +1,12 @@
+package com.backend.dogwalks.walk.dto;
+
+import com.backend.dogwalks.walk.enums.BulkItemStatus;
+
+//index es la posición en la lista enviada; id es null si el paseo no llegó a crearse
+public record BulkItemResult(
+        int index,
+        Long id,
+        BulkItemStatus status,
+        String message
+) {
+}
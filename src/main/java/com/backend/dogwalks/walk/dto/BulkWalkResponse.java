@@ -0,0 +1,10 @@
+package com.backend.dogwalks.walk.dto;
+
+import java.util.List;
+
+public record BulkWalkResponse(
+        int succeeded,
+        int failed,
+        List<BulkItemResult> results
+) {
+}
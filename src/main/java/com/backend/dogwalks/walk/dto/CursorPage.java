@@ -0,0 +1,12 @@
+package com.backend.dogwalks.walk.dto;
+
+import java.util.List;
+
+//página por cursor: sin total, solo el cursor opaco para pedir la siguiente
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+}
@@ -0,0 +1,16 @@
+package com.backend.dogwalks.walk.dto;
+
+import java.time.LocalDateTime;
+
+//detalle público más el id del dueño, que la caché necesita para invalidar cuando cambia el usuario
+public record OwnedWalkDetail(
+        Long ownerId,
+        WalkDetailResponse detail
+) {
+
+    //constructor plano para la expresión "new" de JPQL
+    public OwnedWalkDetail(Long ownerId, Long id, String title, String location, Integer duration, String description, String walkImgUrl,
+                           String username, LocalDateTime createdAt) {
+        this(ownerId, new WalkDetailResponse(id, title, location, duration, description, walkImgUrl, username, createdAt));
+    }
+}
@@ -0,0 +1,7 @@
+package com.backend.dogwalks.walk.dto;
+
+public record WalkBulkUpdate(
+        Long id,
+        WalkRequest walk
+) {
+}
@@ -0,0 +1,12 @@
+package com.backend.dogwalks.walk.dto;
+
+import org.springframework.data.domain.Sort;
+
+//posición del último elemento devuelto: valor del campo de orden más el id como desempate
+public record WalkCursor(
+        String sortBy,
+        Sort.Direction direction,
+        Comparable<?> lastValue,
+        Long lastId
+) {
+}
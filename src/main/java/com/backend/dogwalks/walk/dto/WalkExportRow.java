@@ -0,0 +1,19 @@
+package com.backend.dogwalks.walk.dto;
+
+import java.time.LocalDateTime;
+
+public record WalkExportRow(
+        Long id,
+        Long userId,
+        String username,
+        String title,
+        String location,
+        Integer duration,
+        String description,
+        String walkImgUrl,
+        Boolean isActive,
+        Double latitude,
+        Double longitude,
+        LocalDateTime createdAt
+) {
+}
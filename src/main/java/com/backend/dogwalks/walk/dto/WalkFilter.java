@@ -0,0 +1,60 @@
+package com.backend.dogwalks.walk.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+
+//filtros opcionales de los listados; createdTo es exclusivo para poder pedir "este mes" sin ajustar horas
+public record WalkFilter(
+        Integer minDuration,
+        Integer maxDuration,
+        String location,
+        String locationPrefix,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime createdFrom,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        LocalDateTime createdTo,
+        Long ownerId
+) {
+
+    public static final WalkFilter NONE = new WalkFilter(null, null, null, null, null, null, null);
+
+    //un parámetro vacío (?location=) cuenta como no enviado
+    public WalkFilter {
+        location = location != null && !location.isBlank() ? location.strip() : null;
+        locationPrefix = locationPrefix != null && !locationPrefix.isBlank() ? locationPrefix.strip() : null;
+    }
+
+    public WalkFilter withOwnerId(Long ownerId) {
+        return new WalkFilter(minDuration, maxDuration, location, locationPrefix, createdFrom, createdTo, ownerId);
+    }
+
+    public boolean hasDuration() {
+        return minDuration != null || maxDuration != null;
+    }
+
+    public boolean hasCreatedRange() {
+        return createdFrom != null || createdTo != null;
+    }
+
+    public boolean isEmpty() {
+        return !hasDuration() && !hasCreatedRange() && location == null && locationPrefix == null && ownerId == null;
+    }
+
+    //forma canónica para firmar cursores: un cursor solo sirve con los mismos filtros
+    public String toKey() {
+
+        StringJoiner key = new StringJoiner("&");
+
+        if (minDuration != null) key.add("minDuration=" + minDuration);
+        if (maxDuration != null) key.add("maxDuration=" + maxDuration);
+        if (location != null) key.add("location=" + location);
+        if (locationPrefix != null) key.add("locationPrefix=" + locationPrefix);
+        if (createdFrom != null) key.add("createdFrom=" + createdFrom);
+        if (createdTo != null) key.add("createdTo=" + createdTo);
+        if (ownerId != null) key.add("ownerId=" + ownerId);
+
+        return key.toString();
+    }
+}
@@ -2,11 +2,15 @@ package com.backend.dogwalks.walk.dto;
 
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.geo.GeoHit;
+import com.backend.dogwalks.walk.geo.WalkGeoPoint;
+import com.backend.dogwalks.walk.search.WalkSearchDocument;
 
 public class WalkMapper {
 
     public static Walk toEntity(WalkRequest request, CustomUser user) {
-        return new Walk(
+        Walk walk = new Walk(
                 request.title(),
                 request.location(),
                 request.duration(),
@@ -15,6 +19,10 @@ public class WalkMapper {
                 request.isActive(),
                 user
         );
+        walk.setLatitude(request.latitude());
+        walk.setLongitude(request.longitude());
+
+        return walk;
     }
 
     public static WalkResponse toDto(Walk walk) {
@@ -26,64 +34,106 @@ public class WalkMapper {
                 walk.getDuration(),
                 walk.getDescription(),
                 walk.getWalkImgUrl(),
+                walk.getLatitude(),
+                walk.getLongitude(),
                 walk.getIsActive(),
-                walk.getUser().getUsername()
+                walk.getUser().getUsername(),
+                walk.getVersion()
         );
     }
 
-    public static WalkSummaryResponse toSummaryDto(Walk walk) {
-        return new WalkSummaryResponse(
+    public static WalkAdminDtoResponse toDtoAdmin(Walk walk) {
+        return new WalkAdminDtoResponse(
                 walk.getId(),
                 walk.getTitle(),
-                walk.getLocation(),
-                walk.getDuration(),
-                walk.getWalkImgUrl(),
-                walk.getCreatedAt()
+                walk.getLocation()
         );
     }
 
-    public static WalkDetailResponse toDetailDto(Walk walk) {
-        return new WalkDetailResponse(
+    //getUser().getId() no inicializa el proxy del usuario
+    public static WalkSearchDocument toSearchDocument(Walk walk) {
+        return new WalkSearchDocument(
                 walk.getId(),
+                walk.getUser().getId(),
                 walk.getTitle(),
                 walk.getLocation(),
                 walk.getDuration(),
                 walk.getDescription(),
                 walk.getWalkImgUrl(),
-                walk.getUser().getUsername(),
                 walk.getCreatedAt()
         );
     }
 
-    public static WalkAdminDtoResponse toDtoAdmin(Walk walk) {
-        return new WalkAdminDtoResponse(
-                walk.getId(),
-                walk.getTitle(),
-                walk.getLocation()
+    public static WalkGeoPoint toGeoPoint(Walk walk) {
+        return new WalkGeoPoint(walk.getId(), walk.getUser().getId(), walk.getLatitude(), walk.getLongitude());
+    }
+
+    //los índices de búsqueda y geográfico solo contienen paseos activos
+    public static WalkChangedEvent toChangedEvent(Walk walk, boolean wasActive) {
+
+        boolean active = Boolean.TRUE.equals(walk.getIsActive());
+        WalkSearchDocument document = active ? toSearchDocument(walk) : null;
+        WalkGeoPoint point = active && walk.getLatitude() != null && walk.getLongitude() != null ? toGeoPoint(walk) : null;
+
+        return new WalkChangedEvent(walk.getId(), walk.getUser().getId(), wasActive, document, point);
+    }
+
+    public static WalkChangedEvent toDeletedEvent(Walk walk) {
+        return new WalkChangedEvent(walk.getId(), null, Boolean.TRUE.equals(walk.getIsActive()), null, null);
+    }
+
+    public static WalkNearbyResponse toNearbyDto(WalkSummaryResponse summary, GeoHit hit) {
+        return new WalkNearbyResponse(
+                summary.id(),
+                summary.title(),
+                summary.location(),
+                summary.duration(),
+                summary.walkImgUrl(),
+                summary.createAt(),
+                hit.latitude(),
+                hit.longitude(),
+                Math.round(hit.distanceKm() * 1000) / 1000.0
         );
     }
 
     public static void updateFromWalkRequest(Walk walk, WalkRequest request) {
-        if (request.title() != null) {
-            walk.setTitle(request.title());
+        applyChanges(walk, request.title(), request.location(), request.duration(), request.description(), request.walkImgUrl(),
+                request.isActive(), request.latitude(), request.longitude());
+        if (walk.getUser() != null) {
+            walk.setUser(walk.getUser());
+        }
+    }
+
+    public static void updateFromWalkPatchRequest(Walk walk, WalkPatchRequest request) {
+        applyChanges(walk, request.title(), request.location(), request.duration(), request.description(), request.walkImgUrl(),
+                request.isActive(), request.latitude(), request.longitude());
+    }
+
+    //PUT y PATCH: null significa "no tocar"; unas coordenadas guardadas se pueden sustituir pero no borrar
+    //los setters con el mismo valor no ensucian la entidad: solo cambian las columnas con valores nuevos
+    private static void applyChanges(Walk walk, String title, String location, Integer duration, String description, String walkImgUrl,
+                                     Boolean isActive, Double latitude, Double longitude) {
+        if (title != null) {
+            walk.setTitle(title);
         }
-        if (request.location() != null) {
-            walk.setLocation(request.location());
+        if (location != null) {
+            walk.setLocation(location);
         }
-        if (request.duration() != null) {
-            walk.setDuration(request.duration());
+        if (duration != null) {
+            walk.setDuration(duration);
         }
-        if (request.description() != null) {
-            walk.setDescription(request.description());
+        if (description != null) {
+            walk.setDescription(description);
         }
-        if (request.walkImgUrl() != null) {
-            walk.setWalkImgUrl(request.walkImgUrl());
+        if (walkImgUrl != null) {
+            walk.setWalkImgUrl(walkImgUrl);
         }
-        if (request.isActive() != null) {
-            walk.setIsActive(request.isActive());
+        if (isActive != null) {
+            walk.setIsActive(isActive);
         }
-        if (walk.getUser() != null) {
-            walk.setUser(walk.getUser());
+        if (latitude != null && longitude != null) {
+            walk.setLatitude(latitude);
+            walk.setLongitude(longitude);
         }
     }
 }
@@ -0,0 +1,20 @@
+package com.backend.dogwalks.walk.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+
+public record WalkNearbyResponse(
+        Long id,
+        String title,
+        String location,
+        Integer duration,
+        String walkImgUrl,
+
+        @JsonFormat(pattern = "dd-MM-yyyy HH:mm:ss")
+        LocalDateTime createAt,
+        Double latitude,
+        Double longitude,
+        double distanceKm
+) {
+}
@@ -0,0 +1,34 @@
+package com.backend.dogwalks.walk.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+//PATCH: los campos a null no se tocan; las coordenadas van siempre juntas
+//title y location pueden faltar pero no venir en blanco, igual que en el PUT con @NotBlank
+public record WalkPatchRequest(
+
+        @Pattern(regexp = NOT_BLANK, message = "Title must not be blank")
+        @Size(min= 2, max = 100, message = "Title must contain between 2 and 100 characters")
+        String title,
+
+        @Pattern(regexp = NOT_BLANK, message = "Location must not be blank")
+        @Size(min= 2, max = 100, message = "Location must contain between 2 and 100 characters")
+        String location,
+        Integer duration,
+        String description,
+        String walkImgUrl,
+        Boolean isActive,
+
+        @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+        @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+        Double latitude,
+
+        @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+        @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+        Double longitude
+) {
+
+    static final String NOT_BLANK = "(?s).*\\S.*";
+}
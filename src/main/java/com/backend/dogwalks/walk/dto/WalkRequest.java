@@ -1,9 +1,12 @@
 package com.backend.dogwalks.walk.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+//latitude/longitude son opcionales y van juntas; al actualizar, omitirlas conserva las que ya tenía el paseo
 public record WalkRequest(
 
         @NotBlank(message = "Title is needed")
@@ -17,6 +20,14 @@ public record WalkRequest(
         String description,
         String walkImgUrl,
         @NotNull(message = "Status is needed")
-        Boolean isActive
+        Boolean isActive,
+
+        @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+        @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+        Double latitude,
+
+        @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+        @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+        Double longitude
 ) {
 }
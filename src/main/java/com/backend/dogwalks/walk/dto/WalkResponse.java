@@ -14,7 +14,10 @@ public record WalkResponse(
     Integer duration,
     String description,
     String walkImgUrl,
+    Double latitude,
+    Double longitude,
     Boolean isActive,
-    String username
+    String username,
+    Long version
 ) {
 }
@@ -1,5 +1,6 @@
 package com.backend.dogwalks.walk.entity;
 
+import com.backend.dogwalks.config.id.TimeOrderedId;
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.persistence.*;
@@ -7,18 +8,21 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
+//el UPDATE solo lleva las columnas que han cambiado: un cambio de isActive no reescribe la descripción
 @Entity
 @Table(name = "walks")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Walk {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -43,10 +47,18 @@ public class Walk {
     @Column(nullable = false, name = "is_active")
     private Boolean isActive = true;
 
+    private Double latitude;
+
+    private Double longitude;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
     private CustomUser user;
 
+    //null hasta persistir: spring data lo usa para distinguir un paseo nuevo
+    @Version
+    private Long version;
+
     public Walk(String title, String location, Integer duration, String description, String walkImgUrl, Boolean isActive, CustomUser user) {
         this.title = title;
         this.location = location;
@@ -0,0 +1,10 @@
+package com.backend.dogwalks.walk.enums;
+
+public enum BulkItemStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    INVALID,
+    NOT_FOUND,
+    FORBIDDEN
+}
@@ -0,0 +1,16 @@
+package com.backend.dogwalks.walk.event;
+
+import com.backend.dogwalks.walk.geo.WalkGeoPoint;
+import com.backend.dogwalks.walk.search.WalkSearchDocument;
+
+//document es null cuando el paseo se ha borrado o ha dejado de ser público; point además cuando no tiene coordenadas
+//wasActive es el estado antes del cambio, para llevar la cuenta de paseos públicos sin consultarla
+//ownerId es null cuando el paseo se ha borrado
+public record WalkChangedEvent(
+        Long walkId,
+        Long ownerId,
+        boolean wasActive,
+        WalkSearchDocument document,
+        WalkGeoPoint point
+) {
+}
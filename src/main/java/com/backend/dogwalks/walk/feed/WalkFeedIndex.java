@@ -0,0 +1,277 @@
+package com.backend.dogwalks.walk.feed;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.repository.WalkKeysetRepositoryImpl;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import com.backend.dogwalks.walk.search.WalkSearchDocument;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//primeras posiciones del feed público ya ordenadas en memoria, una ventana por campo y dirección
+//cada ventana es un prefijo exacto del orden de la base de datos (clave y luego id en la misma dirección)
+@Slf4j
+@Component
+public class WalkFeedIndex {
+
+    //title y location se ordenan con la collation de la columna, que la JVM no reproduce: se quedan en la base de datos
+    static final List<String> SORT_FIELDS = List.of("createdAt", "id", "duration");
+
+    private final WalkRepository walkRepository;
+    private final int windowSize;
+    private final Clock clock;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Window> windows = new HashMap<>();
+    private long activeCount;
+    private boolean loaded;
+    private volatile long lastRebuildMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private static final class Window {
+        private final TreeSet<WalkSummaryResponse> entries;
+        private final Map<Long, WalkSummaryResponse> byId = new HashMap<>();
+        private final int capacity;
+        //hay paseos activos que ordenan después del último de la ventana
+        private boolean truncated;
+
+        private Window(Comparator<WalkSummaryResponse> order, int capacity) {
+            this.entries = new TreeSet<>(order);
+            this.capacity = capacity;
+        }
+
+        //un paseo que ordena después del último no se sabe dónde cae respecto a los que no están en memoria
+        //una ventana cortada que se ha quedado vacía no sabe nada: sirve desde la base de datos hasta la reconstrucción
+        private void offer(WalkSummaryResponse walk) {
+
+            if (truncated && (entries.isEmpty() || entries.comparator().compare(walk, entries.last()) > 0)) {
+                return;
+            }
+
+            entries.add(walk);
+            byId.put(walk.id(), walk);
+
+            if (entries.size() > capacity) {
+                byId.remove(entries.pollLast().id());
+                truncated = true;
+            }
+        }
+
+        private void remove(Long id) {
+
+            WalkSummaryResponse removed = byId.remove(id);
+
+            if (removed != null) {
+                entries.remove(removed);
+            }
+        }
+
+        private boolean covers(int offset, int size) {
+            return !truncated || offset + size <= entries.size();
+        }
+
+        private List<WalkSummaryResponse> slice(int offset, int size) {
+
+            List<WalkSummaryResponse> page = new ArrayList<>(size);
+            Iterator<WalkSummaryResponse> iterator = entries.iterator();
+
+            for (int i = 0; i < offset && iterator.hasNext(); i++) {
+                iterator.next();
+            }
+            while (page.size() < size && iterator.hasNext()) {
+                page.add(iterator.next());
+            }
+
+            return page;
+        }
+    }
+
+    public WalkFeedIndex(WalkRepository walkRepository,
+                         @Value("${app.feed.window-size:600}") int windowSize,
+                         Clock clock,
+                         MeterRegistry meterRegistry) {
+
+        if (windowSize <= 0) throw new IllegalArgumentException("Feed window size must be greater than 0");
+
+        this.clock = clock;
+        this.walkRepository = walkRepository;
+        this.windowSize = windowSize;
+
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get).tag("cache", "walkFeed").tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get).tag("cache", "walkFeed").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("walk.feed.entries", this, WalkFeedIndex::entries).register(meterRegistry);
+        Gauge.builder("walk.feed.staleness", this, index -> index.stalenessMillis() / 1000.0).baseUnit("seconds").register(meterRegistry);
+    }
+
+    //isActive sobra como orden en un feed que solo tiene activos: queda el desempate por id
+    public Optional<Page<WalkSummaryResponse>> page(String sortBy, Sort.Direction direction, int page, int size) {
+
+        String field = "isActive".equals(sortBy) ? "id" : sortBy;
+        int offset = page * size;
+
+        //durante una reconstrucción se sirve desde la base de datos en lugar de esperar
+        if (!lock.readLock().tryLock()) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        try {
+            Window window = windows.get(key(field, direction));
+
+            if (!loaded || window == null || !window.covers(offset, size)) {
+                misses.incrementAndGet();
+                return Optional.empty();
+            }
+
+            hits.incrementAndGet();
+            PageRequest pageable = PageRequest.of(page, size, Sort.by(direction, sortBy).and(Sort.by(direction, "id")));
+
+            return Optional.of(new PageImpl<>(window.slice(offset, size), pageable, Math.max(activeCount, window.entries.size())));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //arranque y refresco periódico: rellena las ventanas que han perdido paseos y corrige la cuenta
+    //se carga con el cerrojo de escritura para que ningún evento se pierda entre la lectura y el cambio
+    //un paseo confirmado antes del COUNT cuyo evento llega después se cuenta dos veces (las ventanas no: quitan antes de ofrecer);
+    //la cuenta solo es el total de la página y esa desviación dura hasta la siguiente reconstrucción
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.feed.refresh-interval:300000}", fixedDelayString = "${app.feed.refresh-interval:300000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+
+        lock.writeLock().lock();
+        try {
+            windows.clear();
+
+            for (String field : SORT_FIELDS) {
+                for (Sort.Direction direction : Sort.Direction.values()) {
+                    windows.put(key(field, direction), load(field, direction));
+                }
+            }
+
+            activeCount = walkRepository.countByIsActiveTrue();
+            loaded = true;
+            lastRebuildMillis = clock.millis();
+
+            log.debug("Walk feed rebuilt: {} active walks, {} entries", activeCount, entries());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWalkChanged(WalkChangedEvent event) {
+
+        WalkSearchDocument document = event.document();
+
+        lock.writeLock().lock();
+        try {
+            windows.values().forEach(window -> window.remove(event.walkId()));
+
+            if (document != null) {
+                WalkSummaryResponse summary = new WalkSummaryResponse(document.id(), document.title(), document.location(), document.duration(),
+                        document.walkImgUrl(), document.createdAt());
+                windows.values().forEach(window -> window.offer(summary));
+            }
+
+            activeCount += (document != null ? 1 : 0) - (event.wasActive() ? 1 : 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //al ocultar o borrar un usuario sus paseos cambian en bloque sin evento propio; el feed no lleva el username
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.walkImpact() == WalkImpact.HIDDEN || event.walkImpact() == WalkImpact.DELETED) {
+            rebuild();
+        }
+    }
+
+    //vuelve a servir desde la base de datos hasta la próxima reconstrucción
+    public void clear() {
+
+        lock.writeLock().lock();
+        try {
+            windows.clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int entries() {
+
+        lock.readLock().lock();
+        try {
+            return windows.values().stream().mapToInt(window -> window.entries.size()).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long stalenessMillis() {
+        return lastRebuildMillis == 0 ? 0 : clock.millis() - lastRebuildMillis;
+    }
+
+    private Window load(String field, Sort.Direction direction) {
+
+        Window window = new Window(order(field, direction), windowSize);
+        List<WalkSummaryResponse> walks = walkRepository.findActiveAfter(field, direction, null, null, windowSize + 1);
+
+        walks.stream().limit(windowSize).forEach(walk -> {
+            window.entries.add(walk);
+            window.byId.put(walk.id(), walk);
+        });
+        window.truncated = walks.size() > windowSize;
+
+        return window;
+    }
+
+    //mismo orden que WalkKeysetRepositoryImpl: duration null como el valor más pequeño y el id como desempate
+    static Comparator<WalkSummaryResponse> order(String field, Sort.Direction direction) {
+
+        Comparator<WalkSummaryResponse> byId = Comparator.comparing(WalkSummaryResponse::id);
+        Comparator<WalkSummaryResponse> ascending = switch (field) {
+            case "id" -> byId;
+            case "createdAt" -> Comparator.comparing(WalkSummaryResponse::createAt).thenComparing(byId);
+            case "duration" -> Comparator.comparingInt(WalkFeedIndex::durationKey).thenComparing(byId);
+            default -> throw new IllegalArgumentException("Unsupported feed sort field: " + field);
+        };
+
+        return direction.isAscending() ? ascending : ascending.reversed();
+    }
+
+    private static int durationKey(WalkSummaryResponse walk) {
+        return walk.duration() != null ? walk.duration() : WalkKeysetRepositoryImpl.NULL_DURATION;
+    }
+
+    private static String key(String field, Sort.Direction direction) {
+        return field + ":" + direction.name();
+    }
+}
@@ -0,0 +1,9 @@
+package com.backend.dogwalks.walk.geo;
+
+public record GeoHit(
+        Long walkId,
+        double latitude,
+        double longitude,
+        double distanceKm
+) {
+}
@@ -0,0 +1,348 @@
+package com.backend.dogwalks.walk.geo;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+//rejilla lat/lon de celdas fijas: cada celda guarda ids y coordenadas en arrays primitivos
+@Slf4j
+@Component
+public class WalkGeoIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    private static final int REBUILD_BATCH_SIZE = 5000;
+    private static final double LOWER_BOUND_MARGIN = 0.99;
+
+    private static final Comparator<GeoHit> BY_DISTANCE = Comparator.comparingDouble(GeoHit::distanceKm).thenComparing(GeoHit::walkId);
+
+    private final WalkRepository walkRepository;
+    private final double cellSizeDegrees;
+    private final int latitudeCells;
+    private final int longitudeCells;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Grid grid = new Grid();
+    //cambios que llegan mientras se reconstruye: se reaplican sobre la rejilla nueva antes de publicarla
+    private List<Consumer<Grid>> pending;
+
+    private static final class Grid {
+        private final Map<Long, Cell> cells = new HashMap<>();
+        private final Map<Long, Placement> placementByWalkId = new HashMap<>();
+
+        private void put(long key, WalkGeoPoint point) {
+            remove(point.id());
+            cells.computeIfAbsent(key, k -> new Cell()).add(point.id(), point.latitude(), point.longitude());
+            placementByWalkId.put(point.id(), new Placement(key, point.userId()));
+        }
+
+        private void remove(Long walkId) {
+
+            Placement placement = placementByWalkId.remove(walkId);
+
+            if (placement == null) {
+                return;
+            }
+
+            Cell cell = cells.get(placement.cellKey());
+            cell.remove(walkId);
+
+            if (cell.size == 0) {
+                cells.remove(placement.cellKey());
+            }
+        }
+
+        private void removeUser(Long userId) {
+
+            List<Long> walkIds = placementByWalkId.entrySet().stream()
+                    .filter(entry -> userId.equals(entry.getValue().userId()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            walkIds.forEach(this::remove);
+        }
+    }
+
+    //celda del paseo y su dueño: al ocultar o borrar un usuario sus paseos cambian sin evento propio
+    private record Placement(long cellKey, Long userId) {
+    }
+
+    private static final class Cell {
+        private long[] ids = new long[4];
+        private double[] latitudes = new double[4];
+        private double[] longitudes = new double[4];
+        private int size;
+
+        private void add(long id, double latitude, double longitude) {
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                latitudes = Arrays.copyOf(latitudes, size * 2);
+                longitudes = Arrays.copyOf(longitudes, size * 2);
+            }
+
+            ids[size] = id;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            size++;
+        }
+
+        //el orden dentro de la celda no importa: se mueve el último al hueco
+        private void remove(long id) {
+
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    latitudes[i] = latitudes[size];
+                    longitudes[i] = longitudes[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private record CandidateCell(Cell cell, double minimumDistanceKm) {
+    }
+
+    public WalkGeoIndex(WalkRepository walkRepository,
+                        @Value("${app.geo.cell-size-degrees:0.05}") double cellSizeDegrees,
+                        MeterRegistry meterRegistry) {
+
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 10) throw new IllegalArgumentException("Geo cell size must be between 0 and 10 degrees");
+
+        this.walkRepository = walkRepository;
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.latitudeCells = (int) Math.ceil(180 / cellSizeDegrees);
+        this.longitudeCells = (int) Math.ceil(360 / cellSizeDegrees);
+
+        Gauge.builder("walk.geo.points", this, WalkGeoIndex::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Grid rebuilt = new Grid();
+        long afterId = 0;
+        List<WalkGeoPoint> batch;
+
+        do {
+            batch = walkRepository.findGeoPointsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+
+            for (WalkGeoPoint point : batch) {
+                rebuilt.put(cellKey(point.latitude(), point.longitude()), point);
+                afterId = point.id();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(change -> change.accept(rebuilt));
+            pending = null;
+            grid = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Walk geo index rebuilt with {} walks in {} cells", rebuilt.placementByWalkId.size(), rebuilt.cells.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWalkChanged(WalkChangedEvent event) {
+
+        if (event.point() == null) {
+            remove(event.walkId());
+        } else {
+            put(event.point());
+        }
+    }
+
+    //el borrado y la ocultación en bloque solo publican el evento del usuario
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.walkImpact() == WalkImpact.HIDDEN || event.walkImpact() == WalkImpact.DELETED) {
+            removeUser(event.userId());
+        }
+    }
+
+    public void put(WalkGeoPoint point) {
+
+        long key = cellKey(point.latitude(), point.longitude());
+
+        apply(target -> target.put(key, point));
+    }
+
+    public void remove(Long walkId) {
+        apply(target -> target.remove(walkId));
+    }
+
+    public void removeUser(Long userId) {
+        apply(target -> target.removeUser(userId));
+    }
+
+    //recorre solo las celdas del rectángulo que envuelve el círculo y filtra por distancia real (haversine)
+    public List<GeoHit> nearby(double latitude, double longitude, double radiusKm, int limit) {
+
+        if (limit <= 0 || radiusKm <= 0) {
+            return List.of();
+        }
+
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double minLatitude = Math.max(-90, latitude - latitudeSpan);
+        double maxLatitude = Math.min(90, latitude + latitudeSpan);
+
+        //cerca de los polos, o con radios enormes, el rectángulo abarca todas las longitudes
+        double widestCos = Math.cos(Math.toRadians(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude))));
+        double longitudeSpan = widestCos <= 0 ? 360 : radiusKm / (KM_PER_DEGREE * widestCos);
+
+        int firstRow = latitudeIndex(minLatitude);
+        int lastRow = latitudeIndex(maxLatitude);
+        int firstColumn;
+        int lastColumn;
+
+        boolean wrapsLongitude = longitudeSpan >= 180 || longitude - longitudeSpan < -180 || longitude + longitudeSpan > 180;
+
+        if (longitudeSpan >= 180) {
+            firstColumn = 0;
+            lastColumn = longitudeCells - 1;
+        } else {
+            firstColumn = (int) Math.floor((longitude - longitudeSpan + 180) / cellSizeDegrees);
+            lastColumn = (int) Math.floor((longitude + longitudeSpan + 180) / cellSizeDegrees);
+        }
+
+        PriorityQueue<GeoHit> closest = new PriorityQueue<>(limit + 1, BY_DISTANCE.reversed());
+
+        lock.readLock().lock();
+        try {
+            //celdas ordenadas por la distancia mínima posible: cuando ya hay limit resultados más cerca, el resto se salta
+            List<CandidateCell> candidates = new ArrayList<>();
+
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int column = firstColumn; column <= lastColumn; column++) {
+                    Cell cell = grid.cells.get(key(row, Math.floorMod(column, longitudeCells)));
+
+                    if (cell != null) {
+                        double bound = minimumDistanceKm(latitude, longitude, row, column);
+
+                        if (bound <= radiusKm) {
+                            candidates.add(new CandidateCell(cell, bound));
+                        }
+                    }
+                }
+            }
+
+            candidates.sort(Comparator.comparingDouble(CandidateCell::minimumDistanceKm));
+
+            for (CandidateCell candidate : candidates) {
+                if (closest.size() == limit && candidate.minimumDistanceKm() >= closest.peek().distanceKm()) {
+                    break;
+                }
+
+                Cell cell = candidate.cell();
+
+                for (int i = 0; i < cell.size; i++) {
+                    //descarte barato por el rectángulo antes de calcular haversine
+                    if (cell.latitudes[i] < minLatitude || cell.latitudes[i] > maxLatitude
+                            || (!wrapsLongitude && Math.abs(cell.longitudes[i] - longitude) > longitudeSpan)) {
+                        continue;
+                    }
+
+                    double distance = distanceKm(latitude, longitude, cell.latitudes[i], cell.longitudes[i]);
+
+                    if (distance > radiusKm || (closest.size() == limit && distance >= closest.peek().distanceKm())) {
+                        continue;
+                    }
+
+                    closest.offer(new GeoHit(cell.ids[i], cell.latitudes[i], cell.longitudes[i], distance));
+
+                    if (closest.size() > limit) {
+                        closest.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<GeoHit> hits = new ArrayList<>(closest);
+        hits.sort(BY_DISTANCE);
+
+        return hits;
+    }
+
+    public int size() {
+
+        lock.readLock().lock();
+        try {
+            return grid.placementByWalkId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.pow(Math.sin(deltaLatitude / 2), 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(deltaLongitude / 2), 2);
+
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    //distancia al punto de la celda más cercano a la consulta, con margen para que siga siendo una cota inferior
+    private double minimumDistanceKm(double latitude, double longitude, int row, int column) {
+
+        double cellLatitude = Math.max(row * cellSizeDegrees - 90, Math.min((row + 1) * cellSizeDegrees - 90, latitude));
+        double cellLongitude = Math.max(column * cellSizeDegrees - 180, Math.min((column + 1) * cellSizeDegrees - 180, longitude));
+
+        return distanceKm(latitude, longitude, cellLatitude, cellLongitude) * LOWER_BOUND_MARGIN;
+    }
+
+    private void apply(Consumer<Grid> change) {
+
+        lock.writeLock().lock();
+        try {
+            change.accept(grid);
+
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return key(latitudeIndex(latitude), Math.floorMod((int) Math.floor((longitude + 180) / cellSizeDegrees), longitudeCells));
+    }
+
+    private int latitudeIndex(double latitude) {
+        return Math.min(latitudeCells - 1, (int) Math.floor((latitude + 90) / cellSizeDegrees));
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+}
@@ -0,0 +1,9 @@
+package com.backend.dogwalks.walk.geo;
+
+public record WalkGeoPoint(
+        Long id,
+        Long userId,
+        Double latitude,
+        Double longitude
+) {
+}
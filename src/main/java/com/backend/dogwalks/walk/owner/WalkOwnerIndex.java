@@ -0,0 +1,277 @@
+package com.backend.dogwalks.walk.owner;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+
+//id de paseo -> id de dueño para autorizar sin ir a la base de datos
+//tabla de direccionamiento abierto sobre un long[] (clave y valor contiguos), sin objetos por entrada
+//el dueño de un paseo no cambia nunca: lo único que puede quedar viejo es si el paseo existe, y eso lo resuelve el servicio
+@Slf4j
+@Component
+public class WalkOwnerIndex {
+
+    public static final long NO_OWNER = 0;
+
+    //los ids de la base de datos empiezan en 1
+    private static final long EMPTY = 0;
+    private static final long DELETED = -1;
+    private static final int MIN_SLOTS = 1024;
+    //carga máxima contando las casillas borradas: 3/4
+    private static final int MAX_LOAD_NUMERATOR = 3;
+    private static final int MAX_LOAD_DENOMINATOR = 4;
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final WalkRepository walkRepository;
+    //los lectores no bloquean: leen la tabla publicada; los escritores se sincronizan entre ellos
+    private volatile Table table = new Table(MIN_SLOTS);
+
+    private static final class Table {
+        private final long[] entries;
+        private final int mask;
+        private int size;
+        private int used;
+
+        private Table(int slots) {
+            this.entries = new long[slots * 2];
+            this.mask = slots - 1;
+        }
+
+        private int slots() {
+            return mask + 1;
+        }
+    }
+
+    public WalkOwnerIndex(WalkRepository walkRepository, MeterRegistry meterRegistry) {
+        this.walkRepository = walkRepository;
+
+        Gauge.builder("walk.owners.size", this, WalkOwnerIndex::size).register(meterRegistry);
+        Gauge.builder("walk.owners.memory", this, WalkOwnerIndex::memoryBytes).baseUnit("bytes").register(meterRegistry);
+    }
+
+    //NO_OWNER si no está: quien pregunta tiene que ir a la base de datos
+    public long ownerOf(long walkId) {
+
+        if (walkId <= 0) {
+            return NO_OWNER;
+        }
+
+        Table current = table;
+        long[] entries = current.entries;
+
+        for (int slot = slot(walkId, current.mask), probes = 0; probes <= current.mask; slot = (slot + 1) & current.mask, probes++) {
+            long key = (long) SLOTS.getAcquire(entries, slot * 2);
+
+            if (key == EMPTY) {
+                return NO_OWNER;
+            }
+
+            if (key == walkId) {
+                long ownerId = (long) SLOTS.getAcquire(entries, slot * 2 + 1);
+                //un escritor pudo borrar y reutilizar la casilla entre las dos lecturas
+                return (long) SLOTS.getAcquire(entries, slot * 2) == walkId ? ownerId : NO_OWNER;
+            }
+        }
+
+        return NO_OWNER;
+    }
+
+    public synchronized void put(long walkId, long ownerId) {
+
+        if (walkId <= 0 || ownerId <= 0) {
+            return;
+        }
+
+        Table current = table;
+        int target = -1;
+
+        for (int slot = slot(walkId, current.mask); ; slot = (slot + 1) & current.mask) {
+            long key = current.entries[slot * 2];
+
+            if (key == walkId) {
+                SLOTS.setRelease(current.entries, slot * 2 + 1, ownerId);
+                return;
+            }
+
+            if (key == DELETED && target < 0) {
+                target = slot;
+            }
+
+            if (key == EMPTY) {
+                if (target < 0) {
+                    target = slot;
+                    current.used++;
+                }
+                break;
+            }
+        }
+
+        //el valor antes que la clave: quien vea la clave ve ya su dueño
+        SLOTS.setRelease(current.entries, target * 2 + 1, ownerId);
+        SLOTS.setRelease(current.entries, target * 2, walkId);
+        current.size++;
+
+        if (current.used * MAX_LOAD_DENOMINATOR > current.slots() * MAX_LOAD_NUMERATOR) {
+            table = copy(current, slotsFor(current.size));
+        }
+    }
+
+    public synchronized void remove(long walkId) {
+
+        if (walkId <= 0) {
+            return;
+        }
+
+        Table current = table;
+
+        for (int slot = slot(walkId, current.mask); ; slot = (slot + 1) & current.mask) {
+            long key = current.entries[slot * 2];
+
+            if (key == EMPTY) {
+                return;
+            }
+
+            if (key == walkId) {
+                SLOTS.setRelease(current.entries, slot * 2, DELETED);
+                current.size--;
+                return;
+            }
+        }
+    }
+
+    //recorre toda la tabla: solo al borrar un usuario
+    public synchronized void removeOwner(long ownerId) {
+
+        Table current = table;
+
+        for (int slot = 0; slot < current.slots(); slot++) {
+            long key = current.entries[slot * 2];
+
+            if (key != EMPTY && key != DELETED && current.entries[slot * 2 + 1] == ownerId) {
+                SLOTS.setRelease(current.entries, slot * 2, DELETED);
+                current.size--;
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+
+        Table rebuilt = new Table(MIN_SLOTS);
+        long afterId = 0;
+        List<WalkOwnership> batch;
+
+        do {
+            batch = walkRepository.findOwnershipsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+
+            for (WalkOwnership ownership : batch) {
+                rebuilt = insertUnpublished(rebuilt, ownership.walkId(), ownership.ownerId());
+                afterId = ownership.walkId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        synchronized (this) {
+            table = rebuilt;
+        }
+
+        log.info("Walk owner index rebuilt with {} walks ({} bytes)", rebuilt.size, memoryBytes());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWalkChanged(WalkChangedEvent event) {
+
+        if (event.ownerId() == null) {
+            remove(event.walkId());
+        } else {
+            put(event.walkId(), event.ownerId());
+        }
+    }
+
+    //al borrar un usuario sus paseos se van en bloque sin eventos; desactivarlo no cambia de quién son
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.walkImpact() == WalkImpact.DELETED) {
+            removeOwner(event.userId());
+        }
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    public long memoryBytes() {
+        return (long) table.entries.length * Long.BYTES;
+    }
+
+    //tabla que aún no ven los lectores: escrituras normales
+    private static Table insertUnpublished(Table target, long walkId, long ownerId) {
+
+        if ((target.used + 1) * MAX_LOAD_DENOMINATOR > target.slots() * MAX_LOAD_NUMERATOR) {
+            target = copy(target, target.slots() * 2);
+        }
+
+        int slot = slot(walkId, target.mask);
+
+        while (target.entries[slot * 2] != EMPTY && target.entries[slot * 2] != walkId) {
+            slot = (slot + 1) & target.mask;
+        }
+
+        if (target.entries[slot * 2] == EMPTY) {
+            target.size++;
+            target.used++;
+        }
+
+        target.entries[slot * 2] = walkId;
+        target.entries[slot * 2 + 1] = ownerId;
+
+        return target;
+    }
+
+    //copia sin casillas borradas; la nueva tabla se publica después con la escritura volatile
+    private static Table copy(Table source, int slots) {
+
+        Table target = new Table(slots);
+
+        for (int slot = 0; slot < source.slots(); slot++) {
+            long key = source.entries[slot * 2];
+
+            if (key != EMPTY && key != DELETED) {
+                target = insertUnpublished(target, key, source.entries[slot * 2 + 1]);
+            }
+        }
+
+        return target;
+    }
+
+    //la mitad de la carga máxima tras copiar, para no volver a copiar enseguida
+    private static int slotsFor(int size) {
+
+        int slots = MIN_SLOTS;
+
+        while ((long) size * MAX_LOAD_DENOMINATOR * 2 > (long) slots * MAX_LOAD_NUMERATOR) {
+            slots *= 2;
+        }
+
+        return slots;
+    }
+
+    //mezcla de Fibonacci: los ids consecutivos no caen en casillas consecutivas
+    private static int slot(long walkId, int mask) {
+        long hash = walkId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,7 @@
+package com.backend.dogwalks.walk.owner;
+
+public record WalkOwnership(
+        Long walkId,
+        Long ownerId
+) {
+}
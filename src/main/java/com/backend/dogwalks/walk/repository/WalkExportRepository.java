@@ -0,0 +1,11 @@
+package com.backend.dogwalks.walk.repository;
+
+public interface WalkExportRepository {
+
+    //se restaura después de cerrar el Stream: la conexión vuelve al pool con su configuración original
+    interface CursorFetch {
+        void restore();
+    }
+
+    CursorFetch enableCursorFetch();
+}
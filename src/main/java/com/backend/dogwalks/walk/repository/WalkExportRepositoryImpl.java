@@ -0,0 +1,21 @@
+package com.backend.dogwalks.walk.repository;
+
+import com.backend.dogwalks.config.jdbc.MySqlCursorFetch;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+//cursor del servidor solo en la conexión de la exportación, la de la transacción actual
+public class WalkExportRepositoryImpl implements WalkExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public CursorFetch enableCursorFetch() {
+
+        Runnable restore = entityManager.unwrap(Session.class).doReturningWork(MySqlCursorFetch::enable);
+
+        return restore::run;
+    }
+}
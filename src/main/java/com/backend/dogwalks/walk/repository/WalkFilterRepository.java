@@ -0,0 +1,11 @@
+package com.backend.dogwalks.walk.repository;
+
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+import com.backend.dogwalks.walk.entity.Walk;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface WalkFilterRepository {
+    Page<WalkSummaryResponse> findActiveSummaries(Specification<Walk> filter, Pageable pageable);
+}
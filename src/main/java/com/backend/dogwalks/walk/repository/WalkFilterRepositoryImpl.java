@@ -0,0 +1,55 @@
+package com.backend.dogwalks.walk.repository;
+
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+import com.backend.dogwalks.walk.entity.Walk;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+//misma proyección que findActiveSummaries(Pageable) pero con los filtros del listado en el WHERE
+public class WalkFilterRepositoryImpl implements WalkFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<WalkSummaryResponse> findActiveSummaries(Specification<Walk> filter, Pageable pageable) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<WalkSummaryResponse> query = cb.createQuery(WalkSummaryResponse.class);
+        Root<Walk> walk = query.from(Walk.class);
+
+        query.select(cb.construct(WalkSummaryResponse.class,
+                        walk.get("id"), walk.get("title"), walk.get("location"), walk.get("duration"), walk.get("walkImgUrl"), walk.get("createdAt")))
+                .where(cb.isTrue(walk.get("isActive")), filter.toPredicate(walk, query, cb))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), walk, cb));
+
+        List<WalkSummaryResponse> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        //el COUNT solo se lanza si la página no basta para deducir el total
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(filter));
+    }
+
+    private long count(Specification<Walk> filter) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Walk> walk = query.from(Walk.class);
+
+        query.select(cb.count(walk)).where(cb.isTrue(walk.get("isActive")), filter.toPredicate(walk, query, cb));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
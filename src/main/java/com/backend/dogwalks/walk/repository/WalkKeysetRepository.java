@@ -0,0 +1,13 @@
+package com.backend.dogwalks.walk.repository;
+
+import com.backend.dogwalks.walk.dto.WalkCursor;
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+import com.backend.dogwalks.walk.entity.Walk;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface WalkKeysetRepository {
+    List<WalkSummaryResponse> findActiveAfter(String sortBy, Sort.Direction direction, WalkCursor after, Specification<Walk> filter, int limit);
+}
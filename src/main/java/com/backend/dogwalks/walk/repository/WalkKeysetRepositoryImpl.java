@@ -0,0 +1,93 @@
+package com.backend.dogwalks.walk.repository;
+
+import com.backend.dogwalks.walk.dto.WalkCursor;
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+import com.backend.dogwalks.walk.entity.Walk;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+//paginación por keyset: WHERE (clave, id) > (último valor, último id) en lugar de OFFSET, sin COUNT
+public class WalkKeysetRepositoryImpl implements WalkKeysetRepository {
+
+    //duration admite null; se ordena como el valor más pequeño para poder comparar
+    public static final int NULL_DURATION = Integer.MIN_VALUE;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<WalkSummaryResponse> findActiveAfter(String sortBy, Sort.Direction direction, WalkCursor after, Specification<Walk> filter, int limit) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<WalkSummaryResponse> query = cb.createQuery(WalkSummaryResponse.class);
+        Root<Walk> walk = query.from(Walk.class);
+
+        Expression<?> sortKey = sortKey(cb, walk, sortBy);
+        Path<Long> id = walk.get("id");
+        boolean ascending = direction.isAscending();
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isTrue(walk.get("isActive")));
+
+        if (filter != null) {
+            predicates.add(filter.toPredicate(walk, query, cb));
+        }
+
+        if (after != null) {
+            predicates.add(after(cb, walk, sortBy, after, ascending));
+        }
+
+        query.select(cb.construct(WalkSummaryResponse.class,
+                        walk.get("id"), walk.get("title"), walk.get("location"), walk.get("duration"), walk.get("walkImgUrl"), walk.get("createdAt")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(ascending ? cb.asc(sortKey) : cb.desc(sortKey), ascending ? cb.asc(id) : cb.desc(id));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private static Expression<?> sortKey(CriteriaBuilder cb, Root<Walk> walk, String sortBy) {
+        if ("duration".equals(sortBy)) {
+            return duration(cb, walk);
+        }
+        return walk.get(sortBy);
+    }
+
+    private static Expression<Integer> duration(CriteriaBuilder cb, Root<Walk> walk) {
+        return cb.coalesce(walk.<Integer>get("duration"), NULL_DURATION);
+    }
+
+    //el valor del cursor tiene el tipo del campo de orden (WalkCursorCodec): cada rama compara con su tipo concreto
+    private static Predicate after(CriteriaBuilder cb, Root<Walk> walk, String sortBy, WalkCursor after, boolean ascending) {
+
+        Path<Long> id = walk.get("id");
+        Long lastId = after.lastId();
+
+        return switch (sortBy) {
+            case "id" -> after(cb, id, (Long) after.lastValue(), id, lastId, ascending);
+            case "title", "location" -> after(cb, walk.<String>get(sortBy), (String) after.lastValue(), id, lastId, ascending);
+            case "duration" -> after(cb, duration(cb, walk), (Integer) after.lastValue(), id, lastId, ascending);
+            case "createdAt" -> after(cb, walk.<LocalDateTime>get(sortBy), (LocalDateTime) after.lastValue(), id, lastId, ascending);
+            case "isActive" -> after(cb, walk.<Boolean>get(sortBy), (Boolean) after.lastValue(), id, lastId, ascending);
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate after(CriteriaBuilder cb, Expression<T> key, T value,
+                                                                    Path<Long> id, Long lastId, boolean ascending) {
+        return cb.or(
+                compare(cb, key, value, ascending),
+                cb.and(cb.equal(key, value), compare(cb, id, lastId, ascending))
+        );
+    }
+
+    private static <T extends Comparable<? super T>> Predicate compare(CriteriaBuilder cb, Expression<? extends T> key, T value, boolean ascending) {
+        return ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+    }
+}
@@ -1,17 +1,103 @@
 package com.backend.dogwalks.walk.repository;
 
-import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.walk.dto.OwnedWalkDetail;
+import com.backend.dogwalks.walk.dto.WalkExportRow;
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
 import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.geo.WalkGeoPoint;
+import com.backend.dogwalks.walk.owner.WalkOwnership;
+import com.backend.dogwalks.walk.search.WalkSearchDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface WalkRepository extends JpaRepository <Walk, Long> {
-    Page<Walk> findByIsActiveTrue(Pageable pageable);
-    Optional<Walk> findByIdAndIsActiveTrue(Long id);
-    Page<Walk> findByUser(CustomUser user, Pageable pageable);
+public interface WalkRepository extends JpaRepository <Walk, Long>, JpaSpecificationExecutor<Walk>, WalkKeysetRepository, WalkFilterRepository, WalkExportRepository {
+
+    //los listados de entidades cargan el dueño en la misma consulta; el count se sigue generando sin join
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Walk> findAll(Pageable pageable);
+
+    //comprobación de acceso y operaciones sobre un paseo: el dueño viene en la misma consulta
+    @EntityGraph(attributePaths = "user")
+    Optional<Walk> findWithUserById(Long id);
+
+    @EntityGraph(attributePaths = "user")
+    Page<Walk> findByUserId(Long userId, Pageable pageable);
+
+    //listado filtrado de /api/walks; el dueño va dentro de la Specification para los usuarios que no son admin
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Walk> findAll(Specification<Walk> filter, Pageable pageable);
+
+    //proyecciones: solo las columnas del DTO, sin description ni entidades en el contexto de persistencia
+    @Query(value = "SELECT new com.backend.dogwalks.walk.dto.WalkSummaryResponse(w.id, w.title, w.location, w.duration, w.walkImgUrl, w.createdAt) FROM Walk w WHERE w.isActive = true",
+            countQuery = "SELECT COUNT(w) FROM Walk w WHERE w.isActive = true")
+    Page<WalkSummaryResponse> findActiveSummaries(Pageable pageable);
+
+    long countByIsActiveTrue();
+
+    @Query("SELECT new com.backend.dogwalks.walk.dto.WalkSummaryResponse(w.id, w.title, w.location, w.duration, w.walkImgUrl, w.createdAt) " +
+            "FROM Walk w WHERE w.id IN :ids AND w.isActive = true")
+    List<WalkSummaryResponse> findActiveSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.backend.dogwalks.walk.dto.OwnedWalkDetail(u.id, w.id, w.title, w.location, w.duration, w.description, w.walkImgUrl, u.username, w.createdAt) " +
+            "FROM Walk w JOIN w.user u WHERE w.id = :id AND w.isActive = true")
+    Optional<OwnedWalkDetail> findActiveDetailById(@Param("id") Long id);
+
+    //carga del índice de búsqueda por lotes (keyset por id) y resincronización de los paseos de un usuario
+    @Query("SELECT new com.backend.dogwalks.walk.search.WalkSearchDocument(w.id, w.user.id, w.title, w.location, w.duration, w.description, w.walkImgUrl, w.createdAt) " +
+            "FROM Walk w WHERE w.isActive = true AND w.id > :afterId ORDER BY w.id")
+    List<WalkSearchDocument> findSearchDocumentsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.backend.dogwalks.walk.search.WalkSearchDocument(w.id, w.user.id, w.title, w.location, w.duration, w.description, w.walkImgUrl, w.createdAt) " +
+            "FROM Walk w WHERE w.isActive = true AND w.user.id = :userId")
+    List<WalkSearchDocument> findSearchDocumentsByUserId(@Param("userId") Long userId);
+
+    //carga del índice geográfico: solo paseos activos con coordenadas
+    @Query("SELECT new com.backend.dogwalks.walk.geo.WalkGeoPoint(w.id, w.user.id, w.latitude, w.longitude) FROM Walk w " +
+            "WHERE w.isActive = true AND w.latitude IS NOT NULL AND w.longitude IS NOT NULL AND w.id > :afterId ORDER BY w.id")
+    List<WalkGeoPoint> findGeoPointsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    //carga del índice de propietarios: incluye los paseos inactivos, que también se autorizan
+    @Query("SELECT new com.backend.dogwalks.walk.owner.WalkOwnership(w.id, w.user.id) FROM Walk w WHERE w.id > :afterId ORDER BY w.id")
+    List<WalkOwnership> findOwnershipsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    //exportación completa: cursor del servidor (enableCursorFetch en la misma transacción) leído de 1000 en 1000 filas; al cerrarse a medias no hay que leer el resto
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.backend.dogwalks.walk.dto.WalkExportRow(w.id, u.id, u.username, w.title, w.location, w.duration, w.description, " +
+            "w.walkImgUrl, w.isActive, w.latitude, w.longitude, w.createdAt) FROM Walk w JOIN w.user u ORDER BY w.id")
+    Stream<WalkExportRow> streamExportRows();
+
+    //borrado y ocultación en bloque de los paseos de un usuario: una sentencia por user_id en vez de cargar y borrar cada paseo
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Walk w WHERE w.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "DELETE FROM walks WHERE user_id = :userId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Walk w SET w.isActive = false, w.version = w.version + 1 WHERE w.user.id = :userId AND w.isActive = true")
+    int deactivateAllByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,56 @@
+package com.backend.dogwalks.walk.repository;
+
+import com.backend.dogwalks.walk.dto.WalkFilter;
+import com.backend.dogwalks.walk.entity.Walk;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//traduce WalkFilter a una sola consulta con parámetros; qué combinaciones se aceptan lo decide WalkService
+public final class WalkSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private WalkSpecifications() {
+    }
+
+    public static Specification<Walk> matching(WalkFilter filter) {
+
+        return (walk, query, cb) -> {
+
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.minDuration() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(walk.get("duration"), filter.minDuration()));
+            }
+            if (filter.maxDuration() != null) {
+                predicates.add(cb.lessThanOrEqualTo(walk.get("duration"), filter.maxDuration()));
+            }
+            //sin lower(): la collation de la columna ya compara sin mayúsculas y así se usa el índice
+            if (filter.location() != null) {
+                predicates.add(cb.equal(walk.get("location"), filter.location()));
+            }
+            if (filter.locationPrefix() != null) {
+                predicates.add(cb.like(walk.get("location"), escapeLike(filter.locationPrefix()) + "%", LIKE_ESCAPE));
+            }
+            if (filter.createdFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(walk.get("createdAt"), filter.createdFrom()));
+            }
+            if (filter.createdTo() != null) {
+                predicates.add(cb.lessThan(walk.get("createdAt"), filter.createdTo()));
+            }
+            //user.id se resuelve con la FK, sin join a users
+            if (filter.ownerId() != null) {
+                predicates.add(cb.equal(walk.get("user").get("id"), filter.ownerId()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
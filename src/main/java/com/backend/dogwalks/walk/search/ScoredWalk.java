@@ -0,0 +1,9 @@
+package com.backend.dogwalks.walk.search;
+
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+
+public record ScoredWalk(
+        WalkSummaryResponse summary,
+        double score
+) {
+}
@@ -0,0 +1,16 @@
+package com.backend.dogwalks.walk.search;
+
+import java.time.LocalDateTime;
+
+//campos de un paseo activo que necesita el índice: el texto a tokenizar y lo que se devuelve en el resumen
+public record WalkSearchDocument(
+        Long id,
+        Long userId,
+        String title,
+        String location,
+        Integer duration,
+        String description,
+        String walkImgUrl,
+        LocalDateTime createdAt
+) {
+}
@@ -0,0 +1,287 @@
+package com.backend.dogwalks.walk.search;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+//índice invertido en memoria de los paseos activos (title, location, description) con ranking BM25
+@Slf4j
+@Component
+public class WalkSearchIndex {
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    static final int TITLE_WEIGHT = 3;
+    static final int LOCATION_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+    static final int MAX_QUERY_TERMS = 10;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    //mejor puntuación primero y el id como desempate estable para el cursor
+    private static final Comparator<ScoredWalk> RANKING = Comparator.comparingDouble(ScoredWalk::score).reversed()
+            .thenComparing(walk -> walk.summary().id());
+
+    private final WalkRepository walkRepository;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    //cambios que llegan mientras se reconstruye: se reaplican sobre el índice nuevo antes de publicarlo
+    private List<Consumer<State>> pending;
+
+    private record IndexedWalk(WalkSummaryResponse summary, Long userId, Map<String, Integer> termFrequencies, int length) {
+    }
+
+    //postings: término -> (id del paseo -> frecuencia ponderada por campo)
+    private static final class State {
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+        private final Map<Long, IndexedWalk> documents = new HashMap<>();
+        private long totalLength;
+
+        private void add(IndexedWalk walk) {
+            documents.put(walk.summary().id(), walk);
+            totalLength += walk.length();
+            walk.termFrequencies().forEach((term, frequency) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(walk.summary().id(), frequency));
+        }
+
+        private void remove(Long id) {
+
+            IndexedWalk removed = documents.remove(id);
+
+            if (removed == null) {
+                return;
+            }
+
+            totalLength -= removed.length();
+
+            for (String term : removed.termFrequencies().keySet()) {
+                Map<Long, Integer> posting = postings.get(term);
+                posting.remove(id);
+
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    public WalkSearchIndex(WalkRepository walkRepository, MeterRegistry meterRegistry) {
+        this.walkRepository = walkRepository;
+
+        Gauge.builder("walk.search.documents", this, WalkSearchIndex::size).register(meterRegistry);
+    }
+
+    //se construye aparte, leyendo por lotes ordenados por id, y se sustituye de golpe
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State rebuilt = new State();
+        long afterId = 0;
+        List<WalkSearchDocument> batch;
+
+        do {
+            batch = walkRepository.findSearchDocumentsAfter(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+
+            for (WalkSearchDocument document : batch) {
+                rebuilt.add(analyze(document));
+                afterId = document.id();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(change -> change.accept(rebuilt));
+            pending = null;
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Walk search index rebuilt with {} walks and {} terms", rebuilt.documents.size(), rebuilt.postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWalkChanged(WalkChangedEvent event) {
+
+        if (event.document() == null) {
+            remove(event.walkId());
+        } else {
+            index(event.document());
+        }
+    }
+
+    //borrar un usuario borra sus paseos en cascada sin pasar por WalkService: se resincronizan los de ese usuario
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onUserChanged(UserChangedEvent event) {
+
+        if (event.revokesTokens()) {
+            replaceUserWalks(event.userId(), walkRepository.findSearchDocumentsByUserId(event.userId()));
+        }
+    }
+
+    public void index(WalkSearchDocument document) {
+
+        IndexedWalk walk = analyze(document);
+
+        apply(target -> {
+            target.remove(document.id());
+            target.add(walk);
+        });
+    }
+
+    public void remove(Long walkId) {
+        apply(target -> target.remove(walkId));
+    }
+
+    public void replaceUserWalks(Long userId, List<WalkSearchDocument> documents) {
+
+        List<IndexedWalk> walks = documents.stream().map(document -> analyze(document)).toList();
+
+        apply(target -> {
+            List<Long> previous = target.documents.values().stream().filter(walk -> userId.equals(walk.userId())).map(walk -> walk.summary().id()).toList();
+
+            previous.forEach(target::remove);
+            walks.forEach(target::add);
+        });
+    }
+
+    private void apply(Consumer<State> change) {
+
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //OR de los términos de la consulta; afterScore/afterId marcan el último resultado de la página anterior
+    public List<ScoredWalk> search(String query, Double afterScore, Long afterId, int limit) {
+
+        List<String> terms = TextAnalyzer.tokenize(query).stream().distinct().limit(MAX_QUERY_TERMS).toList();
+
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = state.documents.size();
+
+            if (documentCount == 0) {
+                return List.of();
+            }
+
+            double averageLength = (double) state.totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+
+            for (String term : terms) {
+                Map<Long, Integer> posting = state.postings.get(term);
+
+                if (posting == null) {
+                    continue;
+                }
+
+                double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+
+                for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                    double frequency = entry.getValue();
+                    double length = state.documents.get(entry.getKey()).length();
+                    double saturated = frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+
+                    scores.merge(entry.getKey(), idf * saturated, Double::sum);
+                }
+            }
+
+            //montículo con el peor resultado arriba: solo se guardan los limit mejores
+            PriorityQueue<ScoredWalk> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                double score = entry.getValue();
+
+                if (afterId != null && !isAfter(score, entry.getKey(), afterScore, afterId)) {
+                    continue;
+                }
+
+                top.offer(new ScoredWalk(state.documents.get(entry.getKey()).summary(), score));
+
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<ScoredWalk> results = new ArrayList<>(top);
+            results.sort(RANKING);
+
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+
+        lock.readLock().lock();
+        try {
+            return state.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean isAfter(double score, Long id, double afterScore, Long afterId) {
+
+        int byScore = Double.compare(afterScore, score);
+
+        return byScore > 0 || (byScore == 0 && id > afterId);
+    }
+
+    private static IndexedWalk analyze(WalkSearchDocument document) {
+
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = addTerms(frequencies, document.title(), TITLE_WEIGHT)
+                + addTerms(frequencies, document.location(), LOCATION_WEIGHT)
+                + addTerms(frequencies, document.description(), DESCRIPTION_WEIGHT);
+
+        WalkSummaryResponse summary = new WalkSummaryResponse(document.id(), document.title(), document.location(), document.duration(),
+                document.walkImgUrl(), document.createdAt());
+
+        return new IndexedWalk(summary, document.userId(), Map.copyOf(frequencies), length);
+    }
+
+    private static int addTerms(Map<String, Integer> frequencies, String text, int weight) {
+
+        List<String> tokens = TextAnalyzer.tokenize(text);
+
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Integer::sum);
+        }
+
+        return tokens.size() * weight;
+    }
+}
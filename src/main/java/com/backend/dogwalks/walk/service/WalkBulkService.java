@@ -0,0 +1,212 @@
+package com.backend.dogwalks.walk.service;
+
+import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.walk.dto.*;
+import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.enums.BulkItemStatus;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//alta, edición y borrado de muchos paseos en una transacción: los elementos inválidos o ajenos se informan y el resto se escribe
+//la propiedad de todos los ids se comprueba con una sola consulta y las escrituras van en lotes JDBC
+@Service
+@Transactional
+public class WalkBulkService {
+
+    static final int MAX_BULK_ITEMS = 500;
+
+    private final WalkRepository walkRepository;
+    private final CustomUserRepository customUserRepository;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WalkBulkService(WalkRepository walkRepository, CustomUserRepository customUserRepository, Validator validator,
+                           ApplicationEventPublisher eventPublisher) {
+        this.walkRepository = walkRepository;
+        this.customUserRepository = customUserRepository;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public BulkWalkResponse addWalks(List<WalkRequest> requests, Long userId) {
+
+        checkSize(requests);
+
+        BulkItemResult[] results = new BulkItemResult[requests.size()];
+        List<Walk> walks = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        CustomUser user = customUserRepository.getReferenceById(userId);
+
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i));
+
+            if (error != null) {
+                results[i] = new BulkItemResult(i, null, BulkItemStatus.INVALID, error);
+                continue;
+            }
+
+            walks.add(WalkMapper.toEntity(requests.get(i), user));
+            indexes.add(i);
+        }
+
+        //los ids se asignan al persistir; los INSERT salen en lotes de hibernate.jdbc.batch_size al confirmar
+        walks = walkRepository.saveAll(walks);
+
+        for (int i = 0; i < walks.size(); i++) {
+            Walk walk = walks.get(i);
+            results[indexes.get(i)] = new BulkItemResult(indexes.get(i), walk.getId(), BulkItemStatus.CREATED, null);
+            eventPublisher.publishEvent(WalkMapper.toChangedEvent(walk, false));
+        }
+
+        return toResponse(results);
+    }
+
+    //los UPDATE se envían en lotes al confirmar (hibernate.jdbc.batch_size)
+    public BulkWalkResponse updateWalks(List<WalkBulkUpdate> updates, Long userId, Role role) {
+
+        checkSize(updates);
+
+        BulkItemResult[] results = new BulkItemResult[updates.size()];
+        Set<Long> seen = new HashSet<>();
+
+        for (int i = 0; i < updates.size(); i++) {
+            WalkBulkUpdate update = updates.get(i);
+            String error = update == null || update.id() == null ? "Walk id is needed" : validate(update.walk());
+
+            if (error == null && !seen.add(update.id())) {
+                error = "Walk id " + update.id() + " is repeated in the request";
+            }
+            if (error != null) {
+                results[i] = new BulkItemResult(i, update == null ? null : update.id(), BulkItemStatus.INVALID, error);
+            }
+        }
+
+        Map<Long, Walk> walks = loadAccessible(seen, userId, role, updates, WalkBulkUpdate::id, results);
+
+        for (int i = 0; i < updates.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+
+            Walk walk = walks.get(updates.get(i).id());
+            boolean wasActive = Boolean.TRUE.equals(walk.getIsActive());
+
+            WalkMapper.updateFromWalkRequest(walk, updates.get(i).walk());
+
+            results[i] = new BulkItemResult(i, walk.getId(), BulkItemStatus.UPDATED, null);
+            eventPublisher.publishEvent(WalkMapper.toChangedEvent(walk, wasActive));
+        }
+
+        return toResponse(results);
+    }
+
+    //un solo DELETE ... WHERE id IN (...) para todos los paseos permitidos (deleteAllInBatch de entidades genera id = ? OR id = ?...)
+    public BulkWalkResponse deleteWalks(List<Long> ids, Long userId, Role role) {
+
+        checkSize(ids);
+
+        BulkItemResult[] results = new BulkItemResult[ids.size()];
+        Set<Long> seen = new HashSet<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+
+            if (id == null) {
+                results[i] = new BulkItemResult(i, null, BulkItemStatus.INVALID, "Walk id is needed");
+            } else if (!seen.add(id)) {
+                results[i] = new BulkItemResult(i, id, BulkItemStatus.INVALID, "Walk id " + id + " is repeated in the request");
+            }
+        }
+
+        Map<Long, Walk> walks = loadAccessible(seen, userId, role, ids, Function.identity(), results);
+        List<Walk> deleted = new ArrayList<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            if (results[i] == null) {
+                Walk walk = walks.get(ids.get(i));
+                deleted.add(walk);
+                results[i] = new BulkItemResult(i, walk.getId(), BulkItemStatus.DELETED, null);
+            }
+        }
+
+        if (!deleted.isEmpty()) {
+            walkRepository.deleteAllByIdInBatch(deleted.stream().map(Walk::getId).toList());
+        }
+
+        deleted.forEach(walk -> eventPublisher.publishEvent(WalkMapper.toDeletedEvent(walk)));
+
+        return toResponse(results);
+    }
+
+    //una consulta para todos los ids; marca NOT_FOUND y FORBIDDEN en los elementos que aún no tienen resultado
+    private <T> Map<Long, Walk> loadAccessible(Set<Long> ids, Long userId, Role role, List<T> items, Function<T, Long> idOf, BulkItemResult[] results) {
+
+        Map<Long, Walk> walks = ids.isEmpty() ? Map.of() : walkRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Walk::getId, Function.identity()));
+        boolean admin = Role.ADMIN.equals(role);
+
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+
+            Long id = idOf.apply(items.get(i));
+            Walk walk = walks.get(id);
+
+            if (walk == null) {
+                results[i] = new BulkItemResult(i, id, BulkItemStatus.NOT_FOUND, "Walk with id: " + id + " not found");
+            } else if (!admin && !walk.getUser().getId().equals(userId)) {
+                results[i] = new BulkItemResult(i, id, BulkItemStatus.FORBIDDEN, "Walk with id: " + id + " belongs to another user");
+            }
+        }
+
+        return walks;
+    }
+
+    //mismos mensajes que la validación de una sola petición
+    private String validate(WalkRequest request) {
+
+        if (request == null) {
+            return "Walk is needed";
+        }
+
+        Set<ConstraintViolation<WalkRequest>> violations = validator.validate(request);
+
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+        }
+
+        try {
+            WalkService.validateCoordinates(request);
+        } catch (IllegalArgumentException exception) {
+            return exception.getMessage();
+        }
+
+        return null;
+    }
+
+    private static void checkSize(List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > MAX_BULK_ITEMS) {
+            throw new IllegalArgumentException("Bulk requests must contain between 1 and " + MAX_BULK_ITEMS + " items");
+        }
+    }
+
+    private static BulkWalkResponse toResponse(BulkItemResult[] results) {
+
+        int succeeded = (int) Arrays.stream(results)
+                .filter(result -> result.status() == BulkItemStatus.CREATED || result.status() == BulkItemStatus.UPDATED || result.status() == BulkItemStatus.DELETED)
+                .count();
+
+        return new BulkWalkResponse(succeeded, results.length - succeeded, List.of(results));
+    }
+}
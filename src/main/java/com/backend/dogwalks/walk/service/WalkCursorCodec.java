@@ -0,0 +1,138 @@
+package com.backend.dogwalks.walk.service;
+
+import com.backend.dogwalks.walk.dto.WalkCursor;
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+import com.backend.dogwalks.walk.repository.WalkKeysetRepositoryImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+//cursor opaco y firmado (HMAC-SHA256) para que el cliente no pueda fabricar posiciones arbitrarias
+@Component
+public class WalkCursorCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    static final String SEARCH_SORT = "relevance";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+
+    public WalkCursorCodec(@Value("${app.pagination.cursor-secret:${app.jwt.secret}}") String secret) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    public String encode(WalkSummaryResponse last, String sortBy, Sort.Direction direction) {
+        return encode(last, sortBy, direction, "");
+    }
+
+    //los filtros del listado entran en la firma igual que la consulta en los cursores de búsqueda
+    public String encode(WalkSummaryResponse last, String sortBy, Sort.Direction direction, String filterKey) {
+
+        String payload = sortBy + ":" + direction.name() + ":" + ENCODER.encodeToString(valueOf(last, sortBy).getBytes(StandardCharsets.UTF_8)) + ":" + last.id();
+
+        return seal(payload, filterKey);
+    }
+
+    public WalkCursor decode(String cursor) {
+        return decode(cursor, "");
+    }
+
+    public WalkCursor decode(String cursor, String filterKey) {
+
+        try {
+            String payload = open(cursor, filterKey);
+            String[] parts = payload.split(":", 4);
+            String sortBy = parts[0];
+            String value = new String(DECODER.decode(parts[2]), StandardCharsets.UTF_8);
+
+            return new WalkCursor(sortBy, Sort.Direction.valueOf(parts[1]), parseValue(sortBy, value), Long.valueOf(parts[3]));
+        } catch (RuntimeException exception) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    //la consulta normalizada entra en la firma: un cursor de búsqueda no vale para otra consulta
+    public String encodeSearch(String query, double lastScore, Long lastId) {
+
+        String payload = SEARCH_SORT + ":" + Sort.Direction.DESC.name() + ":" + ENCODER.encodeToString(Double.toString(lastScore).getBytes(StandardCharsets.UTF_8)) + ":" + lastId;
+
+        return seal(payload, query);
+    }
+
+    public WalkCursor decodeSearch(String cursor, String query) {
+
+        try {
+            String[] parts = open(cursor, query).split(":", 4);
+
+            if (!SEARCH_SORT.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+
+            Double score = Double.valueOf(new String(DECODER.decode(parts[2]), StandardCharsets.UTF_8));
+
+            return new WalkCursor(SEARCH_SORT, Sort.Direction.DESC, score, Long.valueOf(parts[3]));
+        } catch (RuntimeException exception) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private String seal(String payload, String context) {
+        return ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + ENCODER.encodeToString(sign(payload + "\n" + context));
+    }
+
+    private String open(String cursor, String context) {
+
+        int separator = cursor.indexOf('.');
+        String payload = new String(DECODER.decode(cursor.substring(0, separator)), StandardCharsets.UTF_8);
+        byte[] signature = DECODER.decode(cursor.substring(separator + 1));
+
+        if (!MessageDigest.isEqual(sign(payload + "\n" + context), signature)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        return payload;
+    }
+
+    //el feed solo contiene paseos activos, así que isActive siempre vale true
+    private static String valueOf(WalkSummaryResponse walk, String sortBy) {
+        return switch (sortBy) {
+            case "id" -> String.valueOf(walk.id());
+            case "title" -> walk.title();
+            case "location" -> walk.location();
+            case "duration" -> String.valueOf(walk.duration() != null ? walk.duration() : WalkKeysetRepositoryImpl.NULL_DURATION);
+            case "createdAt" -> walk.createAt().toString();
+            case "isActive" -> String.valueOf(true);
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        };
+    }
+
+    private static Comparable<?> parseValue(String sortBy, String value) {
+        return switch (sortBy) {
+            case "id" -> Long.valueOf(value);
+            case "title", "location" -> value;
+            case "duration" -> Integer.valueOf(value);
+            case "createdAt" -> LocalDateTime.parse(value);
+            case "isActive" -> Boolean.valueOf(value);
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        };
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException("Cursor signing not available", exception);
+        }
+    }
+}
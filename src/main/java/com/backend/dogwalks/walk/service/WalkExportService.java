@@ -0,0 +1,104 @@
+package com.backend.dogwalks.walk.service;
+
+import com.backend.dogwalks.walk.dto.WalkExportRow;
+import com.backend.dogwalks.walk.enums.ExportFormat;
+import com.backend.dogwalks.walk.repository.WalkExportRepository;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+//volcado completo de paseos para informes: las filas pasan del cursor de la base de datos a la respuesta de una en una,
+//sin listas ni entidades en memoria, así el consumo no depende del tamaño de la tabla
+@Service
+public class WalkExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(WalkExportService.class);
+
+    static final String CSV_HEADER = "id,user_id,username,title,location,duration,description,img,is_active,latitude,longitude,created_at";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WalkRepository walkRepository;
+    private final ObjectWriter rowWriter;
+
+    public WalkExportService(WalkRepository walkRepository, ObjectMapper objectMapper) {
+        this.walkRepository = walkRepository;
+        this.rowWriter = objectMapper.writerFor(WalkExportRow.class);
+    }
+
+    //si el cliente se desconecta la escritura falla: se cierra el cursor y se termina sin error, devuelve las filas enviadas
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream outputStream) {
+
+        long rows = 0;
+        WalkExportRepository.CursorFetch cursorFetch = walkRepository.enableCursorFetch();
+
+        try (Stream<WalkExportRow> stream = walkRepository.streamExportRows();
+             Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            for (Iterator<WalkExportRow> iterator = stream.iterator(); iterator.hasNext(); rows++) {
+                WalkExportRow row = iterator.next();
+
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(rowWriter.writeValueAsString(row));
+                }
+                writer.write('\n');
+            }
+        } catch (IOException exception) {
+            log.debug("Walk export cancelled by the client after {} rows: {}", rows, exception.getMessage());
+        } finally {
+            //el cursor ya está cerrado: la conexión recupera su configuración antes de volver al pool
+            cursorFetch.restore();
+        }
+
+        return rows;
+    }
+
+    private static void writeCsv(Writer writer, WalkExportRow row) throws IOException {
+
+        Object[] values = {row.id(), row.userId(), row.username(), row.title(), row.location(), row.duration(), row.description(),
+                row.walkImgUrl(), row.isActive(), row.latitude(), row.longitude(), row.createdAt()};
+
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+    }
+
+    //RFC 4180: entre comillas si lleva separador, comillas o saltos de línea; las comillas se duplican
+    static String csvField(Object value) {
+
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
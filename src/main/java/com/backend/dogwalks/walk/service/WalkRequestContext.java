@@ -0,0 +1,39 @@
+package com.backend.dogwalks.walk.service;
+
+import com.backend.dogwalks.walk.entity.Walk;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+
+//paseo ya cargado por la comprobación de acceso, guardado en la petición para que el servicio no lo vuelva a leer
+//fuera de una petición HTTP no guarda nada y el servicio consulta el repositorio
+@Component
+public class WalkRequestContext {
+
+    private static final String ATTRIBUTE = WalkRequestContext.class.getName() + ".walk";
+
+    public void handOff(Walk walk) {
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, walk, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    //se consume una sola vez y solo si es el mismo id
+    public Optional<Walk> take(Long id) {
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (attributes == null || !(attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Walk walk)) {
+            return Optional.empty();
+        }
+
+        attributes.removeAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+        return id.equals(walk.getId()) ? Optional.of(walk) : Optional.empty();
+    }
+}
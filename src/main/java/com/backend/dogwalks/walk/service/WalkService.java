@@ -1,33 +1,72 @@
 package com.backend.dogwalks.walk.service;
 
+import com.backend.dogwalks.config.http.VersionTag;
 import com.backend.dogwalks.exception.custom_exception.EntityNotFoundException;
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.walk.cache.WalkDetailCache;
 import com.backend.dogwalks.walk.dto.*;
 import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.feed.WalkFeedIndex;
+import com.backend.dogwalks.walk.geo.GeoHit;
+import com.backend.dogwalks.walk.geo.WalkGeoIndex;
 import com.backend.dogwalks.walk.repository.WalkRepository;
+import com.backend.dogwalks.walk.repository.WalkSpecifications;
+import com.backend.dogwalks.walk.search.ScoredWalk;
+import com.backend.dogwalks.walk.search.TextAnalyzer;
+import com.backend.dogwalks.walk.search.WalkSearchIndex;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class WalkService {
 
     private final WalkRepository walkRepository;
+    private final CustomUserRepository customUserRepository;
+    private final WalkCursorCodec walkCursorCodec;
+    private final WalkSearchIndex walkSearchIndex;
+    private final WalkGeoIndex walkGeoIndex;
+    private final WalkDetailCache walkDetailCache;
+    private final WalkFeedIndex walkFeedIndex;
+    private final WalkRequestContext walkRequestContext;
+    private final ApplicationEventPublisher eventPublisher;
     private static final Set<String> ALLOWED_SORT_FIELDS = Set.of("id", "title", "location", "duration", "createdAt", "isActive");
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final double MAX_RADIUS_KM = 50;
+    private static final int MIN_LOCATION_PREFIX_LENGTH = 3;
 
-    public WalkService(WalkRepository walkRepository) {
+    public WalkService(WalkRepository walkRepository, CustomUserRepository customUserRepository, WalkCursorCodec walkCursorCodec,
+                       WalkSearchIndex walkSearchIndex, WalkGeoIndex walkGeoIndex, WalkDetailCache walkDetailCache,
+                       WalkFeedIndex walkFeedIndex, WalkRequestContext walkRequestContext, ApplicationEventPublisher eventPublisher) {
         this.walkRepository = walkRepository;
+        this.customUserRepository = customUserRepository;
+        this.walkCursorCodec = walkCursorCodec;
+        this.walkSearchIndex = walkSearchIndex;
+        this.walkGeoIndex = walkGeoIndex;
+        this.walkDetailCache = walkDetailCache;
+        this.walkFeedIndex = walkFeedIndex;
+        this.walkRequestContext = walkRequestContext;
+        this.eventPublisher = eventPublisher;
     }
 
-    @Transactional(readOnly = true)
-    public Page<WalkSummaryResponse> getAllWalksSummary(int page, int size, String sortBy, String sortDirection) {
+    //sin transacción propia: una página servida desde memoria no debe pedir conexión
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Page<WalkSummaryResponse> getAllWalksSummary(int page, int size, String sortBy, String sortDirection, WalkFilter filter) {
 
         if (page < 0) throw new IllegalArgumentException("Page index must be 0 or greater");
         if (size <= 0) throw new IllegalArgumentException("Page size must be greater than 0");
@@ -43,14 +82,132 @@ public class WalkService {
             sortDirection = "ASC";
         }
 
-        Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
-        Pageable pageable = PageRequest.of(page, size, sort);
+        validateFilter(filter, sortBy);
+
+        Sort.Direction direction = Sort.Direction.fromString(sortDirection);
+
+        if (filter.isEmpty()) {
+            //las primeras páginas salen de memoria; el resto, con el mismo desempate por id
+            Optional<Page<WalkSummaryResponse>> cached = walkFeedIndex.page(sortBy, direction, page, size);
+
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+
+            return walkRepository.findActiveSummaries(PageRequest.of(page, size, withIdTiebreak(direction, sortBy)));
+        }
 
-        return walkRepository.findByIsActiveTrue(pageable).map(walk -> WalkMapper.toSummaryDto(walk));
+        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+
+        return walkRepository.findActiveSummaries(WalkSpecifications.matching(filter), pageable);
     }
 
+    //modo cursor del feed público: coste constante sea cual sea la profundidad
     @Transactional(readOnly = true)
-    public Page<WalkResponse> getAllWalksPaginated(CustomUser user, int page, int size, String sortBy, String sortDirection) {
+    public CursorPage<WalkSummaryResponse> getWalksSummaryFeed(String cursor, int size, String sortBy, String sortDirection, WalkFilter filter) {
+
+        if (size <= 0) throw new IllegalArgumentException("Page size must be greater than 0");
+
+        int maxSize = 100;
+        size = Math.min(size, maxSize);
+
+        if (!ALLOWED_SORT_FIELDS.contains(sortBy)) {
+            sortBy = "createdAt";
+        }
+
+        if (!"ASC".equalsIgnoreCase(sortDirection) && !"DESC".equalsIgnoreCase(sortDirection)) {
+            sortDirection = "ASC";
+        }
+
+        validateFilter(filter, sortBy);
+
+        Sort.Direction direction = Sort.Direction.fromString(sortDirection);
+        WalkCursor after = null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            after = walkCursorCodec.decode(cursor, filter.toKey());
+
+            if (!after.sortBy().equals(sortBy) || after.direction() != direction) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+        }
+
+        //se pide uno más para saber si hay siguiente página sin hacer COUNT
+        List<WalkSummaryResponse> walks = walkRepository.findActiveAfter(sortBy, direction, after, filter.isEmpty() ? null : WalkSpecifications.matching(filter), size + 1);
+        boolean hasNext = walks.size() > size;
+
+        if (hasNext) {
+            walks = walks.subList(0, size);
+        }
+
+        String nextCursor = hasNext ? walkCursorCodec.encode(walks.get(walks.size() - 1), sortBy, direction, filter.toKey()) : null;
+
+        return new CursorPage<>(List.copyOf(walks), size, hasNext, nextCursor);
+    }
+
+    //solo consulta el índice en memoria, no abre transacción
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CursorPage<WalkSummaryResponse> searchWalks(String query, String cursor, int size) {
+
+        if (query == null || query.isBlank()) throw new IllegalArgumentException("Search query must not be empty");
+        if (query.length() > MAX_QUERY_LENGTH) throw new IllegalArgumentException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        if (size <= 0) throw new IllegalArgumentException("Page size must be greater than 0");
+
+        int maxSize = 100;
+        size = Math.min(size, maxSize);
+
+        String normalizedQuery = String.join(" ", TextAnalyzer.tokenize(query));
+        WalkCursor after = null;
+
+        if (cursor != null && !cursor.isBlank()) {
+            after = walkCursorCodec.decodeSearch(cursor, normalizedQuery);
+        }
+
+        List<ScoredWalk> results = walkSearchIndex.search(query, after != null ? (Double) after.lastValue() : null, after != null ? after.lastId() : null, size + 1);
+        boolean hasNext = results.size() > size;
+
+        if (hasNext) {
+            results = results.subList(0, size);
+        }
+
+        ScoredWalk last = hasNext ? results.get(results.size() - 1) : null;
+        String nextCursor = last != null ? walkCursorCodec.encodeSearch(normalizedQuery, last.score(), last.summary().id()) : null;
+
+        return new CursorPage<>(results.stream().map(ScoredWalk::summary).toList(), size, hasNext, nextCursor);
+    }
+
+    //el índice devuelve los ids más cercanos y una sola consulta por PK trae sus resúmenes
+    @Transactional(readOnly = true)
+    public List<WalkNearbyResponse> getNearbyWalks(double latitude, double longitude, double radiusKm, int size) {
+
+        if (latitude < -90 || latitude > 90) throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        if (longitude < -180 || longitude > 180) throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) throw new IllegalArgumentException("Radius must be greater than 0 and at most " + (int) MAX_RADIUS_KM + " km");
+        if (size <= 0) throw new IllegalArgumentException("Page size must be greater than 0");
+
+        int maxSize = 100;
+        size = Math.min(size, maxSize);
+
+        List<GeoHit> hits = walkGeoIndex.nearby(latitude, longitude, radiusKm, size);
+
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, WalkSummaryResponse> summaries = walkRepository.findActiveSummariesByIdIn(hits.stream().map(GeoHit::walkId).toList()).stream()
+                .collect(Collectors.toMap(WalkSummaryResponse::id, Function.identity()));
+
+        //un paseo que ya no está activo y cuyo evento aún no ha llegado al índice se quita aquí
+        hits.stream().filter(hit -> !summaries.containsKey(hit.walkId())).forEach(hit -> walkGeoIndex.remove(hit.walkId()));
+
+        return hits.stream()
+                .filter(hit -> summaries.containsKey(hit.walkId()))
+                .map(hit -> WalkMapper.toNearbyDto(summaries.get(hit.walkId()), hit))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public Page<WalkResponse> getAllWalksPaginated(Long userId, Role role, int page, int size, String sortBy, String sortDirection, WalkFilter filter) {
 
         if (page < 0) throw new IllegalArgumentException("Page index must be 0 or greater");
         if (size <= 0) throw new IllegalArgumentException("Page size must be greater than 0");
@@ -69,19 +226,35 @@ public class WalkService {
         Sort sort = Sort.by(Sort.Direction.fromString(sortDirection), sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        if (user.getRole().equals(Role.ADMIN)) {
-            return walkRepository.findAll(pageable).map(walk -> WalkMapper.toDto(walk));
+        if (Role.ADMIN.equals(role)) {
+            validateFilter(filter, sortBy);
+
+            if (filter.isEmpty()) {
+                return walkRepository.findAll(pageable).map(walk -> WalkMapper.toDto(walk));
+            }
+
+            return walkRepository.findAll(WalkSpecifications.matching(filter), pageable).map(walk -> WalkMapper.toDto(walk));
+        }
+
+        if (filter.ownerId() != null && !filter.ownerId().equals(userId)) {
+            throw new IllegalArgumentException("Users can only filter their own walks");
         }
 
-        return walkRepository.findByUser(user, pageable).map(walk -> WalkMapper.toDto(walk));
+        WalkFilter ownFilter = filter.withOwnerId(userId);
+        validateFilter(ownFilter, sortBy);
+
+        if (filter.withOwnerId(null).isEmpty()) {
+            return walkRepository.findByUserId(userId, pageable).map(walk -> WalkMapper.toDto(walk));
+        }
+
+        return walkRepository.findAll(WalkSpecifications.matching(ownFilter), pageable).map(walk -> WalkMapper.toDto(walk));
     }
 
-    @Transactional(readOnly = true)
+    //sin transacción propia: un acierto de caché no toca la base de datos y la carga usa la del repositorio
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public WalkDetailResponse getWalkDetailById(Long id) {
 
-        Walk walk = walkRepository.findByIdAndIsActiveTrue(id).orElseThrow(() -> new EntityNotFoundException("Walk not found or inactive"));
-
-        return WalkMapper.toDetailDto(walk);
+        return walkDetailCache.get(id, walkRepository::findActiveDetailById).orElseThrow(() -> new EntityNotFoundException("Walk not found or inactive"));
     }
 
     @Transactional(readOnly = true)
@@ -92,21 +265,54 @@ public class WalkService {
         return WalkMapper.toDto(walk);
     }
 
-    public WalkResponse addWalk(WalkRequest request, CustomUser user) {
+    public WalkResponse addWalk(WalkRequest request, Long userId) {
 
+        validateCoordinates(request);
+
+        //referencia sin SELECT: el usuario solo se carga si se necesita su username
+        CustomUser user = customUserRepository.getReferenceById(userId);
         Walk newWalk = WalkMapper.toEntity(request, user);
         Walk savedWalk = walkRepository.save(newWalk);
 
+        publishChange(savedWalk, false);
+
         return WalkMapper.toDto(savedWalk);
     }
 
     public WalkResponse updateWalk(Long id, WalkRequest request) {
 
+        validateCoordinates(request);
+
         Walk walk = findById(id);
+        boolean wasActive = Boolean.TRUE.equals(walk.getIsActive());
 
         WalkMapper.updateFromWalkRequest(walk, request);
 
-        Walk updatedWalk = walkRepository.save(walk);
+        //flush para que la respuesta lleve la versión nueva
+        Walk updatedWalk = walkRepository.saveAndFlush(walk);
+
+        publishChange(updatedWalk, wasActive);
+
+        return WalkMapper.toDto(updatedWalk);
+    }
+
+    //solo los campos presentes; expectedVersion viene de If-Match y es null si no hay precondición
+    //la lectura hace falta para la respuesta y los índices en memoria; con el índice de dueños WalkSecurity ya no suele cargar el paseo
+    public WalkResponse patchWalk(Long id, WalkPatchRequest request, Long expectedVersion) {
+
+        validateCoordinates(request.latitude(), request.longitude());
+
+        Walk walk = findById(id);
+
+        VersionTag.check(expectedVersion, walk.getVersion());
+
+        boolean wasActive = Boolean.TRUE.equals(walk.getIsActive());
+
+        WalkMapper.updateFromWalkPatchRequest(walk, request);
+
+        Walk updatedWalk = walkRepository.saveAndFlush(walk);
+
+        publishChange(updatedWalk, wasActive);
 
         return WalkMapper.toDto(updatedWalk);
     }
@@ -116,10 +322,76 @@ public class WalkService {
         Walk walk = findById(id);
 
         walkRepository.delete(walk);
+
+        eventPublisher.publishEvent(WalkMapper.toDeletedEvent(walk));
+    }
+
+    private void publishChange(Walk walk, boolean wasActive) {
+        eventPublisher.publishEvent(WalkMapper.toChangedEvent(walk, wasActive));
+    }
+
+    //un orden con empates no es estable entre páginas ni coincide con el del feed en memoria
+    private static Sort withIdTiebreak(Sort.Direction direction, String sortBy) {
+
+        Sort sort = Sort.by(direction, sortBy);
+
+        return "id".equals(sortBy) ? sort : sort.and(Sort.by(direction, "id"));
+    }
+
+    //solo combinaciones que abre un índice: (is_active, created_at), (user_id, created_at), (location, created_at) o (created_at);
+    //la duración no tiene índice propio y solo filtra lo que ya ha acotado otro predicado
+    private static void validateFilter(WalkFilter filter, String sortBy) {
+
+        if (filter.isEmpty()) {
+            return;
+        }
+
+        if ((filter.minDuration() != null && filter.minDuration() < 0) || (filter.maxDuration() != null && filter.maxDuration() < 0)) {
+            throw new IllegalArgumentException("Duration must be 0 or greater");
+        }
+
+        if (filter.minDuration() != null && filter.maxDuration() != null && filter.minDuration() > filter.maxDuration()) {
+            throw new IllegalArgumentException("minDuration must not be greater than maxDuration");
+        }
+
+        if (filter.createdFrom() != null && filter.createdTo() != null && !filter.createdFrom().isBefore(filter.createdTo())) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+
+        if (filter.location() != null && filter.locationPrefix() != null) {
+            throw new IllegalArgumentException("Use either location or locationPrefix, not both");
+        }
+
+        if (filter.locationPrefix() != null && filter.locationPrefix().length() < MIN_LOCATION_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("locationPrefix must contain at least " + MIN_LOCATION_PREFIX_LENGTH + " characters");
+        }
+
+        boolean indexed = filter.location() != null || filter.locationPrefix() != null || filter.ownerId() != null || filter.hasCreatedRange();
+
+        if (!indexed) {
+            throw new IllegalArgumentException("Duration filters must be combined with a location, owner or creation date filter");
+        }
+
+        //los índices terminan en (created_at, id); otro orden obligaría a ordenar todas las filas filtradas salvo si son de un solo dueño
+        if (filter.ownerId() == null && !"createdAt".equals(sortBy)) {
+            throw new IllegalArgumentException("Filtered listings can only be sorted by createdAt");
+        }
+    }
+
+    static void validateCoordinates(WalkRequest request) {
+        validateCoordinates(request.latitude(), request.longitude());
+    }
+
+    private static void validateCoordinates(Double latitude, Double longitude) {
+
+        if ((latitude == null) != (longitude == null)) {
+            throw new IllegalArgumentException("Latitude and longitude must be provided together");
+        }
     }
 
+    //reutiliza el paseo si WalkSecurity tuvo que cargarlo (fallo del índice de dueños); si no, una consulta con el dueño incluido
     private Walk findById(Long id) {
 
-        return walkRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Walk with id: " + id + " not found"));
+        return walkRequestContext.take(id).or(() -> walkRepository.findWithUserById(id)).orElseThrow(() -> new EntityNotFoundException("Walk with id: " + id + " not found"));
     }
 }
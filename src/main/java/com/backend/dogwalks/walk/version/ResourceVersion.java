@@ -0,0 +1,8 @@
+package com.backend.dogwalks.walk.version;
+
+//validadores HTTP de una representación: ETag fuerte y Last-Modified en milisegundos
+public record ResourceVersion(
+        String etag,
+        long lastModified
+) {
+}
@@ -0,0 +1,163 @@
+package com.backend.dogwalks.walk.version;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.owner.WalkOwnerIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+//versiones en memoria para responder If-None-Match / If-Modified-Since sin consultar la base de datos
+//se suben tras el commit: una lectura que empiece antes solo puede llevar un ETag más viejo que su cuerpo, nunca al revés
+@Component
+public class WalkVersionTracker {
+
+    private final WalkOwnerIndex walkOwnerIndex;
+    private final int maxTrackedWalks;
+    //distingue arranques: un ETag de una ejecución anterior nunca coincide
+    private final String epoch;
+    private final Clock clock;
+
+    private long sequence;
+    private long lastModified;
+    private volatile ResourceVersion feedVersion;
+    private volatile Generation generation;
+
+    //los paseos sin entrada propia comparten la versión base de la generación
+    //owners: cambios de un usuario que afectan a todos sus paseos, se resuelven con el dueño al consultar
+    private record Generation(long baseline, long lastModified, Map<Long, Stamp> versions, Map<Long, Stamp> owners) {
+
+        private Generation(long baseline, long lastModified) {
+            this(baseline, lastModified, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    private record Stamp(long version, long lastModified) {
+    }
+
+    public WalkVersionTracker(WalkOwnerIndex walkOwnerIndex,
+                              @Value("${app.http.max-tracked-walks:100000}") int maxTrackedWalks,
+                              Clock clock,
+                              MeterRegistry meterRegistry) {
+
+        if (maxTrackedWalks <= 0) throw new IllegalArgumentException("Tracked walks must be greater than 0");
+
+        this.clock = clock;
+        this.walkOwnerIndex = walkOwnerIndex;
+        this.maxTrackedWalks = maxTrackedWalks;
+        this.lastModified = clock.millis() / 1000 * 1000;
+        this.epoch = Long.toString(lastModified / 1000, 36);
+        this.feedVersion = new ResourceVersion(feedEtag(0), lastModified);
+        this.generation = new Generation(0, lastModified);
+
+        Gauge.builder("walk.versions.tracked", this, WalkVersionTracker::trackedWalks).register(meterRegistry);
+    }
+
+    public ResourceVersion feedVersion() {
+        return feedVersion;
+    }
+
+    //vacío si no se conoce el dueño: el paseo no existe o aún no está indexado, y entonces no hay 304
+    public Optional<ResourceVersion> walkVersion(Long walkId) {
+
+        long ownerId = walkOwnerIndex.ownerOf(walkId);
+
+        if (ownerId == WalkOwnerIndex.NO_OWNER) {
+            return Optional.empty();
+        }
+
+        Generation current = generation;
+        Stamp latest = current.versions().get(walkId);
+        Stamp owner = current.owners().get(ownerId);
+
+        //gana el cambio más reciente por secuencia: dos cambios en el mismo segundo comparten Last-Modified
+        if (owner != null && (latest == null || owner.version() > latest.version())) {
+            latest = owner;
+        }
+        if (latest == null) {
+            latest = new Stamp(current.baseline(), current.lastModified());
+        }
+
+        return Optional.of(new ResourceVersion(walkEtag(walkId, latest.version()), latest.lastModified()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWalkChanged(WalkChangedEvent event) {
+        walkChanged(event.walkId());
+    }
+
+    //registro, contraseña, e-mail o imagen no aparecen en las respuestas de los paseos
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+
+        if (event.walkImpact() != WalkImpact.NONE) {
+            //el feed no lleva el username: solo cambia si los paseos dejan de publicarse
+            ownerChanged(event.userId(), event.walkImpact() != WalkImpact.RENAMED);
+        }
+    }
+
+    public synchronized void walkChanged(Long walkId) {
+
+        long version = next(true);
+        Generation current = generation;
+
+        //al pasar del máximo se empieza otra generación: todos los ETag cambian una vez en vez de crecer sin límite
+        if (current.versions().size() >= maxTrackedWalks && !current.versions().containsKey(walkId)) {
+            generation = new Generation(version, lastModified);
+            return;
+        }
+
+        current.versions().put(walkId, new Stamp(version, lastModified));
+    }
+
+    public synchronized void ownerChanged(Long ownerId, boolean feedChanged) {
+
+        long version = next(feedChanged);
+        Generation current = generation;
+
+        if (current.owners().size() >= maxTrackedWalks && !current.owners().containsKey(ownerId)) {
+            generation = new Generation(version, lastModified);
+            return;
+        }
+
+        current.owners().put(ownerId, new Stamp(version, lastModified));
+    }
+
+    public int trackedWalks() {
+        return generation.versions().size();
+    }
+
+    public int trackedOwners() {
+        return generation.owners().size();
+    }
+
+    //Last-Modified va en segundos y sigue al reloj (nunca por delante de Date); los cambios dentro del mismo segundo
+    //solo los distingue el ETag, que lleva la secuencia: checkNotModified usa If-Modified-Since solo si no llega If-None-Match
+    private long next(boolean feedChanged) {
+
+        sequence++;
+        lastModified = Math.max(clock.millis() / 1000 * 1000, lastModified);
+
+        if (feedChanged) {
+            feedVersion = new ResourceVersion(feedEtag(sequence), lastModified);
+        }
+
+        return sequence;
+    }
+
+    private String feedEtag(long version) {
+        return "\"walks-" + epoch + "-" + version + "\"";
+    }
+
+    private String walkEtag(Long walkId, long version) {
+        return "\"walk-" + walkId + "-" + epoch + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,47 @@
+-- esquema tal y como lo generaba hibernate con ddl-auto, incluidos los índices declarados en las entidades
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    username VARCHAR(50) NOT NULL,
+    email VARCHAR(50) NOT NULL,
+    password VARCHAR(300) NOT NULL,
+    img VARCHAR(255),
+    role ENUM('ADMIN', 'USER') NOT NULL,
+    is_active BIT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE walks (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(100) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    location VARCHAR(100) NOT NULL,
+    duration INT,
+    description TEXT,
+    img VARCHAR(255),
+    is_active BIT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_walks_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_walks_active_created ON walks (is_active, created_at, id);
+
+CREATE TABLE refresh_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    access_token_jti VARCHAR(36) NOT NULL,
+    access_token_expires_at DATETIME(6) NOT NULL,
+    used BIT NOT NULL,
+    revoked BIT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_hash UNIQUE (token_hash)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
@@ -0,0 +1,19 @@
+-- índices compuestos para las consultas de WalkRepository, CustomUserRepository y RefreshTokenRepository
+
+-- findByUserId ordenado por created_at y carga por lotes de user.walks; sustituye al índice de la FK
+CREATE INDEX idx_walks_user_created ON walks (user_id, created_at, id);
+
+-- findAll paginado de admin ordenado por created_at
+CREATE INDEX idx_walks_created ON walks (created_at, id);
+
+-- findByUsername
+CREATE INDEX idx_users_username ON users (username);
+
+-- countByRole, countByRoleAndIsActive: se resuelven solo con el índice
+CREATE INDEX idx_users_role_active ON users (role, is_active);
+
+-- findByRevokedTrueAndAccessTokenExpiresAtAfter al arrancar
+CREATE INDEX idx_refresh_tokens_revoked_access_exp ON refresh_tokens (revoked, access_token_expires_at);
+
+-- deleteExpired
+CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens (expires_at);
@@ -0,0 +1,4 @@
+-- coordenadas opcionales para la búsqueda por cercanía; el índice espacial vive en memoria (WalkGeoIndex)
+ALTER TABLE walks
+    ADD COLUMN latitude DOUBLE NULL,
+    ADD COLUMN longitude DOUBLE NULL;
@@ -0,0 +1,2 @@
+-- filtros del listado por location (igualdad o prefijo) ordenados por created_at
+CREATE INDEX idx_walks_location_created ON walks (location, created_at, id);
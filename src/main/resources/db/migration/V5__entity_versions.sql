@@ -0,0 +1,6 @@
+-- versión para el control optimista de concurrencia (@Version): las escrituras comprueban If-Match sin bloquear filas
+ALTER TABLE users
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE walks
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
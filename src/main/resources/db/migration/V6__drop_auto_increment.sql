@@ -0,0 +1,13 @@
+-- walks y users reciben el id de TimeOrderedIdGenerator; con AUTO_INCREMENT un INSERT con id explícito sube el contador
+-- a max(id) + 1, que es justo el siguiente id del generador en el mismo milisegundo: un INSERT sin id podía chocar con él
+-- sin AUTO_INCREMENT un INSERT a mano tiene que traer su id (si no, falla en vez de tomar uno del espacio del generador)
+-- MySQL no deja modificar users.id mientras walks.user_id lo referencia aunque el tipo no cambie
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE users
+    MODIFY id BIGINT NOT NULL;
+
+ALTER TABLE walks
+    MODIFY id BIGINT NOT NULL;
+
+SET FOREIGN_KEY_CHECKS = 1;
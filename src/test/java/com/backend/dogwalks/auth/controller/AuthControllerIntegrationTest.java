@@ -2,11 +2,18 @@ package com.backend.dogwalks.auth.controller;
 
 import com.backend.dogwalks.auth.dto.login.LoginRequest;
 import com.backend.dogwalks.auth.dto.login.LoginResponse;
+import com.backend.dogwalks.auth.dto.refresh.RefreshRequest;
+import com.backend.dogwalks.auth.dto.refresh.RefreshResponse;
 import com.backend.dogwalks.auth.dto.register.RegisterRequest;
 import com.backend.dogwalks.auth.dto.register.RegisterResponse;
+import com.backend.dogwalks.security.login.LoginRateLimiter;
+import com.backend.dogwalks.security.user.UserDetailsCache;
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -59,6 +66,15 @@ public class AuthControllerIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
     private String baseUrl;
 
     private static final String USERNAME = "Maria";
@@ -70,6 +86,8 @@ public class AuthControllerIntegrationTest {
 
         baseUrl = "http://localhost:" + port + "/api";
         userRepository.deleteAll();
+        userDetailsCache.clear();
+        loginRateLimiter.clear();
     }
 
     @Test
@@ -192,6 +210,106 @@ public class AuthControllerIntegrationTest {
         assertTrue(response.getBody().contains("User account is deactivated"));
     }
 
+    @Test
+    @DisplayName("POST /api/login - should load the user with at most one query and none once cached")
+    void loginShouldQueryUserOnce() {
+
+        registerUserHelper(USERNAME, EMAIL, PASSWORD);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        LoginRequest loginRequest = new LoginRequest(EMAIL, PASSWORD);
+
+        statistics.clear();
+        long start = System.nanoTime();
+        ResponseEntity<LoginResponse> firstLogin = restTemplate.exchange(baseUrl + "/login", HttpMethod.POST, new HttpEntity<>(loginRequest, createJsonHeaders()), LoginResponse.class);
+        long firstLoginMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(HttpStatus.OK, firstLogin.getStatusCode());
+        assertEquals(1, statistics.getQueryExecutionCount());
+
+        statistics.clear();
+        ResponseEntity<LoginResponse> secondLogin = restTemplate.exchange(baseUrl + "/login", HttpMethod.POST, new HttpEntity<>(loginRequest, createJsonHeaders()), LoginResponse.class);
+
+        assertEquals(HttpStatus.OK, secondLogin.getStatusCode());
+        assertEquals(0, statistics.getQueryExecutionCount());
+        assertTrue(firstLoginMillis < 2000, "Login took " + firstLoginMillis + " ms");
+    }
+
+    @Test
+    @DisplayName("POST /api/login - deactivated user is rejected without any extra query")
+    void loginShouldRejectDeactivatedUserWithSingleQuery() {
+
+        registerUserHelper(USERNAME, EMAIL, PASSWORD);
+
+        CustomUser user = userRepository.findUserByEmail(EMAIL).get();
+        user.setIsActive(false);
+        userRepository.save(user);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        LoginRequest loginRequest = new LoginRequest(EMAIL, PASSWORD);
+        ResponseEntity<String> response = restTemplate.exchange(baseUrl + "/login", HttpMethod.POST, new HttpEntity<>(loginRequest, createJsonHeaders()), String.class);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    @DisplayName("POST /api/login - should throttle repeated attempts before checking the password")
+    void loginShouldThrottleRepeatedAttempts() {
+
+        registerUserHelper(USERNAME, EMAIL, PASSWORD);
+
+        LoginRequest loginRequest = new LoginRequest(EMAIL, "Wrong9876543.");
+        ResponseEntity<String> response = null;
+
+        for (int i = 0; i < 6; i++) {
+            response = restTemplate.exchange(baseUrl + "/login", HttpMethod.POST, new HttpEntity<>(loginRequest, createJsonHeaders()), String.class);
+        }
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertNotNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getBody().contains("Too many login attempts"));
+    }
+
+    @Test
+    @DisplayName("POST /api/refresh - must rotate the refresh token and reject its reuse")
+    void refreshShouldRotateAndRejectReuse() {
+
+        LoginResponse login = loginHelper();
+
+        ResponseEntity<RefreshResponse> rotated = restTemplate.exchange(baseUrl + "/refresh", HttpMethod.POST, new HttpEntity<>(new RefreshRequest(login.refreshToken()), createJsonHeaders()), RefreshResponse.class);
+
+        assertEquals(HttpStatus.OK, rotated.getStatusCode());
+        assertNotEquals(login.refreshToken(), rotated.getBody().refreshToken());
+        assertEquals(HttpStatus.OK, getProfile(rotated.getBody().token()).getStatusCode());
+
+        ResponseEntity<String> reused = restTemplate.exchange(baseUrl + "/refresh", HttpMethod.POST, new HttpEntity<>(new RefreshRequest(login.refreshToken()), createJsonHeaders()), String.class);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, reused.getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, getProfile(rotated.getBody().token()).getStatusCode());
+
+        ResponseEntity<String> afterReuse = restTemplate.exchange(baseUrl + "/refresh", HttpMethod.POST, new HttpEntity<>(new RefreshRequest(rotated.getBody().refreshToken()), createJsonHeaders()), String.class);
+
+        assertEquals(HttpStatus.UNAUTHORIZED, afterReuse.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("POST /api/logout - must revoke the access token issued with the refresh token")
+    void logoutShouldRevokeAccessToken() {
+
+        LoginResponse login = loginHelper();
+
+        assertEquals(HttpStatus.OK, getProfile(login.token()).getStatusCode());
+
+        ResponseEntity<Void> logout = restTemplate.exchange(baseUrl + "/logout", HttpMethod.POST, new HttpEntity<>(new RefreshRequest(login.refreshToken()), createJsonHeaders()), Void.class);
+
+        assertEquals(HttpStatus.NO_CONTENT, logout.getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, getProfile(login.token()).getStatusCode());
+    }
+
     @Test
     @DisplayName("Complete path: Register, login, valid JWT")
     void completePath() {
@@ -230,6 +348,23 @@ public class AuthControllerIntegrationTest {
         return headers;
     }
 
+    private LoginResponse loginHelper() {
+
+        registerUserHelper(USERNAME, EMAIL, PASSWORD);
+
+        HttpEntity<LoginRequest> entity = new HttpEntity<>(new LoginRequest(EMAIL, PASSWORD), createJsonHeaders());
+
+        return restTemplate.exchange(baseUrl + "/login", HttpMethod.POST, entity, LoginResponse.class).getBody();
+    }
+
+    private ResponseEntity<String> getProfile(String token) {
+
+        HttpHeaders headers = createJsonHeaders();
+        headers.setBearerAuth(token);
+
+        return restTemplate.exchange(baseUrl + "/users/profile", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
     private void registerUserHelper(String username, String email, String password) {
 
         RegisterRequest registerRequest = new RegisterRequest(username, email, password);
@@ -2,18 +2,22 @@ package com.backend.dogwalks.auth.service;
 
 import com.backend.dogwalks.auth.dto.login.LoginRequest;
 import com.backend.dogwalks.auth.dto.login.LoginResponse;
+import com.backend.dogwalks.auth.dto.refresh.RefreshRequest;
+import com.backend.dogwalks.auth.dto.refresh.RefreshResponse;
 import com.backend.dogwalks.auth.dto.register.RegisterRequest;
 import com.backend.dogwalks.auth.dto.register.RegisterResponse;
 import com.backend.dogwalks.exception.custom_exception.EntityAlreadyExistsException;
-import com.backend.dogwalks.exception.custom_exception.EntityNotFoundException;
 import com.backend.dogwalks.exception.custom_exception.InvalidCredentialsException;
 import com.backend.dogwalks.exception.custom_exception.UserNotActiveException;
+import com.backend.dogwalks.exception.custom_exception.UsernameNotFoundException;
 import com.backend.dogwalks.security.user.CustomUserDetails;
+import com.backend.dogwalks.security.user.CustomUserDetailsService;
+import com.backend.dogwalks.security.user.jwt.IssuedToken;
 import com.backend.dogwalks.security.user.jwt.JwtUtil;
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.event.UserChangedEvent;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
-import com.backend.dogwalks.user.service.CustomUserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,10 +25,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,16 +40,19 @@ public class AuthServiceUnitTest {
     private CustomUserRepository customUserRepository;
 
     @Mock
-    private CustomUserService customUserService;
+    private CustomUserDetailsService customUserDetailsService;
 
     @Mock
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private AuthenticationManager authenticationManager;
+    private JwtUtil jwtUtil;
 
     @Mock
-    private JwtUtil jwtUtil;
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private AuthService authService;
@@ -57,6 +61,7 @@ public class AuthServiceUnitTest {
     private LoginRequest loginRequest;
     private CustomUser mockUser;
     private CustomUserDetails mockUserDetails;
+    private IssuedToken issuedToken;
 
     @BeforeEach
     void setUp() {
@@ -72,6 +77,7 @@ public class AuthServiceUnitTest {
         mockUser.setIsActive(true);
 
         mockUserDetails = new CustomUserDetails(mockUser);
+        issuedToken = new IssuedToken("test-jwt-token", "test-jti", System.currentTimeMillis() + 3600000L);
     }
 
    @Test
@@ -96,6 +102,8 @@ public class AuthServiceUnitTest {
        verify(passwordEncoder, times(1)).encode(registerRequest.password());
        verify(customUserRepository, times(1)).save(any(CustomUser.class));
 
+       verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(1L, "maria@test.com", false));
+
        verify(customUserRepository).save(argThat(user ->
                user.getUsername().equals("Maria") &&
                user.getEmail().equals("maria@test.com") &&
@@ -118,22 +126,23 @@ public class AuthServiceUnitTest {
        verify(customUserRepository, times(1)).existsByEmail(registerRequest.email());
        verify(passwordEncoder, never()).encode(anyString());
        verify(customUserRepository, never()).save(any(CustomUser.class));
+       verifyNoInteractions(eventPublisher);
    }
 
    @Test
    @DisplayName("Login Should return valid token when credentials are correct")
     void loginUser_shouldReturnToken_whenValidCredentials() {
 
-       Authentication authentication = new UsernamePasswordAuthenticationToken(mockUserDetails, null);
-
-       when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
-       when(jwtUtil.generateToken(mockUserDetails)).thenReturn("test-jwt-token");
-       when(customUserService.findUserByEmail(loginRequest.email())).thenReturn(mockUser);
+       when(customUserDetailsService.loadUserByUsername(loginRequest.email())).thenReturn(mockUserDetails);
+       when(passwordEncoder.matches(loginRequest.password(), "encodedPassword")).thenReturn(true);
+       when(jwtUtil.issueToken(mockUserDetails)).thenReturn(issuedToken);
+       when(refreshTokenService.createToken(1L, issuedToken)).thenReturn("test-refresh-token");
 
        LoginResponse response = authService.loginUser(loginRequest);
 
        assertNotNull(response);
        assertEquals("test-jwt-token", response.token());
+       assertEquals("test-refresh-token", response.refreshToken());
        assertEquals("Bearer", response.tokenType());
        assertEquals(1L, response.id());
        assertEquals("Maria", response.username());
@@ -141,62 +150,57 @@ public class AuthServiceUnitTest {
        assertEquals(Role.USER, response.role());
        assertEquals(Boolean.TRUE, response.isActive());
 
-       verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-       verify(jwtUtil, times(1)).generateToken(mockUserDetails);
-       verify(customUserService, times(1)).findUserByEmail(loginRequest.email());
+       verify(customUserDetailsService, times(1)).loadUserByUsername(loginRequest.email());
+       verify(passwordEncoder, times(1)).matches(loginRequest.password(), "encodedPassword");
+       verify(jwtUtil, times(1)).issueToken(mockUserDetails);
+       verify(refreshTokenService, times(1)).createToken(1L, issuedToken);
+       verifyNoInteractions(customUserRepository);
    }
 
    @Test
-   @DisplayName("Login Should throw InvalidCredentialsException when credentials are wrong")
+   @DisplayName("Login Should throw InvalidCredentialsException when password is wrong")
     void loginUser_shouldThrowException_whenInvalidCredentials() {
 
-       when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenThrow(new BadCredentialsException("Bad credentials"));
+       when(customUserDetailsService.loadUserByUsername(loginRequest.email())).thenReturn(mockUserDetails);
+       when(passwordEncoder.matches(loginRequest.password(), "encodedPassword")).thenReturn(false);
 
        InvalidCredentialsException exception = assertThrows(InvalidCredentialsException.class, () -> authService.loginUser(loginRequest));
 
        assertEquals("Incorrect e-mail or password", exception.getMessage());
 
-       verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-       verify(jwtUtil, never()).generateToken(any(CustomUserDetails.class));
-       verify(customUserRepository, never()).findUserByEmail(anyString());
+       verify(jwtUtil, never()).issueToken(any(CustomUserDetails.class));
+       verify(customUserDetailsService, never()).updatePassword(any(), anyString());
+       verifyNoInteractions(refreshTokenService);
    }
 
    @Test
-   @DisplayName("Login Should throw EntityNotFoundException when authenticated user not found in database")
-    void loginUser_shouldThrowException_whenUserNotFoundAfterAuthentication() {
+   @DisplayName("Login Should throw UsernameNotFoundException when e-mail is not registered")
+    void loginUser_shouldThrowException_whenUserNotFound() {
 
-        Authentication authentication = new UsernamePasswordAuthenticationToken(mockUserDetails, null);
+        when(customUserDetailsService.loadUserByUsername(loginRequest.email())).thenThrow(new UsernameNotFoundException("User with e-mail: maria@test.com, not found"));
 
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
-        when(customUserService.findUserByEmail(loginRequest.email())).thenThrow(new EntityNotFoundException("User with e-mail: maria@test.com, not found in data base"));
+        UsernameNotFoundException exception = assertThrows(UsernameNotFoundException.class, () -> authService.loginUser(loginRequest));
 
-        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> authService.loginUser(loginRequest));
+        assertEquals("User with e-mail: " + loginRequest.email() + ", not found", exception.getMessage());
 
-        assertEquals("User with e-mail: " + loginRequest.email() + ", not found in data base", exception.getMessage());
-
-        verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(customUserService, times(1)).findUserByEmail(eq(loginRequest.email()));
+        verifyNoInteractions(passwordEncoder);
         verifyNoInteractions(jwtUtil);
    }
 
    @Test
-   @DisplayName("Login Should throw UserNotActiveException when user is deactivated")
+   @DisplayName("Login Should throw UserNotActiveException without checking the password when user is deactivated")
    void loginUser_shouldThrowException_whenUserIsNotActive() {
 
-       Authentication authentication = new UsernamePasswordAuthenticationToken(mockUserDetails, null);
-
-       CustomUser inactiveUser = new CustomUser();
-       inactiveUser.setIsActive(false);
+       CustomUserDetails inactiveUser = new CustomUserDetails(1L, "Maria", "maria@test.com", "encodedPassword", Role.USER, false);
 
-       when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
-       when(customUserService.findUserByEmail(loginRequest.email())).thenReturn(inactiveUser);
+       when(customUserDetailsService.loadUserByUsername(loginRequest.email())).thenReturn(inactiveUser);
 
        UserNotActiveException exception = assertThrows(UserNotActiveException.class, () -> authService.loginUser(loginRequest));
 
        assertEquals("User account is deactivated", exception.getMessage());
 
-       verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-       verify(customUserService, times(1)).findUserByEmail(eq(loginRequest.email()));
+       verify(customUserDetailsService, times(1)).loadUserByUsername(eq(loginRequest.email()));
+       verifyNoInteractions(passwordEncoder);
        verifyNoInteractions(jwtUtil);
    }
 
@@ -204,34 +208,55 @@ public class AuthServiceUnitTest {
    @DisplayName("Login Should handle JWT generation failure")
     void loginUser_shouldThrowException_whenJwtGenerationFails() {
 
-        Authentication authentication = new UsernamePasswordAuthenticationToken(mockUserDetails, null);
-
-        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
-        when(customUserService.findUserByEmail(loginRequest.email())).thenReturn(mockUser);
-        when(jwtUtil.generateToken(mockUserDetails)).thenThrow(new RuntimeException("JWT generation failed"));
+        when(customUserDetailsService.loadUserByUsername(loginRequest.email())).thenReturn(mockUserDetails);
+        when(passwordEncoder.matches(loginRequest.password(), "encodedPassword")).thenReturn(true);
+        when(jwtUtil.issueToken(mockUserDetails)).thenThrow(new RuntimeException("JWT generation failed"));
 
         assertThrows(RuntimeException.class, () -> authService.loginUser(loginRequest));
 
-        verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(customUserService, times(1)).findUserByEmail(eq(loginRequest.email()));
-        verify(jwtUtil, times(1)).generateToken(mockUserDetails);
+        verify(jwtUtil, times(1)).issueToken(mockUserDetails);
+        verifyNoInteractions(refreshTokenService);
     }
 
    @Test
-   @DisplayName("Login Should create authentication token with correct credentials")
-    void loginUser_shouldCreateAuthenticationTokenWithCorrectCredentials() {
+   @DisplayName("Login Should rehash the password when the stored hash uses an outdated cost")
+    void loginUser_shouldRehashPassword_whenEncodingNeedsUpgrade() {
 
-       Authentication authentication = new UsernamePasswordAuthenticationToken(mockUserDetails, null);
+       CustomUserDetails upgraded = mockUserDetails.withPassword("upgradedPassword");
+
+       when(customUserDetailsService.loadUserByUsername(loginRequest.email())).thenReturn(mockUserDetails);
+       when(passwordEncoder.matches(loginRequest.password(), "encodedPassword")).thenReturn(true);
+       when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+       when(passwordEncoder.encode(loginRequest.password())).thenReturn("upgradedPassword");
+       when(customUserDetailsService.updatePassword(mockUserDetails, "upgradedPassword")).thenReturn(upgraded);
+       when(jwtUtil.issueToken(upgraded)).thenReturn(issuedToken);
+
+       LoginResponse response = authService.loginUser(loginRequest);
 
-       when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
-       when(jwtUtil.generateToken(mockUserDetails)).thenReturn("test-jwt-token");
-       when(customUserService.findUserByEmail(loginRequest.email())).thenReturn(mockUser);
+       assertEquals("test-jwt-token", response.token());
+       verify(customUserDetailsService, times(1)).updatePassword(mockUserDetails, "upgradedPassword");
+   }
+
+   @Test
+   @DisplayName("Refresh Should delegate the rotation to RefreshTokenService")
+    void refreshToken_shouldRotateRefreshToken() {
+
+       RefreshResponse rotated = new RefreshResponse("new-jwt-token", "Bearer", "new-refresh-token");
+
+       when(refreshTokenService.rotate("test-refresh-token")).thenReturn(rotated);
+
+       RefreshResponse response = authService.refreshToken(new RefreshRequest("test-refresh-token"));
+
+       assertEquals(rotated, response);
+       verify(refreshTokenService, times(1)).rotate("test-refresh-token");
+   }
+
+   @Test
+   @DisplayName("Logout Should revoke the refresh token family")
+    void logout_shouldRevokeRefreshToken() {
 
-       authService.loginUser(loginRequest);
+       authService.logout(new RefreshRequest("test-refresh-token"));
 
-       verify(authenticationManager, times(1)).authenticate(argThat(token ->
-               token instanceof UsernamePasswordAuthenticationToken &&
-               token.getPrincipal().equals(loginRequest.email()) &&
-               token.getCredentials().equals(loginRequest.password())));
+       verify(refreshTokenService, times(1)).revoke("test-refresh-token");
    }
 }
@@ -0,0 +1,103 @@
+package com.backend.dogwalks.auth.service;
+
+import com.backend.dogwalks.auth.dto.login.LoginRequest;
+import com.backend.dogwalks.exception.custom_exception.UserNotActiveException;
+import com.backend.dogwalks.security.password.PasswordHashingService;
+import com.backend.dogwalks.security.user.CustomUserDetailsService;
+import com.backend.dogwalks.security.user.UserDetailsCache;
+import com.backend.dogwalks.security.user.jwt.JwtUtil;
+import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+//compara el login anterior (bcrypt antes de mirar isActive y dos búsquedas) con loginUser; la caché de usuarios está desactivada
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String SECRET = "mariapupurrupupu24987oiurhbsj54aporppwirnhfns4704nmvh479235";
+    private static final String PASSWORD = "Maria123456.";
+
+    private CustomUserRepository customUserRepository;
+    private PasswordHashingService passwordEncoder;
+    private AuthService authService;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = new PasswordHashingService(10, 10, 14, 250, 0, 2000, new SimpleMeterRegistry());
+
+        customUserRepository = mock(CustomUserRepository.class, withSettings().stubOnly());
+        when(customUserRepository.findUserByEmail("active@test.com")).thenReturn(Optional.of(user(1L, "active@test.com", true)));
+        when(customUserRepository.findUserByEmail("inactive@test.com")).thenReturn(Optional.of(user(2L, "inactive@test.com", false)));
+
+        UserDetailsCache userDetailsCache = new UserDetailsCache(0, 300000, Clock.systemUTC(), new SimpleMeterRegistry());
+        CustomUserDetailsService customUserDetailsService = new CustomUserDetailsService(customUserRepository, userDetailsCache);
+
+        JwtUtil jwtUtil = new JwtUtil();
+        jwtUtil.setJwtSecretKey(SECRET);
+        jwtUtil.setJwtExpiration(3600000L);
+
+        RefreshTokenService refreshTokenService = mock(RefreshTokenService.class, withSettings().stubOnly());
+
+        authService = new AuthService(customUserRepository, customUserDetailsService, passwordEncoder, jwtUtil, refreshTokenService, mock(ApplicationEventPublisher.class));
+    }
+
+    @Benchmark
+    public Object loginActiveUser() {
+        return authService.loginUser(new LoginRequest("active@test.com", PASSWORD));
+    }
+
+    @Benchmark
+    public Object rejectDeactivatedUser() {
+        try {
+            return authService.loginUser(new LoginRequest("inactive@test.com", PASSWORD));
+        } catch (UserNotActiveException exception) {
+            return exception;
+        }
+    }
+
+    @Benchmark
+    public Object legacyRejectDeactivatedUser() {
+        CustomUser authenticated = customUserRepository.findUserByEmail("inactive@test.com").orElseThrow();
+        if (!passwordEncoder.matches(PASSWORD, authenticated.getPassword())) {
+            return null;
+        }
+        return customUserRepository.findUserByEmail("inactive@test.com").orElseThrow().getIsActive();
+    }
+
+    private CustomUser user(Long id, String email, boolean active) {
+        CustomUser user = new CustomUser();
+        user.setId(id);
+        user.setUsername("Maria");
+        user.setEmail(email);
+        user.setPassword(passwordEncoder.encode(PASSWORD));
+        user.setRole(Role.USER);
+        user.setIsActive(active);
+        return user;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LoginBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
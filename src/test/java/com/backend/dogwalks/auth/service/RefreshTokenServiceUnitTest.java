@@ -0,0 +1,227 @@
+package com.backend.dogwalks.auth.service;
+
+import com.backend.dogwalks.auth.dto.refresh.RefreshResponse;
+import com.backend.dogwalks.auth.entity.RefreshToken;
+import com.backend.dogwalks.auth.repository.RefreshTokenRepository;
+import com.backend.dogwalks.exception.custom_exception.InvalidCredentialsException;
+import com.backend.dogwalks.security.user.CustomUserDetails;
+import com.backend.dogwalks.security.user.jwt.IssuedToken;
+import com.backend.dogwalks.security.user.jwt.JwtUtil;
+import com.backend.dogwalks.security.user.jwt.RevokedTokenRegistry;
+import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenService Unit Tests")
+public class RefreshTokenServiceUnitTest {
+
+    private static final String RAW_TOKEN = "raw-refresh-token";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private CustomUserRepository customUserRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    private RefreshTokenService refreshTokenService;
+    private IssuedToken issuedToken;
+    private CustomUser user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, customUserRepository, jwtUtil, revokedTokenRegistry, 1209600000L);
+        issuedToken = new IssuedToken("access-token", "access-jti", System.currentTimeMillis() + 3600000L);
+
+        user = new CustomUser();
+        user.setId(1L);
+        user.setUsername("Maria");
+        user.setEmail("maria@test.com");
+        user.setPassword("encodedPassword");
+        user.setRole(Role.USER);
+        user.setIsActive(true);
+    }
+
+    private RefreshToken storedToken(boolean used, boolean revoked, LocalDateTime expiresAt) {
+        RefreshToken token = new RefreshToken(RefreshTokenService.hash(RAW_TOKEN), "family-1", 1L, expiresAt, "old-jti", LocalDateTime.now().plusHours(1));
+        token.setUsed(used);
+        token.setRevoked(revoked);
+        return token;
+    }
+
+    @Nested
+    @DisplayName("createToken Tests")
+    class CreateTokenTests {
+
+        @Test
+        @DisplayName("createToken should store only the hash of a new random token")
+        void createTokenShouldStoreHash() {
+
+            String first = refreshTokenService.createToken(1L, issuedToken);
+            String second = refreshTokenService.createToken(1L, issuedToken);
+
+            ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+            verify(refreshTokenRepository, times(2)).save(captor.capture());
+
+            RefreshToken saved = captor.getAllValues().get(0);
+
+            assertNotEquals(first, second);
+            assertEquals(RefreshTokenService.hash(first), saved.getTokenHash());
+            assertNotEquals(first, saved.getTokenHash());
+            assertEquals("access-jti", saved.getAccessTokenJti());
+            assertEquals(1L, saved.getUserId());
+            assertNotEquals(saved.getFamilyId(), captor.getAllValues().get(1).getFamilyId());
+        }
+    }
+
+    @Nested
+    @DisplayName("rotate Tests")
+    class RotateTests {
+
+        @Test
+        @DisplayName("rotate should mark the token as used and issue a new one in the same family")
+        void rotateShouldIssueNewTokenInSameFamily() {
+
+            RefreshToken current = storedToken(false, false, LocalDateTime.now().plusDays(1));
+
+            when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(RAW_TOKEN))).thenReturn(Optional.of(current));
+            when(customUserRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(jwtUtil.issueToken(any(CustomUserDetails.class))).thenReturn(issuedToken);
+
+            RefreshResponse response = refreshTokenService.rotate(RAW_TOKEN);
+
+            assertEquals("access-token", response.token());
+            assertEquals("Bearer", response.tokenType());
+            assertNotEquals(RAW_TOKEN, response.refreshToken());
+            assertTrue(current.getUsed());
+
+            ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+            verify(refreshTokenRepository).save(captor.capture());
+            assertEquals("family-1", captor.getValue().getFamilyId());
+            verifyNoInteractions(revokedTokenRegistry);
+        }
+
+        @Test
+        @DisplayName("rotate should reject unknown tokens")
+        void rotateShouldReject_whenTokenUnknown() {
+
+            when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+            InvalidCredentialsException exception = assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(RAW_TOKEN));
+
+            assertEquals("Invalid refresh token", exception.getMessage());
+            verifyNoInteractions(jwtUtil);
+        }
+
+        @Test
+        @DisplayName("rotate should revoke the whole family when a used token is replayed")
+        void rotateShouldRevokeFamily_whenTokenReused() {
+
+            RefreshToken reused = storedToken(true, false, LocalDateTime.now().plusDays(1));
+            RefreshToken latest = new RefreshToken("other-hash", "family-1", 1L, LocalDateTime.now().plusDays(1), "latest-jti", LocalDateTime.now().plusHours(1));
+
+            when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(RAW_TOKEN))).thenReturn(Optional.of(reused));
+            when(refreshTokenRepository.findByFamilyIdAndRevokedFalse("family-1")).thenReturn(List.of(reused, latest));
+
+            assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(RAW_TOKEN));
+
+            assertTrue(reused.getRevoked());
+            assertTrue(latest.getRevoked());
+            verify(revokedTokenRegistry).revoke(eq("old-jti"), anyLong());
+            verify(revokedTokenRegistry).revoke(eq("latest-jti"), anyLong());
+            verifyNoInteractions(jwtUtil);
+        }
+
+        @Test
+        @DisplayName("rotate should reject expired tokens")
+        void rotateShouldReject_whenTokenExpired() {
+
+            RefreshToken expired = storedToken(false, false, LocalDateTime.now().minusSeconds(1));
+
+            when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(RAW_TOKEN))).thenReturn(Optional.of(expired));
+
+            assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(RAW_TOKEN));
+
+            verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+        }
+
+        @Test
+        @DisplayName("rotate should revoke the family when the user is no longer active")
+        void rotateShouldRevokeFamily_whenUserNotActive() {
+
+            RefreshToken current = storedToken(false, false, LocalDateTime.now().plusDays(1));
+            user.setIsActive(false);
+
+            when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(RAW_TOKEN))).thenReturn(Optional.of(current));
+            when(customUserRepository.findById(1L)).thenReturn(Optional.of(user));
+            when(refreshTokenRepository.findByFamilyIdAndRevokedFalse("family-1")).thenReturn(List.of(current));
+
+            assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(RAW_TOKEN));
+
+            assertTrue(current.getRevoked());
+            verifyNoInteractions(jwtUtil);
+        }
+    }
+
+    @Nested
+    @DisplayName("Revocation Tests")
+    class RevocationTests {
+
+        @Test
+        @DisplayName("revoke should revoke the family of the given token")
+        void revokeShouldRevokeFamily() {
+
+            RefreshToken current = storedToken(false, false, LocalDateTime.now().plusDays(1));
+
+            when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash(RAW_TOKEN))).thenReturn(Optional.of(current));
+            when(refreshTokenRepository.findByFamilyIdAndRevokedFalse("family-1")).thenReturn(List.of(current));
+
+            refreshTokenService.revoke(RAW_TOKEN);
+
+            assertTrue(current.getRevoked());
+            verify(revokedTokenRegistry).revoke(eq("old-jti"), anyLong());
+        }
+
+        @Test
+        @DisplayName("onUserChanged should revoke every token of the user only when the change revokes tokens")
+        void onUserChangedShouldRevokeUserTokens() {
+
+            RefreshToken current = storedToken(false, false, LocalDateTime.now().plusDays(1));
+
+            when(refreshTokenRepository.findByUserIdAndRevokedFalse(1L)).thenReturn(List.of(current));
+
+            refreshTokenService.onUserChanged(new UserChangedEvent(1L, "maria@test.com", false));
+            verifyNoInteractions(refreshTokenRepository);
+
+            refreshTokenService.onUserChanged(new UserChangedEvent(1L, "maria@test.com", true));
+
+            assertTrue(current.getRevoked());
+            verify(revokedTokenRegistry).revoke(eq("old-jti"), anyLong());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.backend.dogwalks.config.http;
+
+import com.backend.dogwalks.exception.custom_exception.PreconditionFailedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("VersionTag Unit Tests")
+public class VersionTagUnitTest {
+
+    @Test
+    @DisplayName("parseIfMatch should read the version of a strong tag written by of")
+    void parseIfMatchShouldReadVersion() {
+
+        assertEquals(7L, VersionTag.parseIfMatch(VersionTag.of(7L)));
+        assertEquals(7L, VersionTag.parseIfMatch(" \"7\" "));
+    }
+
+    @Test
+    @DisplayName("parseIfMatch should return null when there is no precondition")
+    void parseIfMatchShouldReturnNull_whenNoPrecondition() {
+
+        assertNull(VersionTag.parseIfMatch(null));
+        assertNull(VersionTag.parseIfMatch(""));
+        assertNull(VersionTag.parseIfMatch("*"));
+    }
+
+    @Test
+    @DisplayName("parseIfMatch should fail the precondition for weak or foreign tags and reject unquoted ones")
+    void parseIfMatchShouldRejectTagsThatCannotMatch() {
+
+        assertThrows(PreconditionFailedException.class, () -> VersionTag.parseIfMatch("W/\"7\""));
+        assertThrows(PreconditionFailedException.class, () -> VersionTag.parseIfMatch("\"walk-1-abc-3\""));
+        assertThrows(IllegalArgumentException.class, () -> VersionTag.parseIfMatch("7"));
+    }
+
+    @Test
+    @DisplayName("check should pass without expected version or when it matches and fail with the current tag otherwise")
+    void checkShouldCompareVersions() {
+
+        assertDoesNotThrow(() -> VersionTag.check(null, 3L));
+        assertDoesNotThrow(() -> VersionTag.check(3L, 3L));
+
+        PreconditionFailedException exception = assertThrows(PreconditionFailedException.class, () -> VersionTag.check(2L, 3L));
+
+        assertEquals("\"3\"", exception.getCurrentEtag());
+    }
+}
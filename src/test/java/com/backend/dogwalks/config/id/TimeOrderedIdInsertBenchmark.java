@@ -0,0 +1,118 @@
+package com.backend.dogwalks.config.id;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+//100k paseos en una transacción: IDENTITY (un INSERT por fila para leer el id) frente a ids asignados en lotes de 50,
+//como los envía hibernate con hibernate.jdbc.batch_size; necesita Docker
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TimeOrderedIdInsertBenchmark {
+
+    private static final int WALKS = 100_000;
+    private static final int BATCH_SIZE = 50;
+
+    private MySQLContainer<?> mySqlContainer;
+    private Connection connection;
+    private TimeOrderedIdSource idSource;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mySqlContainer = new MySQLContainer<>("mysql:8.0").withDatabaseName("dogwalks-bench");
+        mySqlContainer.start();
+
+        connection = DriverManager.getConnection(mySqlContainer.getJdbcUrl() + "?rewriteBatchedStatements=true", mySqlContainer.getUsername(), mySqlContainer.getPassword());
+        connection.setAutoCommit(false);
+        idSource = new TimeOrderedIdSource(4, 0);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE walks (id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(100) NOT NULL, created_at DATETIME(6) NOT NULL, "
+                    + "location VARCHAR(100) NOT NULL, duration INT, description TEXT, img VARCHAR(255), is_active BIT NOT NULL, user_id BIGINT NOT NULL, "
+                    + "INDEX idx_walks_active_created (is_active, created_at, id))");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE walks");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        mySqlContainer.stop();
+    }
+
+    @Benchmark
+    public void identityInserts(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO walks (title, created_at, location, duration, description, img, is_active, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, 1)",
+                Statement.RETURN_GENERATED_KEYS)) {
+
+            for (int i = 0; i < WALKS; i++) {
+                bind(insert, 1, i);
+                insert.executeUpdate();
+
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    blackhole.consume(keys.getLong(1));
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public void timeOrderedBatchedInserts(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO walks (id, title, created_at, location, duration, description, img, is_active, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 1)")) {
+
+            for (int i = 0; i < WALKS; i++) {
+                long id = idSource.nextId();
+                insert.setLong(1, id);
+                bind(insert, 2, i);
+                insert.addBatch();
+                blackhole.consume(id);
+
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static void bind(PreparedStatement insert, int first, int i) throws SQLException {
+        insert.setString(first, "Walk " + i);
+        insert.setTimestamp(first + 1, Timestamp.valueOf(LocalDateTime.now()));
+        insert.setString(first + 2, "Munich");
+        insert.setInt(first + 3, 30 + i % 90);
+        insert.setString(first + 4, "A walk through the park number " + i);
+        insert.setString(first + 5, "walk.png");
+        insert.setBoolean(first + 6, true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TimeOrderedIdInsertBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.backend.dogwalks.config.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TimeOrderedIdSource Unit Tests")
+public class TimeOrderedIdSourceUnitTest {
+
+    private static final long NOW = TimeOrderedIdSource.EPOCH + 1_000_000L;
+
+    @Test
+    @DisplayName("nextId should encode the millisecond, the node and the sequence")
+    void nextIdShouldEncodeMillisNodeAndSequence() {
+
+        TimeOrderedIdSource source = new TimeOrderedIdSource(4, 5, () -> NOW);
+
+        long first = source.nextId();
+        long second = source.nextId();
+
+        assertEquals(1_000_000L << 12 | 5L << 8, first);
+        assertEquals(first + 1, second);
+        assertEquals(NOW, TimeOrderedIdSource.millisOf(first));
+    }
+
+    @Test
+    @DisplayName("nextId should keep growing when the sequence is exhausted or the clock goes back")
+    void nextIdShouldGrow_whenSequenceExhaustedOrClockGoesBack() {
+
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdSource source = new TimeOrderedIdSource(8, 0, clock::get);
+
+        long previous = 0;
+        for (int i = 0; i < 100; i++) {
+            long id = source.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+        assertTrue(TimeOrderedIdSource.millisOf(previous) > NOW);
+
+        clock.set(NOW - 10_000);
+        assertTrue(source.nextId() > previous);
+    }
+
+    @Test
+    @DisplayName("nextId should stay below 2^53 so JSON clients read it exactly")
+    void nextIdShouldFitInDouble() {
+
+        long lastMillis = TimeOrderedIdSource.EPOCH + (1L << TimeOrderedIdSource.TIMESTAMP_BITS) - 1;
+        TimeOrderedIdSource source = new TimeOrderedIdSource(4, 15, () -> lastMillis);
+
+        long id = source.nextId();
+
+        assertTrue(id < 1L << 53);
+        assertEquals(id, (long) (double) id);
+    }
+
+    @Test
+    @DisplayName("constructor should reject node ids that do not fit in the node bits")
+    void constructorShouldRejectWrongNodes() {
+
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdSource(4, 16));
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdSource(4, -1));
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdSource(TimeOrderedIdSource.MAX_NODE_BITS + 1, 0));
+    }
+
+    @Test
+    @DisplayName("nextId should never repeat an id across threads")
+    void nextIdShouldBeUnique_underConcurrentCalls() throws Exception {
+
+        TimeOrderedIdSource source = new TimeOrderedIdSource(4, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    long[] ids = new long[50_000];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = source.nextId();
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<Long> seen = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < ids.length; i++) {
+                    assertTrue(seen.add(ids[i]));
+                    if (i > 0) {
+                        assertTrue(ids[i] > ids[i - 1]);
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
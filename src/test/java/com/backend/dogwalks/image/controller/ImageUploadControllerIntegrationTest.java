@@ -0,0 +1,170 @@
+package com.backend.dogwalks.image.controller;
+
+import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.utils.IntegrationTestUtils;
+import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+//sin @Transactional: la subida termina en otro hilo y solo ve datos confirmados
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+@ActiveProfiles("test")
+@Import(IntegrationTestUtils.class)
+@DisplayName("Image Upload Controller Integration Tests")
+public class ImageUploadControllerIntegrationTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+    private static final long POLL_TIMEOUT_MILLIS = 10_000;
+
+    @Container
+    static MySQLContainer<?> mySqlContainer = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("dogwalks-test")
+            .withUsername("test_user")
+            .withPassword("test_password")
+            .withReuse(false);
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+
+        registry.add("spring.datasource.url", () -> mySqlContainer.getJdbcUrl());
+        registry.add("spring.datasource.username", () -> mySqlContainer.getUsername());
+        registry.add("spring.datasource.password", () -> mySqlContainer.getPassword());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomUserRepository userRepository;
+
+    @Autowired
+    private WalkRepository walkRepository;
+
+    @Autowired
+    private IntegrationTestUtils integrationTestUtils;
+
+    private CustomUser user;
+    private Walk walk;
+    private String userToken;
+    private String otherToken;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+
+        user = integrationTestUtils.createUser("Maria", "maria@test.com", "Testpassword547.", Role.USER);
+        CustomUser other = integrationTestUtils.createUser("Hans", "hans@test.com", "Testpassword547.", Role.USER);
+        walk = walkRepository.save(new Walk("Englischer Garten", "Munich", 60, "Walk", null, true, user));
+
+        userToken = integrationTestUtils.generateToken(user);
+        otherToken = integrationTestUtils.generateToken(other);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    private JsonNode awaitFinished(String location, String token) throws Exception {
+
+        long deadline = System.currentTimeMillis() + POLL_TIMEOUT_MILLIS;
+
+        while (true) {
+            String body = mockMvc.perform(get(location).header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode upload = objectMapper.readTree(body);
+            String status = upload.get("status").asText();
+
+            if (status.equals("COMPLETED") || status.equals("FAILED") || System.currentTimeMillis() > deadline) {
+                return upload;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    @DisplayName("POST /api/walks/{id}/image - must accept the image and set the walk url when the upload completes")
+    void uploadWalkImage_shouldCompleteAndUpdateWalk() throws Exception {
+
+        String location = mockMvc.perform(multipart("/api/walks/{id}/image", walk.getId())
+                        .file(new MockMultipartFile("file", "walk.png", "image/png", PNG))
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("/api/uploads/")))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn().getResponse().getHeader("Location");
+
+        JsonNode upload = awaitFinished(location, userToken);
+
+        assertEquals("COMPLETED", upload.get("status").asText());
+        assertEquals(upload.get("url").asText(), walkRepository.findById(walk.getId()).orElseThrow().getWalkImgUrl());
+
+        mockMvc.perform(get(location).header("Authorization", "Bearer " + otherToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/users/profile/image - must set the profile image when the upload completes")
+    void uploadProfileImage_shouldCompleteAndUpdateUser() throws Exception {
+
+        String location = mockMvc.perform(multipart("/api/users/profile/image")
+                        .file(new MockMultipartFile("file", "me.png", "image/png", PNG))
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+
+        JsonNode upload = awaitFinished(location, userToken);
+
+        assertEquals("COMPLETED", upload.get("status").asText());
+        assertTrue(userRepository.findById(user.getId()).orElseThrow().getUserImgUrl().endsWith(".png"));
+    }
+
+    @Test
+    @DisplayName("POST /api/walks/{id}/image - must return 400 when the file is not an image")
+    void uploadWalkImage_shouldReturnBadRequest_whenNotAnImage() throws Exception {
+
+        mockMvc.perform(multipart("/api/walks/{id}/image", walk.getId())
+                        .file(new MockMultipartFile("file", "walk.png", "image/png", "plain text".getBytes()))
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/walks/{id}/image - must return 403 when the walk belongs to another user")
+    void uploadWalkImage_shouldReturnForbidden_whenNotOwner() throws Exception {
+
+        mockMvc.perform(multipart("/api/walks/{id}/image", walk.getId())
+                        .file(new MockMultipartFile("file", "walk.png", "image/png", PNG))
+                        .header("Authorization", "Bearer " + otherToken))
+                .andExpect(status().isForbidden());
+    }
+}
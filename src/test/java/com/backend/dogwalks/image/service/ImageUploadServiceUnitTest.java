@@ -0,0 +1,304 @@
+package com.backend.dogwalks.image.service;
+
+import com.backend.dogwalks.exception.custom_exception.EntityNotFoundException;
+import com.backend.dogwalks.exception.custom_exception.ImageUploadBusyException;
+import com.backend.dogwalks.image.dto.ImageUploadResponse;
+import com.backend.dogwalks.image.enums.ImageFormat;
+import com.backend.dogwalks.image.enums.ImageTarget;
+import com.backend.dogwalks.image.enums.ImageUploadStatus;
+import com.backend.dogwalks.image.storage.ImageStorage;
+import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import com.backend.dogwalks.utils.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Image Upload Service Unit Tests")
+public class ImageUploadServiceUnitTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+    private static final long TTL = 1000;
+
+    @Mock
+    private ImageStorage imageStorage;
+
+    @Mock
+    private WalkRepository walkRepository;
+
+    @Mock
+    private CustomUserRepository customUserRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path tempDirectory;
+
+    private final List<Runnable> queued = new ArrayList<>();
+    private final MutableClock clock = new MutableClock(0);
+
+    private Walk walk;
+    private CustomUser user;
+
+    @BeforeEach
+    void setUp() {
+        user = new CustomUser();
+        user.setId(1L);
+        user.setEmail("maria@test.com");
+
+        walk = new Walk("Englischer Garten", "Munich", 60, "Walk", null, true, user);
+        walk.setId(10L);
+    }
+
+    //el executor guarda las tareas: los tests deciden cuándo se ejecutan
+    private ImageUploadService service(Executor executor) throws IOException {
+        return new ImageUploadService(imageStorage, walkRepository, customUserRepository, eventPublisher, transactionManager,
+                executor, tempDirectory, TTL, clock, new SimpleMeterRegistry());
+    }
+
+    private ImageUploadService queuedService() throws IOException {
+        return service(queued::add);
+    }
+
+    private static MockMultipartFile file(byte[] content) {
+        return new MockMultipartFile("file", "image.png", "image/png", content);
+    }
+
+    private void runQueued() {
+        queued.forEach(Runnable::run);
+        queued.clear();
+    }
+
+    private long tempFiles() throws IOException {
+        try (var files = Files.list(tempDirectory)) {
+            return files.count();
+        }
+    }
+
+    @Nested
+    @DisplayName("Accept Tests")
+    class AcceptTests {
+
+        @Test
+        @DisplayName("Accept should keep the file on disk and return a pending upload without storing it yet")
+        void accept_shouldReturnPending_andQueueUpload() throws IOException {
+
+            ImageUploadService imageUploadService = queuedService();
+
+            ImageUploadResponse response = imageUploadService.accept(ImageTarget.WALK, 10L, 1L, file(PNG));
+
+            assertEquals(ImageUploadStatus.PENDING, response.status());
+            assertEquals(ImageTarget.WALK, response.target());
+            assertEquals(10L, response.targetId());
+            assertEquals(1, queued.size());
+            assertEquals(1, tempFiles());
+
+            verifyNoInteractions(imageStorage, walkRepository);
+        }
+
+        @Test
+        @DisplayName("Accept should reject files that are not JPEG, PNG or WebP and remove the temporary file")
+        void accept_shouldRejectUnknownFormat() throws IOException {
+
+            ImageUploadService imageUploadService = queuedService();
+            MockMultipartFile text = new MockMultipartFile("file", "image.png", "image/png", "not really an image".getBytes());
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> imageUploadService.accept(ImageTarget.WALK, 10L, 1L, text));
+
+            assertEquals("Image must be a JPEG, PNG or WebP file", exception.getMessage());
+            assertTrue(queued.isEmpty());
+            assertEquals(0, tempFiles());
+        }
+
+        @Test
+        @DisplayName("Accept should reject empty files")
+        void accept_shouldRejectEmptyFile() throws IOException {
+
+            ImageUploadService imageUploadService = queuedService();
+
+            assertThrows(IllegalArgumentException.class, () -> imageUploadService.accept(ImageTarget.WALK, 10L, 1L, file(new byte[0])));
+        }
+
+        @Test
+        @DisplayName("Accept should throw ImageUploadBusyException and remove the temporary file when the pool is full")
+        void accept_shouldThrowBusy_whenExecutorRejects() throws IOException {
+
+            ImageUploadService imageUploadService = service(task -> {
+                throw new RejectedExecutionException("full");
+            });
+
+            assertThrows(ImageUploadBusyException.class, () -> imageUploadService.accept(ImageTarget.WALK, 10L, 1L, file(PNG)));
+            assertEquals(0, tempFiles());
+        }
+    }
+
+    @Nested
+    @DisplayName("Process Tests")
+    class ProcessTests {
+
+        @Test
+        @DisplayName("Process should store the image, set the walk url and publish a change event")
+        void process_shouldCompleteWalkUpload() throws IOException {
+
+            ImageUploadService imageUploadService = queuedService();
+            when(imageStorage.store(any(Path.class), anyString(), eq(ImageFormat.PNG))).thenReturn("https://images.test/walk.png");
+            when(walkRepository.findWithUserById(10L)).thenReturn(Optional.of(walk));
+
+            ImageUploadResponse accepted = imageUploadService.accept(ImageTarget.WALK, 10L, 1L, file(PNG));
+            runQueued();
+
+            ImageUploadResponse response = imageUploadService.getUpload(accepted.id(), 1L);
+
+            assertEquals(ImageUploadStatus.COMPLETED, response.status());
+            assertEquals("https://images.test/walk.png", response.url());
+            assertEquals("https://images.test/walk.png", walk.getWalkImgUrl());
+            assertEquals(0, tempFiles());
+
+            verify(imageStorage).store(any(Path.class), eq("walks/10/" + accepted.id()), eq(ImageFormat.PNG));
+            verify(eventPublisher).publishEvent(any(WalkChangedEvent.class));
+        }
+
+        @Test
+        @DisplayName("Process should set the profile image and publish a user change that keeps the tokens")
+        void process_shouldCompleteUserUpload() throws IOException {
+
+            ImageUploadService imageUploadService = queuedService();
+            when(imageStorage.store(any(Path.class), anyString(), eq(ImageFormat.PNG))).thenReturn("https://images.test/user.png");
+            when(customUserRepository.findById(1L)).thenReturn(Optional.of(user));
+
+            ImageUploadResponse accepted = imageUploadService.accept(ImageTarget.USER, 1L, 1L, file(PNG));
+            runQueued();
+
+            assertEquals(ImageUploadStatus.COMPLETED, imageUploadService.getUpload(accepted.id(), 1L).status());
+            assertEquals("https://images.test/user.png", user.getUserImgUrl());
+
+            verify(eventPublisher).publishEvent(new UserChangedEvent(1L, "maria@test.com", false));
+        }
+
+        @Test
+        @DisplayName("Process should fail and remove the stored image when the walk was deleted meanwhile")
+        void process_shouldFail_whenTargetDeleted() throws IOException {
+
+            ImageUploadService imageUploadService = queuedService();
+            when(imageStorage.store(any(Path.class), anyString(), eq(ImageFormat.PNG))).thenReturn("https://images.test/walk.png");
+            when(walkRepository.findWithUserById(10L)).thenReturn(Optional.empty());
+
+            ImageUploadResponse accepted = imageUploadService.accept(ImageTarget.WALK, 10L, 1L, file(PNG));
+            runQueued();
+
+            ImageUploadResponse response = imageUploadService.getUpload(accepted.id(), 1L);
+
+            assertEquals(ImageUploadStatus.FAILED, response.status());
+            assertNull(response.url());
+            assertEquals(0, tempFiles());
+
+            verify(imageStorage).delete("walks/10/" + accepted.id());
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Process should fail without touching the walk when the storage fails")
+        void process_shouldFail_whenStorageFails() throws IOException {
+
+            ImageUploadService imageUploadService = queuedService();
+            when(imageStorage.store(any(Path.class), anyString(), eq(ImageFormat.PNG))).thenThrow(new IOException("down"));
+
+            ImageUploadResponse accepted = imageUploadService.accept(ImageTarget.WALK, 10L, 1L, file(PNG));
+            runQueued();
+
+            assertEquals(ImageUploadStatus.FAILED, imageUploadService.getUpload(accepted.id(), 1L).status());
+            assertEquals(0, tempFiles());
+
+            verifyNoInteractions(walkRepository);
+            verify(imageStorage, never()).delete(anyString());
+        }
+
+        @Test
+        @DisplayName("Process should retry the url update when the walk was edited at the same time")
+        void process_shouldRetry_whenVersionConflict() throws IOException {
+
+            ImageUploadService imageUploadService = queuedService();
+            when(imageStorage.store(any(Path.class), anyString(), eq(ImageFormat.PNG))).thenReturn("https://images.test/walk.png");
+            when(walkRepository.findWithUserById(10L))
+                    .thenThrow(new OptimisticLockingFailureException("conflict"))
+                    .thenReturn(Optional.of(walk));
+
+            ImageUploadResponse accepted = imageUploadService.accept(ImageTarget.WALK, 10L, 1L, file(PNG));
+            runQueued();
+
+            assertEquals(ImageUploadStatus.COMPLETED, imageUploadService.getUpload(accepted.id(), 1L).status());
+            verify(walkRepository, times(2)).findWithUserById(10L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Upload Tests")
+    class GetUploadTests {
+
+        @Test
+        @DisplayName("GetUpload should hide uploads of other users")
+        void getUpload_shouldThrow_whenOtherOwner() throws IOException {
+
+            ImageUploadService imageUploadService = queuedService();
+            ImageUploadResponse accepted = imageUploadService.accept(ImageTarget.WALK, 10L, 1L, file(PNG));
+
+            assertThrows(EntityNotFoundException.class, () -> imageUploadService.getUpload(accepted.id(), 2L));
+            assertThrows(EntityNotFoundException.class, () -> imageUploadService.getUpload("missing", 1L));
+        }
+
+        @Test
+        @DisplayName("EvictFinished should drop finished uploads older than the TTL and keep the pending ones")
+        void evictFinished_shouldDropOnlyOldFinishedUploads() throws IOException {
+
+            ImageUploadService imageUploadService = queuedService();
+            when(imageStorage.store(any(Path.class), anyString(), eq(ImageFormat.PNG))).thenThrow(new IOException("down"));
+
+            ImageUploadResponse finished = imageUploadService.accept(ImageTarget.WALK, 10L, 1L, file(PNG));
+            runQueued();
+            ImageUploadResponse pending = imageUploadService.accept(ImageTarget.WALK, 10L, 1L, file(PNG));
+
+            clock.setMillis(TTL);
+            imageUploadService.evictFinished();
+            assertEquals(ImageUploadStatus.FAILED, imageUploadService.getUpload(finished.id(), 1L).status());
+
+            clock.setMillis(TTL + 1);
+            imageUploadService.evictFinished();
+            assertThrows(EntityNotFoundException.class, () -> imageUploadService.getUpload(finished.id(), 1L));
+            assertEquals(ImageUploadStatus.PENDING, imageUploadService.getUpload(pending.id(), 1L).status());
+        }
+    }
+}
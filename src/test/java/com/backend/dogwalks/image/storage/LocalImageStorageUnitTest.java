@@ -0,0 +1,71 @@
+package com.backend.dogwalks.image.storage;
+
+import com.backend.dogwalks.image.enums.ImageFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Local Image Storage Unit Tests")
+public class LocalImageStorageUnitTest {
+
+    @TempDir
+    private Path directory;
+
+    @TempDir
+    private Path uploads;
+
+    @Test
+    @DisplayName("Store should copy the file under the key with the format extension and return its url")
+    void store_shouldCopyFile_andReturnUrl() throws IOException {
+
+        LocalImageStorage storage = new LocalImageStorage(directory, "https://images.test/");
+        Path file = Files.write(uploads.resolve("upload.tmp"), new byte[]{1, 2, 3});
+
+        String url = storage.store(file, "walks/10/abc", ImageFormat.PNG);
+
+        assertEquals("https://images.test/walks/10/abc.png", url);
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(directory.resolve("walks/10/abc.png")));
+        assertFalse(Files.exists(directory.resolve("walks/10/abc.png.part")));
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    @DisplayName("Store should return a file url when no base url is configured")
+    void store_shouldReturnFileUrl_whenNoBaseUrl() throws IOException {
+
+        LocalImageStorage storage = new LocalImageStorage(directory, "");
+        Path file = Files.write(uploads.resolve("upload.tmp"), new byte[]{1});
+
+        String url = storage.store(file, "users/1/abc", ImageFormat.JPEG);
+
+        assertEquals(directory.resolve("users/1/abc.jpg").toUri().toString(), url);
+    }
+
+    @Test
+    @DisplayName("Delete should remove the stored image whatever its format")
+    void delete_shouldRemoveStoredImage() throws IOException {
+
+        LocalImageStorage storage = new LocalImageStorage(directory, "");
+        storage.store(Files.write(uploads.resolve("upload.tmp"), new byte[]{1}), "walks/10/abc", ImageFormat.WEBP);
+
+        storage.delete("walks/10/abc");
+
+        assertFalse(Files.exists(directory.resolve("walks/10/abc.webp")));
+    }
+
+    @Test
+    @DisplayName("Store should reject keys outside the storage directory")
+    void store_shouldRejectPathTraversal() throws IOException {
+
+        LocalImageStorage storage = new LocalImageStorage(directory, "");
+        Path file = Files.write(uploads.resolve("upload.tmp"), new byte[]{1});
+
+        assertThrows(IllegalArgumentException.class, () -> storage.store(file, "../outside", ImageFormat.PNG));
+    }
+}
@@ -0,0 +1,287 @@
+package com.backend.dogwalks.schema;
+
+import com.backend.dogwalks.auth.repository.RefreshTokenRepository;
+import com.backend.dogwalks.config.id.TimeOrderedIdSource;
+import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.walk.dto.WalkCursor;
+import com.backend.dogwalks.walk.dto.WalkExportRow;
+import com.backend.dogwalks.walk.dto.WalkFilter;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import com.backend.dogwalks.walk.repository.WalkSpecifications;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//ejecuta EXPLAIN sobre el SQL que generan de verdad los repositorios (capturado en el DataSource) y falla si alguna sentencia recorre una tabla entera
+@SpringBootTest
+@Testcontainers
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Import(QueryPlanIntegrationTest.SqlCaptureConfig.class)
+@DisplayName("Query Plan Integration Tests")
+public class QueryPlanIntegrationTest {
+
+    private static final SqlCapture SQL_CAPTURE = new SqlCapture();
+
+    private static final int USERS = 300;
+    private static final int WALKS_PER_USER = 10;
+    private static final int TOKENS_PER_USER = 10;
+    private static final int LOCATIONS = 50;
+
+    @Container
+    static MySQLContainer<?> mySqlContainer = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("dogwalks-test")
+            .withUsername("test_user")
+            .withPassword("test_password")
+            .withReuse(false);
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+
+        registry.add("spring.datasource.url", () -> mySqlContainer.getJdbcUrl());
+        registry.add("spring.datasource.username", () -> mySqlContainer.getUsername());
+        registry.add("spring.datasource.password", () -> mySqlContainer.getPassword());
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource
+                            ? ProxyDataSourceBuilder.create(dataSource).name("plan").listener(SQL_CAPTURE).build()
+                            : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private WalkRepository walkRepository;
+
+    @Autowired
+    private CustomUserRepository customUserRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    //volumen suficiente para que el optimizador elija índices en vez de leer la tabla entera por ser pequeña
+    @BeforeAll
+    void seed() {
+        LocalDateTime base = LocalDateTime.now().minusDays(30);
+        //users y walks no tienen AUTO_INCREMENT: los ids salen del mismo generador que usa la aplicación, en otro nodo
+        TimeOrderedIdSource ids = new TimeOrderedIdSource(4, 15);
+
+        List<Object[]> users = new ArrayList<>();
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            long userId = ids.nextId();
+            userIds.add(userId);
+            users.add(new Object[]{userId, "user" + i, "user" + i + "@plan.test", "hash", i < 2 ? "ADMIN" : "USER", i % 10 != 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, username, email, password, role, is_active) VALUES (?, ?, ?, ?, ?, ?)", users);
+
+        List<Object[]> walks = new ArrayList<>();
+        List<Object[]> tokens = new ArrayList<>();
+        for (int i = 0; i < USERS * WALKS_PER_USER; i++) {
+            Long userId = userIds.get(i % USERS);
+            walks.add(new Object[]{ids.nextId(), "Walk " + i, Timestamp.valueOf(base.plusMinutes(i)), "City " + i % LOCATIONS, 30 + i % 90, "Description", "walk.png", i % 10 != 0, userId});
+        }
+        for (int i = 0; i < USERS * TOKENS_PER_USER; i++) {
+            Long userId = userIds.get(i % USERS);
+            LocalDateTime expiresAt = i % 20 == 0 ? base : LocalDateTime.now().plusDays(14);
+            tokens.add(new Object[]{String.format("%064d", i), "family-" + i / 4, userId, Timestamp.valueOf(expiresAt), "jti-" + i,
+                    Timestamp.valueOf(expiresAt.minusDays(13)), false, i % 20 == 1, Timestamp.valueOf(base)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO walks (id, title, created_at, location, duration, description, img, is_active, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", walks);
+        jdbcTemplate.batchUpdate("INSERT INTO refresh_tokens (token_hash, family_id, user_id, expires_at, access_token_jti, access_token_expires_at, used, revoked, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", tokens);
+
+        jdbcTemplate.execute("ANALYZE TABLE users, walks, refresh_tokens");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM refresh_tokens");
+        jdbcTemplate.update("DELETE FROM walks");
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE '%@plan.test'");
+    }
+
+    //cada caso llama a los repositorios como lo hacen los servicios; se hace EXPLAIN de todo el SQL que llega al driver
+    Stream<Arguments> repositoryCalls() {
+        Long userId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users WHERE email LIKE '%@plan.test'", Long.class);
+        Long walkId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM walks", Long.class);
+        LocalDateTime tenDaysAgo = LocalDateTime.now().minusDays(10);
+        String tokenHash = String.format("%064d", 7);
+
+        return Stream.of(
+                call("WalkRepository.findAll(Pageable)",
+                        () -> walkRepository.findAll(PageRequest.of(0, 10, Sort.by("createdAt")))),
+                call("WalkRepository.findByUserId",
+                        () -> walkRepository.findByUserId(userId, PageRequest.of(0, 10, Sort.by("createdAt")))),
+                call("CustomUser.walks batch load",
+                        () -> customUserRepository.findAllById(List.of(userId, userId + 1, userId + 2)).forEach(user -> user.getWalks().size())),
+                call("WalkRepository.findActiveSummaries",
+                        () -> walkRepository.findActiveSummaries(PageRequest.of(0, 10, Sort.by("createdAt", "id")))),
+                call("WalkRepository.countByIsActiveTrue",
+                        () -> walkRepository.countByIsActiveTrue()),
+                call("WalkRepository.findActiveDetailById",
+                        () -> walkRepository.findActiveDetailById(walkId)),
+                call("WalkRepository.findActiveAfter",
+                        () -> walkRepository.findActiveAfter("createdAt", Sort.Direction.ASC,
+                                new WalkCursor("createdAt", Sort.Direction.ASC, tenDaysAgo, walkId), null, 11)),
+                call("WalkRepository.findSearchDocumentsAfter",
+                        () -> walkRepository.findSearchDocumentsAfter(walkId - 500, PageRequest.of(0, 1000))),
+                call("WalkRepository.findSearchDocumentsByUserId",
+                        () -> walkRepository.findSearchDocumentsByUserId(userId)),
+                call("WalkRepository.findActiveSummariesByIdIn",
+                        () -> walkRepository.findActiveSummariesByIdIn(List.of(walkId, walkId - 1, walkId - 2))),
+                call("WalkRepository.findGeoPointsAfter",
+                        () -> walkRepository.findGeoPointsAfter(walkId - 500, PageRequest.of(0, 1000))),
+                call("WalkRepository.findOwnershipsAfter",
+                        () -> walkRepository.findOwnershipsAfter(walkId - 500, PageRequest.of(0, 1000))),
+                call("WalkRepository.findActiveSummaries(Specification) location",
+                        () -> walkRepository.findActiveSummaries(WalkSpecifications.matching(new WalkFilter(null, 30, "City 7", null, tenDaysAgo, null, null)),
+                                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")))),
+                call("WalkRepository.findActiveSummaries(Specification) location prefix",
+                        () -> walkRepository.findActiveSummaries(WalkSpecifications.matching(new WalkFilter(null, null, null, "City 4", null, null, null)),
+                                PageRequest.of(0, 10, Sort.by("createdAt")))),
+                call("WalkRepository.findAll(Specification) owner",
+                        () -> walkRepository.findAll(WalkSpecifications.matching(new WalkFilter(60, null, null, null, null, null, userId)),
+                                PageRequest.of(0, 10, Sort.by("title")))),
+                call("WalkRepository.findAll(Specification) created range",
+                        () -> walkRepository.findAll(WalkSpecifications.matching(new WalkFilter(null, null, null, null, tenDaysAgo, tenDaysAgo.plusDays(1), null)),
+                                PageRequest.of(0, 10, Sort.by("createdAt")))),
+                call("WalkRepository.findById",
+                        () -> walkRepository.findById(walkId)),
+                call("WalkRepository.findWithUserById",
+                        () -> walkRepository.findWithUserById(walkId)),
+                call("WalkRepository.streamExportRows",
+                        () -> {
+                            try (Stream<WalkExportRow> rows = walkRepository.streamExportRows()) {
+                                rows.limit(10).forEach(row -> { });
+                            }
+                        }),
+                call("CustomUserRepository.findAll(Pageable)",
+                        () -> customUserRepository.findAll(PageRequest.of(0, 10, Sort.by("id")))),
+                call("CustomUserRepository.findUserByEmail",
+                        () -> customUserRepository.findUserByEmail("user7@plan.test")),
+                call("CustomUserRepository.existsByEmail",
+                        () -> customUserRepository.existsByEmail("user7@plan.test")),
+                call("CustomUserRepository.existsByEmailAndIdNot",
+                        () -> customUserRepository.existsByEmailAndIdNot("user7@plan.test", userId)),
+                call("CustomUserRepository.findByUsername",
+                        () -> customUserRepository.findByUsername("user7")),
+                call("CustomUserRepository.countByRole",
+                        () -> customUserRepository.countByRole(Role.ADMIN)),
+                call("CustomUserRepository.countByRoleAndIsActive",
+                        () -> customUserRepository.countByRoleAndIsActive(Role.ADMIN, true)),
+                call("CustomUserRepository.findByIdAndIsActive",
+                        () -> customUserRepository.findByIdAndIsActive(userId, true)),
+                call("CustomUserRepository.updatePasswordById",
+                        () -> customUserRepository.updatePasswordById(userId, "hash")),
+                call("WalkRepository.deactivateAllByUserId",
+                        () -> walkRepository.deactivateAllByUserId(userId)),
+                call("WalkRepository.deleteChunkByUserId",
+                        () -> walkRepository.deleteChunkByUserId(userId, 1000)),
+                call("WalkRepository.deleteAllByUserId + CustomUserRepository.deleteUserById",
+                        () -> {
+                            walkRepository.deleteAllByUserId(userId);
+                            customUserRepository.deleteUserById(userId);
+                        }),
+                call("RefreshTokenRepository.findByTokenHash",
+                        () -> refreshTokenRepository.findByTokenHash(tokenHash)),
+                call("RefreshTokenRepository.findByFamilyIdAndRevokedFalse",
+                        () -> refreshTokenRepository.findByFamilyIdAndRevokedFalse("family-7")),
+                call("RefreshTokenRepository.findByUserIdAndRevokedFalse",
+                        () -> refreshTokenRepository.findByUserIdAndRevokedFalse(userId)),
+                call("RefreshTokenRepository.findByRevokedTrueAndAccessTokenExpiresAtAfter",
+                        () -> refreshTokenRepository.findByRevokedTrueAndAccessTokenExpiresAtAfter(LocalDateTime.now())),
+                call("RefreshTokenRepository.deleteExpired",
+                        () -> refreshTokenRepository.deleteExpired(LocalDateTime.now()))
+        );
+    }
+
+    private static Arguments call(String name, Runnable repositoryCall) {
+        return Arguments.of(name, repositoryCall);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    @DisplayName("EXPLAIN of the SQL each repository call sends must not report full table scans")
+    void repositoryQuery_shouldNotScanFullTable(String query, Runnable repositoryCall) {
+
+        List<SqlCapture.CapturedStatement> captured;
+
+        //en una transacción que se deshace: las sentencias de borrado y actualización no cambian los datos del resto de casos
+        SQL_CAPTURE.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repositoryCall.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            captured = SQL_CAPTURE.stop();
+        }
+
+        assertFalse(captured.isEmpty(), () -> query + " did not send any SQL");
+
+        for (SqlCapture.CapturedStatement statement : captured) {
+            List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + statement.inlined());
+
+            assertFalse(plan.isEmpty());
+            for (Map<String, Object> row : plan) {
+                assertNotEquals("ALL", row.get("type"), () -> query + " scans the whole " + row.get("table") + " table with " + statement.sql() + ": " + plan);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Flyway must have applied every migration")
+    void migrations_shouldBeApplied() {
+
+        Integer failed = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM flyway_schema_history WHERE success = 0", Integer.class);
+        String version = jdbcTemplate.queryForObject("SELECT MAX(CAST(version AS UNSIGNED)) FROM flyway_schema_history", String.class);
+
+        assertEquals(0, failed);
+        assertEquals("6", version);
+    }
+}
@@ -0,0 +1,117 @@
+package com.backend.dogwalks.schema;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+
+//guarda el SQL que llega al driver con sus parámetros, solo en el hilo que está grabando
+class SqlCapture implements QueryExecutionListener {
+
+    record CapturedStatement(String sql, List<Object> parameters) {
+
+        //EXPLAIN con los valores como literales: el plan es el de la sentencia real y no depende de cómo prepare el driver
+        String inlined() {
+
+            StringBuilder inlined = new StringBuilder(sql.length() + parameters.size() * 8);
+            Iterator<Object> values = parameters.iterator();
+            boolean quoted = false;
+
+            for (int i = 0; i < sql.length(); i++) {
+                char c = sql.charAt(i);
+
+                if (c == '\'') {
+                    quoted = !quoted;
+                }
+                if (c == '?' && !quoted) {
+                    if (!values.hasNext()) {
+                        throw new IllegalStateException("Missing parameter in: " + sql);
+                    }
+                    inlined.append(literal(values.next()));
+                } else {
+                    inlined.append(c);
+                }
+            }
+
+            return inlined.toString();
+        }
+
+        private static String literal(Object value) {
+
+            if (value == null) {
+                return "NULL";
+            }
+            if (value instanceof Boolean bool) {
+                return bool ? "1" : "0";
+            }
+            if (value instanceof Number) {
+                return value.toString();
+            }
+            if (value instanceof Date || value instanceof TemporalAccessor) {
+                return "'" + value.toString().replace('T', ' ') + "'";
+            }
+
+            return "'" + value.toString().replace("\\", "\\\\").replace("'", "''") + "'";
+        }
+    }
+
+    private final ThreadLocal<List<CapturedStatement>> recording = new ThreadLocal<>();
+
+    void start() {
+        recording.set(new ArrayList<>());
+    }
+
+    List<CapturedStatement> stop() {
+
+        List<CapturedStatement> captured = recording.get();
+        recording.remove();
+
+        return captured == null ? List.of() : captured;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+
+        List<CapturedStatement> captured = recording.get();
+
+        if (captured == null) {
+            return;
+        }
+
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+
+            if (parametersList.isEmpty()) {
+                captured.add(new CapturedStatement(queryInfo.getQuery(), List.of()));
+            }
+            for (List<ParameterSetOperation> operations : parametersList) {
+                captured.add(new CapturedStatement(queryInfo.getQuery(), parameters(operations)));
+            }
+        }
+    }
+
+    //setXxx(índice, valor) y setNull(índice, tipo), ordenados por índice
+    private static List<Object> parameters(List<ParameterSetOperation> operations) {
+
+        SortedMap<Integer, Object> byIndex = new TreeMap<>();
+
+        for (ParameterSetOperation operation : operations) {
+            Object[] args = operation.getArgs();
+
+            if (args.length == 0 || !(args[0] instanceof Integer index)) {
+                continue;
+            }
+
+            byIndex.put(index, ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2 ? null : args[1]);
+        }
+
+        return new ArrayList<>(byIndex.values());
+    }
+}
@@ -0,0 +1,157 @@
+package com.backend.dogwalks.security.login;
+
+import com.backend.dogwalks.exception.custom_exception.TooManyLoginAttemptsException;
+import com.backend.dogwalks.utils.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LoginRateLimiter Unit Tests")
+public class LoginRateLimiterUnitTest {
+
+    private static final long WINDOW = 60000L;
+
+    private final MutableClock clock = new MutableClock(1_700_000_000_000L - 1_700_000_000_000L % WINDOW);
+    private SimpleMeterRegistry meterRegistry;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = newLimiter(3, 10, 1000);
+    }
+
+    @Test
+    @DisplayName("checkAttempt should reject attempts over the per e-mail limit")
+    void checkAttemptShouldReject_whenEmailLimitExceeded() {
+
+        for (int i = 0; i < 3; i++) {
+            limiter.checkAttempt("maria@test.com", "10.0.0.1");
+        }
+
+        TooManyLoginAttemptsException exception = assertThrows(TooManyLoginAttemptsException.class, () -> limiter.checkAttempt("MARIA@test.com", "10.0.0.2"));
+
+        assertEquals("Too many login attempts, please retry later", exception.getMessage());
+        assertEquals(60, exception.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> limiter.checkAttempt("ana@test.com", "10.0.0.1"));
+        assertEquals(1.0, meterRegistry.get("login.attempts.rejected").tag("key", "email").counter().count());
+    }
+
+    @Test
+    @DisplayName("checkAttempt should reject attempts over the per IP limit across e-mails")
+    void checkAttemptShouldReject_whenIpLimitExceeded() {
+
+        for (int i = 0; i < 10; i++) {
+            limiter.checkAttempt("user" + i + "@test.com", "10.0.0.1");
+        }
+
+        assertThrows(TooManyLoginAttemptsException.class, () -> limiter.checkAttempt("other@test.com", "10.0.0.1"));
+        assertDoesNotThrow(() -> limiter.checkAttempt("other@test.com", "10.0.0.2"));
+        assertEquals(1.0, meterRegistry.get("login.attempts.rejected").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    @DisplayName("checkAttempt should not use up the IP limit when the e-mail limit rejects the attempt")
+    void checkAttemptShouldNotConsumeIp_whenEmailRejected() {
+
+        LoginRateLimiter strict = newLimiter(1, 3, 1000);
+        strict.checkAttempt("maria@test.com", "10.0.0.1");
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(TooManyLoginAttemptsException.class, () -> strict.checkAttempt("maria@test.com", "10.0.0.1"));
+        }
+
+        assertDoesNotThrow(() -> strict.checkAttempt("ana@test.com", "10.0.0.1"));
+        assertDoesNotThrow(() -> strict.checkAttempt("pepa@test.com", "10.0.0.1"));
+        assertThrows(TooManyLoginAttemptsException.class, () -> strict.checkAttempt("luis@test.com", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("checkAttempt should weight the previous window while it slides out")
+    void checkAttemptShouldAllowAgain_whenWindowSlides() {
+
+        for (int i = 0; i < 3; i++) {
+            limiter.checkAttempt("maria@test.com", null);
+        }
+
+        clock.advance(WINDOW);
+        assertThrows(TooManyLoginAttemptsException.class, () -> limiter.checkAttempt("maria@test.com", null));
+
+        clock.advance(WINDOW / 2);
+        assertDoesNotThrow(() -> limiter.checkAttempt("maria@test.com", null));
+
+        clock.advance(2 * WINDOW);
+        for (int i = 0; i < 3; i++) {
+            limiter.checkAttempt("maria@test.com", null);
+        }
+    }
+
+    @Test
+    @DisplayName("reset should clear the e-mail counter after a successful login")
+    void resetShouldClearEmailCounter() {
+
+        for (int i = 0; i < 3; i++) {
+            limiter.checkAttempt("maria@test.com", null);
+        }
+
+        limiter.reset("Maria@test.com");
+
+        assertDoesNotThrow(() -> limiter.checkAttempt("maria@test.com", null));
+    }
+
+    @Test
+    @DisplayName("tracked keys should stay bounded by the configured maximum")
+    void trackedKeysShouldStayBounded() {
+
+        LoginRateLimiter bounded = newLimiter(3, 10, 64);
+
+        for (int i = 0; i < 10000; i++) {
+            bounded.checkAttempt("user" + i + "@test.com", null);
+        }
+
+        assertTrue(bounded.trackedKeys() <= 64);
+    }
+
+    @Test
+    @DisplayName("checkAttempt should never let more than the limit through under concurrency")
+    void checkAttemptShouldHoldLimit_whenConcurrent() throws InterruptedException {
+
+        LoginRateLimiter concurrent = newLimiter(50, 1000, 1000);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 500; i++) {
+            executor.submit(() -> {
+                try {
+                    concurrent.checkAttempt("maria@test.com", null);
+                    allowed.incrementAndGet();
+                } catch (TooManyLoginAttemptsException ignored) {
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(50, allowed.get());
+    }
+
+    @Test
+    @DisplayName("constructor should reject non positive limits")
+    void constructorShouldReject_whenLimitsNotPositive() {
+
+        assertThrows(IllegalArgumentException.class, () -> new LoginRateLimiter(0, 10, WINDOW, 1000, 4, clock, meterRegistry));
+        assertThrows(IllegalArgumentException.class, () -> new LoginRateLimiter(3, 10, WINDOW, 2, 4, clock, meterRegistry));
+    }
+
+    private LoginRateLimiter newLimiter(int perEmail, int perIp, int maxKeys) {
+        return new LoginRateLimiter(perEmail, perIp, WINDOW, maxKeys, 4, clock, meterRegistry);
+    }
+}
@@ -0,0 +1,95 @@
+package com.backend.dogwalks.security.password;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PasswordHashingService Unit Tests")
+public class PasswordHashingServiceUnitTest {
+
+    private static final String RAW_PASSWORD = "Testpassword547.";
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordHashingService = new PasswordHashingService(5, 4, 14, 250, 2, 1000, meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Hashing Tests")
+    class HashingTests {
+
+        @Test
+        @DisplayName("encode should produce a hash that matches the raw password")
+        void encodeShouldProduceMatchingHash() {
+
+            String encoded = passwordHashingService.encode(RAW_PASSWORD);
+
+            assertTrue(passwordHashingService.matches(RAW_PASSWORD, encoded));
+            assertFalse(passwordHashingService.matches("WrongPassword547.", encoded));
+        }
+
+        @Test
+        @DisplayName("encode and matches should be recorded in the hash timers")
+        void operationsShouldBeTimed() {
+
+            String encoded = passwordHashingService.encode(RAW_PASSWORD);
+            passwordHashingService.matches(RAW_PASSWORD, encoded);
+
+            assertEquals(1, meterRegistry.get("password.hash").tag("operation", "encode").timer().count());
+            assertEquals(1, meterRegistry.get("password.hash").tag("operation", "matches").timer().count());
+        }
+
+        @Test
+        @DisplayName("upgradeEncoding should be true only for hashes with a lower cost")
+        void upgradeEncodingShouldDetectLowerCost() {
+
+            String weakHash = new BCryptPasswordEncoder(4).encode(RAW_PASSWORD);
+            String currentHash = passwordHashingService.encode(RAW_PASSWORD);
+
+            assertTrue(passwordHashingService.upgradeEncoding(weakHash));
+            assertFalse(passwordHashingService.upgradeEncoding(currentHash));
+        }
+    }
+
+    @Nested
+    @DisplayName("Calibration Tests")
+    class CalibrationTests {
+
+        @Test
+        @DisplayName("selectStrength should pick the highest cost under the target latency")
+        void selectStrengthShouldPickHighestCostUnderTarget() {
+
+            long fiftyMillis = TimeUnit.MILLISECONDS.toNanos(50);
+
+            assertEquals(12, PasswordHashingService.selectStrength(fiftyMillis, 10, 14, TimeUnit.MILLISECONDS.toNanos(250)));
+        }
+
+        @Test
+        @DisplayName("selectStrength should stay within the configured range")
+        void selectStrengthShouldRespectRange() {
+
+            assertEquals(10, PasswordHashingService.selectStrength(TimeUnit.SECONDS.toNanos(1), 10, 14, TimeUnit.MILLISECONDS.toNanos(250)));
+            assertEquals(14, PasswordHashingService.selectStrength(1000, 10, 14, TimeUnit.MILLISECONDS.toNanos(250)));
+        }
+
+        @Test
+        @DisplayName("constructor should reject a fixed strength outside the bcrypt range")
+        void constructorShouldRejectOutOfRangeFixedStrength() {
+
+            assertThrows(IllegalArgumentException.class, () -> new PasswordHashingService(3, 4, 14, 250, 2, 1000, meterRegistry));
+            assertThrows(IllegalArgumentException.class, () -> new PasswordHashingService(32, 4, 14, 250, 2, 1000, meterRegistry));
+            assertThrows(IllegalArgumentException.class, () -> new PasswordHashingService(-1, 4, 14, 250, 2, 1000, meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.backend.dogwalks.security.user;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InvalidatedUserRegistry Unit Tests")
+public class InvalidatedUserRegistryUnitTest {
+
+    private static final long EXPIRATION = 3600000L;
+
+    private long nowSeconds;
+    private InvalidatedUserRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        nowSeconds = 1_700_000_000L;
+        registry = new InvalidatedUserRegistry(EXPIRATION) {
+            @Override
+            long currentSeconds() {
+                return nowSeconds;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("isInvalidated should return false for users never invalidated")
+    void isInvalidatedShouldReturnFalse_whenUserNotInvalidated() {
+
+        assertFalse(registry.isInvalidated(1L, nowSeconds * 1000));
+    }
+
+    @Test
+    @DisplayName("isInvalidated should reject tokens issued before or at the invalidation second")
+    void isInvalidatedShouldReturnTrue_whenTokenIssuedBeforeInvalidation() {
+
+        registry.invalidate(1L);
+
+        assertTrue(registry.isInvalidated(1L, (nowSeconds - 10) * 1000));
+        assertTrue(registry.isInvalidated(1L, nowSeconds * 1000));
+        assertFalse(registry.isInvalidated(1L, (nowSeconds + 1) * 1000));
+        assertFalse(registry.isInvalidated(2L, (nowSeconds - 10) * 1000));
+    }
+
+    @Test
+    @DisplayName("invalidate should purge entries older than the token lifetime")
+    void invalidateShouldPurgeEntries_whenOlderThanTokenLifetime() {
+
+        registry.invalidate(1L);
+
+        nowSeconds += EXPIRATION / 1000 + 1;
+        registry.invalidate(2L);
+
+        assertEquals(1, registry.size());
+        assertFalse(registry.isInvalidated(1L, 0));
+    }
+
+    @Test
+    @DisplayName("onUserChanged should only invalidate when the event revokes tokens")
+    void onUserChangedShouldInvalidate_onlyWhenEventRevokesTokens() {
+
+        registry.onUserChanged(new UserChangedEvent(1L, "maria@test.com", false));
+        registry.onUserChanged(new UserChangedEvent(2L, "pepa@test.com", true));
+
+        assertFalse(registry.isInvalidated(1L, nowSeconds * 1000));
+        assertTrue(registry.isInvalidated(2L, nowSeconds * 1000));
+    }
+}
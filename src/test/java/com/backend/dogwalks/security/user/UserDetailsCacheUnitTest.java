@@ -0,0 +1,102 @@
+package com.backend.dogwalks.security.user;
+
+import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.utils.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UserDetailsCache Unit Tests")
+public class UserDetailsCacheUnitTest {
+
+    private static final String EMAIL = "maria@test.com";
+
+    private final MutableClock clock = new MutableClock(1_000_000L);
+
+    private UserDetailsCache newCache(int maxSize) {
+        return new UserDetailsCache(maxSize, 1000, clock, new SimpleMeterRegistry());
+    }
+
+    private CustomUserDetails details(Long id, String email) {
+        return new CustomUserDetails(id, "user" + id, email, "encodedPassword", Role.USER, true);
+    }
+
+    @Test
+    @DisplayName("getByEmail should count a miss and then a hit")
+    void getByEmailShouldCountMissAndHit() {
+
+        UserDetailsCache cache = newCache(10);
+
+        assertNull(cache.getByEmail(EMAIL));
+        cache.put(details(1L, EMAIL));
+        assertNotNull(cache.getByEmail(EMAIL));
+
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    @DisplayName("getByEmail should expire entries after the TTL")
+    void getByEmailShouldExpireEntries_afterTtl() {
+
+        UserDetailsCache cache = newCache(10);
+        cache.put(details(1L, EMAIL));
+
+        clock.advance(1000);
+
+        assertNull(cache.getByEmail(EMAIL));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("put should evict the least recently used entry when full")
+    void putShouldEvictLeastRecentlyUsed_whenFull() {
+
+        UserDetailsCache cache = newCache(1);
+
+        cache.put(details(1L, EMAIL));
+        cache.put(details(2L, "pepa@test.com"));
+
+        assertNull(cache.getByEmail(EMAIL));
+        assertNotNull(cache.getByEmail("pepa@test.com"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    @DisplayName("onUserChanged should evict by id and by previous e-mail")
+    void onUserChangedShouldEvictByIdAndPreviousEmail() {
+
+        UserDetailsCache cache = newCache(10);
+        cache.put(details(1L, EMAIL));
+        cache.put(details(2L, "pepa@test.com"));
+
+        cache.onUserChanged(new UserChangedEvent(1L, "other@test.com", false));
+        cache.onUserChanged(new UserChangedEvent(99L, "pepa@test.com", false));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("put should drop a load that overlapped an invalidation of the same e-mail")
+    void putShouldDropLoad_whenInvalidatedWhileLoading() {
+
+        UserDetailsCache cache = newCache(10);
+
+        Object stale = cache.startLoad(EMAIL);
+        cache.onUserChanged(new UserChangedEvent(1L, EMAIL, false));
+        cache.put(details(1L, EMAIL), EMAIL, stale);
+        cache.endLoad(EMAIL, stale);
+
+        assertNull(cache.getByEmail(EMAIL));
+
+        Object fresh = cache.startLoad("Maria@Test.com");
+        cache.put(details(1L, EMAIL), "Maria@Test.com", fresh);
+        cache.endLoad("Maria@Test.com", fresh);
+
+        assertNotNull(cache.getByEmail(EMAIL));
+    }
+}
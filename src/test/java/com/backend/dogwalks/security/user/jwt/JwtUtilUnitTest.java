@@ -55,6 +55,19 @@ public class JwtUtilUnitTest {
             assertNotNull(token);
             assertEquals(3, token.split("\\.").length);
         }
+
+        @Test
+        @DisplayName("issueToken should give every token its own jti")
+        void issueTokenShouldAssignUniqueJti() {
+
+            IssuedToken first = jwtUtil.issueToken(userDetails);
+            IssuedToken second = jwtUtil.issueToken(userDetails);
+
+            assertNotNull(first.jti());
+            assertNotEquals(first.jti(), second.jti());
+            assertEquals(first.jti(), jwtUtil.verify(first.token()).orElseThrow().jti());
+            assertEquals(first.expiresAt(), jwtUtil.verify(first.token()).orElseThrow().expiresAt(), 1000);
+        }
     }
 
     @Nested
@@ -116,4 +129,57 @@ public class JwtUtilUnitTest {
             assertFalse(jwtUtil.isValidToken(invalidToken));
         }
     }
+
+    @Nested
+    @DisplayName("Verify Token Tests")
+    class VerifyTokenTests {
+
+        private String token;
+
+        @BeforeEach
+        void generateToken() {
+
+            token = jwtUtil.generateToken(userDetails);
+        }
+
+        @Test
+        @DisplayName("verify should return e-mail, id and role from a valid token")
+        void verifyShouldReturnClaimsForValidToken() {
+
+            VerifiedToken verified = jwtUtil.verify(token).orElseThrow();
+
+            assertEquals(EMAIL, verified.email());
+            assertEquals(USER_ID, verified.id());
+            assertEquals(Role.USER, verified.role());
+            assertFalse(verified.isExpired(System.currentTimeMillis()));
+        }
+
+        @Test
+        @DisplayName("verify should return empty for a tampered token and not cache it")
+        void verifyShouldReturnEmptyForInvalidToken() {
+
+            assertTrue(jwtUtil.verify(token + "blabla").isEmpty());
+            assertEquals(0, jwtUtil.getCachedTokenCount());
+        }
+
+        @Test
+        @DisplayName("verify should cache a valid token only once")
+        void verifyShouldCacheValidToken() {
+
+            jwtUtil.verify(token);
+            jwtUtil.verify(token);
+
+            assertEquals(1, jwtUtil.getCachedTokenCount());
+        }
+
+        @Test
+        @DisplayName("verify should reject an expired token")
+        void verifyShouldReturnEmptyForExpiredToken() {
+
+            jwtUtil.setJwtExpiration(-1000L);
+            String expiredToken = jwtUtil.generateToken(userDetails);
+
+            assertTrue(jwtUtil.verify(expiredToken).isEmpty());
+        }
+    }
  }
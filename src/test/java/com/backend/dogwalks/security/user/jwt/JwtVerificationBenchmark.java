@@ -0,0 +1,86 @@
+package com.backend.dogwalks.security.user.jwt;
+
+import com.backend.dogwalks.security.user.CustomUserDetails;
+import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.enums.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+//compara el camino anterior del filtro (isValidToken + extractEmail) con verify()
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "mariapupurrupupu24987oiurhbsj54aporppwirnhfns4704nmvh479235";
+
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtil = newJwtUtil(10000);
+        uncachedJwtUtil = newJwtUtil(0);
+
+        CustomUser user = new CustomUser();
+        user.setId(1L);
+        user.setEmail("maria@test.com");
+        user.setRole(Role.USER);
+
+        token = cachedJwtUtil.generateToken(new CustomUserDetails(user));
+    }
+
+    @Benchmark
+    public String legacyDoubleParse() {
+        if (legacyExtractAllClaims(token) != null) {
+            return legacyExtractAllClaims(token).getSubject();
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String singleParse() {
+        return uncachedJwtUtil.verify(token).map(VerifiedToken::email).orElse(null);
+    }
+
+    @Benchmark
+    public String singleParseWithCache() {
+        return cachedJwtUtil.verify(token).map(VerifiedToken::email).orElse(null);
+    }
+
+    private static JwtUtil newJwtUtil(int cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        jwtUtil.setJwtSecretKey(SECRET);
+        jwtUtil.setJwtExpiration(3600000L);
+        jwtUtil.setVerifiedTokenCacheSize(cacheSize);
+        return jwtUtil;
+    }
+
+    private static Claims legacyExtractAllClaims(String token) {
+        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
+        SecretKey key = Keys.hmacShaKeyFor(keyBytes);
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
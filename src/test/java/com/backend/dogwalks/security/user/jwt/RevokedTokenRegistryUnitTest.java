@@ -0,0 +1,106 @@
+package com.backend.dogwalks.security.user.jwt;
+
+import com.backend.dogwalks.utils.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RevokedTokenRegistry Unit Tests")
+public class RevokedTokenRegistryUnitTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private RevokedTokenRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = newRegistry(1000);
+    }
+
+    @Test
+    @DisplayName("isRevoked should return true only for revoked jti")
+    void isRevokedShouldReturnTrue_whenJtiRevoked() {
+
+        registry.revoke("revoked-jti", NOW + 60000);
+
+        assertTrue(registry.isRevoked("revoked-jti"));
+        assertFalse(registry.isRevoked("valid-jti"));
+        assertFalse(registry.isRevoked(null));
+    }
+
+    @Test
+    @DisplayName("revoke should ignore tokens that already expired")
+    void revokeShouldIgnoreExpiredTokens() {
+
+        registry.revoke("expired-jti", NOW);
+
+        assertFalse(registry.isRevoked("expired-jti"));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    @DisplayName("filter should be sized from expected entries and false positive rate")
+    void filterShouldBeSizedForExpectedEntries() {
+
+        assertEquals(9586, registry.getBitCount());
+        assertEquals(7, registry.getHashCount());
+    }
+
+    @Test
+    @DisplayName("isRevoked should never report false positives thanks to the exact set")
+    void isRevokedShouldNotReportFalsePositives() {
+
+        for (int i = 0; i < 1000; i++) {
+            registry.revoke(UUID.randomUUID().toString(), NOW + 60000);
+        }
+
+        for (int i = 0; i < 10000; i++) {
+            assertFalse(registry.isRevoked(UUID.randomUUID().toString()));
+        }
+    }
+
+    @Test
+    @DisplayName("revoke should rebuild the filter dropping expired jti once it fills up")
+    void revokeShouldRebuildFilter_whenFull() {
+
+        RevokedTokenRegistry small = newRegistry(10);
+
+        for (int i = 0; i < 9; i++) {
+            small.revoke("old-" + i, NOW + 1000);
+        }
+
+        clock.setMillis(NOW + 2000);
+        small.revoke("new", NOW + 60000);
+
+        assertEquals(1, small.size());
+        assertTrue(small.isRevoked("new"));
+        assertFalse(small.isRevoked("old-0"));
+    }
+
+    @Test
+    @DisplayName("revoke should grow the filter geometrically when most revoked jti are still live")
+    void revokeShouldGrowFilter_whenLiveEntriesExceedCapacity() {
+
+        RevokedTokenRegistry small = newRegistry(10);
+
+        for (int i = 0; i < 1000; i++) {
+            small.revoke("live-" + i, NOW + 60000);
+        }
+
+        assertEquals(1000, small.size());
+        assertTrue(small.getCapacity() >= 1000);
+        assertTrue(small.getRebuildCount() <= 10);
+        assertTrue(small.isRevoked("live-0"));
+        assertTrue(small.isRevoked("live-999"));
+    }
+
+    private RevokedTokenRegistry newRegistry(int expectedEntries) {
+        return new RevokedTokenRegistry(expectedEntries, 0.01, clock, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,68 @@
+package com.backend.dogwalks.security.user.jwt;
+
+import com.backend.dogwalks.user.enums.Role;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("VerifiedTokenCache Unit Tests")
+public class VerifiedTokenCacheUnitTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private VerifiedToken tokenExpiringAt(long expiresAt) {
+        return new VerifiedToken("maria@test.com", 1L, Role.USER, NOW - 1000, expiresAt, "jti-" + expiresAt);
+    }
+
+    @Test
+    @DisplayName("get should return cached token while it is not expired")
+    void getShouldReturnToken_whenNotExpired() {
+
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        VerifiedToken verified = tokenExpiringAt(NOW + 1000);
+
+        cache.put("a", verified);
+
+        assertSame(verified, cache.get("a", NOW));
+    }
+
+    @Test
+    @DisplayName("get should evict and return null when token is expired")
+    void getShouldEvict_whenExpired() {
+
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+
+        cache.put("a", tokenExpiringAt(NOW));
+
+        assertNull(cache.get("a", NOW));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("put should evict least recently used token when full")
+    void putShouldEvictLeastRecentlyUsed_whenFull() {
+
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+
+        cache.put("a", tokenExpiringAt(NOW + 1000));
+        cache.put("b", tokenExpiringAt(NOW + 1000));
+        cache.get("a", NOW);
+        cache.put("c", tokenExpiringAt(NOW + 1000));
+
+        assertNotNull(cache.get("a", NOW));
+        assertNull(cache.get("b", NOW));
+        assertNotNull(cache.get("c", NOW));
+    }
+
+    @Test
+    @DisplayName("put should not store anything when size is 0")
+    void putShouldNotStore_whenDisabled() {
+
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+
+        cache.put("a", tokenExpiringAt(NOW + 1000));
+
+        assertEquals(0, cache.size());
+    }
+}
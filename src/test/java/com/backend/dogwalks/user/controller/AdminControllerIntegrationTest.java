@@ -6,6 +6,8 @@ import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
 import com.backend.dogwalks.utils.IntegrationTestUtils;
+import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.repository.WalkRepository;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -57,6 +59,9 @@ public class AdminControllerIntegrationTest {
     @Autowired
     private CustomUserRepository userRepository;
 
+    @Autowired
+    private WalkRepository walkRepository;
+
     @Autowired
     private IntegrationTestUtils integrationTestUtils;
 
@@ -110,6 +115,28 @@ public class AdminControllerIntegrationTest {
                     .andExpect(jsonPath("$.number", is(0)));
         }
 
+        @Test
+        @DisplayName("GET /api/admin/users - must load the walks of a whole page in one batch")
+        void getAllUsersPaginated_shouldBatchLoadWalks() throws Exception{
+
+            for (int i = 0; i < 10; i++) {
+                CustomUser owner = integrationTestUtils.createUser("Owner" + i, "owner" + i + "@test.com", "Testpassword547.", Role.USER);
+                walkRepository.save(new Walk("Walk " + i, "Munich", 30, "Short walk", "walk.png", true, owner));
+            }
+            integrationTestUtils.startCountingStatements();
+
+            mockMvc.perform(get("/api/admin/users")
+                            .header("Authorization", "Bearer " + adminToken)
+                            .param("page", "0")
+                            .param("size", "100")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(12)));
+
+            //usuarios, count y un único IN con los walks de la página
+            integrationTestUtils.assertStatementCountAtMost(3);
+        }
+
         @Test
         @DisplayName("GET /api/admin/users - must return 400 bad request when size is zero or negative")
         void getAllUsersPaginated_shouldReturnBadRequest_whenRequestSizeIsZero() throws Exception{
@@ -268,6 +295,29 @@ public class AdminControllerIntegrationTest {
                     .andExpect(status().isNotFound());
         }
 
+        @Test
+        @DisplayName("DELETE /api/admin/users/{id} - must delete all walks of the user with set-based statements")
+        void deleteUser_shouldDeleteWalksInBulk_whenUserHasManyWalks() throws Exception {
+
+            for (int i = 0; i < 200; i++) {
+                walkRepository.save(new Walk("Walk " + i, "Munich", 30, "Short walk", "walk.png", true, user));
+            }
+            Walk adminWalk = walkRepository.save(new Walk("Admin walk", "Munich", 30, "Short walk", "walk.png", true, admin));
+            integrationTestUtils.startCountingStatements();
+
+            mockMvc.perform(delete("/api/admin/users/{id}", user.getId())
+                            .header("Authorization", "Bearer " + adminToken)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNoContent());
+
+            //select del usuario, DELETE de sus paseos y DELETE del usuario, sin importar cuántos paseos tenga
+            integrationTestUtils.assertStatementCountAtMost(3);
+
+            assertEquals(1, walkRepository.count());
+            assertTrue(walkRepository.findById(adminWalk.getId()).isPresent());
+            assertFalse(userRepository.findById(user.getId()).isPresent());
+        }
+
         @Test
         @DisplayName("DELETE /api/admin/users/{id} - must return 404 not found when invalid id")
         void deleteUser_shouldReturnNotFound_whenInvalidId() throws Exception{
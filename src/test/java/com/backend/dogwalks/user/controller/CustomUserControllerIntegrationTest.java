@@ -9,6 +9,8 @@ import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
 import com.backend.dogwalks.utils.IntegrationTestUtils;
+import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.repository.WalkRepository;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -31,7 +33,9 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -68,6 +72,9 @@ public class CustomUserControllerIntegrationTest {
     @Autowired
     private CustomUserRepository userRepository;
 
+    @Autowired
+    private WalkRepository walkRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -130,6 +137,47 @@ public class CustomUserControllerIntegrationTest {
         assertEquals("Pepa", updatedUser.getUsername());
     }
 
+    @Test
+    @DisplayName("PATCH /api/users/profile - must update only the supplied fields when If-Match is current")
+    void patchMyProfile_shouldUpdateUser_whenVersionMatches() throws Exception {
+
+        String etag = mockMvc.perform(get("/api/users/profile")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(patch("/api/users/profile")
+                        .header("Authorization", "Bearer " + authToken)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(integrationTestUtils.toJson(new CustomUserUpdateRequest(null, "new.png"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.username").value("Maria"))
+                .andExpect(jsonPath("$.userImgUrl").value("new.png"));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/users/profile - must return 412 precondition failed when If-Match is stale")
+    void patchMyProfile_shouldReturnPreconditionFailed_whenVersionIsStale() throws Exception {
+
+        mockMvc.perform(patch("/api/users/profile")
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(integrationTestUtils.toJson(new CustomUserUpdateRequest("Pepa", null))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/api/users/profile")
+                        .header("Authorization", "Bearer " + authToken)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(integrationTestUtils.toJson(new CustomUserUpdateRequest("Lola", null))))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"1\""));
+
+        assertEquals("Pepa", userRepository.findById(user.getId()).get().getUsername());
+    }
+
     @Test
     @DisplayName("PUT /api/users/profile/email - must update email when request is valid")
     void updateMyEmail_shouldUpdateEmail_whenValidRequest() throws Exception {
@@ -145,6 +193,11 @@ public class CustomUserControllerIntegrationTest {
 
         CustomUser updatedUser = userRepository.findById(user.getId()).get();
         assertEquals("new@test.com", updatedUser.getEmail());
+
+        //el token anterior lleva el e-mail antiguo y queda revocado
+        mockMvc.perform(get("/api/users/profile")
+                        .header("Authorization", "Bearer " + authToken))
+                .andExpect(status().isUnauthorized());
     }
 
     @Test
@@ -176,6 +229,23 @@ public class CustomUserControllerIntegrationTest {
         CustomUser deactivatedUser = userRepository.findById(user.getId()).get();
         assertFalse(deactivatedUser.getIsActive());
     }
+
+    @Test
+    @DisplayName("DELETE /api/users/profile/deactivate - must hide every walk of the user")
+    void deactivateMyProfile_shouldHideWalks_whenUserIsAuthenticated() throws Exception {
+
+        for (int i = 0; i < 50; i++) {
+            walkRepository.save(new Walk("Walk " + i, "Munich", 30, "Short walk", "walk.png", i % 2 == 0, user));
+        }
+
+        mockMvc.perform(delete("/api/users/profile/deactivate")
+                        .header("Authorization", "Bearer " + authToken)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertEquals(0, walkRepository.countByIsActiveTrue());
+        assertEquals(50, walkRepository.count());
+    }
 }
 
 
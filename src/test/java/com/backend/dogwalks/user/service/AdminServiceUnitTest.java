@@ -6,17 +6,21 @@ import com.backend.dogwalks.user.dto.admin.AdminUserRequest;
 import com.backend.dogwalks.user.dto.admin.AdminUserResponse;
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
 import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.repository.WalkRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,7 +36,15 @@ public class AdminServiceUnitTest {
     @Mock
     private CustomUserRepository customUserRepository;
 
-    @InjectMocks
+    @Mock
+    private WalkRepository walkRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private AdminService adminService;
 
     private CustomUser testUser;
@@ -48,6 +60,8 @@ public class AdminServiceUnitTest {
 
     @BeforeEach
     void setUp() {
+        adminService = new AdminService(customUserRepository, walkRepository, eventPublisher, transactionManager, 0);
+
         testUser = new CustomUser();
         testUser.setId(USER_ID);
         testUser.setUsername(USERNAME);
@@ -193,6 +207,27 @@ public class AdminServiceUnitTest {
             verify(customUserRepository, times(1)).findById(USER_ID);
             verify(customUserRepository, times(1)).existsByEmailAndIdNot(request.email(), USER_ID);
             verify(customUserRepository, times(1)).save(testUser);
+            verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(USER_ID, EMAIL, true, WalkImpact.RENAMED));
+        }
+
+        @Test
+        @DisplayName("UpdateUser should publish a non revoking event when role, status and e-mail are unchanged")
+        void updateUserShouldNotRevokeTokens_whenClaimsUnchanged() {
+
+            AdminUserRequest request = new AdminUserRequest(
+                    "updatedUser",
+                    EMAIL,
+                    "UpdateImg.png",
+                    Role.USER,
+                    true);
+
+            when(customUserRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
+            when(customUserRepository.existsByEmailAndIdNot(request.email(), USER_ID)).thenReturn(false);
+            when(customUserRepository.save(any(CustomUser.class))).thenReturn(testUser);
+
+            adminService.updateUser(USER_ID, request);
+
+            verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(USER_ID, EMAIL, false, WalkImpact.RENAMED));
         }
 
         @Test
@@ -298,7 +333,29 @@ public class AdminServiceUnitTest {
             adminService.deleteUser(USER_ID);
 
             verify(customUserRepository, times(1)).findById(USER_ID);
-            verify(customUserRepository, times(1)).delete(testUser);
+            verify(walkRepository, times(1)).deleteAllByUserId(USER_ID);
+            verify(customUserRepository, times(1)).deleteUserById(USER_ID);
+            verify(customUserRepository, never()).delete(any());
+            verify(walkRepository, never()).deleteChunkByUserId(any(), anyInt());
+            verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(USER_ID, EMAIL, true, WalkImpact.DELETED));
+            verifyNoInteractions(transactionManager);
+        }
+
+        @Test
+        @DisplayName("DeleteUser should delete walks in separately committed chunks when a chunk size is set")
+        void deleteUserShouldDeleteWalksInChunks_whenChunkSizeSet() {
+
+            adminService = new AdminService(customUserRepository, walkRepository, eventPublisher, transactionManager, 1000);
+            when(customUserRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
+            when(walkRepository.deleteChunkByUserId(USER_ID, 1000)).thenReturn(1000, 1000, 250);
+
+            adminService.deleteUser(USER_ID);
+
+            verify(walkRepository, times(3)).deleteChunkByUserId(USER_ID, 1000);
+            verify(walkRepository, times(1)).deleteAllByUserId(USER_ID);
+            verify(customUserRepository, times(1)).deleteUserById(USER_ID);
+            verify(transactionManager, times(3)).commit(any());
+            verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(USER_ID, EMAIL, true, WalkImpact.DELETED));
         }
 
         @Test
@@ -312,7 +369,8 @@ public class AdminServiceUnitTest {
             assertEquals("User with id: " + USER_ID + " not found", exception.getMessage());
 
             verify(customUserRepository, times(1)).findById(USER_ID);
-            verify(customUserRepository, never()).delete(any());
+            verify(customUserRepository, never()).deleteUserById(any());
+            verify(walkRepository, never()).deleteAllByUserId(any());
         }
 
         @Test
@@ -327,7 +385,8 @@ public class AdminServiceUnitTest {
             assertEquals("Cannot delete the last active admin", exception.getMessage());
 
             verify(customUserRepository, times(1)).findById(ADMIN_ID);
-            verify(customUserRepository, never()).delete(any());
+            verify(customUserRepository, never()).deleteUserById(any());
+            verify(walkRepository, never()).deleteAllByUserId(any());
         }
     }
 }
@@ -3,13 +3,17 @@ package com.backend.dogwalks.user.service;
 import com.backend.dogwalks.exception.custom_exception.EntityAlreadyExistsException;
 import com.backend.dogwalks.exception.custom_exception.EntityNotFoundException;
 import com.backend.dogwalks.exception.custom_exception.InvalidCredentialsException;
+import com.backend.dogwalks.exception.custom_exception.PreconditionFailedException;
 import com.backend.dogwalks.user.dto.user.CustomUserResponse;
 import com.backend.dogwalks.user.dto.user.CustomUserUpdateEmailRequest;
 import com.backend.dogwalks.user.dto.user.CustomUserUpdatePasswordRequest;
 import com.backend.dogwalks.user.dto.user.CustomUserUpdateRequest;
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.walk.repository.WalkRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.ArrayList;
@@ -33,9 +38,15 @@ public class CustomUserServiceUnitTest {
     @Mock
     private CustomUserRepository customUserRepository;
 
+    @Mock
+    private WalkRepository walkRepository;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CustomUserService customUserService;
 
@@ -121,15 +132,16 @@ public class CustomUserServiceUnitTest {
             CustomUserUpdateRequest request = new CustomUserUpdateRequest(newUsername, null);
 
             when(customUserRepository.findByIdAndIsActive(USER_ID, true)).thenReturn(Optional.of(testUser));
-            when(customUserRepository.save(any(CustomUser.class))).thenReturn(testUser);
+            when(customUserRepository.saveAndFlush(any(CustomUser.class))).thenReturn(testUser);
 
-            CustomUserResponse result = customUserService.updateMyProfile(USER_ID, request);
+            CustomUserResponse result = customUserService.updateMyProfile(USER_ID, request, null);
 
             assertEquals(newUsername, result.username());
             assertEquals(newUsername, testUser.getUsername());
 
             verify(customUserRepository, times(1)).findByIdAndIsActive(USER_ID, true);
-            verify(customUserRepository, times(1)).save(testUser);
+            verify(customUserRepository, times(1)).saveAndFlush(testUser);
+            verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(USER_ID, EMAIL, false, WalkImpact.RENAMED));
         }
 
         @Test
@@ -140,15 +152,16 @@ public class CustomUserServiceUnitTest {
             CustomUserUpdateRequest request = new CustomUserUpdateRequest(null, newImageUrl);
 
             when(customUserRepository.findByIdAndIsActive(USER_ID, true)).thenReturn(Optional.of(testUser));
-            when(customUserRepository.save(any(CustomUser.class))).thenReturn(testUser);
+            when(customUserRepository.saveAndFlush(any(CustomUser.class))).thenReturn(testUser);
 
-            CustomUserResponse result = customUserService.updateMyProfile(USER_ID, request);
+            CustomUserResponse result = customUserService.updateMyProfile(USER_ID, request, null);
 
             assertEquals(newImageUrl, result.userImgUrl());
             assertEquals(newImageUrl, testUser.getUserImgUrl());
 
             verify(customUserRepository, times(1)).findByIdAndIsActive(USER_ID, true);
-            verify(customUserRepository, times(1)).save(testUser);
+            verify(customUserRepository, times(1)).saveAndFlush(testUser);
+            verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(USER_ID, EMAIL, false, WalkImpact.NONE));
         }
 
         @Test
@@ -159,14 +172,14 @@ public class CustomUserServiceUnitTest {
             CustomUserUpdateRequest request = new CustomUserUpdateRequest(null, null);
 
             when(customUserRepository.findByIdAndIsActive(USER_ID, true)).thenReturn(Optional.of(testUser));
-            when(customUserRepository.save(any(CustomUser.class))).thenReturn(testUser);
+            when(customUserRepository.saveAndFlush(any(CustomUser.class))).thenReturn(testUser);
 
-            customUserService.updateMyProfile(USER_ID, request);
+            customUserService.updateMyProfile(USER_ID, request, null);
 
             assertEquals(originalUsername, testUser.getUsername());
             assertEquals(originalUserImgUrl, testUser.getUserImgUrl());
 
-            verify(customUserRepository, times(1)).save(testUser);
+            verify(customUserRepository, times(1)).saveAndFlush(testUser);
         }
 
         @Test
@@ -177,12 +190,46 @@ public class CustomUserServiceUnitTest {
 
             when(customUserRepository.findByIdAndIsActive(USER_ID, true)).thenReturn(Optional.empty());
 
-            EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> customUserService.updateMyProfile(USER_ID, request));
+            EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> customUserService.updateMyProfile(USER_ID, request, null));
 
             assertEquals("Active user with id: " + USER_ID + " not found", exception.getMessage());
 
             verify(customUserRepository, times(1)).findByIdAndIsActive(USER_ID, true);
-            verify(customUserRepository, never()).save(any());
+            verify(customUserRepository, never()).saveAndFlush(any());
+        }
+
+        @Test
+        @DisplayName("Should update profile when If-Match version is current")
+        void shouldUpdateProfile_whenVersionMatches() {
+
+            testUser.setVersion(3L);
+            CustomUserUpdateRequest request = new CustomUserUpdateRequest("Pepa", null);
+
+            when(customUserRepository.findByIdAndIsActive(USER_ID, true)).thenReturn(Optional.of(testUser));
+            when(customUserRepository.saveAndFlush(any(CustomUser.class))).thenReturn(testUser);
+
+            CustomUserResponse result = customUserService.updateMyProfile(USER_ID, request, 3L);
+
+            assertEquals("Pepa", result.username());
+            assertEquals(3L, result.version());
+        }
+
+        @Test
+        @DisplayName("Should throw PreconditionFailedException and not write when If-Match version is stale")
+        void shouldThrowPreconditionFailedException_whenVersionIsStale() {
+
+            testUser.setVersion(4L);
+            CustomUserUpdateRequest request = new CustomUserUpdateRequest("Pepa", null);
+
+            when(customUserRepository.findByIdAndIsActive(USER_ID, true)).thenReturn(Optional.of(testUser));
+
+            PreconditionFailedException exception = assertThrows(PreconditionFailedException.class, () -> customUserService.updateMyProfile(USER_ID, request, 3L));
+
+            assertEquals("\"4\"", exception.getCurrentEtag());
+            assertEquals(USERNAME, testUser.getUsername());
+
+            verify(customUserRepository, never()).saveAndFlush(any());
+            verifyNoInteractions(eventPublisher);
         }
     }
 
@@ -191,7 +238,7 @@ public class CustomUserServiceUnitTest {
     class UpdateMyEmailTests {
 
         @Test
-        @DisplayName("Should update e-mail when all validations pass")
+        @DisplayName("Should update e-mail and revoke the issued tokens when all validations pass")
         void shouldUpdateEmail_whenAllValidationsPass() {
 
             String newEmail = "new@test.com";
@@ -201,7 +248,7 @@ public class CustomUserServiceUnitTest {
             when(customUserRepository.findByIdAndIsActive(USER_ID, true)).thenReturn(Optional.of(testUser));
             when(passwordEncoder.matches(rawPassword, PASSWORD)).thenReturn(true);
             when(customUserRepository.existsByEmail(newEmail)).thenReturn(false);
-            when(customUserRepository.save(any(CustomUser.class))).thenReturn(testUser);
+            when(customUserRepository.saveAndFlush(any(CustomUser.class))).thenReturn(testUser);
 
             CustomUserResponse result = customUserService.updateMyEmail(USER_ID, request);
 
@@ -211,7 +258,8 @@ public class CustomUserServiceUnitTest {
             verify(customUserRepository, times(1)).findByIdAndIsActive(USER_ID, true);
             verify(passwordEncoder, times(1)).matches(rawPassword, PASSWORD);
             verify(customUserRepository, times(1)).existsByEmail(newEmail);
-            verify(customUserRepository, times(1)).save(testUser);
+            verify(customUserRepository, times(1)).saveAndFlush(testUser);
+            verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(USER_ID, EMAIL, true));
         }
 
         @Test
@@ -231,7 +279,7 @@ public class CustomUserServiceUnitTest {
             verify(customUserRepository, times(1)).findByIdAndIsActive(USER_ID, true);
             verify(passwordEncoder, times(1)).matches(wrongPassword, PASSWORD);
             verify(customUserRepository, never()).existsByEmail(anyString());
-            verify(customUserRepository, never()).save(any());
+            verify(customUserRepository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -252,7 +300,7 @@ public class CustomUserServiceUnitTest {
             verify(customUserRepository, times(1)).findByIdAndIsActive(USER_ID, true);
             verify(passwordEncoder, times(1)).matches(rawPassword, PASSWORD);
             verify(customUserRepository, times(1)).existsByEmail(existingEmail);
-            verify(customUserRepository, never()).save(any());
+            verify(customUserRepository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -270,7 +318,7 @@ public class CustomUserServiceUnitTest {
 
             assertEquals("New e-mail must be different from current e-mail", exception.getMessage());
 
-            verify(customUserRepository, never()).save(any());
+            verify(customUserRepository, never()).saveAndFlush(any());
         }
     }
 
@@ -289,7 +337,6 @@ public class CustomUserServiceUnitTest {
 
             when(customUserRepository.findByIdAndIsActive(USER_ID, true)).thenReturn(Optional.of(testUser));
             when(passwordEncoder.matches(oldPassword, PASSWORD)).thenReturn(true);
-            when(passwordEncoder.matches(newPassword, PASSWORD)).thenReturn(false);
             when(passwordEncoder.encode(newPassword)).thenReturn(encodedPassword);
 
             customUserService.updateMyPassword(USER_ID, request);
@@ -300,6 +347,7 @@ public class CustomUserServiceUnitTest {
             verify(passwordEncoder, times(1)).matches(oldPassword, PASSWORD);
             verify(passwordEncoder, times(1)).encode(newPassword);
             verify(customUserRepository,times(1)).save(testUser);
+            verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(USER_ID, EMAIL, false));
         }
 
         @Test
@@ -355,14 +403,13 @@ public class CustomUserServiceUnitTest {
 
             when(customUserRepository.findByIdAndIsActive(USER_ID, true)).thenReturn(Optional.of(testUser));
             when(passwordEncoder.matches(oldPassword, PASSWORD)).thenReturn(true);
-            when(passwordEncoder.matches(samePassword, PASSWORD)).thenReturn(true);
 
             InvalidCredentialsException exception = assertThrows(InvalidCredentialsException.class, () -> customUserService.updateMyPassword(USER_ID, request));
 
             assertEquals("New password must be different from current password", exception.getMessage());
 
             verify(customUserRepository, times(1)).findByIdAndIsActive(USER_ID, true);
-            verify(passwordEncoder, times(2)).matches(oldPassword, PASSWORD);
+            verify(passwordEncoder, times(1)).matches(oldPassword, PASSWORD);
             verify(passwordEncoder, never()).encode(anyString());
             verify(customUserRepository,never()).save(any());
         }
@@ -384,6 +431,8 @@ public class CustomUserServiceUnitTest {
 
             verify(customUserRepository, times(1)).findByIdAndIsActive(USER_ID, true);
             verify(customUserRepository, times(1)).save(testUser);
+            verify(walkRepository, times(1)).deactivateAllByUserId(USER_ID);
+            verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(USER_ID, EMAIL, true, WalkImpact.HIDDEN));
         }
 
         @Test
@@ -398,6 +447,8 @@ public class CustomUserServiceUnitTest {
 
             verify(customUserRepository, times(1)).findByIdAndIsActive(USER_ID, true);
             verify(customUserRepository, never()).save(any());
+            verify(walkRepository, never()).deactivateAllByUserId(any());
+            verify(eventPublisher, never()).publishEvent(any(UserChangedEvent.class));
         }
     }
 }
@@ -0,0 +1,156 @@
+package com.backend.dogwalks.user.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//borrado de un usuario con 50k paseos: cascada de JPA (cargar los paseos y un DELETE por id en lotes de 50)
+//frente a un DELETE por user_id en una transacción y en lotes de 5000 confirmados por separado; necesita Docker
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UserDeleteBenchmark {
+
+    private static final int WALKS = 50_000;
+    private static final int HIBERNATE_BATCH_SIZE = 50;
+    private static final int CHUNK_SIZE = 5_000;
+
+    private MySQLContainer<?> mySqlContainer;
+    private Connection connection;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mySqlContainer = new MySQLContainer<>("mysql:8.0").withDatabaseName("dogwalks-bench");
+        mySqlContainer.start();
+
+        connection = DriverManager.getConnection(mySqlContainer.getJdbcUrl() + "?rewriteBatchedStatements=true", mySqlContainer.getUsername(), mySqlContainer.getPassword());
+        connection.setAutoCommit(false);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(50) NOT NULL)");
+            statement.execute("CREATE TABLE walks (id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(100) NOT NULL, created_at DATETIME(6) NOT NULL, "
+                    + "location VARCHAR(100) NOT NULL, duration INT, description TEXT, img VARCHAR(255), is_active BIT NOT NULL, user_id BIGINT NOT NULL, "
+                    + "INDEX idx_walks_active_created (is_active, created_at, id), CONSTRAINT fk_walks_user FOREIGN KEY (user_id) REFERENCES users (id))");
+        }
+        connection.commit();
+    }
+
+    //usuario nuevo con sus paseos antes de cada borrado
+    @Setup(Level.Invocation)
+    public void createUser() throws SQLException {
+
+        try (PreparedStatement insertUser = connection.prepareStatement("INSERT INTO users (username) VALUES ('Maria')", Statement.RETURN_GENERATED_KEYS)) {
+            insertUser.executeUpdate();
+            try (ResultSet keys = insertUser.getGeneratedKeys()) {
+                keys.next();
+                userId = keys.getLong(1);
+            }
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO walks (title, created_at, location, duration, description, img, is_active, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < WALKS; i++) {
+                insert.setString(1, "Walk " + i);
+                insert.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                insert.setString(3, "Munich");
+                insert.setInt(4, 30 + i % 90);
+                insert.setString(5, "A walk through the park number " + i);
+                insert.setString(6, "walk.png");
+                insert.setBoolean(7, true);
+                insert.setLong(8, userId);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        mySqlContainer.stop();
+    }
+
+    //lo que hacía customUserRepository.delete(user) con cascade = ALL
+    @Benchmark
+    public void entityCascade() throws SQLException {
+
+        List<Long> walkIds = new ArrayList<>(WALKS);
+
+        try (PreparedStatement select = connection.prepareStatement("SELECT id, title, created_at, location, duration, description, img, is_active, user_id FROM walks WHERE user_id = ?")) {
+            select.setLong(1, userId);
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    walkIds.add(resultSet.getLong(1));
+                }
+            }
+        }
+
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM walks WHERE id = ?")) {
+            for (int i = 0; i < walkIds.size(); i++) {
+                delete.setLong(1, walkIds.get(i));
+                delete.addBatch();
+                if ((i + 1) % HIBERNATE_BATCH_SIZE == 0) {
+                    delete.executeBatch();
+                }
+            }
+            delete.executeBatch();
+        }
+
+        deleteUser();
+        connection.commit();
+    }
+
+    @Benchmark
+    public void setBased() throws SQLException {
+
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM walks WHERE user_id = ?")) {
+            delete.setLong(1, userId);
+            delete.executeUpdate();
+        }
+
+        deleteUser();
+        connection.commit();
+    }
+
+    @Benchmark
+    public void setBasedInChunks() throws SQLException {
+
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM walks WHERE user_id = ? LIMIT " + CHUNK_SIZE)) {
+            delete.setLong(1, userId);
+            while (delete.executeUpdate() == CHUNK_SIZE) {
+                connection.commit();
+            }
+        }
+
+        deleteUser();
+        connection.commit();
+    }
+
+    private void deleteUser() throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM users WHERE id = ?")) {
+            delete.setLong(1, userId);
+            delete.executeUpdate();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserDeleteBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
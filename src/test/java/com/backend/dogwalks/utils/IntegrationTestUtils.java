@@ -1,16 +1,24 @@
 package com.backend.dogwalks.utils;
 
 import com.backend.dogwalks.security.user.CustomUserDetails;
+import com.backend.dogwalks.security.user.UserDetailsCache;
 import com.backend.dogwalks.security.user.jwt.JwtUtil;
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 @TestConfiguration
 public class IntegrationTestUtils {
 
@@ -26,6 +34,15 @@ public class IntegrationTestUtils {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public String toJson(Object obj) throws JsonProcessingException {
         return objectMapper.writeValueAsString(obj);
     }
@@ -42,6 +59,9 @@ public class IntegrationTestUtils {
         user.setRole(role);
         user.setIsActive(true);
 
+        //los tests borran usuarios directamente en el repositorio, sin eventos que limpien la caché
+        userDetailsCache.evictByEmail(email);
+
         return customUserRepository.save(user);
     }
 
@@ -50,4 +70,21 @@ public class IntegrationTestUtils {
 
         return jwtUtil.generateToken(userDetails);
     }
+
+    //vacía el contexto de persistencia del test para que las cargas lazy lleguen a la base de datos y se cuenten
+    public void startCountingStatements() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    public void assertStatementCountAtMost(long maxStatements) {
+        long executed = statistics().getPrepareStatementCount();
+
+        assertTrue(executed <= maxStatements, "Expected at most " + maxStatements + " SQL statements but " + executed + " were executed");
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
 }
@@ -0,0 +1,242 @@
+package com.backend.dogwalks.walk.cache;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
+import com.backend.dogwalks.walk.dto.OwnedWalkDetail;
+import com.backend.dogwalks.walk.dto.WalkDetailResponse;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.utils.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WalkDetailCache Unit Tests")
+public class WalkDetailCacheUnitTest {
+
+    private final MutableClock clock = new MutableClock(1_000_000L);
+
+    private WalkDetailCache newCache(int maxSize) {
+        return new WalkDetailCache(maxSize, 10_000, 1000, clock, new SimpleMeterRegistry());
+    }
+
+    private OwnedWalkDetail owned(Long id, Long ownerId, String title) {
+        return new OwnedWalkDetail(ownerId, new WalkDetailResponse(id, title, "Munich", 60, "Walk", "w.png", "Maria", LocalDateTime.of(2025, 5, 1, 10, 0)));
+    }
+
+    //cuenta las llamadas al repositorio simulado
+    private Function<Long, Optional<OwnedWalkDetail>> countingLoader(AtomicInteger calls, OwnedWalkDetail result) {
+        return id -> {
+            calls.incrementAndGet();
+            return Optional.ofNullable(result);
+        };
+    }
+
+    @Test
+    @DisplayName("get should load once and then serve hits from memory")
+    void getShouldLoadOnce_thenHit() {
+
+        WalkDetailCache cache = newCache(10);
+        AtomicInteger calls = new AtomicInteger();
+
+        Optional<WalkDetailResponse> first = cache.get(1L, countingLoader(calls, owned(1L, 7L, "Englischer Garten")));
+        Optional<WalkDetailResponse> second = cache.get(1L, countingLoader(calls, owned(1L, 7L, "Other")));
+
+        assertEquals("Englischer Garten", first.orElseThrow().title());
+        assertSame(first.orElseThrow(), second.orElseThrow());
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    @DisplayName("get should cache missing walks until the negative TTL expires")
+    void getShouldCacheMissingWalks_untilNegativeTtl() {
+
+        WalkDetailCache cache = newCache(10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertTrue(cache.get(1L, countingLoader(calls, null)).isEmpty());
+        assertTrue(cache.get(1L, countingLoader(calls, null)).isEmpty());
+        assertEquals(1, calls.get());
+
+        clock.advance(1000);
+
+        assertTrue(cache.get(1L, countingLoader(calls, null)).isEmpty());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("onWalkChanged should evict the walk, including a negative entry for a new id")
+    void onWalkChangedShouldEvictWalk() {
+
+        WalkDetailCache cache = newCache(10);
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(1L, countingLoader(calls, owned(1L, 7L, "Old title")));
+        cache.get(2L, countingLoader(calls, null));
+
+        cache.onWalkChanged(new WalkChangedEvent(1L, 7L, false, null, null));
+        cache.onWalkChanged(new WalkChangedEvent(2L, 7L, false, null, null));
+
+        assertEquals("New title", cache.get(1L, countingLoader(calls, owned(1L, 7L, "New title"))).orElseThrow().title());
+        assertTrue(cache.get(2L, countingLoader(calls, owned(2L, 7L, "Created"))).isPresent());
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    @DisplayName("onUserChanged should evict only the walks of that owner")
+    void onUserChangedShouldEvictOwnerWalks() {
+
+        WalkDetailCache cache = newCache(10);
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(1L, countingLoader(calls, owned(1L, 7L, "Mine")));
+        cache.get(2L, countingLoader(calls, owned(2L, 7L, "Mine too")));
+        cache.get(3L, countingLoader(calls, owned(3L, 8L, "Someone else")));
+
+        cache.onUserChanged(new UserChangedEvent(7L, "maria@test.com", false, WalkImpact.RENAMED));
+
+        assertEquals(1, cache.size());
+        cache.get(3L, countingLoader(calls, null));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    @DisplayName("get should evict the least recently used entry when full")
+    void getShouldEvictLeastRecentlyUsed_whenFull() {
+
+        WalkDetailCache cache = newCache(2);
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(1L, countingLoader(calls, owned(1L, 7L, "One")));
+        cache.get(2L, countingLoader(calls, owned(2L, 7L, "Two")));
+        cache.get(1L, countingLoader(calls, null));
+        cache.get(3L, countingLoader(calls, owned(3L, 7L, "Three")));
+
+        assertEquals(2, cache.size());
+        assertEquals("One", cache.get(1L, countingLoader(calls, null)).orElseThrow().title());
+        assertEquals(3, calls.get());
+
+        //la entrada expulsada ya no está enlazada a su dueño
+        cache.evictByOwner(7L);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("get should not store a value when the walk is invalidated while loading")
+    void getShouldNotStore_whenInvalidatedDuringLoad() {
+
+        WalkDetailCache cache = newCache(10);
+        AtomicInteger calls = new AtomicInteger();
+
+        Optional<WalkDetailResponse> stale = cache.get(1L, id -> {
+            calls.incrementAndGet();
+            cache.evict(1L);
+            return Optional.of(owned(1L, 7L, "Stale"));
+        });
+
+        assertEquals("Stale", stale.orElseThrow().title());
+        assertEquals("Fresh", cache.get(1L, countingLoader(calls, owned(1L, 7L, "Fresh"))).orElseThrow().title());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("onUserChanged should keep entries and loads when the walks are not affected")
+    void onUserChangedShouldKeepEntries_whenWalksUnaffected() {
+
+        WalkDetailCache cache = newCache(10);
+        AtomicInteger calls = new AtomicInteger();
+        cache.get(1L, countingLoader(calls, owned(1L, 7L, "Mine")));
+
+        cache.get(2L, id -> {
+            cache.onUserChanged(new UserChangedEvent(8L, "signup@test.com", false));
+            return Optional.of(owned(2L, 7L, "Loaded during a signup"));
+        });
+        cache.onUserChanged(new UserChangedEvent(7L, "maria@test.com", true));
+
+        assertEquals(2, cache.size());
+        cache.get(1L, countingLoader(calls, null));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("get should not store a value when an owner is invalidated while loading")
+    void getShouldNotStore_whenOwnerInvalidatedDuringLoad() {
+
+        WalkDetailCache cache = newCache(10);
+
+        cache.get(1L, id -> {
+            cache.onUserChanged(new UserChangedEvent(7L, "maria@test.com", false, WalkImpact.RENAMED));
+            return Optional.of(owned(1L, 7L, "Old username"));
+        });
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("get should run a single load when many threads miss the same id")
+    void getShouldLoadOnce_whenConcurrentMisses() throws Exception {
+
+        WalkDetailCache cache = newCache(10);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        int threads = 16;
+
+        Function<Long, Optional<OwnedWalkDetail>> slowLoader = id -> {
+            calls.incrementAndGet();
+            loaderStarted.countDown();
+            try {
+                releaseLoader.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(owned(1L, 7L, "Popular walk"));
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Optional<WalkDetailResponse>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(1L, slowLoader)));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> cache.get(1L, slowLoader)));
+            }
+
+            Thread.sleep(50);
+            releaseLoader.countDown();
+
+            for (Future<Optional<WalkDetailResponse>> result : results) {
+                assertEquals("Popular walk", result.get(5, TimeUnit.SECONDS).orElseThrow().title());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getLoadCount());
+    }
+
+    @Test
+    @DisplayName("get should propagate loader failures without caching them")
+    void getShouldPropagateFailures_withoutCaching() {
+
+        WalkDetailCache cache = newCache(10);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, id -> {
+            throw new IllegalStateException("Database down");
+        }));
+
+        assertTrue(cache.get(1L, countingLoader(calls, owned(1L, 7L, "Back"))).isPresent());
+        assertEquals(1, calls.get());
+    }
+}
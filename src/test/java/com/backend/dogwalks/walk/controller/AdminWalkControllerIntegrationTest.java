@@ -0,0 +1,152 @@
+package com.backend.dogwalks.walk.controller;
+
+import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.utils.IntegrationTestUtils;
+import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+//sin @Transactional: la exportación se escribe en otro hilo y solo ve datos confirmados
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+@ActiveProfiles("test")
+@Import(IntegrationTestUtils.class)
+@DisplayName("Admin Walk Controller Integration Tests")
+public class AdminWalkControllerIntegrationTest {
+
+    @Container
+    static MySQLContainer<?> mySqlContainer = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("dogwalks-test")
+            .withUsername("test_user")
+            .withPassword("test_password")
+            .withReuse(false);
+
+    @DynamicPropertySource
+    static void setDatasourceProperties(DynamicPropertyRegistry registry) {
+
+        registry.add("spring.datasource.url", () -> mySqlContainer.getJdbcUrl());
+        registry.add("spring.datasource.username", () -> mySqlContainer.getUsername());
+        registry.add("spring.datasource.password", () -> mySqlContainer.getPassword());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CustomUserRepository userRepository;
+
+    @Autowired
+    private WalkRepository walkRepository;
+
+    @Autowired
+    private IntegrationTestUtils integrationTestUtils;
+
+    private String userToken;
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+
+        CustomUser user = integrationTestUtils.createUser("Maria", "maria@test.com", "Testpassword547.", Role.USER);
+        CustomUser admin = integrationTestUtils.createUser("Admin", "admin@test.com", "Testpassword547.", Role.ADMIN);
+
+        for (int i = 0; i < 25; i++) {
+            walkRepository.save(new Walk("Walk " + i, "Munich", 30, "Short walk", "walk.png", i % 5 != 0, user));
+        }
+        walkRepository.save(new Walk("Isar, south", "Munich", 60, "Quoted \"walk\"", "isar.png", true, user));
+
+        userToken = integrationTestUtils.generateToken(user);
+        adminToken = integrationTestUtils.generateToken(admin);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/walks/export - must stream every walk as NDJSON")
+    void exportWalks_shouldStreamNdjson_whenAdmin() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/api/admin/walks/export")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("application/x-ndjson")))
+                .andExpect(header().string("Content-Disposition", containsString("walks.ndjson")))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertEquals(26, lines.length);
+        assertTrue(lines[0].contains("\"username\":\"Maria\""));
+        assertTrue(lines[25].contains("\"title\":\"Isar, south\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/walks/export?format=csv - must stream a CSV with header and escaped fields")
+    void exportWalks_shouldStreamCsv_whenAdmin() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/api/admin/walks/export")
+                        .param("format", "csv")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("text/csv")))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertEquals(27, lines.length);
+        assertTrue(lines[0].startsWith("id,user_id,username,title"));
+        assertTrue(lines[26].contains("\"Isar, south\",Munich,60,\"Quoted \"\"walk\"\"\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/walks/export - must return 400 for unknown formats")
+    void exportWalks_shouldReturnBadRequest_whenUnknownFormat() throws Exception {
+
+        mockMvc.perform(get("/api/admin/walks/export")
+                        .param("format", "xml")
+                        .header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/walks/export - must return 403 for regular users")
+    void exportWalks_shouldReturnForbidden_whenUser() throws Exception {
+
+        mockMvc.perform(get("/api/admin/walks/export")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+    }
+}
@@ -4,9 +4,17 @@ import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
 import com.backend.dogwalks.user.repository.CustomUserRepository;
 import com.backend.dogwalks.utils.IntegrationTestUtils;
+import com.backend.dogwalks.walk.cache.WalkDetailCache;
+import com.backend.dogwalks.walk.dto.WalkBulkUpdate;
+import com.backend.dogwalks.walk.dto.WalkPatchRequest;
 import com.backend.dogwalks.walk.dto.WalkRequest;
 import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.feed.WalkFeedIndex;
 import com.backend.dogwalks.walk.repository.WalkRepository;
+import com.backend.dogwalks.walk.geo.WalkGeoIndex;
+import com.backend.dogwalks.walk.owner.WalkOwnerIndex;
+import com.backend.dogwalks.walk.search.WalkSearchIndex;
+import com.backend.dogwalks.walk.version.WalkVersionTracker;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -17,15 +25,21 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -62,9 +76,37 @@ public class WalkControllerIntegrationTest {
     @Autowired
     private WalkRepository walkRepository;
 
+    @Autowired
+    private WalkSearchIndex walkSearchIndex;
+
+    @Autowired
+    private WalkGeoIndex walkGeoIndex;
+
+    @Autowired
+    private WalkVersionTracker walkVersionTracker;
+
+    @Autowired
+    private WalkOwnerIndex walkOwnerIndex;
+
+    @Autowired
+    private WalkDetailCache walkDetailCache;
+
+    @Autowired
+    private WalkFeedIndex walkFeedIndex;
+
     @Autowired
     private IntegrationTestUtils integrationTestUtils;
 
+    //select de la página y count
+    private static final long MAX_STATEMENTS_PER_PAGE = 2;
+
+    //select del paseo con su dueño, compartido por la comprobación de acceso y el servicio
+    //el DELETE se envía al confirmar, que en estos tests no llega
+    private static final long MAX_STATEMENTS_PER_WALK_OPERATION = 1;
+
+    //el mismo select y el UPDATE, que se envía antes de responder para devolver la versión nueva
+    private static final long MAX_STATEMENTS_PER_WALK_UPDATE = 2;
+
     private CustomUser user;
     private CustomUser admin;
     private Walk walk;
@@ -74,6 +116,9 @@ public class WalkControllerIntegrationTest {
     @BeforeEach
     void setUp() {
         userRepository.deleteAll();
+        //las transacciones de los tests no se confirman y no llegan eventos que invaliden la caché
+        walkDetailCache.clear();
+        walkFeedIndex.clear();
 
         user = integrationTestUtils.createUser(
                 "Maria",
@@ -124,6 +169,268 @@ public class WalkControllerIntegrationTest {
                     .andExpect(jsonPath("$.content[0].title", is("Englischer Garten")));
         }
 
+        @Test
+        @DisplayName("GET api/walks/public - must serve the first pages from the feed index without SQL")
+        void getAllWalksSummary_shouldNotQueryDatabase_whenFeedIndexIsLoaded() throws Exception {
+
+            //la reconstrucción se une a la transacción del test y ve los paseos sin confirmar
+            walkFeedIndex.rebuild();
+            integrationTestUtils.startCountingStatements();
+
+            mockMvc.perform(get("/api/walks/public")
+                            .param("page", "0")
+                            .param("size", "10")
+                            .param("sortBy", "createdAt")
+                            .param("sortDirection", "DESC")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.totalElements", is(1)))
+                    .andExpect(jsonPath("$.content[0].title", is("Englischer Garten")));
+
+            integrationTestUtils.assertStatementCountAtMost(0);
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public?cursor - must page by cursor without total count")
+        void getWalksSummaryFeed_shouldPageByCursor() throws Exception {
+
+            for (int i = 0; i < 4; i++) {
+                walkRepository.save(new Walk("Walk " + i, "Munich", 30 + i, "Walk", "w.png", true, user));
+            }
+
+            String firstPage = mockMvc.perform(get("/api/walks/public")
+                            .param("cursor", "")
+                            .param("size", "3")
+                            .param("sortBy", "id")
+                            .param("sortDir", "ASC"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(3)))
+                    .andExpect(jsonPath("$.hasNext", is(true)))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist())
+                    .andExpect(jsonPath("$.content[0].title", is("Englischer Garten")))
+                    .andReturn().getResponse().getContentAsString();
+
+            String nextCursor = com.jayway.jsonpath.JsonPath.read(firstPage, "$.nextCursor");
+
+            mockMvc.perform(get("/api/walks/public")
+                            .param("cursor", nextCursor)
+                            .param("size", "3")
+                            .param("sortBy", "id")
+                            .param("sortDir", "ASC"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(2)))
+                    .andExpect(jsonPath("$.hasNext", is(false)))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                    .andExpect(jsonPath("$.content[1].title", is("Walk 3")));
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public?cursor - must return 400 when cursor was tampered")
+        void getWalksSummaryFeed_shouldReturnBadRequest_whenCursorTampered() throws Exception {
+
+            mockMvc.perform(get("/api/walks/public")
+                            .param("cursor", "aWQ6QVNDOk1RPT06MQ.forged"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public - must apply duration, location and creation filters")
+        void getAllWalksSummary_shouldApplyFilters() throws Exception {
+
+            walkRepository.save(new Walk("Park Güell", "Barcelona", 25, "Short walk", "pg.png", true, user));
+            walkRepository.save(new Walk("Montjuïc", "Barcelona", 90, "Long walk", "mj.png", true, user));
+            walkRepository.save(new Walk("Ciutadella", "Barcelona", 20, "Inactive walk", "ci.png", false, user));
+
+            mockMvc.perform(get("/api/walks/public")
+                            .param("location", "barcelona")
+                            .param("maxDuration", "30")
+                            .param("createdFrom", LocalDateTime.now().minusDays(1).toString())
+                            .param("sortDir", "DESC"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.totalElements", is(1)))
+                    .andExpect(jsonPath("$.content[0].title", is("Park Güell")));
+
+            mockMvc.perform(get("/api/walks/public")
+                            .param("locationPrefix", "Bar")
+                            .param("cursor", ""))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(2)));
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public - must return 400 for filters no index can serve")
+        void getAllWalksSummary_shouldReturnBadRequest_whenFilterIsNotIndexed() throws Exception {
+
+            mockMvc.perform(get("/api/walks/public")
+                            .param("minDuration", "30"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", is("Duration filters must be combined with a location, owner or creation date filter")));
+
+            mockMvc.perform(get("/api/walks/public")
+                            .param("location", "Munich")
+                            .param("sortBy", "title"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public - must answer 304 when the feed ETag still matches")
+        void getAllWalksSummary_shouldReturnNotModified_whenEtagMatches() throws Exception {
+
+            MvcResult first = mockMvc.perform(get("/api/walks/public"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andExpect(header().exists("Last-Modified"))
+                    .andExpect(header().string("Cache-Control", "no-cache"))
+                    .andReturn();
+
+            String etag = first.getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/api/walks/public")
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().string(""));
+
+            mockMvc.perform(get("/api/walks/public")
+                            .header("If-Modified-Since", first.getResponse().getHeader("Last-Modified")))
+                    .andExpect(status().isNotModified());
+
+            mockMvc.perform(get("/api/walks/public")
+                            .header("If-None-Match", "\"stale\""))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public/{id} - must answer 304 until the walk changes")
+        void getWalkDetailById_shouldReturnNotModified_untilWalkChanges() throws Exception {
+
+            //sin dueño conocido no hay ETag; la transacción del test no se confirma y el índice no recibe el alta
+            walkOwnerIndex.put(walk.getId(), user.getId());
+
+            String etag = mockMvc.perform(get("/api/walks/public/{id}", walk.getId()))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/api/walks/public/{id}", walk.getId())
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isNotModified());
+
+            //la transacción del test no se confirma, así que el cambio se notifica a mano
+            walkVersionTracker.walkChanged(walk.getId());
+
+            mockMvc.perform(get("/api/walks/public/{id}", walk.getId())
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.title", is("Englischer Garten")));
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public/{id} - must check the ETag and ignore If-Modified-Since when both are sent")
+        void getWalkDetailById_shouldPreferEtag_whenChangedWithinSameSecond() throws Exception {
+
+            walkOwnerIndex.put(walk.getId(), user.getId());
+
+            MvcResult first = mockMvc.perform(get("/api/walks/public/{id}", walk.getId()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            //mismo segundo: Last-Modified no cambia, el ETag sí
+            walkVersionTracker.walkChanged(walk.getId());
+
+            mockMvc.perform(get("/api/walks/public/{id}", walk.getId())
+                            .header("If-None-Match", first.getResponse().getHeader("ETag"))
+                            .header("If-Modified-Since", first.getResponse().getHeader("Last-Modified")))
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public/{id} - must not answer 304 once the owner is deleted")
+        void getWalkDetailById_shouldNotReturnNotModified_whenOwnerDeleted() throws Exception {
+
+            walkOwnerIndex.put(walk.getId(), user.getId());
+
+            String etag = mockMvc.perform(get("/api/walks/public/{id}", walk.getId()))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            //lo que harían los oyentes del UserChangedEvent tras el commit
+            walkRepository.deleteAllByUserId(user.getId());
+            walkOwnerIndex.removeOwner(user.getId());
+            walkDetailCache.evictByOwner(user.getId());
+
+            mockMvc.perform(get("/api/walks/public/{id}", walk.getId())
+                            .header("If-None-Match", etag))
+                    .andExpect(status().isNotFound());
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public/search - must return ranked active walks ignoring accents")
+        void searchWalks_shouldReturnRankedWalks() throws Exception {
+
+            walkRepository.save(new Walk("Olympiapark", "München", 60, "Walk next to the Englischer Garten", "op.png", true, user));
+            walkRepository.save(new Walk("Hidden garten", "Munich", 60, "Inactive walk", "hg.png", false, user));
+            //los datos del test no llegan a confirmarse, así que el índice se carga desde el repositorio
+            walkSearchIndex.rebuild();
+
+            mockMvc.perform(get("/api/walks/public/search")
+                            .param("q", "garten munchen")
+                            .param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.hasNext", is(true)))
+                    .andExpect(jsonPath("$.nextCursor", notNullValue()));
+
+            mockMvc.perform(get("/api/walks/public/search")
+                            .param("q", "garten"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(2)))
+                    .andExpect(jsonPath("$.content[0].title", is("Englischer Garten")))
+                    .andExpect(jsonPath("$.content[1].title", is("Olympiapark")))
+                    .andExpect(jsonPath("$.hasNext", is(false)));
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public/search - must return 400 when query is empty")
+        void searchWalks_shouldReturnBadRequest_whenQueryEmpty() throws Exception {
+
+            mockMvc.perform(get("/api/walks/public/search"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public/nearby - must return active walks within the radius sorted by distance")
+        void getNearbyWalks_shouldReturnWalksSortedByDistance() throws Exception {
+
+            saveWalkAt("Marienplatz", 48.1374, 11.5755, true);
+            saveWalkAt("Olympiapark", 48.1731, 11.5466, true);
+            saveWalkAt("Hidden park", 48.1380, 11.5760, false);
+            saveWalkAt("Augsburg", 48.3705, 10.8978, true);
+            walkGeoIndex.rebuild();
+
+            mockMvc.perform(get("/api/walks/public/nearby")
+                            .param("lat", "48.1372")
+                            .param("lon", "11.5756")
+                            .param("radiusKm", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].title", is("Marienplatz")))
+                    .andExpect(jsonPath("$[1].title", is("Olympiapark")))
+                    .andExpect(jsonPath("$[1].distanceKm", closeTo(4.4, 0.2)));
+        }
+
+        @Test
+        @DisplayName("GET api/walks/public/nearby - must return 400 when radius is out of range")
+        void getNearbyWalks_shouldReturnBadRequest_whenRadiusTooLarge() throws Exception {
+
+            mockMvc.perform(get("/api/walks/public/nearby")
+                            .param("lat", "48.1372")
+                            .param("lon", "11.5756")
+                            .param("radiusKm", "500"))
+                    .andExpect(status().isBadRequest());
+        }
+
         @Test
         @DisplayName("GET api/walks/public/{id} should return walk when valid id and is active")
         void getWalkDetailById_shouldReturnWalk_whenExist() throws Exception {
@@ -181,6 +488,46 @@ public class WalkControllerIntegrationTest {
                     .andExpect(jsonPath("$.content[*].username", containsInAnyOrder("Maria")));
         }
 
+        @Test
+        @DisplayName("GET /api/walks - admin page must load walks and owners without N+1 queries")
+        void getAllWalks_shouldNotQueryOwnersPerWalk_whenAdminAuthenticated() throws Exception {
+
+            createWalksForOwners(10, 3);
+            integrationTestUtils.startCountingStatements();
+
+            mockMvc.perform(get("/api/walks")
+                            .header("Authorization", "Bearer " + adminToken)
+                            .param("page", "0")
+                            .param("size", "100")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(31)))
+                    .andExpect(jsonPath("$.content[*].username", hasItems("Maria", "Owner0", "Owner9")));
+
+            integrationTestUtils.assertStatementCountAtMost(MAX_STATEMENTS_PER_PAGE);
+        }
+
+        @Test
+        @DisplayName("GET /api/walks - user page must load walks and owner without extra queries")
+        void getAllWalks_shouldNotQueryOwnerPerWalk_whenUserAuthenticated() throws Exception {
+
+            for (int i = 0; i < 5; i++) {
+                walkRepository.save(new Walk("Walk " + i, "Munich", 30, "Short walk", "walk.png", true, user));
+            }
+            integrationTestUtils.startCountingStatements();
+
+            mockMvc.perform(get("/api/walks")
+                            .header("Authorization", "Bearer " + userToken)
+                            .param("page", "0")
+                            .param("size", "3")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(3)))
+                    .andExpect(jsonPath("$.totalElements", is(6)));
+
+            integrationTestUtils.assertStatementCountAtMost(MAX_STATEMENTS_PER_PAGE);
+        }
+
         @Test
         @DisplayName("GET /api/walks - must return 401 unauthorized when no token provided")
         void getAllWalks_shouldReturnUnauthorized_whenNoToken() throws Exception {
@@ -216,6 +563,21 @@ public class WalkControllerIntegrationTest {
                     .andExpect(jsonPath("$.title", is("Englischer Garten")));
         }
 
+        @Test
+        @DisplayName("GET /api/walks/{id} - access check and service must share a single walk query")
+        void getWalkById_shouldLoadWalkOnce_whenOwner() throws Exception {
+
+            integrationTestUtils.startCountingStatements();
+
+            mockMvc.perform(get("/api/walks/{id}", walk.getId())
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.username", is("Maria")));
+
+            integrationTestUtils.assertStatementCountAtMost(MAX_STATEMENTS_PER_WALK_OPERATION);
+        }
+
         @Test
         @DisplayName("GET /api/walks/{id} - must return 404 not found when invalid id")
         void getWalkById_shouldReturnNotFound_whenInvalidId() throws Exception{
@@ -241,7 +603,9 @@ public class WalkControllerIntegrationTest {
                     60,
                     "ok",
                     "mad.png",
-                    true
+                    true,
+                    40.4168,
+                    -3.7038
             );
 
             mockMvc.perform(post("/api/walks", walk.getId())
@@ -253,6 +617,7 @@ public class WalkControllerIntegrationTest {
                     .andExpect(jsonPath("$.location", is("Madrid")))
                     .andExpect(jsonPath("$.duration", is(60)))
                     .andExpect(jsonPath("$.description", is("ok")))
+                    .andExpect(jsonPath("$.latitude", is(40.4168)))
                     .andExpect(jsonPath("$.username", is("Maria")))
                     .andExpect(jsonPath("$.isActive", is(true)));
 
@@ -274,7 +639,9 @@ public class WalkControllerIntegrationTest {
                     60,
                     "ok",
                     "mad.png",
-                    true
+                    true,
+                    null,
+                    null
             );
 
             mockMvc.perform(put("/api/walks/{id}", walk.getId())
@@ -285,6 +652,120 @@ public class WalkControllerIntegrationTest {
                     .andExpect(jsonPath("$.title", is("new2 walk")))
                     .andExpect(jsonPath("$.isActive", is(true)));
         }
+
+        @Test
+        @DisplayName("PUT /api/walks/{id} - access check and service must share a single walk query")
+        void updateWalkById_shouldLoadWalkOnce_whenUserIsOwner() throws Exception {
+
+            WalkRequest request = new WalkRequest("new2 walk", "Madrid", 60, "ok", "mad.png", true, null, null);
+            integrationTestUtils.startCountingStatements();
+
+            mockMvc.perform(put("/api/walks/{id}", walk.getId())
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(integrationTestUtils.toJson(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.username", is("Maria")));
+
+            integrationTestUtils.assertStatementCountAtMost(MAX_STATEMENTS_PER_WALK_UPDATE);
+        }
+    }
+
+    @Nested
+    @DisplayName("Patch Walks Tests")
+    class PatchWalkTests {
+
+        @Test
+        @DisplayName("PATCH /api/walks/{id} - must change only the supplied fields and return the new version as ETag")
+        void patchWalk_shouldChangeOnlySuppliedFields() throws Exception {
+
+            WalkPatchRequest request = new WalkPatchRequest(null, null, 45, null, null, null, null, null);
+
+            mockMvc.perform(patch("/api/walks/{id}", walk.getId())
+                            .header("Authorization", "Bearer " + userToken)
+                            .header("If-Match", "\"0\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(integrationTestUtils.toJson(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"1\""))
+                    .andExpect(jsonPath("$.duration", is(45)))
+                    .andExpect(jsonPath("$.title", is("Englischer Garten")))
+                    .andExpect(jsonPath("$.description", is("Marvellous walk")))
+                    .andExpect(jsonPath("$.version", is(1)));
+        }
+
+        @Test
+        @DisplayName("PATCH /api/walks/{id} - must reject a blank title or location like PUT does")
+        void patchWalk_shouldReturnBadRequest_whenTitleIsBlank() throws Exception {
+
+            mockMvc.perform(patch("/api/walks/{id}", walk.getId())
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(integrationTestUtils.toJson(new WalkPatchRequest("   ", null, null, null, null, null, null, null))))
+                    .andExpect(status().isBadRequest());
+
+            mockMvc.perform(patch("/api/walks/{id}", walk.getId())
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(integrationTestUtils.toJson(new WalkPatchRequest(null, " \n ", null, null, null, null, null, null))))
+                    .andExpect(status().isBadRequest());
+
+            assertEquals("Englischer Garten", walkRepository.findById(walk.getId()).orElseThrow().getTitle());
+        }
+
+        @Test
+        @DisplayName("PATCH /api/walks/{id} - must return 412 with the current ETag when If-Match is stale")
+        void patchWalk_shouldReturnPreconditionFailed_whenVersionIsStale() throws Exception {
+
+            String etag = mockMvc.perform(get("/api/walks/{id}", walk.getId())
+                            .header("Authorization", "Bearer " + userToken))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(patch("/api/walks/{id}", walk.getId())
+                            .header("Authorization", "Bearer " + userToken)
+                            .header("If-Match", etag)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(integrationTestUtils.toJson(new WalkPatchRequest("Isar", null, null, null, null, null, null, null))))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(patch("/api/walks/{id}", walk.getId())
+                            .header("Authorization", "Bearer " + adminToken)
+                            .header("If-Match", etag)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(integrationTestUtils.toJson(new WalkPatchRequest("Olympiapark", null, null, null, null, null, null, null))))
+                    .andExpect(status().isPreconditionFailed())
+                    .andExpect(header().string("ETag", "\"1\""));
+
+            assertEquals("Isar", walkRepository.findById(walk.getId()).orElseThrow().getTitle());
+        }
+
+        @Test
+        @DisplayName("PATCH /api/walks/{id} - must load the walk once and send a single UPDATE")
+        void patchWalk_shouldLoadOnceAndUpdateOnce() throws Exception {
+
+            integrationTestUtils.startCountingStatements();
+
+            mockMvc.perform(patch("/api/walks/{id}", walk.getId())
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(integrationTestUtils.toJson(new WalkPatchRequest(null, null, null, null, null, false, null, null))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.isActive", is(false)));
+
+            integrationTestUtils.assertStatementCountAtMost(MAX_STATEMENTS_PER_WALK_UPDATE);
+        }
+
+        @Test
+        @DisplayName("PATCH /api/walks/{id} - must return 400 bad request when a supplied field is invalid")
+        void patchWalk_shouldReturnBadRequest_whenFieldInvalid() throws Exception {
+
+            mockMvc.perform(patch("/api/walks/{id}", walk.getId())
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(integrationTestUtils.toJson(new WalkPatchRequest("a", null, null, null, null, null, null, null))))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     @Nested
@@ -302,5 +783,128 @@ public class WalkControllerIntegrationTest {
 
             assertFalse(walkRepository.findById(walk.getId()).isPresent());
         }
+
+        @Test
+        @DisplayName("Delete /api/walks/{id} - access check and service must share a single walk query")
+        void deleteWalk_shouldLoadWalkOnce_whenUserOwns() throws Exception {
+
+            integrationTestUtils.startCountingStatements();
+
+            mockMvc.perform(delete("/api/walks/{id}", walk.getId())
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNoContent());
+
+            integrationTestUtils.assertStatementCountAtMost(MAX_STATEMENTS_PER_WALK_OPERATION);
+        }
+    }
+
+    @Nested
+    @DisplayName("Bulk Walks Tests")
+    class BulkWalkTests {
+
+        @Test
+        @DisplayName("POST /api/walks/bulk - must create the valid walks and report the invalid ones")
+        void addWalks_shouldCreateValidWalks_andReportInvalidOnes() throws Exception {
+
+            List<WalkRequest> requests = List.of(
+                    new WalkRequest("Olympiapark", "Munich", 60, "ok", "op.png", true, 48.1731, 11.5466),
+                    new WalkRequest("", "Munich", 60, "ok", "op.png", true, null, null),
+                    new WalkRequest("Isar", "Munich", 45, "ok", "isar.png", false, null, null)
+            );
+
+            mockMvc.perform(post("/api/walks/bulk")
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(integrationTestUtils.toJson(requests)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.succeeded", is(2)))
+                    .andExpect(jsonPath("$.failed", is(1)))
+                    .andExpect(jsonPath("$.results[0].status", is("CREATED")))
+                    .andExpect(jsonPath("$.results[0].id", notNullValue()))
+                    .andExpect(jsonPath("$.results[1].status", is("INVALID")))
+                    .andExpect(jsonPath("$.results[2].status", is("CREATED")));
+
+            assertEquals(3, walkRepository.count());
+        }
+
+        @Test
+        @DisplayName("POST /api/walks/bulk - must return 400 when the request is empty")
+        void addWalks_shouldReturnBadRequest_whenEmpty() throws Exception {
+
+            mockMvc.perform(post("/api/walks/bulk")
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[]"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("PATCH /api/walks/bulk - must update owned walks and report foreign and missing ones")
+        void updateWalks_shouldUpdateOwnedWalks() throws Exception {
+
+            Walk foreign = walkRepository.save(new Walk("Admin walk", "Munich", 30, "Short walk", "walk.png", true, admin));
+            WalkRequest request = new WalkRequest("Bulk title", "Madrid", 60, "ok", "mad.png", true, null, null);
+
+            List<WalkBulkUpdate> updates = List.of(
+                    new WalkBulkUpdate(walk.getId(), request),
+                    new WalkBulkUpdate(foreign.getId(), request),
+                    new WalkBulkUpdate(foreign.getId() + 1000, request)
+            );
+
+            mockMvc.perform(patch("/api/walks/bulk")
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(integrationTestUtils.toJson(updates)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.succeeded", is(1)))
+                    .andExpect(jsonPath("$.results[0].status", is("UPDATED")))
+                    .andExpect(jsonPath("$.results[1].status", is("FORBIDDEN")))
+                    .andExpect(jsonPath("$.results[2].status", is("NOT_FOUND")));
+
+            assertEquals("Bulk title", walkRepository.findById(walk.getId()).orElseThrow().getTitle());
+            assertEquals("Admin walk", walkRepository.findById(foreign.getId()).orElseThrow().getTitle());
+        }
+
+        @Test
+        @DisplayName("DELETE /api/walks/bulk - must delete owned walks with one ownership query")
+        void deleteWalks_shouldDeleteOwnedWalks() throws Exception {
+
+            Walk second = walkRepository.save(new Walk("Isar", "Munich", 30, "Short walk", "walk.png", true, user));
+            Walk foreign = walkRepository.save(new Walk("Admin walk", "Munich", 30, "Short walk", "walk.png", true, admin));
+            integrationTestUtils.startCountingStatements();
+
+            mockMvc.perform(delete("/api/walks/bulk")
+                            .header("Authorization", "Bearer " + userToken)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(integrationTestUtils.toJson(List.of(walk.getId(), second.getId(), foreign.getId()))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.succeeded", is(2)))
+                    .andExpect(jsonPath("$.results[2].status", is("FORBIDDEN")));
+
+            //select de todos los ids y un único DELETE ... IN
+            integrationTestUtils.assertStatementCountAtMost(2);
+
+            assertEquals(1, walkRepository.count());
+        }
+    }
+
+    private void createWalksForOwners(int owners, int walksPerOwner) {
+
+        for (int i = 0; i < owners; i++) {
+            CustomUser owner = integrationTestUtils.createUser("Owner" + i, "owner" + i + "@test.com", "Testpassword547.", Role.USER);
+
+            for (int j = 0; j < walksPerOwner; j++) {
+                walkRepository.save(new Walk("Walk " + i + "-" + j, "Munich", 30, "Short walk", "walk.png", true, owner));
+            }
+        }
+    }
+
+    private void saveWalkAt(String title, double latitude, double longitude, boolean active) {
+
+        Walk located = new Walk(title, "Munich", 60, "Walk", "walk.png", active, user);
+        located.setLatitude(latitude);
+        located.setLongitude(longitude);
+        walkRepository.save(located);
     }
 }
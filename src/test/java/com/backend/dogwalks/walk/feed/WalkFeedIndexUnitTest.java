@@ -0,0 +1,200 @@
+package com.backend.dogwalks.walk.feed;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import com.backend.dogwalks.walk.search.WalkSearchDocument;
+import com.backend.dogwalks.utils.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalkFeedIndex Unit Tests")
+public class WalkFeedIndexUnitTest {
+
+    @Mock
+    private WalkRepository walkRepository;
+
+    private final MutableClock clock = new MutableClock(1_000_000L);
+
+    private WalkFeedIndex newIndex(int windowSize) {
+        return new WalkFeedIndex(walkRepository, windowSize, clock, new SimpleMeterRegistry());
+    }
+
+    private static WalkSummaryResponse summary(long id, Integer duration, int day) {
+        return new WalkSummaryResponse(id, "Walk " + id, "Munich", duration, "w.png", LocalDateTime.of(2025, 5, day, 10, 0));
+    }
+
+    private static WalkSearchDocument document(long id, Integer duration, int day) {
+        return new WalkSearchDocument(id, 7L, "Walk " + id, "Munich", duration, "Nice", "w.png", LocalDateTime.of(2025, 5, day, 10, 0));
+    }
+
+    //simula la base de datos: ordena los paseos activos igual que la consulta keyset y corta en el límite
+    private void givenActiveWalks(List<WalkSummaryResponse> walks) {
+        when(walkRepository.findActiveAfter(anyString(), any(Sort.Direction.class), isNull(), isNull(), anyInt())).thenAnswer(invocation -> {
+            List<WalkSummaryResponse> sorted = new ArrayList<>(walks);
+            sorted.sort(WalkFeedIndex.order(invocation.getArgument(0), invocation.getArgument(1)));
+            return sorted.stream().limit(invocation.<Integer>getArgument(4)).toList();
+        });
+        when(walkRepository.countByIsActiveTrue()).thenReturn((long) walks.size());
+    }
+
+    private static List<Long> ids(Optional<Page<WalkSummaryResponse>> page) {
+        return page.orElseThrow().getContent().stream().map(WalkSummaryResponse::id).toList();
+    }
+
+    @Test
+    @DisplayName("page should be empty until the index has been rebuilt")
+    void pageShouldBeEmpty_beforeRebuild() {
+        assertTrue(newIndex(10).page("createdAt", Sort.Direction.DESC, 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("page should serve every sort from memory after a rebuild")
+    void pageShouldServeSortedWindows_afterRebuild() {
+
+        givenActiveWalks(List.of(summary(1L, 60, 3), summary(2L, null, 1), summary(3L, 30, 2), summary(4L, 30, 4)));
+        WalkFeedIndex index = newIndex(10);
+        index.rebuild();
+
+        assertEquals(List.of(4L, 1L, 3L, 2L), ids(index.page("createdAt", Sort.Direction.DESC, 0, 10)));
+        assertEquals(List.of(2L, 3L, 4L, 1L), ids(index.page("duration", Sort.Direction.ASC, 0, 10)));
+        assertEquals(List.of(1L, 4L, 3L, 2L), ids(index.page("duration", Sort.Direction.DESC, 0, 10)));
+        assertEquals(List.of(3L, 4L), ids(index.page("isActive", Sort.Direction.ASC, 1, 2)));
+        assertEquals(4, index.page("id", Sort.Direction.ASC, 1, 2).orElseThrow().getTotalElements());
+        assertEquals(24, index.entries());
+    }
+
+    @Test
+    @DisplayName("page should fall back for title and location sorts and for pages past a full window")
+    void pageShouldBeEmpty_whenNotCovered() {
+
+        givenActiveWalks(List.of(summary(1L, 60, 1), summary(2L, 60, 2), summary(3L, 60, 3)));
+        WalkFeedIndex index = newIndex(2);
+        index.rebuild();
+
+        assertTrue(index.page("title", Sort.Direction.ASC, 0, 2).isEmpty());
+        assertTrue(index.page("location", Sort.Direction.ASC, 0, 2).isEmpty());
+        assertTrue(index.page("id", Sort.Direction.ASC, 1, 2).isEmpty());
+        assertEquals(List.of(1L, 2L), ids(index.page("id", Sort.Direction.ASC, 0, 2)));
+        assertEquals(3, index.page("id", Sort.Direction.ASC, 0, 2).orElseThrow().getTotalElements());
+    }
+
+    @Test
+    @DisplayName("onWalkChanged should insert, move and remove walks and keep the active count")
+    void onWalkChangedShouldUpdateWindows() {
+
+        givenActiveWalks(List.of(summary(1L, 60, 1), summary(2L, 30, 2)));
+        WalkFeedIndex index = newIndex(10);
+        index.rebuild();
+
+        index.onWalkChanged(new WalkChangedEvent(3L, 7L, false, document(3L, 45, 5), null));
+        assertEquals(List.of(3L, 2L, 1L), ids(index.page("createdAt", Sort.Direction.DESC, 0, 10)));
+        assertEquals(3, index.page("createdAt", Sort.Direction.DESC, 0, 10).orElseThrow().getTotalElements());
+
+        index.onWalkChanged(new WalkChangedEvent(1L, 7L, true, document(1L, 10, 1), null));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.page("duration", Sort.Direction.ASC, 0, 10)));
+        assertEquals(3, index.page("duration", Sort.Direction.ASC, 0, 10).orElseThrow().getTotalElements());
+
+        index.onWalkChanged(new WalkChangedEvent(2L, 7L, true, null, null));
+        assertEquals(List.of(3L, 1L), ids(index.page("createdAt", Sort.Direction.DESC, 0, 10)));
+        assertEquals(2, index.page("createdAt", Sort.Direction.DESC, 0, 10).orElseThrow().getTotalElements());
+    }
+
+    @Test
+    @DisplayName("onWalkChanged should not add walks past the end of a full window and should stop covering pages it lost")
+    void onWalkChangedShouldKeepWindowsExact_whenFull() {
+
+        givenActiveWalks(List.of(summary(1L, 60, 1), summary(2L, 60, 2), summary(3L, 60, 3)));
+        WalkFeedIndex index = newIndex(2);
+        index.rebuild();
+
+        //ordena después del último de la ventana ascendente: podría haber paseos antes que él fuera de memoria
+        index.onWalkChanged(new WalkChangedEvent(4L, 7L, false, document(4L, 60, 4), null));
+        assertEquals(List.of(1L, 2L), ids(index.page("createdAt", Sort.Direction.ASC, 0, 2)));
+        assertEquals(List.of(4L, 3L), ids(index.page("createdAt", Sort.Direction.DESC, 0, 2)));
+
+        index.onWalkChanged(new WalkChangedEvent(1L, 7L, true, null, null));
+        assertTrue(index.page("createdAt", Sort.Direction.ASC, 0, 2).isEmpty());
+        assertEquals(List.of(2L), ids(index.page("createdAt", Sort.Direction.ASC, 0, 1)));
+    }
+
+    @Test
+    @DisplayName("onWalkChanged should keep working when removals empty a full window")
+    void onWalkChangedShouldNotFail_whenFullWindowEmptied() {
+
+        givenActiveWalks(List.of(summary(1L, 60, 1), summary(2L, 60, 2), summary(3L, 60, 3)));
+        WalkFeedIndex index = newIndex(2);
+        index.rebuild();
+
+        index.onWalkChanged(new WalkChangedEvent(1L, 7L, true, null, null));
+        index.onWalkChanged(new WalkChangedEvent(2L, 7L, true, null, null));
+        index.onWalkChanged(new WalkChangedEvent(3L, 7L, true, null, null));
+
+        index.onWalkChanged(new WalkChangedEvent(4L, 7L, false, document(4L, 60, 4), null));
+
+        //sin último elemento no se sabe si quedan paseos fuera de memoria antes que él: se lee de la base de datos
+        assertTrue(index.page("createdAt", Sort.Direction.ASC, 0, 1).isEmpty());
+        assertTrue(index.page("createdAt", Sort.Direction.DESC, 0, 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("rebuild should refill the windows and reset the staleness")
+    void rebuildShouldRefillWindows() {
+
+        givenActiveWalks(List.of(summary(1L, 60, 1), summary(2L, 60, 2), summary(3L, 60, 3)));
+        WalkFeedIndex index = newIndex(2);
+        index.rebuild();
+        index.onWalkChanged(new WalkChangedEvent(1L, 7L, true, null, null));
+
+        clock.advance(5000);
+        assertEquals(5000, index.stalenessMillis());
+
+        index.rebuild();
+
+        assertEquals(0, index.stalenessMillis());
+        assertEquals(List.of(1L, 2L), ids(index.page("id", Sort.Direction.ASC, 0, 2)));
+    }
+
+    @Test
+    @DisplayName("onUserChanged should rebuild only when the user's walks stop being published")
+    void onUserChangedShouldRebuild_onlyWhenWalksHiddenOrDeleted() {
+
+        givenActiveWalks(List.of(summary(1L, 60, 1), summary(2L, 60, 2)));
+        WalkFeedIndex index = newIndex(10);
+        index.rebuild();
+
+        index.onUserChanged(new UserChangedEvent(7L, "maria@test.com", true));
+        index.onUserChanged(new UserChangedEvent(7L, "maria@test.com", false, WalkImpact.RENAMED));
+        verify(walkRepository, times(1)).countByIsActiveTrue();
+
+        index.onUserChanged(new UserChangedEvent(7L, "maria@test.com", true, WalkImpact.HIDDEN));
+        index.onUserChanged(new UserChangedEvent(7L, "maria@test.com", true, WalkImpact.DELETED));
+        verify(walkRepository, times(3)).countByIsActiveTrue();
+    }
+
+    @Test
+    @DisplayName("constructor should reject a non positive window size")
+    void constructorShouldRejectNonPositiveWindow() {
+        assertThrows(IllegalArgumentException.class, () -> newIndex(0));
+    }
+}
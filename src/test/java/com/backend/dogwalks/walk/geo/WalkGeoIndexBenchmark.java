@@ -0,0 +1,91 @@
+package com.backend.dogwalks.walk.geo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//20 paseos más cercanos entre 1M: rejilla frente a recorrer todos los puntos calculando haversine
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class WalkGeoIndexBenchmark {
+
+    private static final int WALKS = 1_000_000;
+    private static final int LIMIT = 20;
+    private static final double[][] CITIES = {{48.137, 11.575}, {40.416, -3.703}, {52.520, 13.405}, {41.390, 2.154}, {48.856, 2.352}};
+
+    @Param({"1", "5", "25"})
+    private double radiusKm;
+
+    @Param({"0.02", "0.05", "0.1"})
+    private double cellSizeDegrees;
+
+    private WalkGeoIndex index;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    //70% repartido por Europa y 30% concentrado alrededor de unas pocas ciudades
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new WalkGeoIndex(null, cellSizeDegrees, new SimpleMeterRegistry());
+        latitudes = new double[WALKS];
+        longitudes = new double[WALKS];
+
+        Random random = new Random(42);
+
+        for (int i = 0; i < WALKS; i++) {
+            if (i % 10 < 7) {
+                latitudes[i] = 36 + random.nextDouble() * 24;
+                longitudes[i] = -10 + random.nextDouble() * 40;
+            } else {
+                double[] city = CITIES[(i / 10) % CITIES.length];
+                latitudes[i] = city[0] + random.nextGaussian() * 0.1;
+                longitudes[i] = city[1] + random.nextGaussian() * 0.15;
+            }
+            index.put(new WalkGeoPoint((long) i + 1, 7L, latitudes[i], longitudes[i]));
+        }
+    }
+
+    @Benchmark
+    public List<GeoHit> gridIndex() {
+        return index.nearby(48.1372, 11.5756, radiusKm, LIMIT);
+    }
+
+    @Benchmark
+    public PriorityQueue<GeoHit> linearScan() {
+        PriorityQueue<GeoHit> closest = new PriorityQueue<>(LIMIT + 1, (a, b) -> Double.compare(b.distanceKm(), a.distanceKm()));
+
+        for (int i = 0; i < WALKS; i++) {
+            double distance = WalkGeoIndex.distanceKm(48.1372, 11.5756, latitudes[i], longitudes[i]);
+
+            if (distance <= radiusKm) {
+                closest.offer(new GeoHit((long) i + 1, latitudes[i], longitudes[i], distance));
+
+                if (closest.size() > LIMIT) {
+                    closest.poll();
+                }
+            }
+        }
+
+        return closest;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(WalkGeoIndexBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,153 @@
+package com.backend.dogwalks.walk.geo;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalkGeoIndex Unit Tests")
+public class WalkGeoIndexUnitTest {
+
+    @Mock
+    private WalkRepository walkRepository;
+
+    private WalkGeoIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new WalkGeoIndex(walkRepository, 0.1, new SimpleMeterRegistry());
+    }
+
+    private static List<Long> ids(List<GeoHit> hits) {
+        return hits.stream().map(GeoHit::walkId).toList();
+    }
+
+    @Test
+    @DisplayName("distanceKm should match the known distance between two cities")
+    void distanceShouldUseHaversine() {
+
+        //Múnich - Berlín, unos 504 km
+        assertEquals(504, WalkGeoIndex.distanceKm(48.1372, 11.5756, 52.5200, 13.4050), 2);
+        assertEquals(0, WalkGeoIndex.distanceKm(48.1372, 11.5756, 48.1372, 11.5756), 1e-9);
+    }
+
+    @Test
+    @DisplayName("nearby should return points inside the radius sorted by distance, across cell borders")
+    void nearbyShouldSortByDistance() {
+
+        index.put(new WalkGeoPoint(1L, 7L, 48.1731, 11.5466));
+        index.put(new WalkGeoPoint(2L, 7L, 48.1374, 11.5755));
+        index.put(new WalkGeoPoint(3L, 7L, 48.2000, 11.7000));
+        index.put(new WalkGeoPoint(4L, 7L, 48.3705, 10.8978));
+
+        List<GeoHit> hits = index.nearby(48.1372, 11.5756, 12, 10);
+
+        assertEquals(List.of(2L, 1L, 3L), ids(hits));
+        assertTrue(hits.get(0).distanceKm() < hits.get(1).distanceKm());
+        assertEquals(List.of(2L), ids(index.nearby(48.1372, 11.5756, 12, 1)));
+    }
+
+    @Test
+    @DisplayName("nearby should find points on the other side of the antimeridian")
+    void nearbyShouldWrapLongitude() {
+
+        index.put(new WalkGeoPoint(1L, 7L, -17.0, 179.98));
+        index.put(new WalkGeoPoint(2L, 7L, -17.0, -179.98));
+
+        assertEquals(List.of(1L, 2L), ids(index.nearby(-17.0, 179.99, 10, 10)));
+    }
+
+    @Test
+    @DisplayName("onWalkChanged should move updated points and drop removed ones")
+    void onWalkChangedShouldUpdateIndex() {
+
+        index.onWalkChanged(new WalkChangedEvent(1L, 7L, false, null, new WalkGeoPoint(1L, 7L, 48.1374, 11.5755)));
+        index.onWalkChanged(new WalkChangedEvent(1L, 7L, false, null, new WalkGeoPoint(1L, 7L, 52.5200, 13.4050)));
+
+        assertTrue(index.nearby(48.1372, 11.5756, 10, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.nearby(52.52, 13.40, 10, 10)));
+
+        index.onWalkChanged(new WalkChangedEvent(1L, 7L, false, null, null));
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("rebuild should replace the index with the points stored in the repository")
+    void rebuildShouldLoadFromRepository() {
+
+        index.put(new WalkGeoPoint(99L, 7L, 48.1374, 11.5755));
+        when(walkRepository.findGeoPointsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(new WalkGeoPoint(1L, 7L, 40.4168, -3.7038)));
+
+        index.rebuild();
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(1L), ids(index.nearby(40.4168, -3.7038, 1, 10)));
+    }
+
+    @Test
+    @DisplayName("rebuild should keep changes applied while it was loading")
+    void rebuildShouldReplayChanges_whenWalkChangedDuringLoad() {
+
+        when(walkRepository.findGeoPointsAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            index.put(new WalkGeoPoint(2L, 7L, 40.4170, -3.7040));
+            index.remove(1L);
+            return List.of(new WalkGeoPoint(1L, 7L, 40.4168, -3.7038));
+        });
+
+        index.rebuild();
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(2L), ids(index.nearby(40.4168, -3.7038, 1, 10)));
+    }
+
+    @Test
+    @DisplayName("onUserChanged should drop only the walks of a hidden or deleted user")
+    void onUserChangedShouldRemoveUserWalks_whenHiddenOrDeleted() {
+
+        index.put(new WalkGeoPoint(1L, 7L, 48.1374, 11.5755));
+        index.put(new WalkGeoPoint(2L, 7L, 48.1380, 11.5760));
+        index.put(new WalkGeoPoint(3L, 8L, 48.1390, 11.5770));
+        index.put(new WalkGeoPoint(4L, 9L, 48.1400, 11.5780));
+
+        index.onUserChanged(new UserChangedEvent(7L, "maria@test.com", false, WalkImpact.RENAMED));
+        index.onUserChanged(new UserChangedEvent(7L, "maria@test.com", true));
+        assertEquals(4, index.size());
+
+        index.onUserChanged(new UserChangedEvent(7L, "maria@test.com", true, WalkImpact.HIDDEN));
+        assertEquals(List.of(3L, 4L), ids(index.nearby(48.1374, 11.5755, 5, 2)));
+
+        index.onUserChanged(new UserChangedEvent(8L, "pedro@test.com", true, WalkImpact.DELETED));
+        assertEquals(List.of(4L), ids(index.nearby(48.1374, 11.5755, 5, 2)));
+    }
+
+    @Test
+    @DisplayName("rebuild should keep a user removal applied while it was loading")
+    void rebuildShouldReplayUserRemoval_whenUserHiddenDuringLoad() {
+
+        when(walkRepository.findGeoPointsAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            index.onUserChanged(new UserChangedEvent(7L, "maria@test.com", true, WalkImpact.HIDDEN));
+            return List.of(new WalkGeoPoint(1L, 7L, 40.4168, -3.7038), new WalkGeoPoint(2L, 8L, 40.4170, -3.7040));
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(2L), ids(index.nearby(40.4168, -3.7038, 1, 10)));
+    }
+}
@@ -0,0 +1,94 @@
+package com.backend.dogwalks.walk.owner;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//10M paseos: índice de long[] frente a HashMap<Long, Long>; 1024 consultas aleatorias por invocación, 10% fallos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx3g"})
+public class WalkOwnerIndexBenchmark {
+
+    private static final int WALKS = 10_000_000;
+    private static final int LOOKUPS = 1024;
+
+    private WalkOwnerIndex index;
+    private Map<Long, Long> boxed;
+    private long[] lookups;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new WalkOwnerIndex(null, new SimpleMeterRegistry());
+        boxed = new HashMap<>();
+
+        Random random = new Random(42);
+
+        for (long id = 1; id <= WALKS; id++) {
+            long ownerId = 1 + random.nextInt(WALKS / 20);
+            index.put(id, ownerId);
+            boxed.put(id, ownerId);
+        }
+
+        lookups = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookups[i] = i % 10 == 0 ? WALKS + 1 + random.nextInt(WALKS) : 1 + random.nextInt(WALKS);
+        }
+    }
+
+    //huella del índice como columna más del informe de JMH
+    //JMH pone los contadores a 0 en cada iteración y suma los de todas: se rellenan solo al final de la primera de medida
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long indexMemoryBytes;
+        public long indexedWalks;
+        private boolean reported;
+
+        @TearDown(Level.Iteration)
+        public void read(WalkOwnerIndexBenchmark benchmark, IterationParams iteration) {
+
+            if (iteration.getType() == IterationType.MEASUREMENT && !reported) {
+                indexMemoryBytes = benchmark.index.memoryBytes();
+                indexedWalks = benchmark.index.size();
+                reported = true;
+            }
+        }
+    }
+
+    @Benchmark
+    public void primitiveIndex(Blackhole blackhole, Footprint footprint) {
+        for (long walkId : lookups) {
+            blackhole.consume(index.ownerOf(walkId));
+        }
+    }
+
+    @Benchmark
+    public void boxedHashMap(Blackhole blackhole) {
+        for (long walkId : lookups) {
+            blackhole.consume(boxed.get(walkId));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(WalkOwnerIndexBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
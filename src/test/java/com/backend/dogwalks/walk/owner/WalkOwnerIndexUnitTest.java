@@ -0,0 +1,188 @@
+package com.backend.dogwalks.walk.owner;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalkOwnerIndex Unit Tests")
+public class WalkOwnerIndexUnitTest {
+
+    @Mock
+    private WalkRepository walkRepository;
+
+    private WalkOwnerIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new WalkOwnerIndex(walkRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("ownerOf should return the owner of indexed walks and NO_OWNER otherwise")
+    void ownerOfShouldReturnOwner() {
+
+        index.put(1L, 7L);
+        index.put(2L, 8L);
+
+        assertEquals(7L, index.ownerOf(1L));
+        assertEquals(8L, index.ownerOf(2L));
+        assertEquals(WalkOwnerIndex.NO_OWNER, index.ownerOf(3L));
+        assertEquals(WalkOwnerIndex.NO_OWNER, index.ownerOf(0L));
+        assertEquals(WalkOwnerIndex.NO_OWNER, index.ownerOf(-1L));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("remove should drop the walk and let its slot be reused")
+    void removeShouldDropWalk() {
+
+        index.put(1L, 7L);
+        index.remove(1L);
+
+        assertEquals(WalkOwnerIndex.NO_OWNER, index.ownerOf(1L));
+        assertEquals(0, index.size());
+
+        index.put(1L, 7L);
+        assertEquals(7L, index.ownerOf(1L));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("put should grow the table and keep every entry")
+    void putShouldGrowTable() {
+
+        long initialMemory = index.memoryBytes();
+
+        for (long id = 1; id <= 100_000; id++) {
+            index.put(id, id % 50 + 1);
+        }
+        for (long id = 1; id <= 100_000; id += 2) {
+            index.remove(id);
+        }
+
+        assertEquals(50_000, index.size());
+        assertTrue(index.memoryBytes() > initialMemory);
+
+        for (long id = 1; id <= 100_000; id++) {
+            assertEquals(id % 2 == 0 ? id % 50 + 1 : WalkOwnerIndex.NO_OWNER, index.ownerOf(id));
+        }
+    }
+
+    @Test
+    @DisplayName("onWalkChanged should add created walks and remove deleted ones")
+    void onWalkChangedShouldTrackCreateAndDelete() {
+
+        index.onWalkChanged(new WalkChangedEvent(1L, 7L, false, null, null));
+        assertEquals(7L, index.ownerOf(1L));
+
+        index.onWalkChanged(new WalkChangedEvent(1L, null, false, null, null));
+        assertEquals(WalkOwnerIndex.NO_OWNER, index.ownerOf(1L));
+    }
+
+    @Test
+    @DisplayName("onUserChanged should remove every walk of the user only when the user is deleted")
+    void onUserChangedShouldRemoveOwnerWalks() {
+
+        index.put(1L, 7L);
+        index.put(2L, 7L);
+        index.put(3L, 8L);
+
+        index.onUserChanged(new UserChangedEvent(7L, "maria@test.com", false));
+        index.onUserChanged(new UserChangedEvent(7L, "maria@test.com", true, WalkImpact.HIDDEN));
+        assertEquals(3, index.size());
+        assertEquals(7L, index.ownerOf(1L));
+
+        index.onUserChanged(new UserChangedEvent(7L, "maria@test.com", true, WalkImpact.DELETED));
+
+        assertEquals(WalkOwnerIndex.NO_OWNER, index.ownerOf(1L));
+        assertEquals(WalkOwnerIndex.NO_OWNER, index.ownerOf(2L));
+        assertEquals(8L, index.ownerOf(3L));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("rebuild should load every walk in id batches")
+    void rebuildShouldLoadInBatches() {
+
+        List<WalkOwnership> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            firstBatch.add(new WalkOwnership(id, 7L));
+        }
+
+        when(walkRepository.findOwnershipsAfter(eq(0L), any(Pageable.class))).thenReturn(firstBatch);
+        when(walkRepository.findOwnershipsAfter(eq(10_000L), any(Pageable.class))).thenReturn(List.of(new WalkOwnership(10_001L, 8L)));
+
+        index.put(99_999L, 9L);
+        index.rebuild();
+
+        assertEquals(10_001, index.size());
+        assertEquals(7L, index.ownerOf(5_000L));
+        assertEquals(8L, index.ownerOf(10_001L));
+        assertEquals(WalkOwnerIndex.NO_OWNER, index.ownerOf(99_999L));
+    }
+
+    @Test
+    @DisplayName("ownerOf should never return a wrong owner while writers add, remove and resize")
+    void ownerOfShouldStayConsistent_underConcurrentWrites() throws Exception {
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (long id = 1; id <= 200_000; id++) {
+                    index.put(id, id * 3);
+                    if (id % 3 == 0) {
+                        index.remove(id - 1);
+                    }
+                }
+                running.set(false);
+            });
+
+            List<Future<Long>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(executor.submit(() -> {
+                    long wrong = 0;
+                    while (running.get()) {
+                        for (long id = 1; id <= 200_000; id += 97) {
+                            long owner = index.ownerOf(id);
+                            if (owner != WalkOwnerIndex.NO_OWNER && owner != id * 3) {
+                                wrong++;
+                            }
+                        }
+                    }
+                    return wrong;
+                }));
+            }
+
+            writer.get(30, TimeUnit.SECONDS);
+
+            for (Future<Long> reader : readers) {
+                assertEquals(0, reader.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+    }
+}
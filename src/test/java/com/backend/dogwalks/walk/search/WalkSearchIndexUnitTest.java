@@ -0,0 +1,205 @@
+package com.backend.dogwalks.walk.search;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WalkSearchIndex Unit Tests")
+public class WalkSearchIndexUnitTest {
+
+    @Mock
+    private WalkRepository walkRepository;
+
+    private WalkSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new WalkSearchIndex(walkRepository, new SimpleMeterRegistry());
+    }
+
+    private static WalkSearchDocument document(Long id, Long userId, String title, String location, String description) {
+        return new WalkSearchDocument(id, userId, title, location, 60, description, "walk.png", LocalDateTime.of(2025, 5, 1, 10, 0));
+    }
+
+    private static List<Long> ids(List<ScoredWalk> results) {
+        return results.stream().map(result -> result.summary().id()).toList();
+    }
+
+    @Nested
+    @DisplayName("Text Analysis Tests")
+    class TextAnalysisTests {
+
+        @Test
+        @DisplayName("tokenize should lowercase, fold accents and split on punctuation")
+        void tokenizeShouldFoldAndSplit() {
+
+            assertEquals(List.of("paseo", "por", "el", "rio", "agueda", "ruta", "12"), TextAnalyzer.tokenize("Paseo por el Río Águeda: ruta-12"));
+        }
+
+        @Test
+        @DisplayName("tokenize should drop single characters and handle empty text")
+        void tokenizeShouldDropShortTokens() {
+
+            assertEquals(List.of("walk"), TextAnalyzer.tokenize("a walk, y"));
+            assertTrue(TextAnalyzer.tokenize(null).isEmpty());
+            assertTrue(TextAnalyzer.tokenize("   ").isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Search Tests")
+    class SearchTests {
+
+        @Test
+        @DisplayName("search should match regardless of accents and case")
+        void searchShouldFoldAccents() {
+
+            index.index(document(1L, 1L, "Ruta del Río", "León", "Orilla"));
+
+            assertEquals(List.of(1L), ids(index.search("RIO leon", null, null, 10)));
+        }
+
+        @Test
+        @DisplayName("search should rank title matches above description matches")
+        void searchShouldWeightTitle() {
+
+            index.index(document(1L, 1L, "Forest loop", "Munich", "A quiet walk along the river"));
+            index.index(document(2L, 1L, "River walk", "Munich", "Along the banks"));
+            index.index(document(3L, 1L, "City tour", "Berlin", "Museums"));
+
+            List<ScoredWalk> results = index.search("river", null, null, 10);
+
+            assertEquals(List.of(2L, 1L), ids(results));
+            assertTrue(results.get(0).score() > results.get(1).score());
+        }
+
+        @Test
+        @DisplayName("search should rank rare terms above common ones")
+        void searchShouldUseIdf() {
+
+            index.index(document(1L, 1L, "Park walk", "Munich", "Dogs"));
+            index.index(document(2L, 1L, "Park walk", "Munich", "Dogs and lake"));
+            index.index(document(3L, 1L, "Park walk", "Munich", "Dogs"));
+
+            assertEquals(2L, ids(index.search("park lake", null, null, 10)).get(0));
+        }
+
+        @Test
+        @DisplayName("search should page by score and id without overlaps")
+        void searchShouldPageAfterCursor() {
+
+            for (long id = 1; id <= 7; id++) {
+                index.index(document(id, 1L, "Park walk " + id, "Munich", id % 2 == 0 ? "Park with lake" : "Trees"));
+            }
+
+            List<Long> seen = new ArrayList<>();
+            List<ScoredWalk> page = index.search("park", null, null, 3);
+
+            while (!page.isEmpty()) {
+                seen.addAll(ids(page));
+                ScoredWalk last = page.get(page.size() - 1);
+                page = index.search("park", last.score(), last.summary().id(), 3);
+            }
+
+            assertEquals(7, seen.size());
+            assertEquals(7, seen.stream().distinct().count());
+        }
+
+        @Test
+        @DisplayName("search should return nothing for queries without terms")
+        void searchShouldReturnEmpty_whenNoTerms() {
+
+            index.index(document(1L, 1L, "Park walk", "Munich", "Dogs"));
+
+            assertTrue(index.search("- !", null, null, 10).isEmpty());
+            assertTrue(index.search("unknown", null, null, 10).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Maintenance Tests")
+    class MaintenanceTests {
+
+        @Test
+        @DisplayName("onWalkChanged should replace updated walks and drop removed ones")
+        void onWalkChangedShouldUpdateIndex() {
+
+            index.onWalkChanged(new WalkChangedEvent(1L, 7L, false, document(1L, 1L, "Forest loop", "Munich", "Trees"), null));
+            index.onWalkChanged(new WalkChangedEvent(1L, 7L, false, document(1L, 1L, "Lake loop", "Munich", "Water"), null));
+
+            assertTrue(index.search("forest", null, null, 10).isEmpty());
+            assertEquals(List.of(1L), ids(index.search("lake", null, null, 10)));
+
+            index.onWalkChanged(new WalkChangedEvent(1L, 7L, false, null, null));
+
+            assertTrue(index.search("lake", null, null, 10).isEmpty());
+            assertEquals(0, index.size());
+        }
+
+        @Test
+        @DisplayName("rebuild should load active walks in id batches and replace the index")
+        void rebuildShouldLoadFromRepository() {
+
+            index.index(document(99L, 1L, "Stale walk", "Munich", "Old"));
+            when(walkRepository.findSearchDocumentsAfter(eq(0L), any(Pageable.class)))
+                    .thenReturn(List.of(document(1L, 1L, "Park walk", "Munich", "Dogs"), document(2L, 2L, "Lake walk", "Munich", "Water")));
+
+            index.rebuild();
+
+            assertEquals(2, index.size());
+            assertTrue(index.search("stale", null, null, 10).isEmpty());
+            assertEquals(List.of(2L), ids(index.search("lake", null, null, 10)));
+        }
+
+        @Test
+        @DisplayName("rebuild should keep changes applied while it was loading")
+        void rebuildShouldReplayChanges_whenWalkChangedDuringLoad() {
+
+            when(walkRepository.findSearchDocumentsAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+                index.onWalkChanged(new WalkChangedEvent(3L, 7L, false, document(3L, 1L, "Beach walk", "Munich", "Sand"), null));
+                index.onWalkChanged(new WalkChangedEvent(1L, 7L, false, null, null));
+                return List.of(document(1L, 1L, "Park walk", "Munich", "Dogs"), document(2L, 2L, "Lake walk", "Munich", "Water"));
+            });
+
+            index.rebuild();
+
+            assertEquals(2, index.size());
+            assertEquals(List.of(3L), ids(index.search("beach", null, null, 10)));
+            assertTrue(index.search("park", null, null, 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("onUserChanged should resync the walks of users whose account changed")
+        void onUserChangedShouldResyncUserWalks() {
+
+            index.index(document(1L, 1L, "Park walk", "Munich", "Dogs"));
+            index.index(document(2L, 2L, "Park walk", "Munich", "Dogs"));
+            when(walkRepository.findSearchDocumentsByUserId(1L)).thenReturn(List.of());
+
+            index.onUserChanged(new UserChangedEvent(1L, "maria@test.com", true));
+            index.onUserChanged(new UserChangedEvent(2L, "admin@test.com", false));
+
+            assertEquals(List.of(2L), ids(index.search("park", null, null, 10)));
+            verify(walkRepository, never()).findSearchDocumentsByUserId(2L);
+        }
+    }
+}
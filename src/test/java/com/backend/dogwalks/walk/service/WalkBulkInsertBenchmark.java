@@ -0,0 +1,109 @@
+package com.backend.dogwalks.walk.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+//alta de N paseos: un INSERT y un commit por paseo frente a un lote con los ids generados en una transacción; necesita Docker
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalkBulkInsertBenchmark {
+
+    private static final String INSERT_WALK = "INSERT INTO walks (title, created_at, location, duration, description, img, is_active, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, 1)";
+
+    @Param({"10", "100", "500"})
+    private int walks;
+
+    private MySQLContainer<?> mySqlContainer;
+    private Connection singleConnection;
+    private Connection batchedConnection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mySqlContainer = new MySQLContainer<>("mysql:8.0").withDatabaseName("dogwalks-bench");
+        mySqlContainer.start();
+
+        singleConnection = DriverManager.getConnection(mySqlContainer.getJdbcUrl(), mySqlContainer.getUsername(), mySqlContainer.getPassword());
+        batchedConnection = DriverManager.getConnection(mySqlContainer.getJdbcUrl() + "?rewriteBatchedStatements=true", mySqlContainer.getUsername(), mySqlContainer.getPassword());
+        batchedConnection.setAutoCommit(false);
+
+        try (Statement statement = singleConnection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(50) NOT NULL)");
+            statement.execute("INSERT INTO users (username) VALUES ('Maria')");
+            statement.execute("CREATE TABLE walks (id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(100) NOT NULL, created_at DATETIME(6) NOT NULL, "
+                    + "location VARCHAR(100) NOT NULL, duration INT, description TEXT, img VARCHAR(255), is_active BIT NOT NULL, user_id BIGINT NOT NULL, "
+                    + "INDEX idx_walks_active_created (is_active, created_at, id))");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        singleConnection.close();
+        batchedConnection.close();
+        mySqlContainer.stop();
+    }
+
+    //lo que hacen N llamadas a POST /api/walks
+    @Benchmark
+    public void singleInserts(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement insert = singleConnection.prepareStatement(INSERT_WALK, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < walks; i++) {
+                bind(insert, i);
+                insert.executeUpdate();
+                consumeKeys(insert, blackhole);
+            }
+        }
+    }
+
+    //un solo lote en una transacción, como el alta de POST /api/walks/bulk
+    @Benchmark
+    public void batchedInsert(Blackhole blackhole) throws SQLException {
+        try (PreparedStatement insert = batchedConnection.prepareStatement(INSERT_WALK, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < walks; i++) {
+                bind(insert, i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            consumeKeys(insert, blackhole);
+        }
+        batchedConnection.commit();
+    }
+
+    private static void bind(PreparedStatement insert, int i) throws SQLException {
+        insert.setString(1, "Walk " + i);
+        insert.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+        insert.setString(3, "Munich");
+        insert.setInt(4, 30 + i % 90);
+        insert.setString(5, "A walk through the park number " + i);
+        insert.setString(6, "walk.png");
+        insert.setBoolean(7, true);
+    }
+
+    private static void consumeKeys(PreparedStatement insert, Blackhole blackhole) throws SQLException {
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            while (keys.next()) {
+                blackhole.consume(keys.getLong(1));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(WalkBulkInsertBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,212 @@
+package com.backend.dogwalks.walk.service;
+
+import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.walk.dto.BulkItemResult;
+import com.backend.dogwalks.walk.dto.BulkWalkResponse;
+import com.backend.dogwalks.walk.dto.WalkBulkUpdate;
+import com.backend.dogwalks.walk.dto.WalkRequest;
+import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.enums.BulkItemStatus;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Walk Bulk Service Unit Tests")
+public class WalkBulkServiceUnitTest {
+
+    @Mock
+    private WalkRepository walkRepository;
+
+    @Mock
+    private CustomUserRepository customUserRepository;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private WalkBulkService walkBulkService;
+
+    private CustomUser user;
+    private CustomUser otherUser;
+
+    @BeforeEach
+    void setUp() {
+        user = new CustomUser();
+        user.setId(1L);
+
+        otherUser = new CustomUser();
+        otherUser.setId(2L);
+    }
+
+    private static WalkRequest request(String title) {
+        return new WalkRequest(title, "Munich", 60, "Walk", "walk.png", true, null, null);
+    }
+
+    private static Walk walk(Long id, CustomUser owner) {
+        Walk walk = new Walk("Walk " + id, "Munich", 60, "Walk", "walk.png", true, owner);
+        walk.setId(id);
+        return walk;
+    }
+
+    private static List<BulkItemStatus> statuses(BulkWalkResponse response) {
+        return response.results().stream().map(BulkItemResult::status).toList();
+    }
+
+    @Nested
+    @DisplayName("Add Walks Tests")
+    class AddWalksTests {
+
+        @Test
+        @DisplayName("AddWalks should insert the valid walks in one batch and report the invalid ones")
+        void addWalks_shouldInsertValidWalks_andReportInvalidOnes() {
+
+            when(customUserRepository.getReferenceById(1L)).thenReturn(user);
+            when(walkRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Walk> walks = invocation.getArgument(0);
+                for (int i = 0; i < walks.size(); i++) {
+                    walks.get(i).setId(100L + i);
+                }
+                return walks;
+            });
+
+            List<WalkRequest> requests = Arrays.asList(
+                    request("Englischer Garten"),
+                    request(""),
+                    new WalkRequest("Olympiapark", "Munich", 60, "Walk", "walk.png", true, 48.17, null),
+                    null,
+                    request("Isar")
+            );
+
+            BulkWalkResponse response = walkBulkService.addWalks(requests, 1L);
+
+            assertEquals(List.of(BulkItemStatus.CREATED, BulkItemStatus.INVALID, BulkItemStatus.INVALID, BulkItemStatus.INVALID, BulkItemStatus.CREATED), statuses(response));
+            assertEquals(2, response.succeeded());
+            assertEquals(3, response.failed());
+            assertEquals(100L, response.results().get(0).id());
+            assertEquals(101L, response.results().get(4).id());
+            assertEquals("Latitude and longitude must be provided together", response.results().get(2).message());
+            assertEquals("Walk is needed", response.results().get(3).message());
+
+            verify(walkRepository, times(1)).saveAll(anyList());
+            verify(eventPublisher, times(2)).publishEvent(any(WalkChangedEvent.class));
+        }
+
+        @Test
+        @DisplayName("AddWalks should reject empty and oversized requests")
+        void addWalks_shouldRejectWrongSizes() {
+
+            List<WalkRequest> tooMany = Collections.nCopies(WalkBulkService.MAX_BULK_ITEMS + 1, request("Walk"));
+
+            assertThrows(IllegalArgumentException.class, () -> walkBulkService.addWalks(List.of(), 1L));
+            assertThrows(IllegalArgumentException.class, () -> walkBulkService.addWalks(tooMany, 1L));
+
+            verifyNoInteractions(walkRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Walks Tests")
+    class UpdateWalksTests {
+
+        @Test
+        @DisplayName("UpdateWalks should load every id in one query and update only owned walks")
+        void updateWalks_shouldUpdateOwnedWalks() {
+
+            Walk own = walk(1L, user);
+            Walk foreign = walk(2L, otherUser);
+            when(walkRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(own, foreign));
+
+            List<WalkBulkUpdate> updates = List.of(
+                    new WalkBulkUpdate(1L, request("Updated")),
+                    new WalkBulkUpdate(2L, request("Not mine")),
+                    new WalkBulkUpdate(3L, request("Missing")),
+                    new WalkBulkUpdate(1L, request("Twice")),
+                    new WalkBulkUpdate(null, request("No id"))
+            );
+
+            BulkWalkResponse response = walkBulkService.updateWalks(updates, 1L, Role.USER);
+
+            assertEquals(List.of(BulkItemStatus.UPDATED, BulkItemStatus.FORBIDDEN, BulkItemStatus.NOT_FOUND, BulkItemStatus.INVALID, BulkItemStatus.INVALID), statuses(response));
+            assertEquals("Updated", own.getTitle());
+            assertEquals("Walk 2", foreign.getTitle());
+
+            verify(walkRepository, times(1)).findAllById(any());
+            verify(eventPublisher, times(1)).publishEvent(any(WalkChangedEvent.class));
+        }
+
+        @Test
+        @DisplayName("UpdateWalks should let an admin update walks of other users")
+        void updateWalks_shouldUpdateForeignWalks_whenAdmin() {
+
+            Walk foreign = walk(2L, otherUser);
+            when(walkRepository.findAllById(Set.of(2L))).thenReturn(List.of(foreign));
+
+            BulkWalkResponse response = walkBulkService.updateWalks(List.of(new WalkBulkUpdate(2L, request("By admin"))), 1L, Role.ADMIN);
+
+            assertEquals(List.of(BulkItemStatus.UPDATED), statuses(response));
+            assertEquals("By admin", foreign.getTitle());
+        }
+    }
+
+    @Nested
+    @DisplayName("Delete Walks Tests")
+    class DeleteWalksTests {
+
+        @Test
+        @DisplayName("DeleteWalks should delete owned walks in one statement and report the rest")
+        void deleteWalks_shouldDeleteOwnedWalks() {
+
+            Walk own = walk(1L, user);
+            Walk foreign = walk(2L, otherUser);
+            when(walkRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(own, foreign));
+
+            BulkWalkResponse response = walkBulkService.deleteWalks(Arrays.asList(1L, 2L, 3L, null), 1L, Role.USER);
+
+            assertEquals(List.of(BulkItemStatus.DELETED, BulkItemStatus.FORBIDDEN, BulkItemStatus.NOT_FOUND, BulkItemStatus.INVALID), statuses(response));
+
+            verify(walkRepository, times(1)).deleteAllByIdInBatch(List.of(1L));
+            verify(eventPublisher).publishEvent(new WalkChangedEvent(1L, null, true, null, null));
+        }
+
+        @Test
+        @DisplayName("DeleteWalks should not run a delete when no walk can be deleted")
+        void deleteWalks_shouldSkipDelete_whenNothingAllowed() {
+
+            when(walkRepository.findAllById(Set.of(2L))).thenReturn(new ArrayList<>(List.of(walk(2L, otherUser))));
+
+            BulkWalkResponse response = walkBulkService.deleteWalks(List.of(2L), 1L, Role.USER);
+
+            assertEquals(0, response.succeeded());
+            verify(walkRepository, never()).deleteAllByIdInBatch(anyList());
+            verifyNoInteractions(eventPublisher);
+        }
+    }
+}
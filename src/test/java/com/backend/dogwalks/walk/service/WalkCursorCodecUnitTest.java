@@ -0,0 +1,79 @@
+package com.backend.dogwalks.walk.service;
+
+import com.backend.dogwalks.walk.dto.WalkCursor;
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+import com.backend.dogwalks.walk.repository.WalkKeysetRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WalkCursorCodec Unit Tests")
+public class WalkCursorCodecUnitTest {
+
+    private WalkCursorCodec codec;
+    private WalkSummaryResponse walk;
+
+    @BeforeEach
+    void setUp() {
+        codec = new WalkCursorCodec("cursor-test-secret");
+
+        walk = new WalkSummaryResponse(42L, "Englischer Garten: Nord", "Munich", null, "eg.png", LocalDateTime.of(2025, 5, 1, 10, 30, 15));
+    }
+
+    @Test
+    @DisplayName("decode should return the sort key and id encoded by encode")
+    void decodeShouldRoundTrip() {
+
+        WalkCursor byTitle = codec.decode(codec.encode(walk, "title", Sort.Direction.ASC));
+        WalkCursor byDate = codec.decode(codec.encode(walk, "createdAt", Sort.Direction.DESC));
+
+        assertEquals("title", byTitle.sortBy());
+        assertEquals(Sort.Direction.ASC, byTitle.direction());
+        assertEquals("Englischer Garten: Nord", byTitle.lastValue());
+        assertEquals(42L, byTitle.lastId());
+        assertEquals(LocalDateTime.of(2025, 5, 1, 10, 30, 15), byDate.lastValue());
+        assertEquals(Sort.Direction.DESC, byDate.direction());
+    }
+
+    @Test
+    @DisplayName("encode should map a null duration to the smallest sort value")
+    void encodeShouldHandleNullDuration() {
+
+        WalkCursor cursor = codec.decode(codec.encode(walk, "duration", Sort.Direction.ASC));
+
+        assertEquals(WalkKeysetRepositoryImpl.NULL_DURATION, cursor.lastValue());
+    }
+
+    @Test
+    @DisplayName("decode should reject tampered or foreign cursors")
+    void decodeShouldReject_whenSignatureInvalid() {
+
+        String cursor = codec.encode(walk, "id", Sort.Direction.ASC);
+        String forged = cursor.substring(0, cursor.indexOf('.')) + "x" + cursor.substring(cursor.indexOf('.'));
+        String foreign = new WalkCursorCodec("another-secret").encode(walk, "id", Sort.Direction.ASC);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(forged));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(foreign));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode("not-a-cursor"));
+    }
+
+    @Test
+    @DisplayName("search cursors should round trip the score and only be valid for the same query")
+    void searchCursorShouldBeBoundToQuery() {
+
+        String cursor = codec.encodeSearch("river walk", 3.141592653589793, 42L);
+
+        WalkCursor decoded = codec.decodeSearch(cursor, "river walk");
+
+        assertEquals(3.141592653589793, decoded.lastValue());
+        assertEquals(42L, decoded.lastId());
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeSearch(cursor, "river"));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(cursor));
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeSearch(codec.encode(walk, "id", Sort.Direction.ASC), ""));
+    }
+}
@@ -0,0 +1,137 @@
+package com.backend.dogwalks.walk.service;
+
+import com.backend.dogwalks.walk.dto.WalkExportRow;
+import com.backend.dogwalks.walk.enums.ExportFormat;
+import com.backend.dogwalks.walk.repository.WalkExportRepository;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Walk Export Service Unit Tests")
+public class WalkExportServiceUnitTest {
+
+    @Mock
+    private WalkRepository walkRepository;
+
+    private WalkExportService walkExportService;
+
+    private final WalkExportRow englischerGarten = new WalkExportRow(1L, 7L, "Maria", "Englischer Garten", "Munich", 120,
+            "Marvellous walk", "eg.png", true, 48.1642, 11.6056, LocalDateTime.of(2025, 5, 1, 10, 30));
+
+    private final WalkExportRow isar = new WalkExportRow(2L, 7L, "Maria", "Isar, \"south\"", "Munich", null,
+            "Line one\nline two", null, false, null, null, LocalDateTime.of(2025, 5, 2, 9, 0));
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        walkExportService = new WalkExportService(walkRepository, objectMapper);
+        lenient().when(walkRepository.enableCursorFetch()).thenReturn(() -> {
+        });
+    }
+
+    @Test
+    @DisplayName("export should write one JSON object per line in NDJSON format")
+    void exportShouldWriteNdjson() {
+
+        when(walkRepository.streamExportRows()).thenReturn(Stream.of(englischerGarten, isar));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = walkExportService.export(ExportFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, rows);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,\"userId\":7,\"username\":\"Maria\",\"title\":\"Englischer Garten\""));
+        assertTrue(lines[0].endsWith("\"createdAt\":\"2025-05-01T10:30:00\"}"));
+        assertTrue(lines[1].contains("\"description\":\"Line one\\nline two\""));
+    }
+
+    @Test
+    @DisplayName("export should write a header and RFC 4180 escaped rows in CSV format")
+    void exportShouldWriteCsv() {
+
+        when(walkRepository.streamExportRows()).thenReturn(Stream.of(englischerGarten, isar));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        walkExportService.export(ExportFormat.CSV, output);
+
+        assertEquals(WalkExportService.CSV_HEADER + "\n"
+                        + "1,7,Maria,Englischer Garten,Munich,120,Marvellous walk,eg.png,true,48.1642,11.6056,2025-05-01T10:30\n"
+                        + "2,7,Maria,\"Isar, \"\"south\"\"\",Munich,,\"Line one\nline two\",,false,,,2025-05-02T09:00\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("export should close the database stream and stop quietly when the client disconnects")
+    void exportShouldCloseStream_whenClientDisconnects() {
+
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<WalkExportRow> rows = Stream.generate(() -> englischerGarten).onClose(() -> closed.set(true));
+        when(walkRepository.streamExportRows()).thenReturn(rows);
+
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        long written = walkExportService.export(ExportFormat.NDJSON, disconnected);
+
+        assertTrue(closed.get());
+        assertTrue(written > 0);
+    }
+
+    @Test
+    @DisplayName("export should restore the connection's cursor fetch after closing the database stream")
+    void exportShouldRestoreCursorFetch_afterClosingStream() {
+
+        List<String> events = new ArrayList<>();
+        when(walkRepository.enableCursorFetch()).thenAnswer(invocation -> {
+            events.add("enabled");
+            return (WalkExportRepository.CursorFetch) () -> events.add("restored");
+        });
+        when(walkRepository.streamExportRows()).thenAnswer(invocation -> {
+            events.add("streamed");
+            return Stream.of(englischerGarten).onClose(() -> events.add("closed"));
+        });
+
+        walkExportService.export(ExportFormat.NDJSON, new ByteArrayOutputStream());
+
+        assertEquals(List.of("enabled", "streamed", "closed", "restored"), events);
+    }
+
+    @Test
+    @DisplayName("ExportFormat.from should reject unknown formats")
+    void exportFormatShouldRejectUnknownFormats() {
+
+        assertEquals(ExportFormat.CSV, ExportFormat.from("csv"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.from("xml"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.backend.dogwalks.walk.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+//latencia de /api/walks/public por profundidad: OFFSET + COUNT frente a keyset con el mismo índice; necesita Docker
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalkFeedPaginationBenchmark {
+
+    private static final int WALKS = 20000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1", "100", "500", "900"})
+    private int page;
+
+    private MySQLContainer<?> mySqlContainer;
+    private Connection connection;
+    private PreparedStatement offsetQuery;
+    private PreparedStatement countQuery;
+    private PreparedStatement keysetQuery;
+
+    private Timestamp lastCreatedAt;
+    private long lastId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mySqlContainer = new MySQLContainer<>("mysql:8.0").withDatabaseName("dogwalks-bench");
+        mySqlContainer.start();
+
+        connection = DriverManager.getConnection(mySqlContainer.getJdbcUrl() + "?rewriteBatchedStatements=true", mySqlContainer.getUsername(), mySqlContainer.getPassword());
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(50) NOT NULL)");
+            statement.execute("INSERT INTO users (username) VALUES ('Maria')");
+            statement.execute("CREATE TABLE walks (id BIGINT AUTO_INCREMENT PRIMARY KEY, title VARCHAR(100) NOT NULL, created_at DATETIME(6) NOT NULL, "
+                    + "location VARCHAR(100) NOT NULL, duration INT, description TEXT, img VARCHAR(255), is_active BIT NOT NULL, user_id BIGINT NOT NULL, "
+                    + "INDEX idx_walks_active_created (is_active, created_at, id))");
+        }
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO walks (title, created_at, location, duration, description, img, is_active, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, 1)")) {
+            for (int i = 0; i < WALKS; i++) {
+                insert.setString(1, "Walk " + i);
+                insert.setTimestamp(2, Timestamp.valueOf(start.plusMinutes(i / 3)));
+                insert.setString(3, "Munich");
+                insert.setInt(4, 30 + i % 90);
+                insert.setString(5, "A walk through the park number " + i);
+                insert.setString(6, "walk.png");
+                insert.setBoolean(7, i % 10 != 0);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        offsetQuery = connection.prepareStatement("SELECT id, title, location, duration, img, created_at FROM walks WHERE is_active = true ORDER BY created_at ASC LIMIT ? OFFSET ?");
+        countQuery = connection.prepareStatement("SELECT COUNT(*) FROM walks WHERE is_active = true");
+        keysetQuery = connection.prepareStatement("SELECT id, title, location, duration, img, created_at FROM walks WHERE is_active = true "
+                + "AND (created_at > ? OR (created_at = ? AND id > ?)) ORDER BY created_at ASC, id ASC LIMIT ?");
+
+        //posición del último elemento de la página anterior, lo que llevaría el cursor
+        try (PreparedStatement position = connection.prepareStatement("SELECT created_at, id FROM walks WHERE is_active = true ORDER BY created_at, id LIMIT 1 OFFSET ?")) {
+            position.setInt(1, Math.max(0, (page - 1) * PAGE_SIZE - 1));
+            try (ResultSet resultSet = position.executeQuery()) {
+                resultSet.next();
+                lastCreatedAt = resultSet.getTimestamp(1);
+                lastId = page == 1 ? 0 : resultSet.getLong(2);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        mySqlContainer.stop();
+    }
+
+    @Benchmark
+    public void offsetPage(Blackhole blackhole) throws SQLException {
+        offsetQuery.setInt(1, PAGE_SIZE);
+        offsetQuery.setInt(2, (page - 1) * PAGE_SIZE);
+        consume(offsetQuery, blackhole);
+        consume(countQuery, blackhole);
+    }
+
+    @Benchmark
+    public void keysetPage(Blackhole blackhole) throws SQLException {
+        keysetQuery.setTimestamp(1, lastCreatedAt);
+        keysetQuery.setTimestamp(2, lastCreatedAt);
+        keysetQuery.setLong(3, lastId);
+        keysetQuery.setInt(4, PAGE_SIZE + 1);
+        consume(keysetQuery, blackhole);
+    }
+
+    private static void consume(PreparedStatement query, Blackhole blackhole) throws SQLException {
+        try (ResultSet resultSet = query.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getLong(1));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(WalkFeedPaginationBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.backend.dogwalks.walk.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+//cambio de is_active en un paseo con descripción larga: UPDATE de todas las columnas (antes) frente al de @DynamicUpdate con versión; necesita Docker
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalkPatchBenchmark {
+
+    private static final int WALKS = 1000;
+
+    @Param({"200", "4000"})
+    private int descriptionLength;
+
+    private MySQLContainer<?> mySqlContainer;
+    private Connection connection;
+    private PreparedStatement fullUpdate;
+    private PreparedStatement dirtyUpdate;
+    private String description;
+    private long[] versions;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mySqlContainer = new MySQLContainer<>("mysql:8.0").withDatabaseName("dogwalks-bench");
+        mySqlContainer.start();
+
+        connection = DriverManager.getConnection(mySqlContainer.getJdbcUrl(), mySqlContainer.getUsername(), mySqlContainer.getPassword());
+        description = "A long walk along the river. ".repeat(descriptionLength / 29 + 1).substring(0, descriptionLength);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE walks (id BIGINT PRIMARY KEY, title VARCHAR(100) NOT NULL, created_at DATETIME(6) NOT NULL, "
+                    + "location VARCHAR(100) NOT NULL, duration INT, description TEXT, img VARCHAR(255), is_active BIT NOT NULL, "
+                    + "latitude DOUBLE, longitude DOUBLE, user_id BIGINT NOT NULL, version BIGINT NOT NULL DEFAULT 0, "
+                    + "INDEX idx_walks_active_created (is_active, created_at, id))");
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO walks (id, title, created_at, location, duration, description, img, is_active, user_id) "
+                + "VALUES (?, ?, ?, 'Munich', 60, ?, 'walk.png', 1, 1)")) {
+            for (int id = 1; id <= WALKS; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "Walk " + id);
+                insert.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                insert.setString(4, description);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+
+        fullUpdate = connection.prepareStatement("UPDATE walks SET title = ?, created_at = created_at, location = 'Munich', duration = 60, description = ?, img = 'walk.png', "
+                + "is_active = ?, latitude = NULL, longitude = NULL, user_id = 1 WHERE id = ?");
+        dirtyUpdate = connection.prepareStatement("UPDATE walks SET is_active = ?, version = ? WHERE id = ? AND version = ?");
+        versions = new long[WALKS + 1];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        mySqlContainer.stop();
+    }
+
+    //lo que hacía save() tras updateFromWalkRequest: todas las columnas, descripción incluida
+    @Benchmark
+    public void fullRowUpdate(Blackhole blackhole) throws SQLException {
+        int id = nextId();
+
+        fullUpdate.setString(1, "Walk " + id);
+        fullUpdate.setString(2, description);
+        fullUpdate.setBoolean(3, flipped());
+        fullUpdate.setLong(4, id);
+
+        blackhole.consume(fullUpdate.executeUpdate());
+    }
+
+    //PATCH con solo isActive: la columna cambiada y la versión, comprobada en el WHERE
+    @Benchmark
+    public void dirtyColumnsUpdate(Blackhole blackhole) throws SQLException {
+        int id = nextId();
+        long version = versions[id];
+
+        dirtyUpdate.setBoolean(1, flipped());
+        dirtyUpdate.setLong(2, version + 1);
+        dirtyUpdate.setLong(3, id);
+        dirtyUpdate.setLong(4, version);
+
+        int updated = dirtyUpdate.executeUpdate();
+        versions[id] = version + updated;
+        blackhole.consume(updated);
+    }
+
+    private int nextId() {
+        next++;
+        return 1 + next % WALKS;
+    }
+
+    //cambia en cada vuelta sobre los paseos: un UPDATE con el mismo valor no escribiría nada
+    private boolean flipped() {
+        return (next / WALKS) % 2 == 0;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(WalkPatchBenchmark.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,115 @@
+package com.backend.dogwalks.walk.service;
+
+import com.backend.dogwalks.DogwalksApplication;
+import com.backend.dogwalks.user.entity.CustomUser;
+import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.walk.dto.WalkFilter;
+import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
+import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.repository.WalkRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//página de 100 resúmenes: entidades Walk completas (con description TEXT) frente a la proyección al DTO
+//lanzar con "-prof gc" para ver los bytes reservados por operación (gc.alloc.rate.norm); necesita Docker
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalkProjectionBenchmark {
+
+    private static final int WALKS = 2000;
+    private static final int PAGE_SIZE = 100;
+
+    private MySQLContainer<?> mySqlContainer;
+    private ConfigurableApplicationContext context;
+    private WalkService walkService;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mySqlContainer = new MySQLContainer<>("mysql:8.0").withDatabaseName("dogwalks-bench");
+        mySqlContainer.start();
+
+        context = new SpringApplicationBuilder(DogwalksApplication.class)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=" + mySqlContainer.getJdbcUrl(),
+                        "spring.datasource.username=" + mySqlContainer.getUsername(),
+                        "spring.datasource.password=" + mySqlContainer.getPassword(),
+                        "spring.main.web-application-type=none",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN")
+                .run();
+
+        walkService = context.getBean(WalkService.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        CustomUser user = new CustomUser("Maria", "maria@test.com", null, Role.USER, true);
+        user.setPassword("encodedPassword");
+        user = context.getBean(CustomUserRepository.class).save(user);
+
+        String description = "A long description of the walk. ".repeat(60);
+        List<Walk> walks = new ArrayList<>();
+
+        for (int i = 0; i < WALKS; i++) {
+            walks.add(new Walk("Walk " + i, "Munich", 30 + i % 90, description, "walk.png", true, user));
+        }
+
+        context.getBean(WalkRepository.class).saveAll(walks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        mySqlContainer.stop();
+    }
+
+    //camino anterior: entidades gestionadas mapeadas a DTO dentro de la transacción
+    @Benchmark
+    public List<WalkSummaryResponse> entityPage() {
+        return readOnlyTransaction.execute(status -> {
+            entityManager.createQuery("SELECT COUNT(w) FROM Walk w WHERE w.isActive = true", Long.class).getSingleResult();
+
+            return entityManager.createQuery("SELECT w FROM Walk w WHERE w.isActive = true ORDER BY w.createdAt", Walk.class)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultStream()
+                    .map(walk -> new WalkSummaryResponse(walk.getId(), walk.getTitle(), walk.getLocation(), walk.getDuration(), walk.getWalkImgUrl(), walk.getCreatedAt()))
+                    .toList();
+        });
+    }
+
+    @Benchmark
+    public Page<WalkSummaryResponse> projectionPage() {
+        return walkService.getAllWalksSummary(0, PAGE_SIZE, "createdAt", "ASC", WalkFilter.NONE);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(WalkProjectionBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -1,14 +1,30 @@
 package com.backend.dogwalks.walk.service;
 
 import com.backend.dogwalks.exception.custom_exception.EntityNotFoundException;
+import com.backend.dogwalks.exception.custom_exception.PreconditionFailedException;
 import com.backend.dogwalks.user.entity.CustomUser;
 import com.backend.dogwalks.user.enums.Role;
+import com.backend.dogwalks.user.repository.CustomUserRepository;
+import com.backend.dogwalks.walk.cache.WalkDetailCache;
+import com.backend.dogwalks.walk.dto.CursorPage;
+import com.backend.dogwalks.walk.dto.OwnedWalkDetail;
+import com.backend.dogwalks.walk.dto.WalkCursor;
 import com.backend.dogwalks.walk.dto.WalkDetailResponse;
+import com.backend.dogwalks.walk.dto.WalkFilter;
+import com.backend.dogwalks.walk.dto.WalkNearbyResponse;
+import com.backend.dogwalks.walk.dto.WalkPatchRequest;
 import com.backend.dogwalks.walk.dto.WalkRequest;
 import com.backend.dogwalks.walk.dto.WalkResponse;
 import com.backend.dogwalks.walk.dto.WalkSummaryResponse;
 import com.backend.dogwalks.walk.entity.Walk;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.feed.WalkFeedIndex;
+import com.backend.dogwalks.walk.geo.GeoHit;
+import com.backend.dogwalks.walk.geo.WalkGeoIndex;
 import com.backend.dogwalks.walk.repository.WalkRepository;
+import com.backend.dogwalks.walk.search.ScoredWalk;
+import com.backend.dogwalks.walk.search.WalkSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,9 +32,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,11 +54,36 @@ public class WalkServiceUnitTest {
     @Mock
     private WalkRepository walkRepository;
 
+    @Mock
+    private CustomUserRepository customUserRepository;
+
+    @Spy
+    private WalkCursorCodec walkCursorCodec = new WalkCursorCodec("cursor-test-secret");
+
+    @Mock
+    private WalkSearchIndex walkSearchIndex;
+
+    @Mock
+    private WalkGeoIndex walkGeoIndex;
+
+    @Spy
+    private WalkDetailCache walkDetailCache = new WalkDetailCache(100, 60000, 30000, Clock.systemUTC(), new SimpleMeterRegistry());
+
+    @Mock
+    private WalkFeedIndex walkFeedIndex;
+
+    @Mock
+    private WalkRequestContext walkRequestContext;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private WalkService walkService;
 
     private Walk walk;
     private CustomUser user;
+    private WalkSummaryResponse summary;
 
     @BeforeEach
     void setUp() {
@@ -55,6 +101,8 @@ public class WalkServiceUnitTest {
                 user
         );
         walk.setId(1L);
+
+        summary = new WalkSummaryResponse(1L, "Englischer Garten", "Munich", 120, "eg.png", LocalDateTime.of(2025, 5, 1, 10, 0));
     }
 
     @Nested
@@ -65,15 +113,150 @@ public class WalkServiceUnitTest {
         @DisplayName("GetAllWalksSummary should return a page of walks when request is valid")
         void getAllWalksSummary_shouldReturnPage_whenRequestIsValid() {
             Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt"));
-            Page<Walk> walkPage = new PageImpl<>(List.of(walk), pageable, 1);
+            Page<WalkSummaryResponse> walkPage = new PageImpl<>(List.of(summary), pageable, 1);
 
-            when(walkRepository.findByIsActiveTrue(any(Pageable.class))).thenReturn(walkPage);
+            when(walkRepository.findActiveSummaries(any(Pageable.class))).thenReturn(walkPage);
 
-            Page<WalkSummaryResponse> result = walkService.getAllWalksSummary(0, 10, "createdAt", "ASC");
+            Page<WalkSummaryResponse> result = walkService.getAllWalksSummary(0, 10, "createdAt", "ASC", WalkFilter.NONE);
 
             assertEquals(1, result.getTotalElements());
+            assertEquals("Englischer Garten", result.getContent().get(0).title());
+
+            verify(walkRepository, times(1)).findActiveSummaries(PageRequest.of(0, 10, Sort.by("createdAt").and(Sort.by("id"))));
+        }
+
+        @Test
+        @DisplayName("GetAllWalksSummary should serve the page from the feed index without querying the repository")
+        void getAllWalksSummary_shouldUseFeedIndex_whenPageIsInMemory() {
+            Page<WalkSummaryResponse> walkPage = new PageImpl<>(List.of(summary), PageRequest.of(0, 10), 1);
+
+            when(walkFeedIndex.page("createdAt", Sort.Direction.DESC, 0, 10)).thenReturn(Optional.of(walkPage));
+
+            Page<WalkSummaryResponse> result = walkService.getAllWalksSummary(0, 10, "createdAt", "DESC", WalkFilter.NONE);
+
+            assertSame(walkPage, result);
+            verifyNoInteractions(walkRepository);
+        }
+
+        @Test
+        @DisplayName("GetWalksSummaryFeed should return next cursor when more walks exist")
+        void getWalksSummaryFeed_shouldReturnNextCursor_whenMoreWalksExist() {
+
+            WalkSummaryResponse second = new WalkSummaryResponse(2L, "Olympiapark", "Munich", 60, "op.png", LocalDateTime.of(2025, 5, 2, 10, 0));
+
+            when(walkRepository.findActiveAfter("id", Sort.Direction.ASC, null, null, 2)).thenReturn(List.of(summary, second));
+
+            CursorPage<WalkSummaryResponse> result = walkService.getWalksSummaryFeed("", 1, "id", "ASC", WalkFilter.NONE);
+
+            assertEquals(1, result.content().size());
+            assertTrue(result.hasNext());
+
+            WalkCursor cursor = walkCursorCodec.decode(result.nextCursor());
+            assertEquals(1L, cursor.lastValue());
+            assertEquals(1L, cursor.lastId());
+        }
+
+        @Test
+        @DisplayName("GetWalksSummaryFeed should continue after the cursor and end without next cursor")
+        void getWalksSummaryFeed_shouldContinueAfterCursor() {
+
+            String cursor = walkCursorCodec.encode(summary, "createdAt", Sort.Direction.DESC);
+
+            when(walkRepository.findActiveAfter(eq("createdAt"), eq(Sort.Direction.DESC), any(WalkCursor.class), isNull(), eq(11))).thenReturn(List.of());
+
+            CursorPage<WalkSummaryResponse> result = walkService.getWalksSummaryFeed(cursor, 10, "createdAt", "DESC", WalkFilter.NONE);
+
+            assertTrue(result.content().isEmpty());
+            assertFalse(result.hasNext());
+            assertNull(result.nextCursor());
+
+            verify(walkRepository).findActiveAfter(eq("createdAt"), eq(Sort.Direction.DESC),
+                    argThat(after -> after.lastValue().equals(summary.createAt()) && after.lastId().equals(1L)), isNull(), eq(11));
+        }
+
+        @Test
+        @DisplayName("GetWalksSummaryFeed should reject a cursor issued for another sort")
+        void getWalksSummaryFeed_shouldThrowException_whenCursorSortDiffers() {
+
+            String cursor = walkCursorCodec.encode(summary, "title", Sort.Direction.ASC);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> walkService.getWalksSummaryFeed(cursor, 10, "id", "ASC", WalkFilter.NONE));
+
+            assertEquals("Cursor does not match the requested sort", exception.getMessage());
+            verifyNoInteractions(walkRepository);
+        }
+
+        @Test
+        @DisplayName("SearchWalks should return a ranked page and a cursor bound to the query")
+        void searchWalks_shouldReturnRankedPage() {
+
+            WalkSummaryResponse second = new WalkSummaryResponse(2L, "Olympiapark", "Munich", 60, "op.png", LocalDateTime.of(2025, 5, 2, 10, 0));
+
+            when(walkSearchIndex.search("Munich Parks", null, null, 2)).thenReturn(List.of(new ScoredWalk(summary, 2.5), new ScoredWalk(second, 1.0)));
+
+            CursorPage<WalkSummaryResponse> result = walkService.searchWalks("Munich Parks", "", 1);
 
-            verify(walkRepository, times(1)).findByIsActiveTrue(any(Pageable.class));
+            assertEquals(List.of(summary), result.content());
+            assertTrue(result.hasNext());
+
+            WalkCursor cursor = walkCursorCodec.decodeSearch(result.nextCursor(), "munich parks");
+            assertEquals(2.5, cursor.lastValue());
+            assertEquals(1L, cursor.lastId());
+            assertThrows(IllegalArgumentException.class, () -> walkCursorCodec.decodeSearch(result.nextCursor(), "munich"));
+            verifyNoInteractions(walkRepository);
+        }
+
+        @Test
+        @DisplayName("SearchWalks should continue after the cursor score and id")
+        void searchWalks_shouldContinueAfterCursor() {
+
+            String cursor = walkCursorCodec.encodeSearch("munich", 2.5, 1L);
+
+            when(walkSearchIndex.search("MÜNICH", 2.5, 1L, 11)).thenReturn(List.of());
+
+            CursorPage<WalkSummaryResponse> result = walkService.searchWalks("MÜNICH", cursor, 10);
+
+            assertTrue(result.content().isEmpty());
+            assertFalse(result.hasNext());
+            assertNull(result.nextCursor());
+        }
+
+        @Test
+        @DisplayName("GetNearbyWalks should keep the index order and drop walks that no longer exist")
+        void getNearbyWalks_shouldHydrateHitsInDistanceOrder() {
+
+            WalkSummaryResponse second = new WalkSummaryResponse(2L, "Olympiapark", "Munich", 60, "op.png", LocalDateTime.of(2025, 5, 2, 10, 0));
+
+            when(walkGeoIndex.nearby(48.1372, 11.5756, 5, 20)).thenReturn(List.of(
+                    new GeoHit(2L, 48.17, 11.55, 1.23456),
+                    new GeoHit(3L, 48.18, 11.56, 2.0),
+                    new GeoHit(1L, 48.16, 11.60, 3.0)));
+            when(walkRepository.findActiveSummariesByIdIn(List.of(2L, 3L, 1L))).thenReturn(List.of(summary, second));
+
+            List<WalkNearbyResponse> result = walkService.getNearbyWalks(48.1372, 11.5756, 5, 20);
+
+            assertEquals(List.of(2L, 1L), result.stream().map(WalkNearbyResponse::id).toList());
+            assertEquals(1.235, result.get(0).distanceKm());
+            verify(walkGeoIndex).remove(3L);
+        }
+
+        @Test
+        @DisplayName("GetNearbyWalks should throw illegal argument exception when radius is too large")
+        void getNearbyWalks_shouldThrowException_whenRadiusTooLarge() {
+
+            assertThrows(IllegalArgumentException.class, () -> walkService.getNearbyWalks(48.1, 11.5, 500, 20));
+            assertThrows(IllegalArgumentException.class, () -> walkService.getNearbyWalks(91, 11.5, 5, 20));
+            verifyNoInteractions(walkGeoIndex);
+        }
+
+        @Test
+        @DisplayName("SearchWalks should throw illegal argument exception when query is blank")
+        void searchWalks_shouldThrowException_whenQueryBlank() {
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> walkService.searchWalks(" ", "", 10));
+
+            assertEquals("Search query must not be empty", exception.getMessage());
+            verifyNoInteractions(walkSearchIndex);
         }
 
         @Test
@@ -82,17 +265,13 @@ public class WalkServiceUnitTest {
             Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
             Page<Walk> walkPage = new PageImpl<>(List.of(walk), pageable, 1);
 
-            CustomUser user = new CustomUser();
-            user.setId(1L);
-            user.setRole(Role.USER);
-
-            when(walkRepository.findByUser(eq(user), any(Pageable.class))).thenReturn(walkPage);
+            when(walkRepository.findByUserId(eq(1L), any(Pageable.class))).thenReturn(walkPage);
 
-            Page<WalkResponse> result = walkService.getAllWalksPaginated(user, 0, 10, "id", "ASC");
+            Page<WalkResponse> result = walkService.getAllWalksPaginated(1L, Role.USER, 0, 10, "id", "ASC", WalkFilter.NONE);
 
             assertEquals(1, result.getTotalElements());
 
-            verify(walkRepository, times(1)).findByUser(eq(user), any(Pageable.class));
+            verify(walkRepository, times(1)).findByUserId(eq(1L), any(Pageable.class));
         }
 
         @Test
@@ -101,13 +280,9 @@ public class WalkServiceUnitTest {
             Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
             Page<Walk> walkPage = new PageImpl<>(List.of(walk), pageable, 1);
 
-            CustomUser admin = new CustomUser();
-            admin.setId(1L);
-            admin.setRole(Role.ADMIN);
-
             when(walkRepository.findAll(any(Pageable.class))).thenReturn(walkPage);
 
-            Page<WalkResponse> result = walkService.getAllWalksPaginated(admin,0, 10, "id", "ASC");
+            Page<WalkResponse> result = walkService.getAllWalksPaginated(2L, Role.ADMIN, 0, 10, "id", "ASC", WalkFilter.NONE);
 
             assertEquals(1, result.getTotalElements());
 
@@ -118,54 +293,187 @@ public class WalkServiceUnitTest {
         @DisplayName("GetWalkDetailById should return walk details when exist")
         void getWalkDetailById_shouldReturnWalk_whenExist() {
 
-            when(walkRepository.findByIdAndIsActiveTrue(1L)).thenReturn(Optional.of(walk));
+            WalkDetailResponse detail = new WalkDetailResponse(1L, "Englischer Garten", "Munich", 120, "Marvellous walk", "eg.png", "Maria", LocalDateTime.of(2025, 5, 1, 10, 0));
+
+            when(walkRepository.findActiveDetailById(1L)).thenReturn(Optional.of(new OwnedWalkDetail(1L, detail)));
 
             WalkDetailResponse result = walkService.getWalkDetailById(1L);
 
             assertNotNull(result);
             assertEquals("Englischer Garten", result.title());
+            assertSame(result, walkService.getWalkDetailById(1L));
 
-            verify(walkRepository, times(1)).findByIdAndIsActiveTrue(1L);
+            verify(walkRepository, times(1)).findActiveDetailById(1L);
         }
 
         @Test
         @DisplayName("GetWalkDetailById should throw entity not found exception when walk not found")
         void getWalkDetailById_shouldThrowException_whenNotFound() {
 
-            when(walkRepository.findByIdAndIsActiveTrue(1L)).thenReturn(Optional.empty());
+            when(walkRepository.findActiveDetailById(1L)).thenReturn(Optional.empty());
 
             EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> walkService.getWalkDetailById(1L));
 
             assertEquals("Walk not found or inactive", exception.getMessage());
+            assertThrows(EntityNotFoundException.class, () -> walkService.getWalkDetailById(1L));
 
-            verify(walkRepository, times(1)).findByIdAndIsActiveTrue(1L);
+            verify(walkRepository, times(1)).findActiveDetailById(1L);
         }
 
         @Test
         @DisplayName("GetWalkById should return walk when exist")
         void getWalkById_shouldReturnWalk_whenExist() {
 
-            when(walkRepository.findById(1L)).thenReturn(Optional.of(walk));
+            when(walkRepository.findWithUserById(1L)).thenReturn(Optional.of(walk));
 
             WalkResponse result = walkService.getWalkById(1L);
 
             assertNotNull(result);
             assertEquals("Englischer Garten", result.title());
 
-            verify(walkRepository, times(1)).findById(1L);
+            verify(walkRepository, times(1)).findWithUserById(1L);
+        }
+
+        @Test
+        @DisplayName("GetWalkById should reuse the walk already loaded by the access check")
+        void getWalkById_shouldReuseHandedOffWalk() {
+
+            when(walkRequestContext.take(1L)).thenReturn(Optional.of(walk));
+
+            WalkResponse result = walkService.getWalkById(1L);
+
+            assertEquals("Englischer Garten", result.title());
+
+            verifyNoInteractions(walkRepository);
         }
 
         @Test
         @DisplayName("GetWalkById should throw entity not found exception when walk not found")
         void getWalkById_shouldThrowException_whenNotFound() {
 
-            when(walkRepository.findById(1L)).thenReturn(Optional.empty());
+            when(walkRepository.findWithUserById(1L)).thenReturn(Optional.empty());
 
             EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> walkService.getWalkById(1L));
 
             assertEquals("Walk with id: 1 not found", exception.getMessage());
 
-            verify(walkRepository, times(1)).findById(1L);
+            verify(walkRepository, times(1)).findWithUserById(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Filtered Listing Tests")
+    class FilteredListingTests {
+
+        private final WalkFilter barcelonaShortWalks = new WalkFilter(null, 30, "Barcelona", null, LocalDateTime.of(2025, 5, 1, 0, 0), null, null);
+
+        @Test
+        @DisplayName("GetAllWalksSummary should run the filtered query when filters are given")
+        void getAllWalksSummary_shouldUseSpecification_whenFiltered() {
+            Pageable pageable = PageRequest.of(0, 10, Sort.by("createdAt"));
+            Page<WalkSummaryResponse> walkPage = new PageImpl<>(List.of(summary), pageable, 1);
+
+            when(walkRepository.findActiveSummaries(any(Specification.class), any(Pageable.class))).thenReturn(walkPage);
+
+            Page<WalkSummaryResponse> result = walkService.getAllWalksSummary(0, 10, "createdAt", "DESC", barcelonaShortWalks);
+
+            assertEquals(1, result.getTotalElements());
+            verify(walkRepository, never()).findActiveSummaries(any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("GetAllWalksSummary should reject a duration filter without an indexed predicate")
+        void getAllWalksSummary_shouldThrowException_whenOnlyDurationIsFiltered() {
+
+            WalkFilter filter = new WalkFilter(10, 30, null, null, null, null, null);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> walkService.getAllWalksSummary(0, 10, "createdAt", "ASC", filter));
+
+            assertEquals("Duration filters must be combined with a location, owner or creation date filter", exception.getMessage());
+            verifyNoInteractions(walkRepository);
+        }
+
+        @Test
+        @DisplayName("GetAllWalksSummary should reject filtered listings sorted by a non indexed field")
+        void getAllWalksSummary_shouldThrowException_whenFilteredSortIsNotCreatedAt() {
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> walkService.getAllWalksSummary(0, 10, "title", "ASC", barcelonaShortWalks));
+
+            assertEquals("Filtered listings can only be sorted by createdAt", exception.getMessage());
+            verifyNoInteractions(walkRepository);
+        }
+
+        @Test
+        @DisplayName("GetAllWalksSummary should reject a location prefix that is too short")
+        void getAllWalksSummary_shouldThrowException_whenPrefixIsTooShort() {
+
+            WalkFilter filter = new WalkFilter(null, null, null, "Ba", null, null, null);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> walkService.getAllWalksSummary(0, 10, "createdAt", "ASC", filter));
+
+            assertEquals("locationPrefix must contain at least 3 characters", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("GetAllWalksSummary should reject location and prefix together")
+        void getAllWalksSummary_shouldThrowException_whenLocationAndPrefixAreGiven() {
+
+            WalkFilter filter = new WalkFilter(null, null, "Barcelona", "Bar", null, null, null);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> walkService.getAllWalksSummary(0, 10, "createdAt", "ASC", filter));
+
+            assertEquals("Use either location or locationPrefix, not both", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("GetAllWalksSummary should reject an empty creation range")
+        void getAllWalksSummary_shouldThrowException_whenCreatedRangeIsEmpty() {
+
+            LocalDateTime date = LocalDateTime.of(2025, 5, 1, 0, 0);
+            WalkFilter filter = new WalkFilter(null, null, null, null, date, date, null);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> walkService.getAllWalksSummary(0, 10, "createdAt", "ASC", filter));
+
+            assertEquals("createdFrom must be before createdTo", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("GetAllWalksPaginated should scope the filter to the user, allowing duration and any sort")
+        void getAllWalksPaginated_shouldScopeFilterToOwner_whenUserIsNotAdmin() {
+            Pageable pageable = PageRequest.of(0, 10, Sort.by("title"));
+            Page<Walk> walkPage = new PageImpl<>(List.of(walk), pageable, 1);
+
+            when(walkRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(walkPage);
+
+            Page<WalkResponse> result = walkService.getAllWalksPaginated(1L, Role.USER, 0, 10, "title", "ASC", new WalkFilter(null, 30, null, null, null, null, null));
+
+            assertEquals(1, result.getTotalElements());
+            verify(walkRepository, never()).findByUserId(any(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("GetAllWalksPaginated should reject a user filtering by another owner")
+        void getAllWalksPaginated_shouldThrowException_whenUserFiltersAnotherOwner() {
+
+            WalkFilter filter = new WalkFilter(null, null, null, null, null, null, 2L);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> walkService.getAllWalksPaginated(1L, Role.USER, 0, 10, "createdAt", "ASC", filter));
+
+            assertEquals("Users can only filter their own walks", exception.getMessage());
+            verifyNoInteractions(walkRepository);
+        }
+
+        @Test
+        @DisplayName("GetWalksSummaryFeed should reject a cursor issued for other filters")
+        void getWalksSummaryFeed_shouldThrowException_whenCursorFiltersDiffer() {
+
+            String cursor = walkCursorCodec.encode(summary, "createdAt", Sort.Direction.ASC, barcelonaShortWalks.toKey());
+            WalkFilter otherFilter = new WalkFilter(null, 30, "Munich", null, null, null, null);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> walkService.getWalksSummaryFeed(cursor, 10, "createdAt", "ASC", otherFilter));
+
+            assertEquals("Invalid cursor", exception.getMessage());
+            verifyNoInteractions(walkRepository);
         }
     }
 
@@ -177,15 +485,46 @@ public class WalkServiceUnitTest {
         @DisplayName("AddWalk should save walk when request is valid")
         void addWalk_shouldSaveWalk_whenRequestValid() {
 
-            WalkRequest request = new WalkRequest("Englischer Garten","Munich", 120,"Marvellous walk","eg.png",true);
+            WalkRequest request = new WalkRequest("Englischer Garten","Munich", 120,"Marvellous walk","eg.png",true, 48.1642, 11.6056);
 
+            when(customUserRepository.getReferenceById(1L)).thenReturn(user);
             when(walkRepository.save(any(Walk.class))).thenReturn(walk);
 
-            WalkResponse result = walkService.addWalk(request, user);
+            WalkResponse result = walkService.addWalk(request, 1L);
 
             assertNotNull(result);
             assertEquals("Englischer Garten", request.title());
+            verify(customUserRepository, times(1)).getReferenceById(1L);
             verify(walkRepository, times(1)).save(any(Walk.class));
+            verify(eventPublisher).publishEvent(argThat((WalkChangedEvent event) -> event.walkId().equals(1L) && event.document().userId().equals(1L)));
+        }
+
+        @Test
+        @DisplayName("AddWalk should throw illegal argument exception when only one coordinate is given")
+        void addWalk_shouldThrowException_whenCoordinateMissing() {
+
+            WalkRequest request = new WalkRequest("Englischer Garten","Munich", 120,"Marvellous walk","eg.png",true, 48.1642, null);
+
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> walkService.addWalk(request, 1L));
+
+            assertEquals("Latitude and longitude must be provided together", exception.getMessage());
+            verifyNoInteractions(walkRepository);
+        }
+
+        @Test
+        @DisplayName("AddWalk should publish the geo point when the walk has coordinates")
+        void addWalk_shouldPublishGeoPoint_whenCoordinatesGiven() {
+
+            WalkRequest request = new WalkRequest("Englischer Garten","Munich", 120,"Marvellous walk","eg.png",true, 48.1642, 11.6056);
+            walk.setLatitude(48.1642);
+            walk.setLongitude(11.6056);
+
+            when(customUserRepository.getReferenceById(1L)).thenReturn(user);
+            when(walkRepository.save(any(Walk.class))).thenReturn(walk);
+
+            walkService.addWalk(request, 1L);
+
+            verify(eventPublisher).publishEvent(argThat((WalkChangedEvent event) -> event.point() != null && event.point().latitude() == 48.1642));
         }
     }
 
@@ -197,34 +536,118 @@ public class WalkServiceUnitTest {
         @DisplayName("UpdateWalk should update walk when walk exist")
         void updateWalk_shouldUpdateWalk_whenWalkExist() {
 
-            WalkRequest request = new WalkRequest("Updated walk","Munich", 120,"Marvellous walk","eg.png",true);
+            WalkRequest request = new WalkRequest("Updated walk","Munich", 120,"Marvellous walk","eg.png",true, null, null);
 
-            when(walkRepository.findById(1L)).thenReturn(Optional.of(walk));
-            when(walkRepository.save(any(Walk.class))).thenReturn(walk);
+            when(walkRepository.findWithUserById(1L)).thenReturn(Optional.of(walk));
+            when(walkRepository.saveAndFlush(any(Walk.class))).thenReturn(walk);
 
             WalkResponse result = walkService.updateWalk(1L, request);
 
             assertNotNull(result);
             assertEquals("Updated walk", result.title());
 
-            verify(walkRepository, times(1)).findById(1L);
-            verify(walkRepository, times(1)).save(any(Walk.class));
+            verify(walkRepository, times(1)).findWithUserById(1L);
+            verify(walkRepository, times(1)).saveAndFlush(any(Walk.class));
+            verify(eventPublisher).publishEvent(argThat((WalkChangedEvent event) -> "Updated walk".equals(event.document().title())));
+        }
+
+        @Test
+        @DisplayName("UpdateWalk should publish a removal when the walk is deactivated")
+        void updateWalk_shouldPublishRemoval_whenDeactivated() {
+
+            WalkRequest request = new WalkRequest(null, null, null, null, null, false, null, null);
+
+            when(walkRepository.findWithUserById(1L)).thenReturn(Optional.of(walk));
+            when(walkRepository.saveAndFlush(any(Walk.class))).thenReturn(walk);
+
+            walkService.updateWalk(1L, request);
+
+            verify(eventPublisher).publishEvent(new WalkChangedEvent(1L, 1L, true, null, null));
         }
 
         @Test
         @DisplayName("UpdateWalk should throw entity not found exception when walk not found")
         void updateWalk_shouldThrowException_whenNotFound() {
 
-            WalkRequest request = new WalkRequest("Updated walk","Munich", 120,"Marvellous walk","eg.png",true);
+            WalkRequest request = new WalkRequest("Updated walk","Munich", 120,"Marvellous walk","eg.png",true, null, null);
 
-            when(walkRepository.findById(1L)).thenReturn(Optional.empty());
+            when(walkRepository.findWithUserById(1L)).thenReturn(Optional.empty());
 
             EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> walkService.updateWalk(1L, request));
 
             assertEquals("Walk with id: 1 not found", exception.getMessage());
 
-            verify(walkRepository, times(1)).findById(1L);
-            verify(walkRepository, never()).save(any());
+            verify(walkRepository, times(1)).findWithUserById(1L);
+            verify(walkRepository, never()).saveAndFlush(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Patch Walk Tests")
+    class PatchWalkTests {
+
+        @Test
+        @DisplayName("PatchWalk should change only the supplied fields")
+        void patchWalk_shouldChangeOnlySuppliedFields() {
+
+            walk.setVersion(2L);
+            WalkPatchRequest request = new WalkPatchRequest(null, null, 45, null, null, null, null, null);
+
+            when(walkRepository.findWithUserById(1L)).thenReturn(Optional.of(walk));
+            when(walkRepository.saveAndFlush(walk)).thenReturn(walk);
+
+            WalkResponse result = walkService.patchWalk(1L, request, 2L);
+
+            assertEquals(45, result.duration());
+            assertEquals("Englischer Garten", result.title());
+            assertEquals("Marvellous walk", result.description());
+            assertEquals(2L, result.version());
+
+            verify(eventPublisher).publishEvent(argThat((WalkChangedEvent event) -> event.document().duration() == 45));
+        }
+
+        @Test
+        @DisplayName("PatchWalk should reuse the walk loaded by the access check")
+        void patchWalk_shouldReuseHandedOffWalk() {
+
+            when(walkRequestContext.take(1L)).thenReturn(Optional.of(walk));
+            when(walkRepository.saveAndFlush(walk)).thenReturn(walk);
+
+            walkService.patchWalk(1L, new WalkPatchRequest(null, null, null, null, null, false, null, null), null);
+
+            assertFalse(walk.getIsActive());
+
+            verify(walkRepository, never()).findWithUserById(any());
+            verify(eventPublisher).publishEvent(new WalkChangedEvent(1L, 1L, true, null, null));
+        }
+
+        @Test
+        @DisplayName("PatchWalk should throw precondition failed exception and not write when the version is stale")
+        void patchWalk_shouldThrowException_whenVersionIsStale() {
+
+            walk.setVersion(5L);
+
+            when(walkRepository.findWithUserById(1L)).thenReturn(Optional.of(walk));
+
+            PreconditionFailedException exception = assertThrows(PreconditionFailedException.class,
+                    () -> walkService.patchWalk(1L, new WalkPatchRequest("Isar", null, null, null, null, null, null, null), 4L));
+
+            assertEquals("\"5\"", exception.getCurrentEtag());
+            assertEquals("Englischer Garten", walk.getTitle());
+
+            verify(walkRepository, never()).saveAndFlush(any());
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("PatchWalk should throw exception when only one coordinate is supplied")
+        void patchWalk_shouldThrowException_whenCoordinateMissing() {
+
+            WalkPatchRequest request = new WalkPatchRequest(null, null, null, null, null, null, 48.15, null);
+
+            assertThrows(IllegalArgumentException.class, () -> walkService.patchWalk(1L, request, null));
+
+            verifyNoInteractions(walkRepository);
         }
     }
 
@@ -236,25 +659,26 @@ public class WalkServiceUnitTest {
         @DisplayName("DeleteWalk should delete walk when walk exist")
         void deleteWalk_shouldDeleteWalk_whenWalkExist() {
 
-            when(walkRepository.findById(1L)).thenReturn(Optional.of(walk));
+            when(walkRepository.findWithUserById(1L)).thenReturn(Optional.of(walk));
 
             walkService.deleteWalk(1L);
 
-            verify(walkRepository, times(1)).findById(1L);
+            verify(walkRepository, times(1)).findWithUserById(1L);
             verify(walkRepository, times(1)).delete(walk);
+            verify(eventPublisher).publishEvent(new WalkChangedEvent(1L, null, true, null, null));
         }
 
         @Test
         @DisplayName("DeleteWalk should throw entity not found exception when walk not found")
         void deleteWalk_shouldThrowException_whenNotFound() {
 
-            when(walkRepository.findById(1L)).thenReturn(Optional.empty());
+            when(walkRepository.findWithUserById(1L)).thenReturn(Optional.empty());
 
             EntityNotFoundException exception = assertThrows(EntityNotFoundException.class, () -> walkService.deleteWalk(1L));
 
             assertEquals("Walk with id: 1 not found", exception.getMessage());
 
-            verify(walkRepository, times(1)).findById(1L);
+            verify(walkRepository, times(1)).findWithUserById(1L);
         }
     }
 }
@@ -0,0 +1,211 @@
+package com.backend.dogwalks.walk.version;
+
+import com.backend.dogwalks.user.event.UserChangedEvent;
+import com.backend.dogwalks.user.event.UserChangedEvent.WalkImpact;
+import com.backend.dogwalks.walk.event.WalkChangedEvent;
+import com.backend.dogwalks.walk.owner.WalkOwnerIndex;
+import com.backend.dogwalks.utils.MutableClock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WalkVersionTracker Unit Tests")
+public class WalkVersionTrackerUnitTest {
+
+    private final MutableClock clock = new MutableClock(1_700_000_000_500L);
+    private WalkOwnerIndex walkOwnerIndex;
+
+    //paseos 1 a 4 de la usuaria 5 y paseo 9 del usuario 6
+    private WalkVersionTracker newTracker(int maxTrackedWalks) {
+
+        walkOwnerIndex = new WalkOwnerIndex(null, new SimpleMeterRegistry());
+
+        for (long walkId = 1; walkId <= 4; walkId++) {
+            walkOwnerIndex.put(walkId, 5L);
+        }
+        walkOwnerIndex.put(9L, 6L);
+
+        return new WalkVersionTracker(walkOwnerIndex, maxTrackedWalks, clock, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("versions should be stable while nothing changes and use second precision")
+    void versionsShouldBeStable_whileNothingChanges() {
+
+        WalkVersionTracker tracker = newTracker(10);
+
+        assertEquals(tracker.feedVersion(), tracker.feedVersion());
+        assertEquals(tracker.walkVersion(1L).orElseThrow(), tracker.walkVersion(1L).orElseThrow());
+        assertNotEquals(tracker.walkVersion(1L).orElseThrow().etag(), tracker.walkVersion(2L).orElseThrow().etag());
+        assertEquals(1_700_000_000_000L, tracker.feedVersion().lastModified());
+        assertTrue(tracker.feedVersion().etag().startsWith("\""));
+    }
+
+    @Test
+    @DisplayName("onWalkChanged should change the walk and feed versions but not other walks")
+    void onWalkChangedShouldBumpWalkAndFeed() {
+
+        WalkVersionTracker tracker = newTracker(10);
+        ResourceVersion feed = tracker.feedVersion();
+        ResourceVersion changed = tracker.walkVersion(1L).orElseThrow();
+        ResourceVersion untouched = tracker.walkVersion(2L).orElseThrow();
+
+        tracker.onWalkChanged(new WalkChangedEvent(1L, 7L, false, null, null));
+
+        assertNotEquals(feed.etag(), tracker.feedVersion().etag());
+        assertNotEquals(changed.etag(), tracker.walkVersion(1L).orElseThrow().etag());
+        assertEquals(untouched, tracker.walkVersion(2L).orElseThrow());
+        assertEquals(1, tracker.trackedWalks());
+    }
+
+    @Test
+    @DisplayName("Last-Modified should follow the clock and the ETag should tell apart changes within the same second")
+    void lastModifiedShouldFollowClock_whenChangesShareASecond() {
+
+        WalkVersionTracker tracker = newTracker(10);
+        long start = tracker.feedVersion().lastModified();
+
+        tracker.walkChanged(1L);
+        ResourceVersion first = tracker.walkVersion(1L).orElseThrow();
+        tracker.walkChanged(1L);
+
+        assertEquals(start, tracker.feedVersion().lastModified());
+        assertEquals(start, tracker.walkVersion(1L).orElseThrow().lastModified());
+        assertNotEquals(first.etag(), tracker.walkVersion(1L).orElseThrow().etag());
+
+        clock.advance(10_000);
+        tracker.walkChanged(1L);
+
+        assertEquals(1_700_000_010_000L, tracker.walkVersion(1L).orElseThrow().lastModified());
+    }
+
+    @Test
+    @DisplayName("Last-Modified should not move ahead of the clock under many changes per second")
+    void lastModifiedShouldNotRunAhead_whenManyChangesPerSecond() {
+
+        WalkVersionTracker tracker = newTracker(10);
+
+        for (int second = 0; second < 5; second++) {
+            for (int change = 0; change < 100; change++) {
+                tracker.walkChanged(1L);
+            }
+            clock.advance(1000);
+        }
+
+        assertTrue(tracker.feedVersion().lastModified() <= clock.millis());
+        assertEquals(1_700_000_004_000L, tracker.walkVersion(1L).orElseThrow().lastModified());
+    }
+
+    @Test
+    @DisplayName("walkVersion should be empty when the owner of the walk is unknown")
+    void walkVersionShouldBeEmpty_whenOwnerUnknown() {
+
+        WalkVersionTracker tracker = newTracker(10);
+        walkOwnerIndex.removeOwner(6L);
+
+        assertTrue(tracker.walkVersion(9L).isEmpty());
+        assertTrue(tracker.walkVersion(42L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("onUserChanged should ignore changes that walk responses do not show")
+    void onUserChangedShouldIgnore_whenWalksUnaffected() {
+
+        WalkVersionTracker tracker = newTracker(10);
+        ResourceVersion feed = tracker.feedVersion();
+        ResourceVersion walk = tracker.walkVersion(1L).orElseThrow();
+
+        tracker.onUserChanged(new UserChangedEvent(5L, "maria@test.com", false));
+        tracker.onUserChanged(new UserChangedEvent(5L, "maria@test.com", true));
+
+        assertEquals(feed, tracker.feedVersion());
+        assertEquals(walk, tracker.walkVersion(1L).orElseThrow());
+        assertEquals(0, tracker.trackedOwners());
+    }
+
+    @Test
+    @DisplayName("onUserChanged should change only the walks of a renamed owner and keep the feed")
+    void onUserChangedShouldBumpOwnerWalks_whenRenamed() {
+
+        WalkVersionTracker tracker = newTracker(10);
+        tracker.walkChanged(1L);
+        ResourceVersion feed = tracker.feedVersion();
+        ResourceVersion tracked = tracker.walkVersion(1L).orElseThrow();
+        ResourceVersion untracked = tracker.walkVersion(2L).orElseThrow();
+        ResourceVersion otherOwner = tracker.walkVersion(9L).orElseThrow();
+
+        tracker.onUserChanged(new UserChangedEvent(5L, "maria@test.com", false, WalkImpact.RENAMED));
+
+        assertNotEquals(tracked.etag(), tracker.walkVersion(1L).orElseThrow().etag());
+        assertNotEquals(untracked.etag(), tracker.walkVersion(2L).orElseThrow().etag());
+        assertEquals(otherOwner, tracker.walkVersion(9L).orElseThrow());
+        assertEquals(feed, tracker.feedVersion());
+        assertEquals(1, tracker.trackedOwners());
+    }
+
+    @Test
+    @DisplayName("onUserChanged should also change the feed when the owner walks stop being published")
+    void onUserChangedShouldBumpFeed_whenWalksHidden() {
+
+        WalkVersionTracker tracker = newTracker(10);
+        ResourceVersion feed = tracker.feedVersion();
+        ResourceVersion otherOwner = tracker.walkVersion(9L).orElseThrow();
+
+        tracker.onUserChanged(new UserChangedEvent(5L, "maria@test.com", true, WalkImpact.HIDDEN));
+
+        assertNotEquals(feed.etag(), tracker.feedVersion().etag());
+        assertEquals(otherOwner, tracker.walkVersion(9L).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("walkChanged after an owner change should win over the owner version")
+    void walkChangedShouldWin_whenNewerThanOwnerChange() {
+
+        WalkVersionTracker tracker = newTracker(10);
+        tracker.ownerChanged(5L, false);
+        ResourceVersion afterOwner = tracker.walkVersion(1L).orElseThrow();
+
+        tracker.walkChanged(1L);
+
+        assertNotEquals(afterOwner.etag(), tracker.walkVersion(1L).orElseThrow().etag());
+        assertEquals(afterOwner.lastModified(), tracker.walkVersion(1L).orElseThrow().lastModified());
+    }
+
+    @Test
+    @DisplayName("ownerChanged after a walk change in the same second should win over the walk version")
+    void ownerChangedShouldWin_whenNewerThanWalkChangeInSameSecond() {
+
+        WalkVersionTracker tracker = newTracker(10);
+        tracker.walkChanged(1L);
+        ResourceVersion afterWalk = tracker.walkVersion(1L).orElseThrow();
+
+        tracker.ownerChanged(5L, false);
+
+        assertNotEquals(afterWalk.etag(), tracker.walkVersion(1L).orElseThrow().etag());
+    }
+
+    @Test
+    @DisplayName("walkChanged should start a new generation instead of tracking more walks than allowed")
+    void walkChangedShouldStartNewGeneration_whenFull() {
+
+        WalkVersionTracker tracker = newTracker(2);
+        tracker.walkChanged(1L);
+        tracker.walkChanged(2L);
+        ResourceVersion first = tracker.walkVersion(1L).orElseThrow();
+        ResourceVersion untracked = tracker.walkVersion(4L).orElseThrow();
+
+        tracker.walkChanged(3L);
+
+        assertEquals(0, tracker.trackedWalks());
+        assertNotEquals(first.etag(), tracker.walkVersion(1L).orElseThrow().etag());
+        assertNotEquals(untracked.etag(), tracker.walkVersion(4L).orElseThrow().etag());
+    }
+
+    @Test
+    @DisplayName("constructor should reject a non positive limit")
+    void constructorShouldRejectNonPositiveLimit() {
+        assertThrows(IllegalArgumentException.class, () -> newTracker(0));
+    }
+}